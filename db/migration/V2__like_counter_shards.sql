@@ -0,0 +1,10 @@
+-- Unfolded like count deltas, only used with randomquotes.likes.counter-shards.enabled=true
+-- likes of a quote = quotes.likes + sum of its shards, a periodic job folds the shards into quotes.likes
+CREATE TABLE IF NOT EXISTS quote_like_counter_shards
+(
+    quote_id BIGINT NOT NULL,
+    shard SMALLINT NOT NULL,
+    likes INTEGER NOT NULL DEFAULT 0, -- a delta, can be negative
+    CONSTRAINT quote_like_counter_shards_pkey PRIMARY KEY (quote_id, shard),
+    CONSTRAINT fk_quote FOREIGN KEY(quote_id) REFERENCES quotes(id) ON DELETE CASCADE
+);
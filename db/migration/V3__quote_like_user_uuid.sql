@@ -0,0 +1,63 @@
+-- User ids are stored as native uuid (16 bytes) instead of VARCHAR(64) in quote_like.user_uuid.
+-- New ids are time ordered (UUID v7), s.t. inserts append to the (user_uuid, quote_id) index.
+-- Dual period: user_id stays filled for instances still running the previous version,
+-- V6 drops user_id, its indexes and the trigger once all instances read user_uuid.
+-- Runs outside a Flyway transaction (see the .conf file): the backfill commits each batch
+-- and the unique index is built concurrently, writes are never blocked for the length of the migration.
+ALTER TABLE quote_like ADD COLUMN IF NOT EXISTS user_uuid UUID;
+ALTER TABLE quote_like ALTER COLUMN user_id DROP NOT NULL;
+
+-- keeps both columns filled, whichever version inserted the row.
+-- Created before the backfill, s.t. rows inserted while it runs already get their user_uuid
+CREATE OR REPLACE FUNCTION quote_like_sync_user_ids() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.user_uuid IS NULL AND NEW.user_id ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$' THEN
+        NEW.user_uuid := CAST(NEW.user_id AS UUID);
+    ELSIF NEW.user_id IS NULL THEN
+        NEW.user_id := CAST(NEW.user_uuid AS VARCHAR(64));
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_quote_like_sync_user_ids ON quote_like;
+CREATE TRIGGER trg_quote_like_sync_user_ids
+    BEFORE INSERT ON quote_like
+    FOR EACH ROW EXECUTE FUNCTION quote_like_sync_user_ids();
+
+-- Backfills user_uuid 10000 rows per transaction, keyset pages on the primary key.
+-- Existing ids are random UUID (v4) strings, anything else can't come from an issued cookie and is left out
+DO $$
+DECLARE
+    last_id BIGINT := -1;
+    batch_last_id BIGINT;
+BEGIN
+    LOOP
+        SELECT max(id) INTO batch_last_id
+        FROM (SELECT id FROM quote_like WHERE id > last_id ORDER BY id LIMIT 10000) batch;
+
+        EXIT WHEN batch_last_id IS NULL;
+
+        UPDATE quote_like
+        SET user_uuid = CAST(user_id AS UUID)
+        WHERE id > last_id AND id <= batch_last_id
+          AND user_uuid IS NULL
+          AND user_id ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$';
+
+        last_id := batch_last_id;
+        COMMIT;
+    END LOOP;
+END
+$$;
+
+-- a failed concurrent build leaves an invalid index behind, which IF NOT EXISTS would keep on a re-run
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_index WHERE indexrelid = to_regclass('uk_user_uuid_quote') AND NOT indisvalid) THEN
+        DROP INDEX uk_user_uuid_quote;
+    END IF;
+END
+$$;
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_user_uuid_quote ON quote_like (user_uuid, quote_id);
+-- idx_quote_like_user_id stays: instances of the previous version still look likes up by user_id until V6
@@ -0,0 +1,68 @@
+-- quote_like is replaced online by a table hash partitioned on user_uuid:
+-- V4 creates it and mirrors every like and unlike of quote_like into it,
+-- V5 copies the existing rows in batches, V6 swaps the tables.
+-- Each migration commits on its own, s.t. quote_like keeps taking writes while its rows are copied.
+-- V6 is held back by the Flyway target and run in a later release, once the copy is verified (see README).
+--
+-- The number of partitions is the Flyway placeholder quote_like_partitions (env FLYWAY_PLACEHOLDERS_QUOTE_LIKE_PARTITIONS).
+-- Changing it later takes another copy, so size it for the expected number of likes (e.g. 16 to 64).
+CREATE SEQUENCE IF NOT EXISTS quote_like_partitioned_id_seq;
+
+-- the unique key has to contain the partition key, (user_uuid, quote_id) becomes the primary key
+CREATE TABLE IF NOT EXISTS quote_like_partitioned
+(
+    id BIGINT NOT NULL DEFAULT nextval('quote_like_partitioned_id_seq'),
+    user_uuid UUID NOT NULL,
+    quote_id BIGINT NOT NULL,
+    liked_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_quote FOREIGN KEY(quote_id) REFERENCES quotes(id) ON DELETE CASCADE,
+    CONSTRAINT quote_like_pkey PRIMARY KEY (user_uuid, quote_id)
+) PARTITION BY HASH (user_uuid);
+
+DO $$
+BEGIN
+    FOR remainder IN 0..${quote_like_partitions} - 1 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS quote_like_p%s PARTITION OF quote_like_partitioned FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       remainder, ${quote_like_partitions}, remainder);
+    END LOOP;
+END
+$$;
+
+-- created on every partition, serves the user likes cache warm up (likes since), the only query without a user
+CREATE INDEX IF NOT EXISTS idx_quote_like_liked_at ON quote_like_partitioned (liked_at);
+
+-- unlikes made while V5 copies, V6 removes them again in case the copy read the row before it was deleted
+CREATE TABLE IF NOT EXISTS quote_like_partitioned_unliked
+(
+    user_uuid UUID NOT NULL,
+    quote_id BIGINT NOT NULL,
+    CONSTRAINT quote_like_partitioned_unliked_pkey PRIMARY KEY (user_uuid, quote_id)
+);
+
+-- quote_like rows are only inserted and deleted, rows without user_uuid (V3) are left out
+CREATE OR REPLACE FUNCTION quote_like_mirror_to_partitioned() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        IF NEW.user_uuid IS NOT NULL THEN
+            INSERT INTO quote_like_partitioned (id, user_uuid, quote_id, liked_at)
+            VALUES (NEW.id, NEW.user_uuid, NEW.quote_id, NEW.liked_at)
+            ON CONFLICT (user_uuid, quote_id) DO NOTHING;
+            DELETE FROM quote_like_partitioned_unliked WHERE user_uuid = NEW.user_uuid AND quote_id = NEW.quote_id;
+        END IF;
+        RETURN NEW;
+    END IF;
+
+    IF OLD.user_uuid IS NOT NULL THEN
+        DELETE FROM quote_like_partitioned WHERE user_uuid = OLD.user_uuid AND quote_id = OLD.quote_id;
+        INSERT INTO quote_like_partitioned_unliked (user_uuid, quote_id)
+        VALUES (OLD.user_uuid, OLD.quote_id)
+        ON CONFLICT DO NOTHING;
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_quote_like_mirror_to_partitioned ON quote_like;
+CREATE TRIGGER trg_quote_like_mirror_to_partitioned
+    AFTER INSERT OR DELETE ON quote_like
+    FOR EACH ROW EXECUTE FUNCTION quote_like_mirror_to_partitioned();
@@ -0,0 +1,31 @@
+-- Copies quote_like into quote_like_partitioned (V4), 10000 rows per transaction,
+-- s.t. no long running transaction holds back vacuum or the mirrored writes.
+-- Runs outside a Flyway transaction (see the .conf file), the DO block commits each batch.
+-- Keyset pages on the unique (user_uuid, quote_id) index, rows without user_uuid are skipped.
+DO $$
+DECLARE
+    last_user_uuid UUID := '00000000-0000-0000-0000-000000000000';
+    last_quote_id BIGINT := -1;
+BEGIN
+    LOOP
+        WITH batch AS (
+            SELECT id, user_uuid, quote_id, liked_at
+            FROM quote_like
+            WHERE (user_uuid, quote_id) > (last_user_uuid, last_quote_id)
+            ORDER BY user_uuid, quote_id
+            LIMIT 10000
+        ), copied AS (
+            INSERT INTO quote_like_partitioned (id, user_uuid, quote_id, liked_at)
+            SELECT id, user_uuid, quote_id, liked_at FROM batch
+            ON CONFLICT (user_uuid, quote_id) DO NOTHING
+        )
+        SELECT user_uuid, quote_id INTO last_user_uuid, last_quote_id
+        FROM batch
+        ORDER BY user_uuid DESC, quote_id DESC
+        LIMIT 1;
+
+        EXIT WHEN NOT FOUND;
+        COMMIT;
+    END LOOP;
+END
+$$;
@@ -0,0 +1,37 @@
+-- Swaps quote_like for the partitioned copy of V4/V5, writes wait on the lock for the length of this migration only.
+-- Runs in a later release than V4/V5 (Flyway target), after the copy was verified, see README.
+-- Ends the dual period of V3: user_id, its indexes (uk_user_quote, idx_quote_like_user_id) and its trigger go with the old table,
+-- no instance of the version before V3 (writing user_id only) may still be running.
+LOCK TABLE quote_like IN ACCESS EXCLUSIVE MODE;
+
+-- likes the copy read before they were unliked
+DELETE FROM quote_like_partitioned p
+USING quote_like_partitioned_unliked u
+WHERE p.user_uuid = u.user_uuid AND p.quote_id = u.quote_id;
+
+-- the copy has to have caught up, otherwise nothing is swapped and the migration fails
+DO $$
+DECLARE
+    source_rows BIGINT;
+    copied_rows BIGINT;
+BEGIN
+    SELECT count(*) INTO source_rows FROM quote_like WHERE user_uuid IS NOT NULL;
+    SELECT count(*) INTO copied_rows FROM quote_like_partitioned;
+    IF source_rows <> copied_rows THEN
+        RAISE EXCEPTION 'quote_like_partitioned has % rows, quote_like % with user_uuid: run the V5 copy again before the swap',
+            copied_rows, source_rows;
+    END IF;
+END
+$$;
+
+-- mirrored and copied rows kept their ids, continue after the last id of quote_like
+SELECT setval('quote_like_partitioned_id_seq', nextval(pg_get_serial_sequence('quote_like', 'id')));
+
+DROP TABLE quote_like;
+DROP TABLE quote_like_partitioned_unliked;
+DROP FUNCTION IF EXISTS quote_like_mirror_to_partitioned();
+DROP FUNCTION IF EXISTS quote_like_sync_user_ids();
+
+ALTER TABLE quote_like_partitioned RENAME TO quote_like;
+ALTER SEQUENCE quote_like_partitioned_id_seq RENAME TO quote_like_id_seq;
+ALTER SEQUENCE quote_like_id_seq OWNED BY quote_like.id;
@@ -2,12 +2,21 @@ package com.amxcoding.randomquotes.api.controllers;
 
 
 import com.amxcoding.randomquotes.api.interfaces.IAnonymousUserService;
+import com.amxcoding.randomquotes.api.interfaces.IClientAddressResolver;
 import com.amxcoding.randomquotes.api.interfaces.IQuoteBroadCaster;
 import com.amxcoding.randomquotes.api.mappers.QuoteMapper;
+import com.amxcoding.randomquotes.api.mappers.QuotePayloadEncoder;
+import com.amxcoding.randomquotes.api.models.quote.QuoteLikeStatusRequest;
+import com.amxcoding.randomquotes.api.models.quote.QuoteLikeStatusResponse;
 import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeThrottle;
 import com.amxcoding.randomquotes.application.interfaces.services.IQuoteLikeService;
 import com.amxcoding.randomquotes.application.interfaces.services.IQuoteService;
+import com.amxcoding.randomquotes.application.models.QuoteLikeResult;
 import com.amxcoding.randomquotes.domain.entities.Quote;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -15,65 +24,99 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("api/v1/quotes")
 public class QuoteController {
 
+    private static final String WEIGHTED_BY_LIKES = "likes";
+    private static final int MAX_LIKE_STATUS_IDS = 100;
+
     private final IQuoteService quoteService;
     private final IQuoteLikeService quoteLikeService;
     private final QuoteMapper quoteMapper;
     private final IAnonymousUserService anonymousUserService;
     private final IQuoteBroadCaster quoteBroadCaster;
+    private final QuotePayloadEncoder quotePayloadEncoder;
+    private final ILikeThrottle likeThrottle;
+    private final IClientAddressResolver clientAddressResolver;
 
     public QuoteController(IQuoteService quoteService,
                            IQuoteLikeService quoteLikeService,
                            QuoteMapper quoteMapper,
                            IAnonymousUserService anonymousUserService,
-                           IQuoteBroadCaster quoteBroadCaster) {
+                           IQuoteBroadCaster quoteBroadCaster,
+                           QuotePayloadEncoder quotePayloadEncoder,
+                           ILikeThrottle likeThrottle,
+                           IClientAddressResolver clientAddressResolver) {
         this.quoteService = quoteService;
         this.quoteLikeService = quoteLikeService;
         this.quoteMapper = quoteMapper;
         this.anonymousUserService = anonymousUserService;
         this.quoteBroadCaster = quoteBroadCaster;
+        this.quotePayloadEncoder = quotePayloadEncoder;
+        this.likeThrottle = likeThrottle;
+        this.clientAddressResolver = clientAddressResolver;
     }
 
     /**
      * Returns a random quote and whether the current user has liked it based on a tracking cookie.
+     * With weighted=likes, quotes are picked in proportion to their likes.
+     * Otherwise users get quotes in a non-repeating rotation, if enabled, see IQuoteRotations.
+     * The body is spliced from pre-encoded fragments, see QuotePayloadEncoder, it has the shape of a QuoteResponse.
      */
     @GetMapping(path = "/random", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
-    public Mono<ResponseEntity<QuoteResponse>> getRandomQuote(ServerHttpRequest request, ServerHttpResponse response) {
-        String userId = anonymousUserService.getOrCreateAnonymousUserId(request, response);
+    public Mono<ResponseEntity<DataBuffer>> getRandomQuote(@RequestParam(name = "weighted", required = false) String weighted,
+                                                           ServerHttpRequest request,
+                                                           ServerHttpResponse response) {
+        if (weighted != null && !WEIGHTED_BY_LIKES.equals(weighted)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
 
-        return fetchQuoteAndSetUserLike(quoteService.getRandomQuote(), userId)
-                .map(ResponseEntity::ok)
+        String userId = anonymousUserService.getOrCreateAnonymousUserId(request, response);
+        MediaType mediaType = quotePayloadEncoder.selectMediaType(request.getHeaders().getAccept());
+        Mono<Optional<Quote>> randomQuote = weighted == null
+                ? quoteService.getRandomQuote(userId)
+                : quoteService.getWeightedRandomQuote();
+
+        return randomQuote
+                .flatMap(Mono::justOrEmpty)
+                .flatMap(quote -> quoteLikeService.checkUserLike(userId, quote.getId())
+                        .map(isLiked -> ResponseEntity.ok()
+                                .contentType(mediaType)
+                                .body(quotePayloadEncoder.encode(quote, isLiked, mediaType, response.bufferFactory()))))
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
 
     /**
      * Likes the specified quote for the current anonymous user and returns the updated quote.
-     * Also broadcast the liked quote
+     * Also broadcast the liked quote, if the like is new, see broadcastIfChanged
+     * Returns 429 if the user or the client address likes/unlikes too often, see ILikeThrottle and IClientAddressResolver.
      */
     @PostMapping(path = "/{id}/like", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
     public Mono<ResponseEntity<QuoteResponse>> likeQuoteByHash(@PathVariable("id") Long id,
                                                                ServerHttpRequest request,
                                                                ServerHttpResponse response) {
         String userId = anonymousUserService.getOrCreateAnonymousUserId(request, response);
+        if (!likeThrottle.tryAcquire(userId, clientAddressResolver.resolveClientAddress(request))) {
+            return Mono.just(tooManyRequests());
+        }
 
         return quoteLikeService.likeQuote(userId, id)
-                .then(Mono.defer(() -> fetchQuoteAndSetUserLike(quoteService.getQuoteById(id), userId)
-                                .flatMap(quoteResponse ->
-                                        quoteBroadCaster.emit(quoteResponse).thenReturn(quoteResponse)))
-                        .map(ResponseEntity::ok)
-                        .defaultIfEmpty(ResponseEntity.notFound().build()));
-
+                .flatMap(Mono::justOrEmpty)
+                .flatMap(this::broadcastIfChanged)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     /**
      * Unlikes the specified quote for the current anonymous user and returns the updated quote.
-     * The entry (userId, quoteId) is deleted
+     * The entry (userId, quoteId) is deleted, a removed like is broadcast with the decremented count
+     * Returns 429 if the user or the client address likes/unlikes too often, see ILikeThrottle and IClientAddressResolver.
      */
     @DeleteMapping(path = "/{id}/like", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
     public Mono<ResponseEntity<QuoteResponse>> unlikeQuoteByHash(@PathVariable("id") Long id,
@@ -81,36 +124,63 @@ public class QuoteController {
                                                                  ServerHttpResponse response) {
 
         String userId = anonymousUserService.getOrCreateAnonymousUserId(request, response);
+        if (!likeThrottle.tryAcquire(userId, clientAddressResolver.resolveClientAddress(request))) {
+            return Mono.just(tooManyRequests());
+        }
 
         return quoteLikeService.unlikeQuote(userId, id)
-                .then(Mono.defer(() ->
-                        fetchQuoteAndSetUserLike(quoteService.getQuoteById(id), userId)
-                ))
+                .flatMap(Mono::justOrEmpty)
+                .flatMap(this::broadcastIfChanged)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     /**
-     * Converts the given quote to a response object and attaches the user's like status.
+     * Returns the like counts of the given quotes and whether the current user likes them, resolved with one query.
+     * Unknown ids are left out, at most 100 ids per request.
+     */
+    @PostMapping(path = "/likes/status", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<QuoteLikeStatusResponse>>> getLikeStatuses(@RequestBody QuoteLikeStatusRequest statusRequest,
+                                                                               ServerHttpRequest request,
+                                                                               ServerHttpResponse response) {
+        List<Long> ids = statusRequest.getIds();
+        if (ids == null || ids.size() > MAX_LIKE_STATUS_IDS || ids.stream().anyMatch(Objects::isNull)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        String userId = anonymousUserService.getOrCreateAnonymousUserId(request, response);
+
+        return quoteLikeService.getLikeStatuses(userId, ids)
+                .map(statuses -> statuses.stream()
+                        .map(quoteMapper::toQuoteLikeStatusResponse)
+                        .toList())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Converts the result of a like or unlike to a response object, it carries the user's like status.
+     */
+    private QuoteResponse toQuoteResponse(QuoteLikeResult likeResult) {
+        QuoteResponse quoteResponse = quoteMapper.toQuoteResponse(likeResult.quote());
+        quoteResponse.setIsLiked(likeResult.liked());
+        return quoteResponse;
+    }
+
+    /**
+     * Broadcasts the quote if the like or unlike changed its count, the stream and the other nodes see the direction in isLiked.
+     * Repeated likes and unlikes of the same user change nothing and aren't broadcast.
      */
-    private Mono<QuoteResponse> fetchQuoteAndSetUserLike(Mono<Optional<Quote>> monoOptionalQuote, String userId) {
-        return monoOptionalQuote
-                .flatMap(optionalQuote -> {
-                    if (optionalQuote.isPresent()) {
-                        Quote quote = optionalQuote.get();
-
-                        return quoteLikeService.checkUserLike(userId, quote.getId())
-                                .map(isLiked -> {
-                                    QuoteResponse quoteResponse = quoteMapper.toQuoteResponse(quote);
-                                    quoteResponse.setIsLiked(isLiked);
-                                    return quoteResponse;
-                                });
-
-                    } else {
-                        // If quoteService returned an empty Optional
-                        return Mono.empty();
-                    }
-                });
+    private Mono<QuoteResponse> broadcastIfChanged(QuoteLikeResult likeResult) {
+        QuoteResponse quoteResponse = toQuoteResponse(likeResult);
+        return likeResult.changed()
+                ? quoteBroadCaster.emit(quoteResponse).thenReturn(quoteResponse)
+                : Mono.just(quoteResponse);
+    }
+
+    private <T> ResponseEntity<T> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(likeThrottle.retryAfter().toSeconds()))
+                .build();
     }
 
 
@@ -1,25 +1,67 @@
 package com.amxcoding.randomquotes.api.controllers;
 
 import com.amxcoding.randomquotes.api.interfaces.IQuoteBroadCaster;
-import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.api.models.quote.QuoteStreamFilter;
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteStreamCapacityException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("sse/v1/quotes")
 public class QuoteStreamController {
 
+    private static final int MAX_FILTER_IDS = 100;
+
     private final IQuoteBroadCaster quoteBroadCaster;
 
     public QuoteStreamController(IQuoteBroadCaster quoteBroadCaster) {
         this.quoteBroadCaster = quoteBroadCaster;
     }
 
+    /**
+     * Streams liked quotes as server-sent events with QuoteResponse data.
+     * The events are encoded once by the broadcaster and written as is, flushed one by one.
+     * A reconnecting client sends the id of the last event it got (Last-Event-ID) and continues after it,
+     * or gets a "resync" event if it missed too much.
+     * With ids and/or author only the liked quotes with one of the ids or by the author (ignoring case) are sent,
+     * at most 100 ids per subscription.
+     * Returns 503 with a Retry-After (and the same as SSE retry time) if the node serves its maximum of subscribers.
+     */
     @GetMapping(value = "/likes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<QuoteResponse> streamLikedQuotes() {
-        return quoteBroadCaster.getFlux();
+    public Mono<Void> streamLikedQuotes(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                        @RequestParam(value = "ids", required = false) List<Long> ids,
+                                        @RequestParam(value = "author", required = false) String author,
+                                        ServerHttpResponse response) {
+        if (ids != null && (ids.size() > MAX_FILTER_IDS || ids.stream().anyMatch(Objects::isNull))) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return response.setComplete();
+        }
+
+        response.getHeaders().setContentType(MediaType.TEXT_EVENT_STREAM);
+        QuoteStreamFilter filter = QuoteStreamFilter.of(ids, author);
+        return response.writeAndFlushWith(quoteBroadCaster.getFlux(lastEventId, filter).map(Mono::just))
+                // fails on subscription, before anything is written
+                .onErrorResume(QuoteStreamCapacityException.class, e -> serviceUnavailable(response, e.getRetryAfter()));
+    }
+
+    private Mono<Void> serviceUnavailable(ServerHttpResponse response, Duration retryAfter) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        // whole seconds, rounded up
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+        byte[] retry = ("retry:" + retryAfter.toMillis() + "\n\n").getBytes(StandardCharsets.US_ASCII);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(retry)));
     }
 }
@@ -7,6 +7,7 @@ import com.amxcoding.randomquotes.application.exceptions.repositories.QuoteLikeP
 import com.amxcoding.randomquotes.application.exceptions.repositories.QuotePersistenceException;
 import com.amxcoding.randomquotes.application.exceptions.services.QuoteCacheException;
 import com.amxcoding.randomquotes.application.exceptions.services.QuoteFetchOrchestratorException;
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteStreamCapacityException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -97,6 +98,7 @@ public class GlobalWebFluxExceptionHandler implements ErrorWebExceptionHandler {
             case QuoteLikePersistenceException exPersistence -> "We encountered an issue while updating your likes. Please try again later.";
             case QuoteFetchOrchestratorException exOrchestrator -> "The quote service is currently not available. Please try again later";
             case QuoteCacheException exCache -> "The quote service is currently not available. Please try again later";
+            case QuoteStreamCapacityException exCapacity -> "The live quote stream is currently full. Please try again later";
             default -> DEFAULT_ERROR_MESSAGE;
         };
     }
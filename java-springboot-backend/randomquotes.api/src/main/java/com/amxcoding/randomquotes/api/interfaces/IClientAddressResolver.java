@@ -0,0 +1,7 @@
+package com.amxcoding.randomquotes.api.interfaces;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+public interface IClientAddressResolver {
+    String resolveClientAddress(ServerHttpRequest request);
+}
@@ -1,10 +1,24 @@
 package com.amxcoding.randomquotes.api.interfaces;
 
 import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.api.models.quote.QuoteStreamFilter;
+import org.springframework.core.io.buffer.DataBuffer;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface IQuoteBroadCaster {
     Mono<Void> emit(QuoteResponse quoteResponse);
-    Flux<QuoteResponse> getFlux();
+
+    /**
+     * The liked quotes as encoded server-sent events, one buffer per event.
+     * The subscriber owns the buffers and has to write or release them.
+     */
+    Flux<DataBuffer> getFlux();
+
+    /**
+     * Like getFlux(), resumed after the event with the given id (the Last-Event-ID of a reconnecting client)
+     * and only with the liked quotes matching the filter.
+     * Starts with a resync event if the events after it are no longer known.
+     */
+    Flux<DataBuffer> getFlux(String lastEventId, QuoteStreamFilter filter);
 }
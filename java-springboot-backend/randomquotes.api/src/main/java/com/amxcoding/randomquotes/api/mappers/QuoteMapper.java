@@ -1,6 +1,8 @@
 package com.amxcoding.randomquotes.api.mappers;
 
+import com.amxcoding.randomquotes.application.models.QuoteLikeStatus;
 import com.amxcoding.randomquotes.domain.entities.Quote;
+import com.amxcoding.randomquotes.api.models.quote.QuoteLikeStatusResponse;
 import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -13,4 +15,8 @@ public abstract class QuoteMapper {
 
     public abstract Quote toQuote(QuoteResponse quoteResponse);
 
+    @Mapping(target = "id", source = "quoteId")
+    @Mapping(target = "isLiked", source = "liked")
+    public abstract QuoteLikeStatusResponse toQuoteLikeStatusResponse(QuoteLikeStatus quoteLikeStatus);
+
 }
@@ -0,0 +1,127 @@
+package com.amxcoding.randomquotes.api.mappers;
+
+import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes quote responses from pre-encoded payload fragments.
+ * isLiked is the last property of a QuoteResponse and the only one that differs per user,
+ * so a payload is (prefix up to the isLiked value) + true/false + (fixed suffix).
+ * The prefix is encoded once per quote version (id, likes) and media type with the same Jackson
+ * setup WebFlux uses, the bytes are identical to encoding the QuoteResponse on every request.
+ */
+@Component
+public class QuotePayloadEncoder {
+
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.UTF_8);
+
+    private final QuoteMapper quoteMapper;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper xmlMapper;
+    // a new like count is a new key, old versions age out
+    private final Cache<PayloadKey, byte[]> prefixes;
+
+
+    public QuotePayloadEncoder(QuoteMapper quoteMapper,
+                               ObjectMapper objectMapper,
+                               @Value("${randomquotes.cache.encoded-quotes.maximum-size:5000}") long maximumSize) {
+        this.quoteMapper = quoteMapper;
+        this.jsonMapper = objectMapper;
+        // the default WebFlux xml encoder uses this mapper, not the application's ObjectMapper
+        this.xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+        this.prefixes = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Picks the media type to respond with: the first accepted of json and xml, json if anything goes.
+     */
+    public MediaType selectMediaType(List<MediaType> acceptedMediaTypes) {
+        List<MediaType> accepted = new ArrayList<>(acceptedMediaTypes);
+        MimeTypeUtils.sortBySpecificity(accepted);
+
+        for (MediaType mediaType : accepted) {
+            for (PayloadFormat format : PayloadFormat.values()) {
+                if (mediaType.getQualityValue() > 0 && mediaType.isCompatibleWith(format.mediaType)) {
+                    return format.mediaType;
+                }
+            }
+        }
+
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Writes the response payload of the quote in the given media type (json or xml).
+     */
+    public DataBuffer encode(Quote quote, boolean isLiked, MediaType mediaType, DataBufferFactory bufferFactory) {
+        PayloadFormat format = PayloadFormat.of(mediaType);
+        byte[] prefix = prefixes.get(new PayloadKey(quote.getId(), quote.getLikes(), format), key -> encodePrefix(quote, format));
+        byte[] liked = isLiked ? TRUE : FALSE;
+
+        DataBuffer buffer = bufferFactory.allocateBuffer(prefix.length + liked.length + format.suffix.length);
+        return buffer.write(prefix).write(liked).write(format.suffix);
+    }
+
+    /**
+     * Encodes the quote with isLiked false and cuts off everything from the isLiked value onwards.
+     */
+    private byte[] encodePrefix(Quote quote, PayloadFormat format) {
+        QuoteResponse quoteResponse = quoteMapper.toQuoteResponse(quote);
+        quoteResponse.setIsLiked(false);
+
+        byte[] payload;
+        try {
+            payload = (format == PayloadFormat.XML ? xmlMapper : jsonMapper).writeValueAsBytes(quoteResponse);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode quote " + quote.getId(), e);
+        }
+
+        int prefixLength = payload.length - FALSE.length - format.suffix.length;
+        if (prefixLength < 0
+                || !Arrays.equals(payload, prefixLength, prefixLength + FALSE.length, FALSE, 0, FALSE.length)
+                || !Arrays.equals(payload, prefixLength + FALSE.length, payload.length, format.suffix, 0, format.suffix.length)) {
+            throw new IllegalStateException("isLiked is expected to be the last property of a " + format + " quote response");
+        }
+
+        return Arrays.copyOf(payload, prefixLength);
+    }
+
+    private enum PayloadFormat {
+        JSON(MediaType.APPLICATION_JSON, "}"),
+        XML(MediaType.APPLICATION_XML, "</isLiked></quote>");
+
+        private final MediaType mediaType;
+        private final byte[] suffix;
+
+        PayloadFormat(MediaType mediaType, String suffix) {
+            this.mediaType = mediaType;
+            this.suffix = suffix.getBytes(StandardCharsets.UTF_8);
+        }
+
+        static PayloadFormat of(MediaType mediaType) {
+            return XML.mediaType.isCompatibleWith(mediaType) ? XML : JSON;
+        }
+    }
+
+    private record PayloadKey(long quoteId, int likes, PayloadFormat format) {
+    }
+}
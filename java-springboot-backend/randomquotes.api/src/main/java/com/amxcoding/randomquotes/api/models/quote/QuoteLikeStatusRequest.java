@@ -0,0 +1,17 @@
+package com.amxcoding.randomquotes.api.models.quote;
+
+import java.util.List;
+
+public class QuoteLikeStatusRequest {
+    private List<Long> ids;
+
+    public QuoteLikeStatusRequest() {
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
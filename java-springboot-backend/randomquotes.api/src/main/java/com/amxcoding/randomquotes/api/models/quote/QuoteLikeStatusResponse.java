@@ -0,0 +1,47 @@
+package com.amxcoding.randomquotes.api.models.quote;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class QuoteLikeStatusResponse {
+    private long id;
+    private int likes;
+    private boolean isLiked;
+
+    public QuoteLikeStatusResponse() {
+    }
+
+    public long getId() {
+        return id;
+    }
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getLikes() {
+        return likes;
+    }
+    public void setLikes(int likes) {
+        this.likes = likes;
+    }
+
+    @JsonProperty("isLiked")
+    public boolean isLiked() {
+        return isLiked;
+    }
+
+    @JsonProperty("isLiked")
+    public void setIsLiked(boolean isLiked) {
+        this.isLiked = isLiked;
+    }
+
+    @Override
+    public String toString() {
+        return "QuoteLikeStatusResponse{" +
+                "id=" + id +
+                ", likes=" + likes +
+                ", isLiked=" + isLiked +
+                '}';
+    }
+}
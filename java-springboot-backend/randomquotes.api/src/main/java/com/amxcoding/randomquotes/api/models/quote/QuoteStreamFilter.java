@@ -0,0 +1,43 @@
+package com.amxcoding.randomquotes.api.models.quote;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The liked quotes a stream subscriber wants: the given quote ids or the quotes of the given author.
+ * Without ids and author the subscriber gets every liked quote.
+ */
+public record QuoteStreamFilter(Set<Long> quoteIds, String author) {
+
+    public static final QuoteStreamFilter NONE = new QuoteStreamFilter(Set.of(), null);
+
+    public static QuoteStreamFilter of(List<Long> quoteIds, String author) {
+        Set<Long> ids = quoteIds == null ? Set.of() : Set.copyOf(quoteIds);
+        String normalizedAuthor = normalizeAuthor(author);
+        return ids.isEmpty() && normalizedAuthor == null ? NONE : new QuoteStreamFilter(ids, normalizedAuthor);
+    }
+
+    /**
+     * Authors are matched ignoring case and surrounding whitespace, null if blank.
+     */
+    public static String normalizeAuthor(String author) {
+        if (author == null || author.isBlank()) {
+            return null;
+        }
+        return author.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isEmpty() {
+        return quoteIds.isEmpty() && author == null;
+    }
+
+    /**
+     * @param normalizedAuthor the author of the quote, see normalizeAuthor
+     */
+    public boolean matches(long quoteId, String normalizedAuthor) {
+        return isEmpty()
+                || quoteIds.contains(quoteId)
+                || (author != null && author.equals(normalizedAuthor));
+    }
+}
@@ -1,6 +1,7 @@
 package com.amxcoding.randomquotes.api.services;
 
 import com.amxcoding.randomquotes.api.interfaces.IAnonymousUserService;
+import com.amxcoding.randomquotes.application.common.UuidV7;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpCookie;
 import org.springframework.http.HttpHeaders;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -27,23 +29,20 @@ public class AnonymousUserService implements IAnonymousUserService {
     /**
      * Retrieves the anonymous user ID from the cookies if it exists; otherwise, creates a new user ID,
      * stores it in a cookie, and returns the new ID. Ensures the user is consistently tracked across sessions.
+     * New IDs are time ordered UUIDs (v7), cookies with the former random UUIDs (v4) stay valid.
+     * The ID is returned in canonical (lower case) form, a cookie that isn't a UUID is replaced.
      */
     @Override
     public String getOrCreateAnonymousUserId(ServerHttpRequest request, ServerHttpResponse response) {
-        String userId = null;
-        if (request.getCookies().containsKey(USER_ID_COOKIE_NAME)) {
-            HttpCookie cookie =  request.getCookies().getFirst(USER_ID_COOKIE_NAME);
-
-            if (cookie != null) {
-                userId = cookie.getValue();
+        HttpCookie cookie = request.getCookies().getFirst(USER_ID_COOKIE_NAME);
+        if (cookie != null) {
+            Optional<UUID> userId = parseUserId(cookie.getValue());
+            if (userId.isPresent()) {
+                return userId.get().toString();
             }
         }
 
-        if (userId != null) {
-            return userId;
-        }
-
-        String newUserId = UUID.randomUUID().toString();
+        String newUserId = UuidV7.randomUuid().toString();
         ResponseCookie newCookie = ResponseCookie.from(USER_ID_COOKIE_NAME, newUserId)
                 .httpOnly(true)
                 .path("/")
@@ -55,4 +54,17 @@ public class AnonymousUserService implements IAnonymousUserService {
 
         return newUserId;
     }
+
+    private static Optional<UUID> parseUserId(String value) {
+        // UUID.fromString accepts shortened groups, only take the 36 char form
+        if (value == null || value.length() != 36) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(UUID.fromString(value));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,145 @@
+package com.amxcoding.randomquotes.api.services;
+
+import com.amxcoding.randomquotes.api.interfaces.IClientAddressResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the address of the client behind the reverse proxies (nginx).
+ * X-Forwarded-For is only read if the connection comes from a trusted proxy, and walked from the right:
+ * every trusted proxy appends the address it got the request from, the first untrusted one is the client.
+ * Entries left of it are whatever the client sent and are ignored, s.t. a client can't pick its own address.
+ */
+@Service
+public class ClientAddressResolver implements IClientAddressResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientAddressResolver.class);
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    // only address literals, InetAddress.getByName would resolve host names
+    private static final Pattern ADDRESS_LITERAL = Pattern.compile("[0-9a-fA-F:.]+");
+
+    private final List<Subnet> trustedProxies;
+
+    public ClientAddressResolver(@Value("${randomquotes.trusted-proxies:}") List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(Subnet::parse)
+                .toList();
+
+        logger.info("ClientAddressResolver initialized (trusted proxies: {})", this.trustedProxies);
+    }
+
+    /**
+     * Returns the client address, or null if the request has no remote address.
+     */
+    @Override
+    public String resolveClientAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        InetAddress address = remoteAddress != null ? remoteAddress.getAddress() : null;
+        if (address == null) {
+            return null;
+        }
+        if (!isTrusted(address)) {
+            return address.getHostAddress();
+        }
+
+        List<String> forwardedFor = request.getHeaders().getOrEmpty(X_FORWARDED_FOR);
+        // repeated headers are one comma separated list, in order
+        String[] hops = String.join(",", forwardedFor).split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            InetAddress hop = parseAddress(hops[i].trim());
+            if (hop == null) {
+                // not written by a proxy we trust, the last trusted hop is as far as we know
+                break;
+            }
+            address = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return address.getHostAddress();
+    }
+
+    private boolean isTrusted(InetAddress address) {
+        for (Subnet subnet : trustedProxies) {
+            if (subnet.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static InetAddress parseAddress(String value) {
+        if (value.isEmpty() || !ADDRESS_LITERAL.matcher(value).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(value);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * An address with an optional prefix length, "10.0.0.0/8" or "::1".
+     */
+    private record Subnet(byte[] network, int prefixLength, String value) {
+
+        static Subnet parse(String value) {
+            int slash = value.indexOf('/');
+            InetAddress address = parseAddress(slash < 0 ? value : value.substring(0, slash));
+            if (address == null) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + value);
+            }
+
+            byte[] network = address.getAddress();
+            int maxLength = network.length * 8;
+            int prefixLength;
+            try {
+                prefixLength = slash < 0 ? maxLength : Integer.parseInt(value.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid trusted proxy prefix length: " + value);
+            }
+            if (prefixLength < 0 || prefixLength > maxLength) {
+                throw new IllegalArgumentException("Invalid trusted proxy prefix length: " + value);
+            }
+            return new Subnet(network, prefixLength, value);
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] bytes = address.getAddress();
+            if (bytes.length != network.length) {
+                return false;
+            }
+
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (bytes[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (bytes[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+}
@@ -1,27 +1,210 @@
 package com.amxcoding.randomquotes.api.services;
 
 import com.amxcoding.randomquotes.api.interfaces.IQuoteBroadCaster;
+import com.amxcoding.randomquotes.api.mappers.QuoteMapper;
 import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
-import jakarta.annotation.PreDestroy;
+import com.amxcoding.randomquotes.api.models.quote.QuoteStreamFilter;
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteStreamCapacityException;
+import com.amxcoding.randomquotes.application.interfaces.messaging.ILikeEventTransport;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteService;
+import com.amxcoding.randomquotes.application.models.LikeEvent;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Broadcasts liked and unliked quotes (isLiked is the direction, likes the new count) to the quote stream (SSE) subscribers.
+ * Emitted quotes are conflated: within a conflation-window only the latest state per quote id is kept,
+ * the window's quotes are then pushed to the subscribers as one batch. A quote liked 500 times in a window is sent once.
+ *
+ * Every event is encoded once (QuoteStreamEvent), subscribers get retained duplicates of the same buffer,
+ * so the encoding cost doesn't grow with the number of subscribers.
+ * Each subscriber has its own bounded queue (StreamSubscriber), flush and subscribe hold the lock s.t. a new subscriber
+ * gets the replayed events and every later one exactly once. A client that doesn't keep up fills its queue, the
+ * overflow policy then drops events or disconnects it, s.t. a few clients on bad networks can't grow the heap.
+ *
+ * One heartbeat tick serves all connections: idle subscribers get a comment, subscribers whose queue didn't move for
+ * the stall-timeout (half dead connections, the socket no longer takes writes) are disconnected.
+ * At most max-subscribers connect to a node, further ones fail with a QuoteStreamCapacityException and a jittered
+ * reconnect delay, accepted ones get it as their retry time, s.t. the clients of a restarted node don't reconnect at once.
+ *
+ * Subscribers may filter by quote ids and author (QuoteStreamFilter). Filtered subscribers are indexed by quote id and
+ * author, an event is only offered to the unfiltered subscribers and the ones in its quote's and author's entry.
+ *
+ * Every event has an id "{streamId}-{sequence}", the sequence counts up per event, the stream id is new on every start.
+ * The last resume-buffer-size events are kept in a ring, a client reconnecting with a Last-Event-ID within the ring
+ * gets exactly the events it missed. Older, unknown or foreign ids (another run or node) get one resync event instead.
+ *
+ * With a cluster transport the likes of this node are published per window as well, likes published by the other nodes
+ * are resolved to their quote and conflated with the local ones (but not published again).
+ */
 @Service
 public class QuoteBroadCastService implements IQuoteBroadCaster, SmartLifecycle {
 
     private static final Logger log = LoggerFactory.getLogger(QuoteBroadCastService.class);
 
-    // Multicast sink that replays last 3 quotes to newly connected users
-    private final Sinks.Many<QuoteResponse> sink = Sinks.many().replay().limit(3);
+    // last 3 events are replayed to newly connected users
+    static final int REPLAY_SIZE = 3;
+
+    // remote events resolved concurrently, the lookups mostly hit the quote by id cache
+    private static final int REMOTE_LOOKUP_CONCURRENCY = 16;
+
+    private final ObjectMapper objectMapper;
+    private final ILikeEventTransport likeEventTransport;
+    private final IQuoteService quoteService;
+    private final QuoteMapper quoteMapper;
     private final AtomicBoolean isRunning = new AtomicBoolean(false);
 
+    // latest state per quote id since the last flush, put/remove are atomic per key
+    private final ConcurrentHashMap<Long, QuoteResponse> conflated = new ConcurrentHashMap<>();
+    // latest like count per quote liked on this node since the last flush, only filled with a cluster transport
+    private final ConcurrentHashMap<Long, LikeEvent> localLikes = new ConcurrentHashMap<>();
+    // a new id per start, s.t. an id of a previous run or another node is never taken for one of this run
+    private final String streamId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    // guarded by this: the last events, event n in slot n % length. The events hold the broadcaster's reference of their buffer
+    private final QuoteStreamEvent[] ring;
+    // guarded by this: sequence of the last event, 0 before the first
+    private long sequence;
+    // all subscribers, added and removed under this, read by the gauges and the heartbeat
+    private final CopyOnWriteArrayList<StreamSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    // the subscribers without filter, added and removed under this. An array in subscription order,
+    // flush walks 10k subscribers much faster than in hash order (fewer cache misses), (un)subscribing is rare
+    private final CopyOnWriteArrayList<StreamSubscriber> unfiltered = new CopyOnWriteArrayList<>();
+    // guarded by this: the filtered subscribers by the quote ids and the (normalized) author they filter on
+    private final Map<Long, Set<StreamSubscriber>> byQuoteId = new HashMap<>();
+    private final Map<String, Set<StreamSubscriber>> byAuthor = new HashMap<>();
+    private final StreamSubscriber.OverflowPolicy overflowPolicy;
+    private final int queueSize;
+    private final long maxDropped;
+    private final int maxSubscribers;
+
+    private final Duration conflationWindow;
+    private final Duration heartbeatInterval;
+    private final Duration stallTimeout;
+    private final Duration reconnectDelay;
+    private final Counter eventsIn;
+    private final Counter eventsOut;
+    private final Counter eventsRemote;
+    private final Counter resumed;
+    private final Counter resynced;
+    private final Counter dropped;
+    private final Counter slowSubscribers;
+    private final Counter slowDisconnects;
+    private final Counter stalledDisconnects;
+    private final Counter rejected;
+    private volatile Disposable flushTask;
+    private volatile Disposable remoteTask;
+    private volatile Disposable heartbeatTask;
+
+    public QuoteBroadCastService(MeterRegistry meterRegistry,
+                                 ObjectMapper objectMapper,
+                                 ILikeEventTransport likeEventTransport,
+                                 IQuoteService quoteService,
+                                 QuoteMapper quoteMapper,
+                                 @Value("${randomquotes.stream.conflation-window:100ms}") Duration conflationWindow,
+                                 @Value("${randomquotes.stream.resume-buffer-size:256}") int resumeBufferSize,
+                                 @Value("${randomquotes.stream.overflow.policy:drop-oldest}") String overflowPolicy,
+                                 @Value("${randomquotes.stream.overflow.queue-size:64}") int queueSize,
+                                 @Value("${randomquotes.stream.overflow.max-dropped:128}") long maxDropped,
+                                 @Value("${randomquotes.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+                                 @Value("${randomquotes.stream.stall-timeout:45s}") Duration stallTimeout,
+                                 @Value("${randomquotes.stream.max-subscribers:10000}") int maxSubscribers,
+                                 @Value("${randomquotes.stream.reconnect-delay:5s}") Duration reconnectDelay) {
+        if (resumeBufferSize < REPLAY_SIZE) {
+            throw new IllegalArgumentException("The resume buffer must hold at least the " + REPLAY_SIZE + " replayed events");
+        }
+        if (queueSize <= 0 || maxDropped <= 0) {
+            throw new IllegalArgumentException("The subscriber queue size and max dropped events must be positive");
+        }
+        this.overflowPolicy = StreamSubscriber.OverflowPolicy.of(overflowPolicy);
+        this.queueSize = queueSize;
+        this.maxDropped = maxDropped;
+        this.heartbeatInterval = heartbeatInterval;
+        this.stallTimeout = stallTimeout;
+        this.maxSubscribers = maxSubscribers;
+        this.reconnectDelay = reconnectDelay;
+        this.objectMapper = objectMapper;
+        this.likeEventTransport = likeEventTransport;
+        this.quoteService = quoteService;
+        this.quoteMapper = quoteMapper;
+        this.conflationWindow = conflationWindow;
+        this.ring = new QuoteStreamEvent[resumeBufferSize];
+
+        Gauge.builder(Constants.Metrics.STREAM_SUBSCRIBERS, subscribers, List::size)
+                .description("Number of connected quote stream (SSE) subscribers")
+                .register(meterRegistry);
+        this.eventsIn = Counter.builder(Constants.Metrics.STREAM_EVENTS + ".in")
+                .description("Liked quotes emitted to the quote stream, before conflation")
+                .register(meterRegistry);
+        this.eventsOut = Counter.builder(Constants.Metrics.STREAM_EVENTS + ".out")
+                .description("Liked quotes pushed to the quote stream subscribers, after conflation")
+                .register(meterRegistry);
+        this.eventsRemote = Counter.builder(Constants.Metrics.STREAM_EVENTS + ".remote")
+                .description("Liked quotes received from the other nodes, before conflation")
+                .register(meterRegistry);
+        this.resumed = Counter.builder(Constants.Metrics.STREAM_RESUMES)
+                .tag("outcome", "resumed")
+                .description("Reconnects with a Last-Event-ID, by whether the missed events were replayed or a resync was sent")
+                .register(meterRegistry);
+        this.resynced = Counter.builder(Constants.Metrics.STREAM_RESUMES)
+                .tag("outcome", "resync")
+                .description("Reconnects with a Last-Event-ID, by whether the missed events were replayed or a resync was sent")
+                .register(meterRegistry);
+
+        // aggregated over the subscribers, a tag per subscriber would be a time series per connection
+        Gauge.builder(Constants.Metrics.STREAM_QUEUE_DEPTH + ".max", subscribers, QuoteBroadCastService::maxQueueDepth)
+                .description("Events queued for the quote stream subscriber furthest behind")
+                .register(meterRegistry);
+        Gauge.builder(Constants.Metrics.STREAM_QUEUE_DEPTH + ".total", subscribers, QuoteBroadCastService::totalQueueDepth)
+                .description("Events queued for all quote stream subscribers")
+                .register(meterRegistry);
+        this.dropped = Counter.builder(Constants.Metrics.STREAM_DROPPED)
+                .tag("policy", this.overflowPolicy.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                .description("Events dropped for quote stream subscribers with a full queue")
+                .register(meterRegistry);
+        this.slowSubscribers = Counter.builder(Constants.Metrics.STREAM_SLOW_SUBSCRIBERS)
+                .description("Quote stream subscribers whose queue ran full at least once")
+                .register(meterRegistry);
+        this.slowDisconnects = Counter.builder(Constants.Metrics.STREAM_DISCONNECTS)
+                .tag("reason", "slow")
+                .description("Quote stream subscribers disconnected by the server")
+                .register(meterRegistry);
+        this.stalledDisconnects = Counter.builder(Constants.Metrics.STREAM_DISCONNECTS)
+                .tag("reason", "stalled")
+                .description("Quote stream subscribers disconnected by the server")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(Constants.Metrics.STREAM_REJECTED)
+                .description("Quote stream connections rejected, the node serves max-subscribers already")
+                .register(meterRegistry);
+    }
+
     @Override
     public Mono<Void> emit(QuoteResponse quoteResponse) {
         if (quoteResponse == null) {
@@ -34,22 +217,335 @@ public class QuoteBroadCastService implements IQuoteBroadCaster, SmartLifecycle
                 log.warn("Attempted to emit QuoteResponse while service is not running or shutting down. Quote id: {}", quoteResponse.getId());
                 return Mono.error(new IllegalStateException("Service is not running. Cannot emit QuoteResponse."));
             }
-            log.debug("Attempting to emit quote with id: {}", quoteResponse.getId());
-            Sinks.EmitResult emitResult = this.sink.tryEmitNext(quoteResponse);
-
-            if (emitResult.isFailure()) {
-                log.warn("Failed to emit QuoteResponse with id: {}. Reason: {}. Current sink state might be relevant.",
-                        quoteResponse.getId(), emitResult.name());
-                return Mono.error(new IllegalStateException("Failed to emit QuoteResponse to sink. Reason: " + emitResult.name()));
+            log.debug("Conflating quote with id: {}", quoteResponse.getId());
+            eventsIn.increment();
+            conflated.put(quoteResponse.getId(), quoteResponse);
+            if (likeEventTransport.isEnabled()) {
+                localLikes.put(quoteResponse.getId(), new LikeEvent(quoteResponse.getId(), quoteResponse.getLikes(), quoteResponse.isLiked()));
             }
-            log.info("Successfully emitted QuoteResponse with id: {}", quoteResponse.getId());
             return Mono.empty();
         });
     }
 
+    /**
+     * Encodes the latest state of every quote emitted since the last flush and pushes it to the subscribers.
+     * Synchronized, a flush on stop may overlap the last tick of the flush task and a subscriber's queue must not be emitted to concurrently.
+     */
+    synchronized void flush() {
+        publishLocalLikes();
+
+        List<StreamSubscriber> disconnected = new ArrayList<>();
+        List<QuoteResponse> batch = new ArrayList<>(conflated.size());
+        for (Long quoteId : conflated.keySet()) {
+            QuoteResponse quoteResponse = conflated.remove(quoteId);
+            if (quoteResponse != null) {
+                batch.add(quoteResponse);
+            }
+        }
+
+        for (QuoteResponse quoteResponse : batch) {
+            QuoteStreamEvent event;
+            try {
+                event = QuoteStreamEvent.encode(quoteResponse, objectMapper, streamId, sequence + 1);
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to encode QuoteResponse with id: {}. Reason: {}", quoteResponse.getId(), e.getMessage());
+                continue;
+            }
+
+            route(event, disconnected);
+
+            sequence = event.sequence();
+            int slot = slot(sequence);
+            if (ring[slot] != null) {
+                ring[slot].release();
+            }
+            ring[slot] = event;
+            eventsOut.increment();
+        }
+
+        disconnected.forEach(this::remove);
+
+        if (!batch.isEmpty()) {
+            log.debug("Emitted a batch of {} liked quotes to {} subscribers", batch.size(), subscribers.size());
+        }
+    }
+
+    private void publishLocalLikes() {
+        if (localLikes.isEmpty()) {
+            return;
+        }
+
+        List<LikeEvent> events = new ArrayList<>(localLikes.size());
+        for (Long quoteId : localLikes.keySet()) {
+            LikeEvent event = localLikes.remove(quoteId);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+
+        likeEventTransport.publish(events)
+                .subscribe(null, error -> log.warn("Failed to publish {} like events to the other nodes. Reason: {}", events.size(), error.getMessage()));
+    }
+
+    /**
+     * Resolves a like or unlike of another node to the quote it updates, empty if the quote is unknown here.
+     */
+    private Mono<QuoteResponse> toQuoteResponse(LikeEvent event) {
+        return quoteService.getQuoteById(event.quoteId())
+                .flatMap(Mono::justOrEmpty)
+                .map(quote -> {
+                    QuoteResponse quoteResponse = quoteMapper.toQuoteResponse(
+                            new Quote(quote.getId(), quote.getAuthor(), quote.getText(), event.likes()));
+                    quoteResponse.setIsLiked(event.liked());
+                    return quoteResponse;
+                })
+                .onErrorResume(error -> {
+                    log.warn("Failed to resolve the remote like of quote with id: {}. Reason: {}", event.quoteId(), error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Offers the event to the unfiltered subscribers and the filtered ones that match it, O(matching subscribers).
+     * A subscriber filtering on both the quote id and the author of the event gets it once.
+     */
+    private void route(QuoteStreamEvent event, List<StreamSubscriber> disconnected) {
+        for (StreamSubscriber subscriber : unfiltered) {
+            deliver(subscriber, event, disconnected);
+        }
+
+        Set<StreamSubscriber> byId = byQuoteId.get(event.quoteId());
+        if (byId != null) {
+            for (StreamSubscriber subscriber : byId) {
+                deliver(subscriber, event, disconnected);
+            }
+        }
+
+        Set<StreamSubscriber> byEventAuthor = event.author() == null ? null : byAuthor.get(event.author());
+        if (byEventAuthor != null) {
+            for (StreamSubscriber subscriber : byEventAuthor) {
+                if (!subscriber.filter().quoteIds().contains(event.quoteId())) {
+                    deliver(subscriber, event, disconnected);
+                }
+            }
+        }
+    }
+
+    /**
+     * Offers the event, a subscriber disconnected by its overflow policy is added to disconnected,
+     * it's removed after the batch s.t. the index isn't changed while iterated.
+     */
+    private void deliver(StreamSubscriber subscriber, QuoteStreamEvent event, List<StreamSubscriber> disconnected) {
+        int droppedNow = subscriber.offer(event.retainedBuffer());
+        if (droppedNow == 0) {
+            return;
+        }
+
+        dropped.increment(droppedNow);
+        if (subscriber.markSlow()) {
+            slowSubscribers.increment();
+            log.warn("Slow quote stream subscriber, its queue of {} events is full. Overflow policy: {}", queueSize, overflowPolicy);
+        }
+        if (subscriber.isDisconnected()) {
+            disconnected.add(subscriber);
+            slowDisconnects.increment();
+            log.info("Disconnected a slow quote stream subscriber after {} dropped events.", subscriber.dropped());
+        }
+    }
+
+    /**
+     * Sends a heartbeat to the idle subscribers and disconnects the stalled ones.
+     * Synchronized like flush, the heartbeat is shared the same way as an event.
+     */
+    synchronized void heartbeat() {
+        long now = System.nanoTime();
+        long timeout = stallTimeout.toNanos();
+        int stalled = 0;
+
+        QuoteStreamEvent heartbeat = QuoteStreamEvent.heartbeat();
+        for (StreamSubscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now, timeout)) {
+                subscriber.disconnect();
+                // the list is a copy on write array, the loop keeps iterating its snapshot
+                remove(subscriber);
+                stalled++;
+            } else {
+                subscriber.heartbeat(heartbeat.retainedBuffer());
+            }
+        }
+        heartbeat.release();
+
+        if (stalled > 0) {
+            stalledDisconnects.increment(stalled);
+            log.info("Disconnected {} stalled quote stream subscribers.", stalled);
+        }
+    }
+
+    /**
+     * The reconnect delay plus up to the same again.
+     */
+    private Duration jitteredReconnectDelay() {
+        return reconnectDelay.plusMillis(ThreadLocalRandom.current().nextLong(reconnectDelay.toMillis() + 1));
+    }
+
+    private static double maxQueueDepth(List<StreamSubscriber> subscribers) {
+        int max = 0;
+        for (StreamSubscriber subscriber : subscribers) {
+            max = Math.max(max, subscriber.queueDepth());
+        }
+        return max;
+    }
+
+    private static double totalQueueDepth(List<StreamSubscriber> subscribers) {
+        long total = 0;
+        for (StreamSubscriber subscriber : subscribers) {
+            total += subscriber.queueDepth();
+        }
+        return total;
+    }
+
+    private int slot(long eventSequence) {
+        return (int) (eventSequence % ring.length);
+    }
+
+    /**
+     * Registers a subscriber and queues the replayed events for it, completes right away once stopped.
+     * Null if the node serves max-subscribers already.
+     */
+    private synchronized StreamSubscriber subscribe(String lastEventId, QuoteStreamFilter filter) {
+        StreamSubscriber subscriber = new StreamSubscriber(filter, overflowPolicy, queueSize, maxDropped);
+        if (!isRunning.get()) {
+            subscriber.complete();
+            return subscriber;
+        }
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+
+        if (!reconnectDelay.isZero()) {
+            subscriber.replay(QuoteStreamEvent.retry(jitteredReconnectDelay()));
+        }
+        for (long replayed = replayFrom(subscriber, lastEventId); replayed <= sequence; replayed++) {
+            QuoteStreamEvent event = ring[slot(replayed)];
+            if (matches(filter, event)) {
+                subscriber.replay(event.retainedBuffer());
+            }
+        }
+        add(subscriber);
+        return subscriber;
+    }
+
+    private static boolean matches(QuoteStreamFilter filter, QuoteStreamEvent event) {
+        return filter.matches(event.quoteId(), event.author());
+    }
+
+    private void add(StreamSubscriber subscriber) {
+        subscribers.add(subscriber);
+        QuoteStreamFilter filter = subscriber.filter();
+        if (filter.isEmpty()) {
+            unfiltered.add(subscriber);
+            return;
+        }
+        for (Long quoteId : filter.quoteIds()) {
+            byQuoteId.computeIfAbsent(quoteId, id -> new LinkedHashSet<>()).add(subscriber);
+        }
+        if (filter.author() != null) {
+            byAuthor.computeIfAbsent(filter.author(), author -> new LinkedHashSet<>()).add(subscriber);
+        }
+    }
+
+    private void remove(StreamSubscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        QuoteStreamFilter filter = subscriber.filter();
+        if (filter.isEmpty()) {
+            unfiltered.remove(subscriber);
+            return;
+        }
+        for (Long quoteId : filter.quoteIds()) {
+            removeFromIndex(byQuoteId, quoteId, subscriber);
+        }
+        if (filter.author() != null) {
+            removeFromIndex(byAuthor, filter.author(), subscriber);
+        }
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<StreamSubscriber>> index, K key, StreamSubscriber subscriber) {
+        Set<StreamSubscriber> entry = index.get(key);
+        if (entry != null && entry.remove(subscriber) && entry.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * The sequence of the first event to replay: the last REPLAY_SIZE events matching the filter for a new client,
+     * the ones after the Last-Event-ID for a resuming client. Queues a resync event if the Last-Event-ID can't be resumed.
+     */
+    private long replayFrom(StreamSubscriber subscriber, String lastEventId) {
+        long oldest = Math.max(1, sequence - ring.length + 1);
+        if (lastEventId == null || lastEventId.isBlank()) {
+            long from = sequence + 1;
+            int matching = 0;
+            while (from > oldest && matching < REPLAY_SIZE) {
+                from--;
+                if (matches(subscriber.filter(), ring[slot(from)])) {
+                    matching++;
+                }
+            }
+            return from;
+        }
+
+        long lastSequence = parseSequence(lastEventId);
+        if (lastSequence >= oldest - 1 && lastSequence <= sequence) {
+            resumed.increment();
+            return lastSequence + 1;
+        }
+
+        log.debug("Last-Event-ID {} is out of the resume buffer, sending a resync.", lastEventId);
+        resynced.increment();
+        subscriber.replay(QuoteStreamEvent.resync(streamId, sequence));
+        return sequence + 1;
+    }
+
+    /**
+     * The sequence of an event id of this stream, -1 for ids of another stream or malformed ones.
+     */
+    private long parseSequence(String eventId) {
+        int separator = streamId.length();
+        if (eventId.length() <= separator + 1 || !eventId.startsWith(streamId) || eventId.charAt(separator) != '-') {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId, separator + 1, eventId.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private synchronized void unsubscribe(StreamSubscriber subscriber) {
+        remove(subscriber);
+    }
+
+    @Override
+    public Flux<DataBuffer> getFlux() {
+        return getFlux(null, QuoteStreamFilter.NONE);
+    }
+
     @Override
-    public Flux<QuoteResponse> getFlux() {
-        return this.sink.asFlux()
+    public Flux<DataBuffer> getFlux(String lastEventId, QuoteStreamFilter filter) {
+        return Flux.defer(() -> {
+                    StreamSubscriber subscriber = subscribe(lastEventId, filter);
+                    if (subscriber == null) {
+                        rejected.increment();
+                        return Flux.error(new QuoteStreamCapacityException(
+                                "The quote stream serves its maximum of " + maxSubscribers + " subscribers", jitteredReconnectDelay()));
+                    }
+                    return subscriber.asFlux()
+                            .doFinally(signal -> unsubscribe(subscriber));
+                })
+                // queued buffers of a cancelled subscriber
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
                 .doOnSubscribe(subscription -> log.info("New subscriber to quote stream."))
                 .doOnCancel(() -> log.info("A subscriber cancelled their quote stream subscription."))
                 .doOnTerminate(() -> log.info("Quote stream terminating for a subscriber (either complete or error)."));
@@ -57,7 +553,20 @@ public class QuoteBroadCastService implements IQuoteBroadCaster, SmartLifecycle
 
     @Override
     public void start() {
-        log.info("QuoteBroadCastService starting.");
+        log.info("QuoteBroadCastService starting (conflation window: {}).", conflationWindow);
+        flushTask = Flux.interval(conflationWindow)
+                .onBackpressureDrop()
+                .subscribe(tick -> flush());
+        heartbeatTask = Flux.interval(heartbeatInterval)
+                .onBackpressureDrop()
+                .subscribe(tick -> heartbeat());
+        if (likeEventTransport.isEnabled()) {
+            remoteTask = likeEventTransport.remoteEvents()
+                    .doOnNext(event -> eventsRemote.increment())
+                    .flatMap(this::toQuoteResponse, REMOTE_LOOKUP_CONCURRENCY)
+                    .subscribe(quoteResponse -> conflated.put(quoteResponse.getId(), quoteResponse),
+                            error -> log.error("Stopped receiving likes of the other nodes. Reason: {}", error.getMessage()));
+        }
         isRunning.set(true);
         log.info("QuoteBroadCastService started and isRunning set to true.");
     }
@@ -67,15 +576,45 @@ public class QuoteBroadCastService implements IQuoteBroadCaster, SmartLifecycle
 
     @Override
     public void stop(Runnable callback) {
-        log.info("QuoteBroadCastService stopping (SmartLifecycle). Attempting to complete the sink.");
+        log.info("QuoteBroadCastService stopping (SmartLifecycle). Attempting to complete the subscribers.");
         isRunning.set(false); // Signal that the service is stopping
-        Sinks.EmitResult completeResult = this.sink.tryEmitComplete();
+        Disposable task = flushTask;
+        if (task != null) {
+            task.dispose();
+        }
+        flushTask = null;
+        Disposable heartbeats = heartbeatTask;
+        if (heartbeats != null) {
+            heartbeats.dispose();
+        }
+        heartbeatTask = null;
+        Disposable remote = remoteTask;
+        if (remote != null) {
+            remote.dispose();
+        }
+        remoteTask = null;
+        flush(); // quotes of the last window
+        completeSubscribers();
 
         // Execute the callback to signal to Spring that this bean's shutdown phase is complete.
         callback.run();
         log.info("QuoteBroadCastService stop callback executed.");
     }
 
+    private synchronized void completeSubscribers() {
+        subscribers.forEach(StreamSubscriber::complete);
+        subscribers.clear();
+        unfiltered.clear();
+        byQuoteId.clear();
+        byAuthor.clear();
+        for (int slot = 0; slot < ring.length; slot++) {
+            if (ring[slot] != null) {
+                ring[slot].release();
+                ring[slot] = null;
+            }
+        }
+    }
+
     @Override
     public boolean isRunning() {
         return isRunning.get();
@@ -94,4 +633,4 @@ public class QuoteBroadCastService implements IQuoteBroadCaster, SmartLifecycle
 //    public boolean isAutoStartup() {
 //        return true;
 //    }
-}
\ No newline at end of file
+}
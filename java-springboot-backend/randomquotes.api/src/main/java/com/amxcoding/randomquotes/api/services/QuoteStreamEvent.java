@@ -0,0 +1,121 @@
+package com.amxcoding.randomquotes.api.services;
+
+import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.api.models.quote.QuoteStreamFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * A liked quote encoded once as a server-sent event ("id:{streamId}-{sequence}\ndata:{json}\n\n"),
+ * in a direct buffer shared by all subscribers.
+ * Reference counting:
+ * - the broadcaster owns one reference and releases it when the event leaves the replay buffer
+ * - every delivery is a retained duplicate (same memory, own read index), released by WebFlux once written
+ *   or by the subscriber's discard hook if it is dropped
+ * The memory is freed when the last of them is released.
+ */
+final class QuoteStreamEvent {
+
+    private static final byte[] ID = "id:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA = "\ndata:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RESYNC = "\nevent:resync\ndata:\n\n".getBytes(StandardCharsets.UTF_8);
+    // a comment line, ignored by clients, keeps the connection and the proxies in between from timing out
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final NettyDataBufferFactory BUFFER_FACTORY = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+
+    private final long quoteId;
+    // normalized for routing to the subscribers filtering by author, see QuoteStreamFilter
+    private final String author;
+    private final long sequence;
+    private final ByteBuf frame;
+
+    private QuoteStreamEvent(long quoteId, String author, long sequence, ByteBuf frame) {
+        this.quoteId = quoteId;
+        this.author = author;
+        this.sequence = sequence;
+        this.frame = frame;
+    }
+
+    /**
+     * Encodes the quote with the same Jackson setup the WebFlux SSE encoder uses, the bytes are identical.
+     */
+    static QuoteStreamEvent encode(QuoteResponse quoteResponse, ObjectMapper objectMapper,
+                                   String streamId, long sequence) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(quoteResponse);
+        byte[] id = eventId(streamId, sequence).getBytes(StandardCharsets.US_ASCII);
+
+        ByteBuf frame = ByteBufAllocator.DEFAULT.directBuffer(ID.length + id.length + DATA.length + json.length + END.length);
+        frame.writeBytes(ID).writeBytes(id).writeBytes(DATA).writeBytes(json).writeBytes(END);
+        return new QuoteStreamEvent(quoteResponse.getId(), QuoteStreamFilter.normalizeAuthor(quoteResponse.getAuthor()), sequence, frame);
+    }
+
+    /**
+     * The event telling a resuming client that it missed events the broadcaster no longer has,
+     * the client has to reload the like counts it shows. Carries the latest id, the next resume continues from there.
+     * Not shared, it is sent to one subscriber.
+     */
+    static DataBuffer resync(String streamId, long sequence) {
+        byte[] id = eventId(streamId, sequence).getBytes(StandardCharsets.US_ASCII);
+        return BUFFER_FACTORY.allocateBuffer(ID.length + id.length + RESYNC.length)
+                .write(ID).write(id).write(RESYNC);
+    }
+
+    /**
+     * A heartbeat comment, shared like an event: the caller hands out retained buffers and releases its reference.
+     */
+    static QuoteStreamEvent heartbeat() {
+        ByteBuf frame = ByteBufAllocator.DEFAULT.directBuffer(HEARTBEAT.length);
+        frame.writeBytes(HEARTBEAT);
+        return new QuoteStreamEvent(0, null, 0, frame);
+    }
+
+    /**
+     * The reconnection time the client should wait after the connection is lost, sent to one subscriber.
+     */
+    static DataBuffer retry(Duration reconnectDelay) {
+        byte[] retry = ("retry:" + reconnectDelay.toMillis() + "\n\n").getBytes(StandardCharsets.US_ASCII);
+        return BUFFER_FACTORY.wrap(retry);
+    }
+
+    static String eventId(String streamId, long sequence) {
+        return streamId + "-" + sequence;
+    }
+
+    long quoteId() {
+        return quoteId;
+    }
+
+    String author() {
+        return author;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    /**
+     * A buffer for one subscriber, the caller owns it and has to write or release it.
+     */
+    DataBuffer retainedBuffer() {
+        return BUFFER_FACTORY.wrap(frame.retainedDuplicate());
+    }
+
+    /**
+     * Releases the broadcaster's reference.
+     */
+    void release() {
+        frame.release();
+    }
+
+    int refCnt() {
+        return frame.refCnt();
+    }
+}
@@ -0,0 +1,256 @@
+package com.amxcoding.randomquotes.api.services;
+
+import com.amxcoding.randomquotes.api.models.quote.QuoteStreamFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One quote stream connection: the events queued for it and what happens when the client doesn't keep up.
+ * The broadcaster offers events under its lock, WebFlux takes them from the connection's thread.
+ * The queue is safe for both sides, s.t. the broadcaster can drop queued events of a slow client.
+ */
+final class StreamSubscriber {
+
+    enum OverflowPolicy {
+        // the oldest queued event is dropped for the new one
+        DROP_OLDEST,
+        // the queued events are dropped for the new one, a client that fell behind skips to the latest event
+        LATEST_ONLY,
+        // new events are dropped, once max-dropped were dropped the client is disconnected and resumes from its Last-Event-ID
+        DISCONNECT;
+
+        static OverflowPolicy of(String name) {
+            return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final EventQueue queue = new EventQueue();
+    // not serialized, every emit holds the broadcaster's lock
+    private final Sinks.Many<DataBuffer> sink = Sinks.unsafe().many().unicast().onBackpressureBuffer(queue);
+    private final QuoteStreamFilter filter;
+    private final OverflowPolicy policy;
+    private final int queueSize;
+    private final long maxDropped;
+
+    // written under the broadcaster's lock
+    private long dropped;
+    private boolean slow;
+    private boolean disconnected;
+
+    StreamSubscriber(QuoteStreamFilter filter, OverflowPolicy policy, int queueSize, long maxDropped) {
+        this.filter = filter;
+        this.policy = policy;
+        this.queueSize = queueSize;
+        this.maxDropped = maxDropped;
+    }
+
+    QuoteStreamFilter filter() {
+        return filter;
+    }
+
+    Flux<DataBuffer> asFlux() {
+        return sink.asFlux();
+    }
+
+    /**
+     * Queues a replayed event, replays are bounded by the resume buffer and not subject to the overflow policy.
+     */
+    void replay(DataBuffer buffer) {
+        emit(buffer);
+    }
+
+    /**
+     * Queues a new event, applying the overflow policy if the queue is full.
+     * The subscriber takes ownership of the buffer, even if it is dropped.
+     * @return the number of dropped events
+     */
+    int offer(DataBuffer buffer) {
+        if (disconnected) {
+            DataBufferUtils.release(buffer);
+            return 0;
+        }
+        if (queue.size() < queueSize) {
+            emit(buffer);
+            return 0;
+        }
+
+        int droppedNow = switch (policy) {
+            case DROP_OLDEST -> {
+                int count = 0;
+                while (queue.size() >= queueSize && drop(queue.dropOldest())) {
+                    count++;
+                }
+                emit(buffer);
+                yield count;
+            }
+            case LATEST_ONLY -> {
+                int count = 0;
+                while (drop(queue.dropOldest())) {
+                    count++;
+                }
+                emit(buffer);
+                yield count;
+            }
+            case DISCONNECT -> {
+                DataBufferUtils.release(buffer);
+                yield 1;
+            }
+        };
+
+        dropped += droppedNow;
+        if (policy == OverflowPolicy.DISCONNECT && dropped >= maxDropped) {
+            disconnect();
+        }
+        return droppedNow;
+    }
+
+    private void emit(DataBuffer buffer) {
+        if (sink.tryEmitNext(buffer).isFailure()) {
+            // cancelled or completed, the buffer never made it into the queue
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static boolean drop(DataBuffer buffer) {
+        if (buffer == null) {
+            return false;
+        }
+        DataBufferUtils.release(buffer);
+        return true;
+    }
+
+    /**
+     * Queues a heartbeat if the queue is empty, a subscriber with queued events has something to write already.
+     */
+    void heartbeat(DataBuffer buffer) {
+        if (queue.isEmpty()) {
+            emit(buffer);
+        } else {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * Whether events are queued and the connection took none of them for longer than the timeout:
+     * the client stopped reading or the connection is half dead and the socket no longer writable.
+     */
+    boolean isStalled(long nowNanos, long timeoutNanos) {
+        return !queue.isEmpty() && nowNanos - queue.lastProgressNanos > timeoutNanos;
+    }
+
+    /**
+     * Drops the queued events and ends the stream right away, not after the queue is written.
+     */
+    void disconnect() {
+        disconnected = true;
+        DataBuffer buffer;
+        while ((buffer = queue.dropOldest()) != null) {
+            DataBufferUtils.release(buffer);
+        }
+        sink.tryEmitComplete();
+    }
+
+    void complete() {
+        sink.tryEmitComplete();
+    }
+
+    /**
+     * Marks the subscriber as slow, true the first time.
+     */
+    boolean markSlow() {
+        if (slow) {
+            return false;
+        }
+        slow = true;
+        return true;
+    }
+
+    boolean isDisconnected() {
+        return disconnected;
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    long dropped() {
+        return dropped;
+    }
+
+    /**
+     * The subscriber's queue, with a size that is O(1) to read and the time it last made progress:
+     * the connection took an event, or one was queued while it was empty.
+     * Events the broadcaster drops are no progress, a client that stopped reading stays stalled while events flow.
+     */
+    private static final class EventQueue extends AbstractQueue<DataBuffer> {
+
+        private final ConcurrentLinkedQueue<DataBuffer> buffers = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private volatile long lastProgressNanos = System.nanoTime();
+        // set by drops, cleared when the connection takes an event: a queue emptied by drops is still behind
+        private volatile boolean behind;
+
+        @Override
+        public boolean offer(DataBuffer buffer) {
+            buffers.offer(buffer);
+            if (size.getAndIncrement() == 0 && !behind) {
+                lastProgressNanos = System.nanoTime();
+            }
+            return true;
+        }
+
+        /**
+         * Taken by the connection (the sink drains the queue), moves the progress clock.
+         */
+        @Override
+        public DataBuffer poll() {
+            DataBuffer buffer = buffers.poll();
+            if (buffer != null) {
+                size.decrementAndGet();
+                behind = false;
+                lastProgressNanos = System.nanoTime();
+            }
+            return buffer;
+        }
+
+        /**
+         * Removes the oldest event for the broadcaster, without moving the progress clock.
+         */
+        DataBuffer dropOldest() {
+            DataBuffer buffer = buffers.poll();
+            if (buffer != null) {
+                size.decrementAndGet();
+                behind = true;
+            }
+            return buffer;
+        }
+
+        @Override
+        public DataBuffer peek() {
+            return buffers.peek();
+        }
+
+        @Override
+        public int size() {
+            return size.get();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return buffers.isEmpty();
+        }
+
+        @Override
+        public Iterator<DataBuffer> iterator() {
+            return buffers.iterator();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.amxcoding.randomquotes.api.controllers;
+
+import com.amxcoding.randomquotes.api.interfaces.IAnonymousUserService;
+import com.amxcoding.randomquotes.api.interfaces.IClientAddressResolver;
+import com.amxcoding.randomquotes.api.interfaces.IQuoteBroadCaster;
+import com.amxcoding.randomquotes.api.mappers.QuoteMapper;
+import com.amxcoding.randomquotes.api.mappers.QuotePayloadEncoder;
+import com.amxcoding.randomquotes.api.models.quote.QuoteLikeStatusRequest;
+import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeThrottle;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteLikeService;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteService;
+import com.amxcoding.randomquotes.application.models.QuoteLikeResult;
+import com.amxcoding.randomquotes.application.models.QuoteLikeStatus;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("QuoteController Web Layer Tests")
+class QuoteControllerTest {
+
+    private static final String USER_ID = "0190a5b2-7c3e-7000-8000-000000000001";
+
+    private IQuoteService quoteService;
+    private IQuoteLikeService quoteLikeService;
+    private IQuoteBroadCaster quoteBroadCaster;
+    private ILikeThrottle likeThrottle;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        quoteService = mock(IQuoteService.class);
+        IAnonymousUserService anonymousUserService = mock(IAnonymousUserService.class);
+        IClientAddressResolver clientAddressResolver = mock(IClientAddressResolver.class);
+        quoteLikeService = mock(IQuoteLikeService.class);
+        quoteBroadCaster = mock(IQuoteBroadCaster.class);
+        likeThrottle = mock(ILikeThrottle.class);
+
+        when(anonymousUserService.getOrCreateAnonymousUserId(any(), any())).thenReturn(USER_ID);
+        when(clientAddressResolver.resolveClientAddress(any())).thenReturn("203.0.113.7");
+        when(likeThrottle.tryAcquire(anyString(), anyString())).thenReturn(true);
+        when(quoteBroadCaster.emit(any())).thenReturn(Mono.empty());
+
+        webTestClient = WebTestClient.bindToController(new QuoteController(quoteService, quoteLikeService,
+                Mappers.getMapper(QuoteMapper.class), anonymousUserService, quoteBroadCaster, mock(QuotePayloadEncoder.class),
+                likeThrottle, clientAddressResolver)).build();
+    }
+
+    private static QuoteLikeStatusRequest statusRequest(int ids) {
+        QuoteLikeStatusRequest statusRequest = new QuoteLikeStatusRequest();
+        statusRequest.setIds(LongStream.rangeClosed(1, ids).boxed().toList());
+        return statusRequest;
+    }
+
+    private static QuoteLikeResult likeResult(int likes, boolean liked, boolean changed) {
+        return new QuoteLikeResult(new Quote(1L, "Seneca", "Luck is what happens when preparation meets opportunity.", likes), liked, changed);
+    }
+
+    @Test
+    @DisplayName("1. Unlike: should broadcast the decremented count with the unliked direction")
+    void unlikeQuote_whenChanged_shouldBroadcastUnlike() {
+        // Arrange
+        when(quoteLikeService.unlikeQuote(USER_ID, 1L)).thenReturn(Mono.just(Optional.of(likeResult(4, false, true))));
+
+        // Act & Assert
+        webTestClient.delete().uri("/api/v1/quotes/1/like")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.likes").isEqualTo(4)
+                .jsonPath("$.isLiked").isEqualTo(false);
+
+        ArgumentCaptor<QuoteResponse> emitted = ArgumentCaptor.forClass(QuoteResponse.class);
+        verify(quoteBroadCaster).emit(emitted.capture());
+        assertThat(emitted.getValue().getLikes()).isEqualTo(4);
+        assertThat(emitted.getValue().isLiked()).isFalse();
+    }
+
+    @Test
+    @DisplayName("2. Repeated like or unlike: should not broadcast an unchanged count")
+    void likeAndUnlike_whenUnchanged_shouldNotBroadcast() {
+        // Arrange
+        when(quoteLikeService.likeQuote(USER_ID, 1L)).thenReturn(Mono.just(Optional.of(likeResult(5, true, false))));
+        when(quoteLikeService.unlikeQuote(USER_ID, 1L)).thenReturn(Mono.just(Optional.of(likeResult(5, false, false))));
+
+        // Act & Assert
+        webTestClient.post().uri("/api/v1/quotes/1/like")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/v1/quotes/1/like")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(quoteBroadCaster, never()).emit(any());
+    }
+
+    @Test
+    @DisplayName("3. Like statuses: should resolve up to 100 ids and reject more with 400")
+    void getLikeStatuses_shouldLimitIdsPerRequest() {
+        // Arrange
+        when(quoteLikeService.getLikeStatuses(eq(USER_ID), anyList())).thenReturn(Mono.just(List.of(new QuoteLikeStatus(1L, 3, true))));
+
+        // Act & Assert
+        webTestClient.post().uri("/api/v1/quotes/likes/status")
+                .bodyValue(statusRequest(100))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].likes").isEqualTo(3);
+        webTestClient.post().uri("/api/v1/quotes/likes/status")
+                .bodyValue(statusRequest(101))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(quoteLikeService, times(1)).getLikeStatuses(eq(USER_ID), anyList());
+    }
+
+    @Test
+    @DisplayName("4. Throttled like and unlike: should return 429 with Retry-After and not touch the likes")
+    void likeAndUnlike_whenThrottled_shouldReturnTooManyRequests() {
+        // Arrange
+        when(likeThrottle.tryAcquire(USER_ID, "203.0.113.7")).thenReturn(false);
+        when(likeThrottle.retryAfter()).thenReturn(Duration.ofSeconds(30));
+
+        // Act & Assert
+        webTestClient.post().uri("/api/v1/quotes/1/like")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "30");
+        webTestClient.delete().uri("/api/v1/quotes/1/like")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "30");
+
+        verifyNoInteractions(quoteLikeService, quoteBroadCaster);
+    }
+
+    @Test
+    @DisplayName("5. Random quote: should reject an unknown weighting with 400")
+    void getRandomQuote_whenWeightedIsInvalid_shouldReturnBadRequest() {
+        // Act & Assert
+        webTestClient.get().uri("/api/v1/quotes/random?weighted=views")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(quoteService, quoteLikeService);
+    }
+}
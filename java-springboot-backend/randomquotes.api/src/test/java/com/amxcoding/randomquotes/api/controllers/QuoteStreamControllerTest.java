@@ -0,0 +1,83 @@
+package com.amxcoding.randomquotes.api.controllers;
+
+import com.amxcoding.randomquotes.api.interfaces.IQuoteBroadCaster;
+import com.amxcoding.randomquotes.api.models.quote.QuoteStreamFilter;
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteStreamCapacityException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("QuoteStreamController Web Layer Tests")
+class QuoteStreamControllerTest {
+
+    private IQuoteBroadCaster quoteBroadCaster;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        quoteBroadCaster = mock(IQuoteBroadCaster.class);
+        webTestClient = WebTestClient.bindToController(new QuoteStreamController(quoteBroadCaster)).build();
+    }
+
+    @Test
+    @DisplayName("1. Should stream the events, resumed from the Last-Event-ID")
+    void streamLikedQuotes_shouldWriteEvents() {
+        // Arrange
+        when(quoteBroadCaster.getFlux("s-4", QuoteStreamFilter.NONE)).thenReturn(Flux.just(
+                DefaultDataBufferFactory.sharedInstance.wrap("id:s-5\ndata:{}\n\n".getBytes(StandardCharsets.UTF_8))));
+
+        // Act & Assert
+        webTestClient.get().uri("/sse/v1/quotes/likes")
+                .header("Last-Event-ID", "s-4")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .expectBody(String.class).isEqualTo("id:s-5\ndata:{}\n\n");
+    }
+
+    @Test
+    @DisplayName("2. Should return 503 with the retry time when the stream is full")
+    void streamLikedQuotes_whenFull_shouldReturnServiceUnavailable() {
+        // Arrange
+        when(quoteBroadCaster.getFlux(null, QuoteStreamFilter.NONE)).thenReturn(Flux.error(
+                new QuoteStreamCapacityException("full", Duration.ofMillis(7_500))));
+
+        // Act & Assert
+        webTestClient.get().uri("/sse/v1/quotes/likes")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "8")
+                .expectBody(String.class).isEqualTo("retry:7500\n\n");
+    }
+
+    @Test
+    @DisplayName("3. Should subscribe with the ids and author filter, at most 100 ids")
+    void streamLikedQuotes_withFilter_shouldPassFilter() {
+        // Arrange
+        when(quoteBroadCaster.getFlux(null, QuoteStreamFilter.of(List.of(1L, 2L), "seneca"))).thenReturn(Flux.empty());
+        String tooManyIds = LongStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        // Act & Assert
+        webTestClient.get().uri("/sse/v1/quotes/likes?ids=1,2&author=Seneca")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/sse/v1/quotes/likes?ids=" + tooManyIds)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
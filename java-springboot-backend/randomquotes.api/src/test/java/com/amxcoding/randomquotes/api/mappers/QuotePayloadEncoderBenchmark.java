@@ -0,0 +1,83 @@
+package com.amxcoding.randomquotes.api.mappers;
+
+import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the pre-encoded payloads with mapping + Jackson on every request (the previous random endpoint).
+ * Not part of the regular build, run with: mvn test -pl randomquotes.api -Dtest=QuotePayloadEncoderBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("QuotePayloadEncoder Benchmark")
+class QuotePayloadEncoderBenchmark {
+
+    private static final int WARMUP_ROUNDS = 200_000;
+    private static final int MEASURED_ROUNDS = 1_000_000;
+
+    private final QuoteMapper quoteMapper = new QuoteMapperImpl();
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    // the size of the quote pool
+    private final List<Quote> quotes = LongStream.rangeClosed(1, 50)
+            .mapToObj(id -> new Quote(id, "Author " + id,
+                    "The quote text number " + id + ", about as long as the quotes the providers return.", (int) id))
+            .toList();
+
+    private interface Encoding {
+        DataBuffer encode(Quote quote, boolean isLiked) throws Exception;
+    }
+
+    @Test
+    @DisplayName("Pre-encoded fragments vs QuoteMapper + Jackson")
+    void compareEncodings() throws Exception {
+        QuotePayloadEncoder quotePayloadEncoder = new QuotePayloadEncoder(quoteMapper, jsonMapper, 5000);
+
+        for (MediaType mediaType : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML)) {
+            ObjectMapper mapper = MediaType.APPLICATION_XML.equals(mediaType) ? xmlMapper : jsonMapper;
+
+            double jackson = measure(mediaType + " QuoteMapper + Jackson", (quote, isLiked) -> {
+                QuoteResponse quoteResponse = quoteMapper.toQuoteResponse(quote);
+                quoteResponse.setIsLiked(isLiked);
+                return bufferFactory.wrap(mapper.writeValueAsBytes(quoteResponse));
+            });
+            double preEncoded = measure(mediaType + " pre-encoded", (quote, isLiked) ->
+                    quotePayloadEncoder.encode(quote, isLiked, mediaType, bufferFactory));
+
+            System.out.printf("%s speedup: %.1fx%n", mediaType, jackson / preEncoded);
+        }
+    }
+
+    private double measure(String name, Encoding encoding) throws Exception {
+        long bytes = run(encoding, WARMUP_ROUNDS);
+
+        long start = System.nanoTime();
+        bytes += run(encoding, MEASURED_ROUNDS);
+        double nanosPerOp = (double) (System.nanoTime() - start) / MEASURED_ROUNDS;
+
+        System.out.printf("%-40s %8.1f ns/op (%d bytes)%n", name, nanosPerOp, bytes);
+        return nanosPerOp;
+    }
+
+    private long run(Encoding encoding, int rounds) throws Exception {
+        long bytes = 0;
+        for (int i = 0; i < rounds; i++) {
+            DataBuffer buffer = encoding.encode(quotes.get(i % quotes.size()), (i & 1) == 0);
+            bytes += buffer.readableByteCount();
+        }
+        return bytes;
+    }
+}
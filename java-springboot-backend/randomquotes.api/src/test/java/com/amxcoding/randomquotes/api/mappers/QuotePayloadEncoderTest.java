@@ -0,0 +1,100 @@
+package com.amxcoding.randomquotes.api.mappers;
+
+import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("QuotePayloadEncoder Unit Tests")
+class QuotePayloadEncoderTest {
+
+    private final QuoteMapper quoteMapper = new QuoteMapperImpl();
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+
+    private QuotePayloadEncoder quotePayloadEncoder;
+
+    @BeforeEach
+    void setUp() {
+        quotePayloadEncoder = new QuotePayloadEncoder(quoteMapper, jsonMapper, 100);
+    }
+
+    private String encode(Quote quote, boolean isLiked, MediaType mediaType) {
+        DataBuffer buffer = quotePayloadEncoder.encode(quote, isLiked, mediaType, DefaultDataBufferFactory.sharedInstance);
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private String encodeWithJackson(Quote quote, boolean isLiked, ObjectMapper mapper) throws Exception {
+        QuoteResponse quoteResponse = quoteMapper.toQuoteResponse(quote);
+        quoteResponse.setIsLiked(isLiked);
+        return mapper.writeValueAsString(quoteResponse);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("1. Json: should be identical to encoding the QuoteResponse with Jackson")
+    void encode_json_shouldMatchJackson(boolean isLiked) throws Exception {
+        // Arrange
+        Quote quote = new Quote(42L, "Anaïs \"Nin\"", "Life shrinks or expands <in proportion> to one's courage.\n", 7);
+
+        // Act
+        String payload = encode(quote, isLiked, MediaType.APPLICATION_JSON);
+
+        // Assert
+        assertThat(payload).isEqualTo(encodeWithJackson(quote, isLiked, jsonMapper));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("2. Xml: should be identical to encoding the QuoteResponse with Jackson")
+    void encode_xml_shouldMatchJackson(boolean isLiked) throws Exception {
+        // Arrange
+        Quote quote = new Quote(42L, "Anaïs & Nin", "Life shrinks or expands <in proportion> to one's courage.", 7);
+
+        // Act
+        String payload = encode(quote, isLiked, MediaType.APPLICATION_XML);
+
+        // Assert
+        assertThat(payload).isEqualTo(encodeWithJackson(quote, isLiked, xmlMapper));
+    }
+
+    @Test
+    @DisplayName("3. Changed like count: should not serve the previously encoded payload")
+    void encode_whenLikesChanged_shouldEncodeNewLikes() throws Exception {
+        // Arrange
+        Quote quote = new Quote(1L, "Author", "Text", 1);
+        encode(quote, false, MediaType.APPLICATION_JSON);
+        Quote likedQuote = new Quote(1L, "Author", "Text", 2);
+
+        // Act
+        String payload = encode(likedQuote, true, MediaType.APPLICATION_JSON);
+
+        // Assert
+        assertThat(payload).isEqualTo(encodeWithJackson(likedQuote, true, jsonMapper));
+    }
+
+    @Test
+    @DisplayName("4. Media type selection: should pick the first accepted of json and xml, json by default")
+    void selectMediaType_shouldFollowAcceptHeader() {
+        assertThat(quotePayloadEncoder.selectMediaType(List.of())).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(quotePayloadEncoder.selectMediaType(MediaType.parseMediaTypes("*/*"))).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(quotePayloadEncoder.selectMediaType(MediaType.parseMediaTypes("application/xml"))).isEqualTo(MediaType.APPLICATION_XML);
+        assertThat(quotePayloadEncoder.selectMediaType(MediaType.parseMediaTypes("application/json;q=0.5, application/xml")))
+                .isEqualTo(MediaType.APPLICATION_XML);
+        assertThat(quotePayloadEncoder.selectMediaType(MediaType.parseMediaTypes("text/html, application/xml;q=0.9, */*;q=0.8")))
+                .isEqualTo(MediaType.APPLICATION_XML);
+    }
+}
@@ -0,0 +1,79 @@
+package com.amxcoding.randomquotes.api.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ClientAddressResolver Unit Tests")
+class ClientAddressResolverTest {
+
+    private static final String NGINX = "172.18.0.5";
+
+    private final ClientAddressResolver clientAddressResolver =
+            new ClientAddressResolver(List.of("127.0.0.0/8", "::1", "172.16.0.0/12"));
+
+    @Test
+    @DisplayName("1. Proxied: should take the address nginx forwarded, not nginx's own")
+    void resolveClientAddress_fromTrustedProxy_shouldUseForwardedFor() {
+        // Arrange
+        MockServerHttpRequest first = request(NGINX, "203.0.113.7");
+        MockServerHttpRequest second = request(NGINX, "198.51.100.2");
+
+        // Act & Assert: clients behind the same proxy get their own throttle budget
+        assertThat(clientAddressResolver.resolveClientAddress(first)).isEqualTo("203.0.113.7");
+        assertThat(clientAddressResolver.resolveClientAddress(second)).isEqualTo("198.51.100.2");
+    }
+
+    @Test
+    @DisplayName("2. Spoofed: should ignore the entries a client sent itself")
+    void resolveClientAddress_withSpoofedEntries_shouldUseFirstUntrustedHop() {
+        // Arrange: the client sent "1.2.3.4, 127.0.0.1", nginx appended the address it saw
+        MockServerHttpRequest request = request(NGINX, "1.2.3.4, 127.0.0.1, 203.0.113.7");
+
+        // Act & Assert
+        assertThat(clientAddressResolver.resolveClientAddress(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("3. Untrusted: should ignore X-Forwarded-For of connections that don't come from a trusted proxy")
+    void resolveClientAddress_fromUntrustedAddress_shouldUseRemoteAddress() {
+        // Arrange
+        MockServerHttpRequest request = request("203.0.113.7", "1.2.3.4");
+
+        // Act & Assert
+        assertThat(clientAddressResolver.resolveClientAddress(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("4. Malformed: should stop at the last trusted hop when an entry isn't an address")
+    void resolveClientAddress_withMalformedEntry_shouldUseLastTrustedHop() {
+        // Arrange
+        MockServerHttpRequest request = request(NGINX, "example.com, 172.18.0.9");
+
+        // Act & Assert
+        assertThat(clientAddressResolver.resolveClientAddress(request)).isEqualTo("172.18.0.9");
+    }
+
+    @Test
+    @DisplayName("5. Configuration: should reject trusted proxies that aren't addresses or subnets")
+    void constructor_withInvalidProxy_shouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> new ClientAddressResolver(List.of("nginx")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ClientAddressResolver(List.of("10.0.0.0/33")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MockServerHttpRequest request(String remoteAddress, String forwardedFor) {
+        return MockServerHttpRequest.post("/api/v1/quotes/1/like")
+                .remoteAddress(new InetSocketAddress(remoteAddress, 43210))
+                .header("X-Forwarded-For", forwardedFor)
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.amxcoding.randomquotes.api.services;
+
+import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.api.models.quote.QuoteStreamFilter;
+import com.amxcoding.randomquotes.application.services.messaging.NoopLikeEventTransport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans liked quotes out to 10k simulated subscribers: shared pre-encoded buffers vs Jackson per subscriber
+ * (the previous replay sink of QuoteResponse, encoded by the WebFlux SSE writer for every connection).
+ * Both include the per subscriber delivery, the network write is left out.
+ * Not part of the regular build, run with: mvn test -pl randomquotes.api -Dtest=QuoteBroadCastServiceBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("QuoteBroadCastService Benchmark")
+class QuoteBroadCastServiceBenchmark {
+
+    private static final int SUBSCRIBERS = 10_000;
+    private static final int WARMUP_EVENTS = 200;
+    private static final int MEASURED_EVENTS = 1_000;
+
+    private static final byte[] DATA = "data:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private static QuoteResponse quoteResponse(long id) {
+        QuoteResponse quoteResponse = new QuoteResponse();
+        quoteResponse.setId(id);
+        quoteResponse.setAuthor("Author " + id);
+        quoteResponse.setText("The quote text number " + id + ", about as long as the quotes the providers return.");
+        quoteResponse.setLikes((int) id);
+        return quoteResponse;
+    }
+
+    @Test
+    @DisplayName("Shared pre-encoded buffers vs Jackson per subscriber, 10k subscribers")
+    void compareFanout() {
+        double jackson = measure("Jackson per subscriber", this::fanoutWithJackson);
+        double shared = measure("Shared pre-encoded buffer", this::fanoutShared);
+
+        System.out.printf("speedup: %.1fx%n", jackson / shared);
+    }
+
+    @Test
+    @DisplayName("Filtered subscriptions, 10k subscribers each on its own quote")
+    void filteredFanout() {
+        // every event matches one subscriber, what remains is mostly (un)subscribing the 10k subscribers, also measured
+        measure("Filtered by quote id", this::fanoutFiltered);
+    }
+
+    private interface Fanout {
+        long run(int events);
+    }
+
+    private double measure(String name, Fanout fanout) {
+        fanout.run(WARMUP_EVENTS);
+
+        long start = System.nanoTime();
+        long bytes = fanout.run(MEASURED_EVENTS);
+        double microsPerEvent = (System.nanoTime() - start) / 1000.0 / MEASURED_EVENTS;
+
+        System.out.printf("%-30s %10.1f us/event to %d subscribers (%d bytes)%n", name, microsPerEvent, SUBSCRIBERS, bytes);
+        return microsPerEvent;
+    }
+
+    // the previous broadcaster: a replay sink of QuoteResponse, every subscriber encodes each event itself
+    private long fanoutWithJackson(int events) {
+        Sinks.Many<QuoteResponse> sink = Sinks.many().replay().limit(3);
+
+        AtomicLong bytes = new AtomicLong();
+        List<Disposable> subscriptions = new ArrayList<>(SUBSCRIBERS);
+        for (int subscriber = 0; subscriber < SUBSCRIBERS; subscriber++) {
+            subscriptions.add(sink.asFlux()
+                    .map(this::encodeWithJackson)
+                    .subscribe(buffer -> {
+                        bytes.addAndGet(buffer.readableByteCount());
+                        DataBufferUtils.release(buffer);
+                    }));
+        }
+
+        for (int event = 0; event < events; event++) {
+            sink.tryEmitNext(quoteResponse(event % 50));
+        }
+
+        subscriptions.forEach(Disposable::dispose);
+        return bytes.get();
+    }
+
+    private DataBuffer encodeWithJackson(QuoteResponse quoteResponse) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(quoteResponse);
+            DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(json.length + 7);
+            return buffer.write(DATA).write(json).write(END);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private QuoteBroadCastService startedService() {
+        QuoteBroadCastService quoteBroadCastService = new QuoteBroadCastService(new SimpleMeterRegistry(), objectMapper,
+                new NoopLikeEventTransport(), null, null, Duration.ofHours(1), 256, "drop-oldest", 64, 128,
+                Duration.ofHours(1), Duration.ofMinutes(1), Integer.MAX_VALUE, Duration.ZERO);
+        quoteBroadCastService.start();
+        return quoteBroadCastService;
+    }
+
+    private long fanoutFiltered(int events) {
+        QuoteBroadCastService quoteBroadCastService = startedService();
+
+        AtomicLong bytes = new AtomicLong();
+        List<Disposable> subscriptions = new ArrayList<>(SUBSCRIBERS);
+        for (long subscriber = 0; subscriber < SUBSCRIBERS; subscriber++) {
+            QuoteStreamFilter filter = QuoteStreamFilter.of(List.of(subscriber), null);
+            subscriptions.add(quoteBroadCastService.getFlux(null, filter).subscribe(buffer -> {
+                bytes.addAndGet(buffer.readableByteCount());
+                DataBufferUtils.release(buffer);
+            }));
+        }
+
+        for (int event = 0; event < events; event++) {
+            quoteBroadCastService.emit(quoteResponse(event % 50)).block();
+            quoteBroadCastService.flush();
+        }
+
+        subscriptions.forEach(Disposable::dispose);
+        quoteBroadCastService.stop(() -> {});
+        return bytes.get();
+    }
+
+    private long fanoutShared(int events) {
+        QuoteBroadCastService quoteBroadCastService = startedService();
+
+        AtomicLong bytes = new AtomicLong();
+        List<Disposable> subscriptions = new ArrayList<>(SUBSCRIBERS);
+        for (int subscriber = 0; subscriber < SUBSCRIBERS; subscriber++) {
+            subscriptions.add(quoteBroadCastService.getFlux().subscribe(buffer -> {
+                bytes.addAndGet(buffer.readableByteCount());
+                DataBufferUtils.release(buffer);
+            }));
+        }
+
+        for (int event = 0; event < events; event++) {
+            quoteBroadCastService.emit(quoteResponse(event % 50)).block();
+            quoteBroadCastService.flush();
+        }
+
+        subscriptions.forEach(Disposable::dispose);
+        quoteBroadCastService.stop(() -> {});
+        return bytes.get();
+    }
+}
@@ -0,0 +1,425 @@
+package com.amxcoding.randomquotes.api.services;
+
+import com.amxcoding.randomquotes.api.mappers.QuoteMapper;
+import com.amxcoding.randomquotes.api.models.quote.QuoteResponse;
+import com.amxcoding.randomquotes.api.models.quote.QuoteStreamFilter;
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteStreamCapacityException;
+import com.amxcoding.randomquotes.application.interfaces.messaging.ILikeEventTransport;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteService;
+import com.amxcoding.randomquotes.application.models.LikeEvent;
+import com.amxcoding.randomquotes.application.services.messaging.NoopLikeEventTransport;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("QuoteBroadCastService Unit Tests")
+class QuoteBroadCastServiceTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final QuoteMapper quoteMapper = Mappers.getMapper(QuoteMapper.class);
+    private final IQuoteService quoteService = mock(IQuoteService.class);
+
+    private SimpleMeterRegistry meterRegistry;
+    private QuoteBroadCastService quoteBroadCastService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        quoteBroadCastService = broadCastService(new NoopLikeEventTransport());
+        quoteBroadCastService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        quoteBroadCastService.stop(() -> {});
+    }
+
+    private static final int RESUME_BUFFER_SIZE = 8;
+
+    private QuoteBroadCastService broadCastService(ILikeEventTransport likeEventTransport) {
+        return broadCastService(likeEventTransport, "drop-oldest", 64, 128);
+    }
+
+    private QuoteBroadCastService broadCastService(ILikeEventTransport likeEventTransport, String overflowPolicy, int queueSize, long maxDropped) {
+        return broadCastService(likeEventTransport, overflowPolicy, queueSize, maxDropped, Duration.ofHours(1), Integer.MAX_VALUE, Duration.ZERO);
+    }
+
+    private QuoteBroadCastService broadCastService(ILikeEventTransport likeEventTransport, String overflowPolicy, int queueSize, long maxDropped,
+                                                   Duration stallTimeout, int maxSubscribers, Duration reconnectDelay) {
+        // the flush and heartbeat tasks never tick during a test, flush and heartbeat are called directly.
+        // No reconnect delay, no retry frame ahead of the events
+        return new QuoteBroadCastService(meterRegistry, objectMapper, likeEventTransport, quoteService, quoteMapper,
+                Duration.ofHours(1), RESUME_BUFFER_SIZE, overflowPolicy, queueSize, maxDropped,
+                Duration.ofHours(1), stallTimeout, maxSubscribers, reconnectDelay);
+    }
+
+    // a new registry, the gauges of the stopped service would stay registered
+    private void restart(Supplier<QuoteBroadCastService> configured) {
+        quoteBroadCastService.stop(() -> {});
+        meterRegistry = new SimpleMeterRegistry();
+        quoteBroadCastService = configured.get();
+        quoteBroadCastService.start();
+    }
+
+    private static QuoteResponse quoteResponse(long id, int likes) {
+        return quoteResponse(id, likes, "Author");
+    }
+
+    private static QuoteResponse quoteResponse(long id, int likes, String author) {
+        QuoteResponse quoteResponse = new QuoteResponse();
+        quoteResponse.setId(id);
+        quoteResponse.setAuthor(author);
+        quoteResponse.setText("Text");
+        quoteResponse.setLikes(likes);
+        return quoteResponse;
+    }
+
+    private String sseData(QuoteResponse quoteResponse) throws Exception {
+        return "data:" + objectMapper.writeValueAsString(quoteResponse) + "\n\n";
+    }
+
+    // the id line of an event
+    private static String id(String event) {
+        return event.substring("id:".length(), event.indexOf('\n'));
+    }
+
+    // the event without its id line
+    private static String data(String event) {
+        return event.substring(event.indexOf('\n') + 1);
+    }
+
+    private void emitAndFlush(long fromId, long toId) {
+        for (long id = fromId; id <= toId; id++) {
+            quoteBroadCastService.emit(quoteResponse(id, 1)).block();
+            quoteBroadCastService.flush();
+        }
+    }
+
+    // reads and releases the buffer, like WebFlux does once it is written
+    private static String consume(DataBuffer buffer) {
+        String event = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return event;
+    }
+
+    private double events(String direction) {
+        return meterRegistry.get(Constants.Metrics.STREAM_EVENTS + "." + direction).counter().count();
+    }
+
+    @Test
+    @DisplayName("1. Flush: should send the latest state per quote once")
+    void flush_shouldConflateEmitsPerQuote() throws Exception {
+        // Arrange
+        for (int likes = 1; likes <= 500; likes++) {
+            quoteBroadCastService.emit(quoteResponse(1L, likes)).block();
+        }
+        quoteBroadCastService.emit(quoteResponse(2L, 7)).block();
+
+        String first = sseData(quoteResponse(1L, 500));
+        String second = sseData(quoteResponse(2L, 7));
+
+        // Act
+        quoteBroadCastService.flush();
+
+        // Assert
+        StepVerifier.create(quoteBroadCastService.getFlux().take(2).map(QuoteBroadCastServiceTest::consume).map(QuoteBroadCastServiceTest::data).collectList())
+                .assertNext(events -> assertThat(events).containsExactlyInAnyOrder(first, second))
+                .verifyComplete();
+        assertThat(events("in")).isEqualTo(501);
+        assertThat(events("out")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("2. Flush: should send nothing when nothing was emitted since the last flush")
+    void flush_whenNothingEmitted_shouldSendNothing() {
+        // Arrange
+        quoteBroadCastService.emit(quoteResponse(1L, 1)).block();
+        quoteBroadCastService.flush();
+
+        // Act
+        quoteBroadCastService.flush();
+
+        // Assert
+        assertThat(events("out")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("3. Subscribers: should share one encoded buffer and free it once all references are released")
+    void flush_shouldShareBufferAcrossSubscribers() {
+        // Arrange
+        List<DataBuffer> first = new ArrayList<>();
+        List<DataBuffer> second = new ArrayList<>();
+        quoteBroadCastService.getFlux().subscribe(first::add);
+        quoteBroadCastService.getFlux().subscribe(second::add);
+        quoteBroadCastService.emit(quoteResponse(1L, 1)).block();
+
+        // Act
+        quoteBroadCastService.flush();
+
+        // Assert: same memory, own read index
+        assertThat(first).hasSize(1);
+        assertThat(second).hasSize(1);
+        ByteBuf firstBuffer = ((NettyDataBuffer) first.get(0)).getNativeBuffer();
+        ByteBuf secondBuffer = ((NettyDataBuffer) second.get(0)).getNativeBuffer();
+        ByteBuf shared = firstBuffer.unwrap();
+        assertThat(secondBuffer.unwrap()).isSameAs(shared);
+        assertThat(consume(first.get(0))).isEqualTo(consume(second.get(0)));
+
+        // a retained duplicate counts its own references and holds one of the shared buffer while alive,
+        // the broadcaster's reference is released on stop
+        assertThat(shared.refCnt()).isEqualTo(1);
+        quoteBroadCastService.stop(() -> {});
+        assertThat(shared.refCnt()).isZero();
+    }
+
+    @Test
+    @DisplayName("4. Subscribe: should replay the last events and release the queue of a cancelled subscriber")
+    void getFlux_shouldReplayAndReleaseOnCancel() {
+        // Arrange: 4 events, the first one is out of the replay buffer
+        for (long id = 1; id <= QuoteBroadCastService.REPLAY_SIZE + 1; id++) {
+            quoteBroadCastService.emit(quoteResponse(id, 1)).block();
+            quoteBroadCastService.flush();
+        }
+        List<DataBuffer> received = new ArrayList<>();
+
+        // Act: takes one replayed event, cancels with two still queued
+        Flux<DataBuffer> stream = quoteBroadCastService.getFlux().doOnNext(received::add);
+        StepVerifier.create(stream, 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        // Assert
+        assertThat(received).hasSize(1);
+        ByteBuf shared = ((NettyDataBuffer) received.get(0)).getNativeBuffer().unwrap();
+        assertThat(consume(received.get(0))).contains("\"id\":2");
+        // only the broadcaster's reference is left, the discarded duplicates were released
+        assertThat(shared.refCnt()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("5. Stop: should send the last window, complete the subscribers and reject further emits")
+    void stop_shouldFlushAndRejectEmits() {
+        // Arrange
+        List<String> received = new ArrayList<>();
+        quoteBroadCastService.getFlux().map(QuoteBroadCastServiceTest::consume).subscribe(received::add);
+        quoteBroadCastService.emit(quoteResponse(1L, 1)).block();
+
+        // Act
+        quoteBroadCastService.stop(() -> {});
+
+        // Assert
+        assertThat(received).hasSize(1);
+        StepVerifier.create(quoteBroadCastService.getFlux()).verifyComplete();
+        StepVerifier.create(quoteBroadCastService.emit(quoteResponse(2L, 1)))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("6. Cluster: should publish the local likes per window and conflate the likes and unlikes of the other nodes")
+    void flush_withClusterTransport_shouldPublishAndReceiveLikes() {
+        // Arrange
+        quoteBroadCastService.stop(() -> {});
+        ILikeEventTransport likeEventTransport = mock(ILikeEventTransport.class);
+        when(likeEventTransport.isEnabled()).thenReturn(true);
+        when(likeEventTransport.publish(List.of(new LikeEvent(1L, 3, true)))).thenReturn(Mono.empty());
+        when(likeEventTransport.remoteEvents()).thenReturn(Flux.just(new LikeEvent(5L, 9, false), new LikeEvent(6L, 1, true)));
+        when(quoteService.getQuoteById(5L)).thenReturn(Mono.just(Optional.of(new Quote(5L, "Author", "Text", 8))));
+        when(quoteService.getQuoteById(6L)).thenReturn(Mono.just(Optional.empty()));
+        quoteBroadCastService = broadCastService(likeEventTransport);
+        quoteBroadCastService.start();
+
+        List<String> received = new ArrayList<>();
+        quoteBroadCastService.getFlux().map(QuoteBroadCastServiceTest::consume).subscribe(received::add);
+        QuoteResponse liked = quoteResponse(1L, 3);
+        liked.setIsLiked(true);
+        quoteBroadCastService.emit(quoteResponse(1L, 2)).block();
+        quoteBroadCastService.emit(liked).block();
+
+        // Act
+        quoteBroadCastService.flush();
+
+        // Assert: one event per window for the local quote, the remote unlike with the likes of the event, the unknown one skipped
+        verify(likeEventTransport).publish(List.of(new LikeEvent(1L, 3, true)));
+        assertThat(received).hasSize(2);
+        assertThat(received).anySatisfy(event -> assertThat(event).contains("\"id\":1").contains("\"likes\":3").contains("\"isLiked\":true"));
+        assertThat(received).anySatisfy(event -> assertThat(event).contains("\"id\":5").contains("\"likes\":9").contains("\"isLiked\":false"));
+        assertThat(events("remote")).isEqualTo(2);
+
+        // remote likes are not published again
+        quoteBroadCastService.flush();
+        verify(likeEventTransport, never()).publish(List.of(new LikeEvent(5L, 9, false)));
+    }
+
+    @Test
+    @DisplayName("7. Resume: should send exactly the events after the Last-Event-ID")
+    void getFlux_withLastEventId_shouldSendMissedEvents() {
+        // Arrange: the client got events 1 and 2, then lost its connection
+        List<String> before = new ArrayList<>();
+        quoteBroadCastService.getFlux().map(QuoteBroadCastServiceTest::consume).take(2).subscribe(before::add);
+        emitAndFlush(1, 6);
+        String lastEventId = id(before.get(1));
+
+        // Act
+        List<String> resumed = quoteBroadCastService.getFlux(lastEventId, QuoteStreamFilter.NONE).map(QuoteBroadCastServiceTest::consume)
+                .take(Duration.ofMillis(100)).collectList().block();
+
+        // Assert: 4 ids on, events 3 to 6
+        assertThat(lastEventId).endsWith("-2");
+        assertThat(resumed).hasSize(4);
+        assertThat(resumed.get(0)).contains("\"id\":3");
+        assertThat(resumed.get(3)).contains("\"id\":6");
+        assertThat(meterRegistry.get(Constants.Metrics.STREAM_RESUMES).tag("outcome", "resumed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("8. Resume: should send one resync event if the gap is out of the buffer or the id is unknown")
+    void getFlux_withLostLastEventId_shouldSendResync() {
+        // Arrange: event 1 is overwritten in the ring by event 1 + RESUME_BUFFER_SIZE
+        List<String> first = new ArrayList<>();
+        quoteBroadCastService.getFlux().map(QuoteBroadCastServiceTest::consume).take(1).subscribe(first::add);
+        emitAndFlush(1, RESUME_BUFFER_SIZE + 2);
+        String lastEventId = id(first.get(0));
+        String latestId = lastEventId.substring(0, lastEventId.lastIndexOf('-') + 1) + (RESUME_BUFFER_SIZE + 2);
+
+        // Act
+        List<String> resumed = quoteBroadCastService.getFlux(lastEventId, QuoteStreamFilter.NONE).map(QuoteBroadCastServiceTest::consume)
+                .take(Duration.ofMillis(100)).collectList().block();
+        List<String> foreign = quoteBroadCastService.getFlux("previous-run-5", QuoteStreamFilter.NONE).map(QuoteBroadCastServiceTest::consume)
+                .take(Duration.ofMillis(100)).collectList().block();
+
+        // Assert: only the resync, with the latest id s.t. the next reconnect resumes from there
+        String resync = "id:" + latestId + "\nevent:resync\ndata:\n\n";
+        assertThat(resumed).containsExactly(resync);
+        assertThat(foreign).containsExactly(resync);
+        assertThat(meterRegistry.get(Constants.Metrics.STREAM_RESUMES).tag("outcome", "resync").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("9. Overflow: should disconnect a subscriber that doesn't read after max-dropped events")
+    void flush_withDisconnectPolicy_shouldDisconnectSlowSubscriber() {
+        // Arrange: 2 events fit the queue, the next 2 are dropped
+        restart(() -> broadCastService(new NoopLikeEventTransport(), "disconnect", 2, 2));
+
+        // Act & Assert: the subscriber requests nothing, the stream ends without the queued events
+        StepVerifier.create(quoteBroadCastService.getFlux(), 0)
+                .expectSubscription()
+                .then(() -> emitAndFlush(1, 4))
+                .verifyComplete();
+
+        assertThat(meterRegistry.get(Constants.Metrics.STREAM_DROPPED).tag("policy", "disconnect").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(Constants.Metrics.STREAM_SLOW_SUBSCRIBERS).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(Constants.Metrics.STREAM_DISCONNECTS).tag("reason", "slow").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(Constants.Metrics.STREAM_QUEUE_DEPTH + ".total").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("10. Heartbeat: should send a comment to idle subscribers and disconnect stalled ones")
+    void heartbeat_shouldKeepIdleAndReapStalledSubscribers() {
+        // Arrange: any queued event counts as stalled
+        restart(() -> broadCastService(new NoopLikeEventTransport(), "drop-oldest", 64, 128, Duration.ZERO, Integer.MAX_VALUE, Duration.ZERO));
+        List<String> idle = new ArrayList<>();
+        quoteBroadCastService.getFlux().map(QuoteBroadCastServiceTest::consume).subscribe(idle::add);
+        emitAndFlush(1, 1);
+
+        // Act & Assert: the reading subscriber gets the event and a heartbeat, the one not reading is closed
+        StepVerifier.create(quoteBroadCastService.getFlux(), 0)
+                .expectSubscription()
+                .then(() -> emitAndFlush(2, 2))
+                .then(quoteBroadCastService::heartbeat)
+                .verifyComplete();
+
+        assertThat(idle).hasSize(3);
+        assertThat(idle.get(2)).isEqualTo(":\n\n");
+        assertThat(meterRegistry.get(Constants.Metrics.STREAM_DISCONNECTS).tag("reason", "stalled").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(Constants.Metrics.STREAM_SUBSCRIBERS).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("11. Capacity: should reject subscribers over the maximum with a jittered retry time")
+    void getFlux_overMaxSubscribers_shouldFailWithRetryAfter() {
+        // Arrange
+        Duration reconnectDelay = Duration.ofSeconds(5);
+        restart(() -> broadCastService(new NoopLikeEventTransport(), "drop-oldest", 64, 128, Duration.ofHours(1), 1, reconnectDelay));
+        List<String> accepted = new ArrayList<>();
+        quoteBroadCastService.getFlux().map(QuoteBroadCastServiceTest::consume).subscribe(accepted::add);
+
+        // Act & Assert: the accepted subscriber is told its retry time first, the next one is rejected
+        assertThat(accepted).hasSize(1);
+        assertThat(accepted.get(0)).matches("retry:\\d+\n\n");
+        assertThat(Long.parseLong(accepted.get(0).substring(6).trim())).isBetween(5_000L, 10_000L);
+
+        StepVerifier.create(quoteBroadCastService.getFlux())
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOfSatisfying(QuoteStreamCapacityException.class, capacity -> assertThat(capacity.getRetryAfter())
+                                .isBetween(reconnectDelay, reconnectDelay.multipliedBy(2))))
+                .verify();
+        assertThat(meterRegistry.get(Constants.Metrics.STREAM_REJECTED).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("12. Filter: should send each subscriber only the quotes with its ids or by its author, once")
+    void flush_withFilters_shouldRouteToMatchingSubscribers() {
+        // Arrange
+        List<String> byId = new ArrayList<>();
+        List<String> byAuthor = new ArrayList<>();
+        List<String> byIdAndAuthor = new ArrayList<>();
+        List<String> all = new ArrayList<>();
+        subscribe(QuoteStreamFilter.of(List.of(1L), null), byId);
+        subscribe(QuoteStreamFilter.of(null, "  AUTHOR two "), byAuthor);
+        subscribe(QuoteStreamFilter.of(List.of(2L), "Author Two"), byIdAndAuthor);
+        subscribe(QuoteStreamFilter.NONE, all);
+
+        // Act
+        quoteBroadCastService.emit(quoteResponse(1L, 1, "Author One")).block();
+        quoteBroadCastService.flush();
+        quoteBroadCastService.emit(quoteResponse(2L, 1, "Author Two")).block();
+        quoteBroadCastService.flush();
+        quoteBroadCastService.emit(quoteResponse(3L, 1, "Author Two")).block();
+        quoteBroadCastService.flush();
+
+        // Assert
+        assertThat(byId).hasSize(1).allSatisfy(event -> assertThat(event).contains("\"id\":1"));
+        assertThat(byAuthor).hasSize(2);
+        assertThat(byIdAndAuthor).hasSize(2);
+        assertThat(all).hasSize(3);
+
+        // a new filtered subscriber gets the last matching events replayed
+        List<String> replayed = quoteBroadCastService.getFlux(null, QuoteStreamFilter.of(List.of(1L), null))
+                .map(QuoteBroadCastServiceTest::consume)
+                .take(Duration.ofMillis(100)).collectList().block();
+        assertThat(replayed).hasSize(1).allSatisfy(event -> assertThat(event).contains("\"id\":1"));
+    }
+
+    private void subscribe(QuoteStreamFilter filter, List<String> received) {
+        quoteBroadCastService.getFlux(null, filter).map(QuoteBroadCastServiceTest::consume).subscribe(received::add);
+    }
+}
@@ -0,0 +1,121 @@
+package com.amxcoding.randomquotes.api.services;
+
+import com.amxcoding.randomquotes.api.models.quote.QuoteStreamFilter;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StreamSubscriber Unit Tests")
+class StreamSubscriberTest {
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+    private NettyDataBuffer event(String data) {
+        return bufferFactory.wrap(Unpooled.copiedBuffer(data, StandardCharsets.UTF_8));
+    }
+
+    // offers the events to a subscriber that doesn't read, returns the dropped count
+    private static int offerAll(StreamSubscriber subscriber, List<NettyDataBuffer> events) {
+        int dropped = 0;
+        for (NettyDataBuffer event : events) {
+            dropped += subscriber.offer(event);
+        }
+        return dropped;
+    }
+
+    @Test
+    @DisplayName("1. Drop oldest: should keep the newest events that fit the queue and release the dropped ones")
+    void offer_withDropOldest_shouldDropOldestEvents() {
+        // Arrange
+        StreamSubscriber subscriber = new StreamSubscriber(QuoteStreamFilter.NONE, StreamSubscriber.OverflowPolicy.of("drop-oldest"), 2, 1);
+        List<NettyDataBuffer> events = List.of(event("1"), event("2"), event("3"), event("4"));
+
+        // Act
+        int dropped = offerAll(subscriber, events);
+
+        // Assert
+        assertThat(dropped).isEqualTo(2);
+        assertThat(subscriber.queueDepth()).isEqualTo(2);
+        assertThat(events.get(0).getNativeBuffer().refCnt()).isZero();
+        assertThat(events.get(1).getNativeBuffer().refCnt()).isZero();
+        StepVerifier.create(subscriber.asFlux().take(2).map(buffer -> buffer.toString(StandardCharsets.UTF_8)))
+                .expectNext("3", "4")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("2. Latest only: should skip the queued events for the newest one")
+    void offer_withLatestOnly_shouldKeepNewestEvent() {
+        // Arrange
+        StreamSubscriber subscriber = new StreamSubscriber(QuoteStreamFilter.NONE, StreamSubscriber.OverflowPolicy.of("latest-only"), 2, 1);
+        List<NettyDataBuffer> events = List.of(event("1"), event("2"), event("3"));
+
+        // Act
+        int dropped = offerAll(subscriber, events);
+
+        // Assert
+        assertThat(dropped).isEqualTo(2);
+        StepVerifier.create(subscriber.asFlux().take(1).map(buffer -> buffer.toString(StandardCharsets.UTF_8)))
+                .expectNext("3")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("3. Disconnect: should drop new events and end the stream with an empty queue after max-dropped")
+    void offer_withDisconnect_shouldDisconnectAfterMaxDropped() {
+        // Arrange
+        StreamSubscriber subscriber = new StreamSubscriber(QuoteStreamFilter.NONE, StreamSubscriber.OverflowPolicy.of("disconnect"), 1, 2);
+        List<NettyDataBuffer> events = new ArrayList<>(List.of(event("1"), event("2")));
+
+        // Act: one queued, one dropped, still connected
+        offerAll(subscriber, events);
+        boolean connectedAfterOneDrop = !subscriber.isDisconnected();
+        events.add(event("3"));
+        subscriber.offer(events.get(2));
+
+        // Assert: all released, the stream completes right away
+        assertThat(connectedAfterOneDrop).isTrue();
+        assertThat(subscriber.isDisconnected()).isTrue();
+        assertThat(subscriber.dropped()).isEqualTo(2);
+        assertThat(events).allSatisfy(event -> assertThat(event.getNativeBuffer().refCnt()).isZero());
+        StepVerifier.create(subscriber.asFlux()).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("4. Should reject an unknown overflow policy")
+    void of_withUnknownPolicy_shouldThrow() {
+        assertThatThrownBy(() -> StreamSubscriber.OverflowPolicy.of("buffer-forever"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("5. Stalled: a full queue should stall after the timeout although new events keep dropping the oldest")
+    void isStalled_whenEventsKeepDropping_shouldStallAfterTimeout() throws InterruptedException {
+        for (String policy : List.of("drop-oldest", "latest-only")) {
+            // Arrange: the client took nothing since the queue filled up
+            StreamSubscriber subscriber = new StreamSubscriber(QuoteStreamFilter.NONE, StreamSubscriber.OverflowPolicy.of(policy), 2, 1);
+            offerAll(subscriber, List.of(event("1"), event("2")));
+            long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(50);
+            Thread.sleep(60);
+
+            // Act: events keep flowing, each one drops queued events
+            offerAll(subscriber, IntStream.range(3, 20).mapToObj(i -> event(String.valueOf(i))).toList());
+
+            // Assert
+            assertThat(subscriber.isStalled(System.nanoTime(), timeoutNanos)).as(policy).isTrue();
+        }
+    }
+}
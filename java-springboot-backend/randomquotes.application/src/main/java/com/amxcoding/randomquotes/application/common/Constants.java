@@ -5,6 +5,29 @@ public class Constants {
 
     public static class Cache {
         public static final String QUOTES_CACHE  = "quotesCache";
-        public static final String RANDOM_QUOTES_KEY  = "randomQuotes";
+        public static final String QUOTE_BY_ID_CACHE = "quoteByIdCache";
+        public static final String QUOTE_ROTATIONS = "quoteRotations";
+        public static final String USER_LIKES_CACHE = "userLikesCache";
+    }
+
+    public static class Metrics {
+        public static final String RANDOM_QUOTE = "randomquotes.quotes.random";
+        public static final String WEIGHTED_RANDOM_QUOTE = "randomquotes.quotes.random.weighted";
+        public static final String LIKE_QUOTE = "randomquotes.quotes.like";
+        public static final String UNLIKE_QUOTE = "randomquotes.quotes.unlike";
+        public static final String LIKE_STATUS = "randomquotes.quotes.likes.status";
+        public static final String LIKE_FLUSH = "randomquotes.likes.flush";
+        public static final String LIKE_FOLD = "randomquotes.likes.fold";
+        public static final String LIKE_THROTTLED = "randomquotes.likes.throttled";
+        public static final String PROVIDER_FETCH = "randomquotes.providers.fetch";
+        public static final String CACHE_REFRESH = "randomquotes.cache.refresh";
+        public static final String STREAM_SUBSCRIBERS = "randomquotes.stream.subscribers";
+        public static final String STREAM_EVENTS = "randomquotes.stream.events";
+        public static final String STREAM_RESUMES = "randomquotes.stream.resumes";
+        public static final String STREAM_QUEUE_DEPTH = "randomquotes.stream.queue.depth";
+        public static final String STREAM_DROPPED = "randomquotes.stream.dropped";
+        public static final String STREAM_SLOW_SUBSCRIBERS = "randomquotes.stream.slow-subscribers";
+        public static final String STREAM_DISCONNECTS = "randomquotes.stream.disconnects";
+        public static final String STREAM_REJECTED = "randomquotes.stream.rejected";
     }
 }
@@ -0,0 +1,57 @@
+package com.amxcoding.randomquotes.application.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReactiveMetrics {
+    private ReactiveMetrics() {}
+
+    // the timers of each (registry, name, tags) are built once, a timed call only looks them up
+    private static final Map<TimerKey, OutcomeTimers> TIMERS = new ConcurrentHashMap<>();
+
+    /**
+     * Times a Mono from subscription until it terminates or is cancelled,
+     * the outcome (success, error, cancelled) is added as a tag.
+     */
+    public static <T> Mono<T> timed(Mono<T> mono, MeterRegistry meterRegistry, String name, String... tags) {
+        OutcomeTimers timers = TIMERS.computeIfAbsent(new TimerKey(meterRegistry, name, List.of(tags)), ReactiveMetrics::register);
+
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+
+            return mono.doFinally(signal -> sample.stop(timers.of(signal)));
+        });
+    }
+
+    private static OutcomeTimers register(TimerKey key) {
+        return new OutcomeTimers(
+                register(key, "success"),
+                register(key, "error"),
+                register(key, "cancelled"));
+    }
+
+    private static Timer register(TimerKey key, String outcome) {
+        return Timer.builder(key.name())
+                .tags(Tags.of(key.tags().toArray(String[]::new)).and("outcome", outcome))
+                .register(key.meterRegistry());
+    }
+
+    private record TimerKey(MeterRegistry meterRegistry, String name, List<String> tags) {}
+
+    private record OutcomeTimers(Timer success, Timer error, Timer cancelled) {
+        Timer of(SignalType signal) {
+            return switch (signal) {
+                case ON_ERROR -> error;
+                case CANCEL -> cancelled;
+                default -> success;
+            };
+        }
+    }
+}
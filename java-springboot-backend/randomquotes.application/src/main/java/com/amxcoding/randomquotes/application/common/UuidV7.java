@@ -0,0 +1,61 @@
+package com.amxcoding.randomquotes.application.common;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time ordered UUIDs (version 7, RFC 9562): 48 bits unix millis, a 12 bit counter and 62 random bits.
+ * Ids created later sort after earlier ones, s.t. inserts keyed by them append to the right of a B-tree
+ * instead of splitting random pages.
+ *
+ * The ids are the anonymous users' only credential, the random bits come from a SecureRandom per thread:
+ * a DRBG seeded once, it doesn't block on the entropy pool or contend on a shared generator.
+ * The counter keeps ids of the same millisecond ordered, when it runs out the timestamp is borrowed from the next millisecond.
+ */
+public class UuidV7 {
+    private UuidV7() {}
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    // unix millis << 12 | counter of the last id
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+    private static final ThreadLocal<SecureRandom> secureRandom = ThreadLocal.withInitial(UuidV7::newSecureRandom);
+
+    public static UUID randomUuid() {
+        long timestampAndCounter = nextTimestampAndCounter(System.currentTimeMillis());
+
+        long mostSigBits = ((timestampAndCounter >>> COUNTER_BITS) << 16)
+                | (0x7L << 12)
+                | (timestampAndCounter & COUNTER_MASK);
+        long leastSigBits = (secureRandom.get().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * The millis of a version 7 UUID.
+     */
+    public static long timestamp(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    private static SecureRandom newSecureRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    // package private
+    static long nextTimestampAndCounter(long nowMillis) {
+        long now = nowMillis << COUNTER_BITS;
+        return lastTimestampAndCounter.updateAndGet(last -> Math.max(now, last + 1));
+    }
+}
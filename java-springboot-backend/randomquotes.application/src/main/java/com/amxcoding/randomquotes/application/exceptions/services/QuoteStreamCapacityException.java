@@ -0,0 +1,23 @@
+package com.amxcoding.randomquotes.application.exceptions.services;
+
+import com.amxcoding.randomquotes.application.exceptions.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * The node serves the maximum number of quote stream subscribers, the client should reconnect after retryAfter.
+ */
+public class QuoteStreamCapacityException extends ApiException {
+
+    private final Duration retryAfter;
+
+    public QuoteStreamCapacityException(String message, Duration retryAfter) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
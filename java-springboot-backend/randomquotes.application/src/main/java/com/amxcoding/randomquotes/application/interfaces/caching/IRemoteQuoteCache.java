@@ -0,0 +1,29 @@
+package com.amxcoding.randomquotes.application.interfaces.caching;
+
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shared (remote) tier of the quote cache, sits behind the local quote pool
+ * so multiple nodes share one set of quotes and one refresh per ttl cycle.
+ */
+public interface IRemoteQuoteCache {
+    boolean isEnabled();
+    Mono<Optional<CachedQuotes>> getQuotes();
+    Mono<Void> putQuotes(CachedQuotes cachedQuotes, Duration ttl);
+    Mono<Boolean> tryAcquireRefreshLock(Duration lockTtl);
+
+    /**
+     * Quotes together with the time they were loaded from the orchestrator,
+     * s.t. every node expires the same pool at the same moment.
+     */
+    record CachedQuotes(List<Quote> quotes, long loadedAtMillis) {
+        public boolean isOlderThan(Duration age) {
+            return System.currentTimeMillis() - loadedAtMillis >= age.toMillis();
+        }
+    }
+}
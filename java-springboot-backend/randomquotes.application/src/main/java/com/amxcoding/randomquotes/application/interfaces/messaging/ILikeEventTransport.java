@@ -0,0 +1,26 @@
+package com.amxcoding.randomquotes.application.interfaces.messaging;
+
+import com.amxcoding.randomquotes.application.models.LikeEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Carries like events between the nodes of a cluster, s.t. every node's quote stream shows the likes of all nodes.
+ * Delivery is best effort: an event sent while a node is disconnected is lost for that node.
+ */
+public interface ILikeEventTransport {
+    boolean isEnabled();
+
+    /**
+     * Sends the like events of this node to the other nodes.
+     */
+    Mono<Void> publish(List<LikeEvent> events);
+
+    /**
+     * The like events published by the other nodes, never the ones of this node.
+     * Reconnects by itself while subscribed.
+     */
+    Flux<LikeEvent> remoteEvents();
+}
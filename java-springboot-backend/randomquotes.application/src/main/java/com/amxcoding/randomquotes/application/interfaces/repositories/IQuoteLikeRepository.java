@@ -1,12 +1,34 @@
 package com.amxcoding.randomquotes.application.interfaces.repositories;
 
-import com.amxcoding.randomquotes.domain.entities.QuoteLike;
+import com.amxcoding.randomquotes.application.models.QuoteLikeResult;
+import com.amxcoding.randomquotes.application.models.QuoteLikeStatus;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface IQuoteLikeRepository {
-    Mono<QuoteLike> saveQuoteLike(QuoteLike quoteLike);
-    Mono<Optional<QuoteLike>> findByUserIdAndQuoteId(String userId, Long quoteId);
-    Mono<Void> deleteByUserIdAndQuoteId(String userId, Long quoteId);
-}
\ No newline at end of file
+    Mono<List<Long>> findQuoteIdsByUserId(String userId);
+    Flux<String> findUserIdsLikedSince(Instant since);
+
+    /**
+     * Inserts the like (if absent) and increments the like count in one statement, returns the updated quote.
+     * With updateLikeCount false the count is left to the caller, the returned likes are the stored ones.
+     * Empty if the quote doesn't exist.
+     */
+    Mono<Optional<QuoteLikeResult>> likeQuote(String userId, Long quoteId, boolean updateLikeCount);
+
+    /**
+     * Deletes the like (if present) and decrements the like count in one statement, returns the updated quote.
+     * Empty if the quote doesn't exist.
+     */
+    Mono<Optional<QuoteLikeResult>> unlikeQuote(String userId, Long quoteId, boolean updateLikeCount);
+
+    /**
+     * Like counts of the given quotes and whether the user likes them, in one query.
+     * Unknown quote ids are left out.
+     */
+    Mono<List<QuoteLikeStatus>> findLikeStatuses(String userId, List<Long> quoteIds);
+}
@@ -1,19 +1,24 @@
 package com.amxcoding.randomquotes.application.interfaces.repositories;
 
+import com.amxcoding.randomquotes.application.models.QuoteLikeCount;
 import com.amxcoding.randomquotes.domain.entities.Quote;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface IQuoteRepository {
     Mono<Void> bulkInsertQuotesIgnoreConflicts(List<Quote> quotes, String providerName);
     Mono<Optional<Quote>> findByTextAuthorHash(String textAuthorHash);
+    Mono<List<Quote>> findByTextAuthorHashes(List<String> textAuthorHashes, String provider);
     Mono<Optional<Quote>> findById(Long id);
-    Mono<Boolean> incrementLikeCount(Long id);
-    Mono<Boolean> decrementLikeCount(Long id);
+    Mono<Long> applyLikeDeltas(Map<Long, Integer> likeDeltas);
+    Mono<Long> foldLikeCounterShards();
     Mono<Long> count();
     Mono<Long> countByProvider(String provider);
     Mono<List<Quote>>findRandomQuotes(int amount);
     Mono<List<Quote>>findRandomQuotesByProvider(int amount, String provider);
+    Mono<List<Quote>> findQuotesAfterId(long afterId, int limit);
+    Mono<List<QuoteLikeCount>> findLikeCountsAfterId(long afterId, int limit);
 }
@@ -0,0 +1,18 @@
+package com.amxcoding.randomquotes.application.interfaces.services;
+
+public interface ILikeCountBuffer {
+    /**
+     * False when like counts are written to the database right away (one update per like).
+     */
+    boolean isEnabled();
+
+    /**
+     * Buffers a committed like (+1) or unlike (-1) until the next flush.
+     */
+    void add(Long quoteId, int delta);
+
+    /**
+     * Deltas not yet in the database, s.t. reads of a quote's likes can include them.
+     */
+    int pendingDelta(Long quoteId);
+}
@@ -0,0 +1,16 @@
+package com.amxcoding.randomquotes.application.interfaces.services;
+
+import java.time.Duration;
+
+public interface ILikeThrottle {
+    /**
+     * Counts a like or unlike of the user from the remote address and returns false if either is over its limit.
+     * Null keys are not counted.
+     */
+    boolean tryAcquire(String userId, String remoteAddress);
+
+    /**
+     * How long a throttled client should wait, the estimates are halved once per this duration.
+     */
+    Duration retryAfter();
+}
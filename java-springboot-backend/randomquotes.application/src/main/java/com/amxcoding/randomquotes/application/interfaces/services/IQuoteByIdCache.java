@@ -0,0 +1,11 @@
+package com.amxcoding.randomquotes.application.interfaces.services;
+
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+public interface IQuoteByIdCache {
+    Mono<Optional<Quote>> getQuoteById(Long quoteId);
+    void applyLikeDelta(Long quoteId, int delta);
+}
@@ -8,5 +8,29 @@ import java.util.Optional;
 
 public interface IQuoteCache {
     Mono<List<Quote>> getQuotes();
-}
+    Mono<Optional<Quote>> getRandomQuote();
+
+    /**
+     * Picks a random quote in proportion to its likes.
+     */
+    Mono<Optional<Quote>> getWeightedRandomQuote();
+
+    /**
+     * Returns the quote at the index chosen by the picker, e.g. the next quote of a user's rotation.
+     */
+    Mono<Optional<Quote>> pickQuote(QuoteIndexPicker picker);
 
+    /**
+     * Called after a like/unlike committed, for caches that keep like counts up to date.
+     */
+    default void applyLikeDelta(Long quoteId, int delta) {}
+
+    /**
+     * Chooses an index in [0, size) of the cached quotes.
+     * The generation changes whenever the indexes refer to other quotes (e.g. a new pool).
+     */
+    @FunctionalInterface
+    interface QuoteIndexPicker {
+        int pick(long generation, int size);
+    }
+}
@@ -1,9 +1,15 @@
 package com.amxcoding.randomquotes.application.interfaces.services;
 
+import com.amxcoding.randomquotes.application.models.QuoteLikeResult;
+import com.amxcoding.randomquotes.application.models.QuoteLikeStatus;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface IQuoteLikeService {
-    Mono<Boolean> likeQuote(String userId, Long quoteId);
-    Mono<Boolean> unlikeQuote(String userId, Long quoteId);
+    Mono<Optional<QuoteLikeResult>> likeQuote(String userId, Long quoteId);
+    Mono<Optional<QuoteLikeResult>> unlikeQuote(String userId, Long quoteId);
     Mono<Boolean> checkUserLike(String userId, Long quoteId);
+    Mono<List<QuoteLikeStatus>> getLikeStatuses(String userId, List<Long> quoteIds);
 }
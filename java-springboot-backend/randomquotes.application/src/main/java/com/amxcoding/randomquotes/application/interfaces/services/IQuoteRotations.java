@@ -0,0 +1,11 @@
+package com.amxcoding.randomquotes.application.interfaces.services;
+
+public interface IQuoteRotations {
+    boolean isEnabled();
+
+    /**
+     * Returns the next position of the user's rotation over quotes [0, size),
+     * a new rotation is started when the generation (or size) of the quotes changed.
+     */
+    int nextIndex(String userId, long generation, int size);
+}
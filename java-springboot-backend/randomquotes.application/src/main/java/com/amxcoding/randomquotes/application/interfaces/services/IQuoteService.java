@@ -7,6 +7,8 @@ import java.util.Optional;
 
 public interface IQuoteService {
     Mono<Optional<Quote>> getRandomQuote();
+    Mono<Optional<Quote>> getRandomQuote(String userId);
+    Mono<Optional<Quote>> getWeightedRandomQuote();
     Mono<Optional<Quote>> getQuoteById(Long quoteId);
 
 }
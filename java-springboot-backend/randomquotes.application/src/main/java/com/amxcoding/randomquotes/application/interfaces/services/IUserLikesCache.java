@@ -0,0 +1,13 @@
+package com.amxcoding.randomquotes.application.interfaces.services;
+
+import reactor.core.publisher.Mono;
+
+public interface IUserLikesCache {
+    Mono<Boolean> isLiked(String userId, Long quoteId);
+
+    /**
+     * Called after a like/unlike of the user committed.
+     */
+    void onLiked(String userId, Long quoteId);
+    void onUnliked(String userId, Long quoteId);
+}
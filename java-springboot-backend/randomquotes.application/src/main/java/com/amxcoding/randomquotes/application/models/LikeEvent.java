@@ -0,0 +1,7 @@
+package com.amxcoding.randomquotes.application.models;
+
+/**
+ * The like count of a quote after a like (liked) or an unlike on some node, what the other nodes need to update their quote stream.
+ */
+public record LikeEvent(long quoteId, int likes, boolean liked) {
+}
@@ -0,0 +1,7 @@
+package com.amxcoding.randomquotes.application.models;
+
+/**
+ * Stored like count of a quote, without the quote itself.
+ */
+public record QuoteLikeCount(Long quoteId, int likes) {
+}
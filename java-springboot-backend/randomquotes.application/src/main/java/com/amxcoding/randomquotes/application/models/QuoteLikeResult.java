@@ -0,0 +1,14 @@
+package com.amxcoding.randomquotes.application.models;
+
+import com.amxcoding.randomquotes.domain.entities.Quote;
+
+/**
+ * Outcome of a like or unlike: the quote with its updated like count, whether the user likes it now
+ * and whether the statement changed anything (false for a repeated like or an unlike of a quote that wasn't liked).
+ */
+public record QuoteLikeResult(Quote quote, boolean liked, boolean changed) {
+
+    public QuoteLikeResult withLikes(int likes) {
+        return new QuoteLikeResult(new Quote(quote.getId(), quote.getAuthor(), quote.getText(), likes), liked, changed);
+    }
+}
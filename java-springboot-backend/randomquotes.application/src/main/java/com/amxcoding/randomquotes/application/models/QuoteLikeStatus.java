@@ -0,0 +1,7 @@
+package com.amxcoding.randomquotes.application.models;
+
+/**
+ * Like count of a quote and whether a user likes it.
+ */
+public record QuoteLikeStatus(Long quoteId, int likes, boolean liked) {
+}
@@ -0,0 +1,102 @@
+package com.amxcoding.randomquotes.application.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock free count-min sketch over strings: depth rows of width counters, fixed memory whatever the number of keys.
+ * estimate never undercounts, it overcounts by the counts of keys colliding with the key in every row.
+ * Adds are conservative (only counters below the new estimate are raised), which keeps the overcount small.
+ * halve divides all counters by 2, calling it periodically makes old counts fade out.
+ *
+ * Hashes are seeded per instance, s.t. clients can't pick keys that collide with someone else's.
+ */
+public class CountMinSketch {
+
+    private final AtomicIntegerArray counters;
+    private final int depth;
+    private final int width;
+    private final long seed;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Depth and width of a count-min sketch must be positive");
+        }
+
+        this.counters = new AtomicIntegerArray(Math.multiplyExact(depth, width));
+        this.depth = depth;
+        this.width = width;
+        this.seed = ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Counts one occurrence of the key and returns its new estimate.
+     */
+    public int add(String key) {
+        int[] indexes = indexes(key);
+
+        int estimate = Integer.MAX_VALUE;
+        for (int index : indexes) {
+            estimate = Math.min(estimate, counters.get(index));
+        }
+        int target = estimate == Integer.MAX_VALUE ? estimate : estimate + 1;
+
+        for (int index : indexes) {
+            int current = counters.get(index);
+            while (current < target && !counters.compareAndSet(index, current, target)) {
+                current = counters.get(index);
+            }
+        }
+        return target;
+    }
+
+    public int estimate(String key) {
+        int estimate = Integer.MAX_VALUE;
+        for (int index : indexes(key)) {
+            estimate = Math.min(estimate, counters.get(index));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter. Adds running concurrently are kept or halved, either is fine for a decaying count.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    public long sizeInBytes() {
+        return (long) counters.length() * Integer.BYTES;
+    }
+
+    // one counter per row, derived from one 64-bit hash (Kirsch-Mitzenmacher double hashing)
+    private int[] indexes(String key) {
+        long hash = hash(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+
+        int[] indexes = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            indexes[row] = row * width + Integer.remainderUnsigned(first + (row + 1) * second, width);
+        }
+        return indexes;
+    }
+
+    // 64-bit FNV-1a from a random offset followed by a murmur3 finalizer to spread the bits
+    private long hash(String key) {
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,220 @@
+package com.amxcoding.randomquotes.application.services;
+
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.common.ReactiveMetrics;
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeCountBuffer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for like counts: instead of one UPDATE (and row lock) per like,
+ * the deltas per quote are summed in memory and written in one statement
+ * every flush-interval, or as soon as max-pending likes are buffered.
+ * A viral quote is then updated once per flush, whatever the number of likes.
+ *
+ * Deltas of a failed flush are put back and retried with the next one. On shutdown the buffer is flushed
+ * after the web server drained its requests and stopped, likes added after that are written through.
+ * Once stopped nothing retries: deltas of a failed write are logged and dropped, as are deltas still buffered when the process dies
+ * (the quote_like rows are not lost, counts can be recomputed from them). Hence opt-in, like-count writes are synchronous by default.
+ */
+@Service
+public class LikeCountBuffer implements ILikeCountBuffer, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCountBuffer.class);
+
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+    // lower phases stop later. Spring Boot drains the requests at DEFAULT_PHASE - 1024 (graceful shutdown)
+    // and stops the web server at DEFAULT_PHASE - 2048, the buffer stops after both
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 3072;
+
+    private final IQuoteRepository quoteRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration flushInterval;
+    private final int maxPending;
+
+    // merge/remove are atomic per key, a delta is either drained or stays for the next flush
+    private final ConcurrentHashMap<Long, Integer> buffered = new ConcurrentHashMap<>();
+    // drained but not yet committed, still pending for readers
+    private final ConcurrentHashMap<Long, Integer> flushing = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingLikes = new AtomicInteger();
+    // nano time of the oldest buffered delta, 0 when empty
+    private final AtomicLong oldestBufferedAt = new AtomicLong();
+
+    private final Sinks.Many<Boolean> flushRequests = Sinks.many().multicast().directBestEffort();
+    private final DistributionSummary flushSize;
+    private final Timer flushLag;
+    private volatile Disposable flushTask;
+    private volatile boolean stopped;
+
+
+    public LikeCountBuffer(IQuoteRepository quoteRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${randomquotes.likes.write-behind.enabled:false}") boolean enabled,
+                           @Value("${randomquotes.likes.write-behind.flush-interval:200ms}") Duration flushInterval,
+                           @Value("${randomquotes.likes.write-behind.max-pending:1000}") int maxPending) {
+        this.quoteRepository = quoteRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+        this.maxPending = maxPending;
+
+        this.flushSize = DistributionSummary.builder(Constants.Metrics.LIKE_FLUSH + ".size")
+                .description("Number of quotes updated per like count flush")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder(Constants.Metrics.LIKE_FLUSH + ".lag")
+                .description("Age of the oldest buffered like when it was flushed")
+                .register(meterRegistry);
+        Gauge.builder(Constants.Metrics.LIKE_FLUSH + ".pending", pendingLikes, AtomicInteger::get)
+                .description("Number of likes buffered and not yet flushed")
+                .register(meterRegistry);
+
+        logger.info("LikeCountBuffer initialized (enabled: {}, flush interval: {}, max pending: {})", enabled, flushInterval, maxPending);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void add(Long quoteId, int delta) {
+        if (quoteId == null || delta == 0) {
+            return;
+        }
+
+        oldestBufferedAt.compareAndSet(0, System.nanoTime());
+        buffered.merge(quoteId, delta, Integer::sum);
+
+        if (stopped) {
+            // nothing flushes anymore, write through instead of leaving the delta in the buffer
+            flush().subscribe();
+            return;
+        }
+        if (pendingLikes.incrementAndGet() >= maxPending) {
+            // a failed emit means a flush is already running (or the buffer is stopped), it picks this delta up
+            flushRequests.tryEmitNext(true);
+        }
+    }
+
+    @Override
+    public int pendingDelta(Long quoteId) {
+        if (quoteId == null) {
+            return 0;
+        }
+
+        return buffered.getOrDefault(quoteId, 0) + flushing.getOrDefault(quoteId, 0);
+    }
+
+    /**
+     * Writes all buffered deltas in one statement. Errors are logged and the deltas put back.
+     */
+    Mono<Void> flush() {
+        return Mono.defer(() -> {
+            long bufferedSince = oldestBufferedAt.getAndSet(0);
+            pendingLikes.set(0);
+
+            Map<Long, Integer> batch = new HashMap<>();
+            for (Long quoteId : buffered.keySet()) {
+                Integer delta = buffered.remove(quoteId);
+                if (delta != null && delta != 0) {
+                    batch.put(quoteId, delta);
+                    flushing.merge(quoteId, delta, Integer::sum);
+                }
+            }
+
+            if (batch.isEmpty()) {
+                return Mono.empty();
+            }
+
+            if (bufferedSince != 0) {
+                flushLag.record(System.nanoTime() - bufferedSince, TimeUnit.NANOSECONDS);
+            }
+            flushSize.record(batch.size());
+
+            return ReactiveMetrics.timed(quoteRepository.applyLikeDeltas(batch), meterRegistry, Constants.Metrics.LIKE_FLUSH)
+                    .doOnNext(updated -> logger.debug("Flushed like deltas of {} quotes ({} updated)", batch.size(), updated))
+                    .onErrorResume(error -> {
+                        if (stopped) {
+                            logger.error("Writing like deltas of {} quotes after shutdown failed, dropping them: {}", batch.size(), batch, error);
+                            return Mono.empty();
+                        }
+                        logger.warn("Flushing like deltas of {} quotes failed, retrying with the next flush: {}", batch.size(), error.getMessage());
+                        oldestBufferedAt.compareAndSet(0, bufferedSince != 0 ? bufferedSince : System.nanoTime());
+                        batch.forEach((quoteId, delta) -> buffered.merge(quoteId, delta, Integer::sum));
+                        return Mono.empty();
+                    })
+                    .doFinally(signal -> batch.forEach((quoteId, delta) ->
+                            flushing.computeIfPresent(quoteId, (id, current) -> current - delta == 0 ? null : current - delta)))
+                    .then();
+        });
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        stopped = false;
+        flushTask = Flux.merge(Flux.interval(flushInterval).onBackpressureDrop(), flushRequests.asFlux())
+                .onBackpressureDrop()
+                .concatMap(tick -> flush(), 1)
+                .subscribe();
+    }
+
+    /**
+     * Stops the periodic flush and writes what is left, likes added afterwards are written through.
+     */
+    @Override
+    public void stop() {
+        Disposable task = flushTask;
+        if (task == null) {
+            return;
+        }
+
+        stopped = true;
+        task.dispose();
+        flushTask = null;
+
+        try {
+            flush().block(SHUTDOWN_FLUSH_TIMEOUT);
+        } catch (RuntimeException e) {
+            logger.error("Flushing like deltas on shutdown failed, {} quotes lost their pending likes", buffered.size(), e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flushTask != null;
+    }
+
+    /**
+     * Beans with lower phase values are stopped later by DefaultLifecycleProcessor,
+     * the default phase would stop the buffer before the web server drained the in-flight requests.
+     */
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
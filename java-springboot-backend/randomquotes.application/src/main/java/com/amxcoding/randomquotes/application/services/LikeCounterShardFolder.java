@@ -0,0 +1,80 @@
+package com.amxcoding.randomquotes.application.services;
+
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.common.ReactiveMetrics;
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Periodically folds the like counter shards into quotes.likes, s.t. the shard table stays small
+ * and reads only sum the shards written since the last fold.
+ * Shards are durable, a fold that fails or is skipped on shutdown is picked up by the next one.
+ */
+@Service
+@ConditionalOnProperty(name = "randomquotes.likes.counter-shards.enabled", havingValue = "true")
+public class LikeCounterShardFolder implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCounterShardFolder.class);
+
+    private final IQuoteRepository quoteRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration foldInterval;
+    private volatile Disposable foldTask;
+
+
+    public LikeCounterShardFolder(IQuoteRepository quoteRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${randomquotes.likes.counter-shards.fold-interval:10s}") Duration foldInterval) {
+        this.quoteRepository = quoteRepository;
+        this.meterRegistry = meterRegistry;
+        this.foldInterval = foldInterval;
+
+        logger.info("LikeCounterShardFolder initialized (fold interval: {})", foldInterval);
+    }
+
+    /**
+     * One fold. Errors are logged, the shards stay until the next fold.
+     */
+    Mono<Void> fold() {
+        return ReactiveMetrics.timed(quoteRepository.foldLikeCounterShards(), meterRegistry, Constants.Metrics.LIKE_FOLD)
+                .doOnNext(updated -> logger.debug("Folded the like counter shards of {} quotes", updated))
+                .onErrorResume(error -> {
+                    logger.warn("Folding the like counter shards failed, retrying with the next fold: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    @Override
+    public void start() {
+        foldTask = Flux.interval(foldInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> fold(), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable task = foldTask;
+        if (task != null) {
+            task.dispose();
+        }
+        foldTask = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return foldTask != null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.amxcoding.randomquotes.application.services;
+
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeThrottle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * Admission check for likes and unlikes, run before any database work.
+ * The recent actions per user id and per remote address are estimated with one count-min sketch,
+ * halved every decay-interval: a client doing n actions per interval converges to an estimate of 2n,
+ * a burst is admitted up to the limit. Requests over the limit still count, s.t. a client has to back off to get in again.
+ * Scripts that drop their cookie get a new user id per request and are caught by the address limit.
+ */
+@Service
+public class LikeThrottle implements ILikeThrottle, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeThrottle.class);
+
+    static final int SKETCH_DEPTH = 4;
+    private static final String USER_KEY_PREFIX = "u:";
+    private static final String ADDRESS_KEY_PREFIX = "a:";
+
+    private final boolean enabled;
+    private final int userLimit;
+    private final int addressLimit;
+    private final Duration decayInterval;
+    private final CountMinSketch sketch;
+    private final Counter throttledUsers;
+    private final Counter throttledAddresses;
+    private volatile Disposable decayTask;
+
+
+    public LikeThrottle(MeterRegistry meterRegistry,
+                        @Value("${randomquotes.likes.throttle.enabled:true}") boolean enabled,
+                        @Value("${randomquotes.likes.throttle.user-limit:30}") int userLimit,
+                        @Value("${randomquotes.likes.throttle.address-limit:300}") int addressLimit,
+                        @Value("${randomquotes.likes.throttle.decay-interval:10s}") Duration decayInterval,
+                        @Value("${randomquotes.likes.throttle.sketch-width:8192}") int sketchWidth) {
+        this.enabled = enabled;
+        this.userLimit = userLimit;
+        this.addressLimit = addressLimit;
+        this.decayInterval = decayInterval;
+        this.sketch = new CountMinSketch(SKETCH_DEPTH, sketchWidth);
+
+        this.throttledUsers = Counter.builder(Constants.Metrics.LIKE_THROTTLED)
+                .description("Likes and unlikes rejected because the user or address was over its limit")
+                .tag("key", "user")
+                .register(meterRegistry);
+        this.throttledAddresses = Counter.builder(Constants.Metrics.LIKE_THROTTLED)
+                .description("Likes and unlikes rejected because the user or address was over its limit")
+                .tag("key", "address")
+                .register(meterRegistry);
+        Gauge.builder(Constants.Metrics.LIKE_THROTTLED + ".sketch.size", sketch, CountMinSketch::sizeInBytes)
+                .description("Memory of the like throttle's count-min sketch")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        logger.info("LikeThrottle initialized (enabled: {}, user limit: {}, address limit: {}, decay interval: {}, sketch: {} bytes)",
+                enabled, userLimit, addressLimit, decayInterval, sketch.sizeInBytes());
+    }
+
+    @Override
+    public boolean tryAcquire(String userId, String remoteAddress) {
+        if (!enabled) {
+            return true;
+        }
+
+        boolean userAdmitted = userId == null || sketch.add(USER_KEY_PREFIX + userId) <= userLimit;
+        boolean addressAdmitted = remoteAddress == null || sketch.add(ADDRESS_KEY_PREFIX + remoteAddress) <= addressLimit;
+
+        if (!userAdmitted) {
+            throttledUsers.increment();
+        } else if (!addressAdmitted) {
+            throttledAddresses.increment();
+        }
+        return userAdmitted && addressAdmitted;
+    }
+
+    @Override
+    public Duration retryAfter() {
+        return decayInterval;
+    }
+
+    void decay() {
+        sketch.halve();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        decayTask = Flux.interval(decayInterval)
+                .onBackpressureDrop()
+                .subscribe(tick -> decay());
+    }
+
+    @Override
+    public void stop() {
+        Disposable task = decayTask;
+        if (task != null) {
+            task.dispose();
+        }
+        decayTask = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return decayTask != null;
+    }
+}
@@ -1,5 +1,7 @@
 package com.amxcoding.randomquotes.application.services;
 
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.common.ReactiveMetrics;
 import com.amxcoding.randomquotes.application.exceptions.providers.QuoteProviderException;
 import com.amxcoding.randomquotes.application.exceptions.repositories.QuotePersistenceException;
 import com.amxcoding.randomquotes.application.exceptions.services.QuoteFetchOrchestratorException;
@@ -7,6 +9,7 @@ import com.amxcoding.randomquotes.application.interfaces.providers.IQuoteProvide
 import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
 import com.amxcoding.randomquotes.application.interfaces.services.IQuoteFetchOrchestrator;
 import com.amxcoding.randomquotes.domain.entities.Quote;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
@@ -15,6 +18,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -25,16 +29,19 @@ public class QuoteFetchOrchestrator implements IQuoteFetchOrchestrator {
 
     private final List<IQuoteProvider> quoteProviders;
     private final IQuoteRepository quoteRepository;
+    private final MeterRegistry meterRegistry;
     private static final Logger logger = LoggerFactory.getLogger(QuoteFetchOrchestrator.class);
 
     private static final int FALLBACK_RANDOM_QUOTE_AMOUNT = 50;
 
     public QuoteFetchOrchestrator(List<IQuoteProvider> quoteProviders,
-                                  IQuoteRepository quoteRepository) {
+                                  IQuoteRepository quoteRepository,
+                                  MeterRegistry meterRegistry) {
         // Sort providers based on @Order annotation if present
         quoteProviders.sort(AnnotationAwareOrderComparator.INSTANCE);
         this.quoteProviders = quoteProviders;
         this.quoteRepository = quoteRepository;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -54,23 +61,26 @@ public class QuoteFetchOrchestrator implements IQuoteFetchOrchestrator {
         // Chain providers sequentially, taking the first non-empty result
         return Flux.fromIterable(quoteProviders)
                 .concatMap(provider -> {
-                    return provider.fetchQuotes()
+                    String providerName = provider.getProviderName();
+
+                    return ReactiveMetrics.timed(provider.fetchQuotes(), meterRegistry,
+                                    Constants.Metrics.PROVIDER_FETCH, "provider", Objects.requireNonNullElse(providerName, "unknown"))
                             .onErrorResume(error -> {
                                 if (error instanceof QuotePersistenceException) {
                                     // Critical DB persistence error, propagate
                                     logger.error("CRITICAL - Provider {} encountered non-recoverable persistence error: {}",
-                                            provider.getProviderName(), error.getMessage(), error);
+                                            providerName, error.getMessage(), error);
                                     return Mono.error(error);
                                 } else if (error instanceof QuoteProviderException) {
                                     // Provider fetch error (e.g., network, API error)
                                     logger.warn("Provider {} failed (QuoteProviderException): {}",
-                                            provider.getProviderName(), error.getMessage());
+                                            providerName, error.getMessage());
                                     // return empty list s.t. we can try next provider
                                     return Mono.empty();
                                 } else {
                                     // Propagate error
                                     logger.error("Unexpected error during fetch from provider {}: {}",
-                                            provider.getProviderName(), error.getMessage(), error);
+                                            providerName, error.getMessage(), error);
                                     return Mono.error(new QuoteFetchOrchestratorException("Unexpected error: " + error.getMessage(), error));
                                 }
                             });
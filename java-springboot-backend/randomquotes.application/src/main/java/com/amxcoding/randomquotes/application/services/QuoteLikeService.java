@@ -1,84 +1,88 @@
 package com.amxcoding.randomquotes.application.services;
 
-import com.amxcoding.randomquotes.application.exceptions.repositories.QuoteLikePersistenceException;
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.common.ReactiveMetrics;
 import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteLikeRepository;
-import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeCountBuffer;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteByIdCache;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteCache;
 import com.amxcoding.randomquotes.application.interfaces.services.IQuoteLikeService;
-import com.amxcoding.randomquotes.domain.entities.QuoteLike;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.amxcoding.randomquotes.application.interfaces.services.IUserLikesCache;
+import com.amxcoding.randomquotes.application.models.QuoteLikeResult;
+import com.amxcoding.randomquotes.application.models.QuoteLikeStatus;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class QuoteLikeService implements IQuoteLikeService {
 
-    private final IQuoteRepository quoteRepository;
     private final IQuoteLikeRepository quoteLikeRepository;
-    private static final Logger logger = LoggerFactory.getLogger(QuoteLikeService.class);
+    private final IQuoteByIdCache quoteByIdCache;
+    private final IQuoteCache quotesCache;
+    private final IUserLikesCache userLikesCache;
+    private final ILikeCountBuffer likeCountBuffer;
+    private final MeterRegistry meterRegistry;
 
 
     public QuoteLikeService(IQuoteLikeRepository quoteLikeRepository,
-                            IQuoteRepository quoteRepository) {
+                            IQuoteByIdCache quoteByIdCache,
+                            IQuoteCache quotesCache,
+                            IUserLikesCache userLikesCache,
+                            ILikeCountBuffer likeCountBuffer,
+                            MeterRegistry meterRegistry) {
         this.quoteLikeRepository = quoteLikeRepository;
-        this.quoteRepository = quoteRepository;
+        this.quoteByIdCache = quoteByIdCache;
+        this.quotesCache = quotesCache;
+        this.userLikesCache = userLikesCache;
+        this.likeCountBuffer = likeCountBuffer;
+        this.meterRegistry = meterRegistry;
     }
 
 
     /**
-     *  Create a new entry with unique columns (userId, quoteId)
+     * Likes the quote with a single statement (insert the entry with unique columns (userId, quoteId) and count it),
+     * liking a quote twice changes nothing. Returns the updated quote, empty if it doesn't exist.
      */
-    @Transactional
     @Override
-    public Mono<Boolean> likeQuote(String userId, Long quoteId) {
+    public Mono<Optional<QuoteLikeResult>> likeQuote(String userId, Long quoteId) {
         if (userId == null || quoteId == null) {
             return Mono.error(new IllegalArgumentException("UserId and quoteId cannot be null."));
         }
 
-        // Check if the entry already exists if so throw
-        return quoteLikeRepository.findByUserIdAndQuoteId(userId, quoteId)
-                .flatMap(quoteLike -> {
-                    if (quoteLike.isPresent()) {
-                        logger.error("Error liking quote, there exists an entry: ({}, {})", userId, quoteId);
-                        return Mono.error(new QuoteLikePersistenceException("Error liking quote, there exists an entry."));
-                    }
-                    QuoteLike like = new QuoteLike(null, userId, quoteId);
+        // the count is buffered after commit if enabled, see updateCachedLikesAfterCommit
+        Mono<Optional<QuoteLikeResult>> likeResult = quoteLikeRepository.likeQuote(userId, quoteId, !likeCountBuffer.isEnabled())
+                .flatMap(result -> applyLikeResult(result, userId, quoteId, 1));
 
-                    // errors will be propagated
-                    return quoteLikeRepository.saveQuoteLike(like)
-                            .flatMap(savedLike -> quoteRepository.incrementLikeCount(quoteId));
-                });
+        return ReactiveMetrics.timed(likeResult, meterRegistry, Constants.Metrics.LIKE_QUOTE);
     }
 
     /**
-     * Unlike a quote by deleting its entry and decrementing likes on quote
+     * Unlikes the quote with a single statement (delete its entry and decrement likes on quote).
+     * Returns the updated quote, empty if it doesn't exist.
      */
-    @Transactional
     @Override
-    public Mono<Boolean> unlikeQuote(String userId, Long quoteId) {
+    public Mono<Optional<QuoteLikeResult>> unlikeQuote(String userId, Long quoteId) {
         if (userId == null || quoteId == null) {
             return Mono.error(new IllegalArgumentException("UserId and quoteId cannot be null."));
         }
 
-        return quoteLikeRepository.findByUserIdAndQuoteId(userId, quoteId)
-                .flatMap(optionalLike -> {
-                    if (optionalLike.isPresent()) {
-                        // Like exists: Delete the like record
-                        return quoteLikeRepository.deleteByUserIdAndQuoteId(userId, quoteId)
-                                // After successful delete, decrement the counter & return its result
-                                .then(Mono.defer(() -> quoteRepository.decrementLikeCount(quoteId)));
-                    } else {
-                        return Mono.just(false);
-                    }
-                });
+        Mono<Optional<QuoteLikeResult>> unlikeResult = quoteLikeRepository.unlikeQuote(userId, quoteId, !likeCountBuffer.isEnabled())
+                .flatMap(result -> applyLikeResult(result, userId, quoteId, -1));
+
+        return ReactiveMetrics.timed(unlikeResult, meterRegistry, Constants.Metrics.UNLIKE_QUOTE);
     }
 
     /**
-     *
-     * Checks if an entry already exists
+     * Checks if the user liked the quote, answered from the user likes cache
+     * (only users that liked something and aren't cached yet cost a query)
      */
     @Override
     public Mono<Boolean> checkUserLike(String userId, Long quoteId) {
@@ -86,7 +90,94 @@ public class QuoteLikeService implements IQuoteLikeService {
             return Mono.error(new IllegalArgumentException("User ID and Quote ID cannot be null."));
         }
 
-        return quoteLikeRepository.findByUserIdAndQuoteId(userId, quoteId)
-                .map(Optional::isPresent);
+        return userLikesCache.isLiked(userId, quoteId);
+    }
+
+    /**
+     * Like counts and the user's like state of many quotes with a single query, e.g. for a page of quotes.
+     * Duplicate ids are resolved once, unknown ids are left out.
+     */
+    @Override
+    public Mono<List<QuoteLikeStatus>> getLikeStatuses(String userId, List<Long> quoteIds) {
+        if (userId == null || quoteIds == null || quoteIds.stream().anyMatch(Objects::isNull)) {
+            return Mono.error(new IllegalArgumentException("UserId and quoteIds cannot be null."));
+        }
+
+        List<Long> distinctQuoteIds = quoteIds.stream().distinct().toList();
+        if (distinctQuoteIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        Mono<List<QuoteLikeStatus>> likeStatuses = quoteLikeRepository.findLikeStatuses(userId, distinctQuoteIds)
+                .map(statuses -> likeCountBuffer.isEnabled()
+                        ? statuses.stream()
+                                .map(status -> new QuoteLikeStatus(status.quoteId(),
+                                        Math.max(0, status.likes() + likeCountBuffer.pendingDelta(status.quoteId())),
+                                        status.liked()))
+                                .toList()
+                        : statuses);
+
+        return ReactiveMetrics.timed(likeStatuses, meterRegistry, Constants.Metrics.LIKE_STATUS);
+    }
+
+    /**
+     * With the like count buffer the stored count lags behind, the returned likes add what is pending (and this change).
+     * Changes are passed on to the caches.
+     */
+    private Mono<Optional<QuoteLikeResult>> applyLikeResult(Optional<QuoteLikeResult> optionalResult, String userId, Long quoteId, int delta) {
+        if (optionalResult.isEmpty()) {
+            return Mono.just(Optional.empty());
+        }
+
+        QuoteLikeResult result = optionalResult.get();
+        if (likeCountBuffer.isEnabled()) {
+            int pending = likeCountBuffer.pendingDelta(quoteId) + (result.changed() ? delta : 0);
+            result = result.withLikes(Math.max(0, result.quote().getLikes() + pending));
+        }
+
+        QuoteLikeResult likeResult = result;
+        return updateCachedLikesAfterCommit(result.changed(), userId, quoteId, delta)
+                .thenReturn(Optional.of(likeResult));
+    }
+
+    /**
+     * Updates the like count of the cached quotes and the user's likes once the transaction commits,
+     * a rolled back like never reaches the cache (nor the like count buffer).
+     * Without a transaction (or synchronization) the cache is updated right away.
+     */
+    private Mono<Boolean> updateCachedLikesAfterCommit(Boolean updated, String userId, Long quoteId, int delta) {
+        if (!Boolean.TRUE.equals(updated)) {
+            return Mono.just(false);
+        }
+
+        Runnable updateCache = () -> {
+            if (likeCountBuffer.isEnabled()) {
+                likeCountBuffer.add(quoteId, delta);
+            }
+            quoteByIdCache.applyLikeDelta(quoteId, delta);
+            quotesCache.applyLikeDelta(quoteId, delta);
+            if (delta > 0) {
+                userLikesCache.onLiked(userId, quoteId);
+            } else {
+                userLikesCache.onUnliked(userId, quoteId);
+            }
+        };
+
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .doOnNext(synchronizationManager -> {
+                    if (!synchronizationManager.isSynchronizationActive()) {
+                        updateCache.run();
+                        return;
+                    }
+
+                    synchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(updateCache);
+                        }
+                    });
+                })
+                .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(updateCache))
+                .thenReturn(true);
     }
 }
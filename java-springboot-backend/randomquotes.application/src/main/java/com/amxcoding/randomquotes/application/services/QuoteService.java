@@ -1,71 +1,75 @@
 package com.amxcoding.randomquotes.application.services;
 
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.common.ReactiveMetrics;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteByIdCache;
 import com.amxcoding.randomquotes.application.interfaces.services.IQuoteCache;
-import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteRotations;
 import com.amxcoding.randomquotes.application.interfaces.services.IQuoteService;
 import com.amxcoding.randomquotes.domain.entities.Quote;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class QuoteService implements IQuoteService {
     private final IQuoteCache quotesCache;
-    private final IQuoteRepository quoteRepository;
-    private static final Logger logger = LoggerFactory.getLogger(QuoteService.class);
+    private final IQuoteByIdCache quoteByIdCache;
+    private final IQuoteRotations quoteRotations;
+    private final MeterRegistry meterRegistry;
 
     public QuoteService(IQuoteCache quotesCache,
-                        IQuoteRepository quoteRepository) {
+                        IQuoteByIdCache quoteByIdCache,
+                        IQuoteRotations quoteRotations,
+                        MeterRegistry meterRegistry) {
         this.quotesCache = quotesCache;
-        this.quoteRepository = quoteRepository;
+        this.quoteByIdCache = quoteByIdCache;
+        this.quoteRotations = quoteRotations;
+        this.meterRegistry = meterRegistry;
     }
 
 
     /**
-     * Get random quote from a provider or the database
-     * If Id is null it was from a provider else from the database
+     * Get random quote from the quote cache
+     * Cached quotes are always persisted (have an id), so this is a pure memory read
      */
     @Override
     public Mono<Optional<Quote>> getRandomQuote() {
-        return quotesCache.getQuotes()
-                .flatMap(cachedQuotes -> {
-                    if (!cachedQuotes.isEmpty()) {
-                        int randomIndex = ThreadLocalRandom.current().nextInt(cachedQuotes.size());
-                        Quote cachedRandomQuote = cachedQuotes.get(randomIndex);
-
-                        // we have hit the threshold the result is from the database
-                        if (cachedRandomQuote.getId() != null) {
-                            return Mono.just(Optional.of(cachedRandomQuote));
-                        }
+        return ReactiveMetrics.timed(quotesCache.getRandomQuote(), meterRegistry, Constants.Metrics.RANDOM_QUOTE);
+    }
 
-                        // use the hash to get the quote from db
-                        // needed to show correct likes if the quote was added already before
-                        String quoteHash = cachedRandomQuote.generateTextAuthorHash();
+    /**
+     * Get a random quote for the given user. With rotations enabled the user walks through
+     * a permutation of the cached quotes, s.t. quotes don't repeat before all were seen
+     */
+    @Override
+    public Mono<Optional<Quote>> getRandomQuote(String userId) {
+        if (userId == null || !quoteRotations.isEnabled()) {
+            return getRandomQuote();
+        }
 
-                        if (!StringUtils.hasText(quoteHash)) {
-                            logger.warn("Hash  missing. Cannot fetch from DB. Cached quote details: author='{}', text='{}...'",
-                                    cachedRandomQuote.getAuthor(),
-                                    cachedRandomQuote.getText());
-                            throw new IllegalStateException("Quotes hash is missing");
-                        }
+        return ReactiveMetrics.timed(
+                quotesCache.pickQuote((generation, size) -> quoteRotations.nextIndex(userId, generation, size)),
+                meterRegistry, Constants.Metrics.RANDOM_QUOTE);
+    }
 
-                        return quoteRepository.findByTextAuthorHash(quoteHash);
-                    } else {
-                        return Mono.just(Optional.empty());
-                    }
-                });
+    /**
+     * Get a random quote picked in proportion to its likes, also a pure memory read
+     */
+    @Override
+    public Mono<Optional<Quote>> getWeightedRandomQuote() {
+        return ReactiveMetrics.timed(quotesCache.getWeightedRandomQuote(), meterRegistry, Constants.Metrics.WEIGHTED_RANDOM_QUOTE);
     }
 
+    /**
+     * Get quote by id from the by-id cache, only a miss goes to the database
+     */
     @Override
     public Mono<Optional<Quote>> getQuoteById(Long quoteId) {
         // Error handled by global error handler
-        return quoteRepository.findById(quoteId);
+        return quoteByIdCache.getQuoteById(quoteId);
     }
 
 }
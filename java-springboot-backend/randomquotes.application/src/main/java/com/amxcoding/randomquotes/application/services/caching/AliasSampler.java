@@ -0,0 +1,141 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Samples quote indexes in proportion to their likes in O(1), using Walker's alias method (Vose's construction).
+ * Every quote weighs likes + 1, s.t. quotes without likes can still be picked and an unliked set is sampled uniformly.
+ *
+ * A sampler belongs to a fixed set of quotes (a pool snapshot or a published corpus version) and reads their likes.
+ * The alias table is immutable and built in O(n), never on the request path: the first one when the sampler is created,
+ * then a like change schedules a rebuild rebuild-delay later, likes until then are picked up by the same rebuild.
+ * Samples keep using the previous table until the new one is published.
+ */
+public final class AliasSampler {
+
+    private static final Duration DEFAULT_REBUILD_DELAY = Duration.ofMillis(100);
+
+    private final int size;
+    private final IntUnaryOperator likes;
+    private final Duration rebuildDelay;
+    private final Scheduler scheduler;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile AliasTable table;
+
+    /**
+     * Builds the first table right away, from likes.applyAsInt(index) for the indexes [0, size).
+     */
+    public AliasSampler(int size, IntUnaryOperator likes) {
+        this(size, likes, DEFAULT_REBUILD_DELAY, Schedulers.parallel());
+    }
+
+    AliasSampler(int size, IntUnaryOperator likes, Duration rebuildDelay, Scheduler scheduler) {
+        this.size = size;
+        this.likes = likes;
+        this.rebuildDelay = rebuildDelay;
+        this.scheduler = scheduler;
+        this.table = AliasTable.build(size, likes);
+    }
+
+    /**
+     * Schedules a rebuild of the table after a like count changed, unless one is scheduled already.
+     */
+    public void invalidate() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::rebuild, rebuildDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild() {
+        // cleared before reading the likes, a change during the build schedules the next one
+        rebuildScheduled.set(false);
+        table = AliasTable.build(size, likes);
+    }
+
+    /**
+     * Returns an index in [0, size) picked in proportion to likes.applyAsInt(index) + 1, as of the last rebuild.
+     * The sampler must not be empty.
+     */
+    public int sample() {
+        return table.sample();
+    }
+
+    /**
+     * Column i is kept with probability[i], otherwise its alias is picked.
+     */
+    static final class AliasTable {
+        private final double[] probability;
+        private final int[] alias;
+
+        private AliasTable(double[] probability, int[] alias) {
+            this.probability = probability;
+            this.alias = alias;
+        }
+
+        static AliasTable build(int size, IntUnaryOperator likes) {
+            double[] scaled = new double[size];
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                long weight = Math.max(0, likes.applyAsInt(i)) + 1L;
+                scaled[i] = weight;
+                total += weight;
+            }
+
+            int[] small = new int[size];
+            int[] large = new int[size];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < size; i++) {
+                scaled[i] = scaled[i] * size / total;
+                if (scaled[i] < 1.0) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+
+            double[] probability = new double[size];
+            int[] alias = new int[size];
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+
+                probability[less] = scaled[less];
+                alias[less] = more;
+
+                scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+                if (scaled[more] < 1.0) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+            // what is left is 1 up to rounding errors
+            while (largeCount > 0) {
+                probability[large[--largeCount]] = 1.0;
+            }
+            while (smallCount > 0) {
+                probability[small[--smallCount]] = 1.0;
+            }
+
+            return new AliasTable(probability, alias);
+        }
+
+        int size() {
+            return probability.length;
+        }
+
+        int sample() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int column = random.nextInt(probability.length);
+            return random.nextDouble() < probability[column] ? column : alias[column];
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.interfaces.caching.IRemoteQuoteCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Used when no remote tier is configured, every node only uses its local quote pool.
+ */
+@Service
+@ConditionalOnProperty(name = "randomquotes.cache.remote.enabled", havingValue = "false", matchIfMissing = true)
+public class NoopRemoteQuoteCache implements IRemoteQuoteCache {
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public Mono<Optional<CachedQuotes>> getQuotes() {
+        return Mono.just(Optional.empty());
+    }
+
+    @Override
+    public Mono<Void> putQuotes(CachedQuotes cachedQuotes, Duration ttl) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Boolean> tryAcquireRefreshLock(Duration lockTtl) {
+        return Mono.just(true);
+    }
+}
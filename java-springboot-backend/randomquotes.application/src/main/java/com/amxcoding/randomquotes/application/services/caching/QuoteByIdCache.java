@@ -0,0 +1,107 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeCountBuffer;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteByIdCache;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Caches quotes by id, so repeated reads of the same (popular) quote don't hit the database.
+ * Concurrent misses for the same id share a single load.
+ * Like counts are updated in place after a like/unlike commits, the expiry is only
+ * a safety net for changes made by other instances.
+ * Likes and unlikes don't read through this cache, their statement returns the quote (see IQuoteLikeRepository).
+ */
+@Service
+public class QuoteByIdCache implements IQuoteByIdCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteByIdCache.class);
+
+    private final AsyncLoadingCache<Long, Quote> cache;
+
+
+    public QuoteByIdCache(IQuoteRepository quoteRepository,
+                          ILikeCountBuffer likeCountBuffer,
+                          @Value("${randomquotes.cache.quote-by-id.maximum-size:10000}") long maximumSize,
+                          @Value("${randomquotes.cache.quote-by-id.expire-after-write:10m}") Duration expireAfterWrite) {
+        // a not found quote completes with null, which caffeine doesn't cache
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync((quoteId, executor) -> quoteRepository.findById(quoteId)
+                        .flatMap(Mono::justOrEmpty)
+                        .map(quote -> withPendingLikes(quote, likeCountBuffer.pendingDelta(quoteId)))
+                        .toFuture());
+
+        logger.info("QuoteByIdCache initialized (maximum size: {}, expire after write: {})", maximumSize, expireAfterWrite);
+    }
+
+    /**
+     * Gets a quote by id, loading it from the repository on a miss.
+     * Cancelling the returned Mono does not cancel the shared load.
+     */
+    @Override
+    public Mono<Optional<Quote>> getQuoteById(Long quoteId) {
+        if (quoteId == null) {
+            return Mono.error(new IllegalArgumentException("Quote id cannot be null."));
+        }
+
+        return Mono.fromFuture(cache.get(quoteId), true)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    /**
+     * Adjusts the like count of a cached quote, the quote is replaced (never mutated)
+     * since callers may still hold the old instance.
+     * A load that is still running may or may not have seen the change, so it is evicted instead.
+     */
+    @Override
+    public void applyLikeDelta(Long quoteId, int delta) {
+        if (quoteId == null) {
+            return;
+        }
+
+        cache.asMap().computeIfPresent(quoteId, (id, future) -> {
+            Quote cached = future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+            if (cached == null) {
+                return null;
+            }
+
+            int likes = Math.max(0, cached.getLikes() + delta);
+            return CompletableFuture.completedFuture(new Quote(cached.getId(), cached.getAuthor(), cached.getText(), likes));
+        });
+    }
+
+    /**
+     * Likes that are committed but still in the like count buffer are not in the loaded row yet.
+     */
+    private static Quote withPendingLikes(Quote quote, int pendingDelta) {
+        if (pendingDelta == 0) {
+            return quote;
+        }
+
+        return new Quote(quote.getId(), quote.getAuthor(), quote.getText(), Math.max(0, quote.getLikes() + pendingDelta));
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+}
@@ -1,104 +1,341 @@
 package com.amxcoding.randomquotes.application.services.caching;
 
-import com.amxcoding.randomquotes.application.common.Constants;
 import com.amxcoding.randomquotes.application.exceptions.services.QuoteCacheException;
+import com.amxcoding.randomquotes.application.interfaces.caching.IRemoteQuoteCache;
+import com.amxcoding.randomquotes.application.interfaces.caching.IRemoteQuoteCache.CachedQuotes;
 import com.amxcoding.randomquotes.application.interfaces.services.IQuoteFetchOrchestrator;
 import com.amxcoding.randomquotes.application.interfaces.services.IQuoteCache;
 import com.amxcoding.randomquotes.domain.entities.Quote;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Serves quotes from the quote pool using stale-while-revalidate:
+ * - younger than the soft ttl: served as is
+ * - between soft and hard ttl: served stale while one background reload runs, a reload that leaves the pool stale
+ *   (it failed, or the remote tier only had stale quotes) is retried after a backoff, not on the next read
+ * - older than the hard ttl (or empty): callers wait for the reload
+ * Concurrent reloads are collapsed into a single in-flight load.
+ * With a remote tier enabled, a reload first checks the shared pool and only one node
+ * (the one holding the refresh lock) calls the orchestrator, the others wait for its result.
+ */
 @Service
+@ConditionalOnProperty(name = "randomquotes.cache.mode", havingValue = "pool", matchIfMissing = true)
 public class QuoteCache implements IQuoteCache {
 
     private static final Logger logger = LoggerFactory.getLogger(QuoteCache.class);
+
     private final IQuoteFetchOrchestrator quoteFetchOrchestrator;
-    private final Cache quotesCacheInstance;
+    private final QuotePool quotePool;
+    private final IRemoteQuoteCache remoteQuoteCache;
+    private final Duration softTtl;
+    private final Duration hardTtl;
+
+    // single-flight, holds the currently running load (if any)
+    private final AtomicReference<Sinks.One<List<Quote>>> inFlightLoad = new AtomicReference<>();
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder refreshTimeNanos = new LongAdder();
+    private volatile long lastRefreshDurationMillis = 0;
+    // set when a reload left the pool stale, background reloads wait until then
+    private volatile long revalidateNotBeforeMillis = 0;
+
+    // Configuration for the remote tier
+    static final Duration REMOTE_LOCK_TTL = Duration.ofSeconds(30);
+    static final Duration REMOTE_POLL_INTERVAL = Duration.ofMillis(250);
+    static final int REMOTE_MAX_POLLS = 40;
+    static final Duration REMOTE_TIMEOUT = Duration.ofSeconds(1);
+    static final Duration REVALIDATION_BACKOFF = Duration.ofSeconds(15);
 
 
     public QuoteCache(IQuoteFetchOrchestrator quoteFetchOrchestrator,
-                      CacheManager cacheManager) {
+                      QuotePool quotePool,
+                      IRemoteQuoteCache remoteQuoteCache,
+                      @Value("${randomquotes.cache.quotes.soft-ttl:3m}") Duration softTtl,
+                      @Value("${randomquotes.cache.quotes.hard-ttl:15m}") Duration hardTtl) {
+        if (hardTtl.compareTo(softTtl) < 0) {
+            throw new IllegalArgumentException("Hard ttl (" + hardTtl + ") cannot be shorter than soft ttl (" + softTtl + ")");
+        }
+
         this.quoteFetchOrchestrator = quoteFetchOrchestrator;
-        this.quotesCacheInstance = Objects.requireNonNull(
-                cacheManager.getCache(Constants.Cache.QUOTES_CACHE),
-                "Required cache not configured: " + Constants.Cache.QUOTES_CACHE
-        );
+        this.quotePool = quotePool;
+        this.remoteQuoteCache = remoteQuoteCache;
+        this.softTtl = softTtl;
+        this.hardTtl = hardTtl;
 
-        logger.info("QuotesCache initialized with cache '{}' ({})",
-                this.quotesCacheInstance.getName(), this.quotesCacheInstance.getNativeCache().getClass().getName());
+        logger.info("QuotesCache initialized with in-memory quote pool (soft ttl: {}, hard ttl: {}, remote tier: {})",
+                softTtl, hardTtl, remoteQuoteCache.isEnabled());
     }
 
     /**
-     * Gets quotes, checking the cache first.
-     * On cache miss, delegates fetching to the QuoteFetchOrchestrator,
-     * caches the result (unless it's an Optional containing an empty list),
-     * and returns it.
+     * Gets quotes, checking the quote pool first.
+     * On a miss (empty or older than the hard ttl), waits for the shared reload.
+     * A stale pool triggers a background reload and is returned as is.
      */
     @Override
-    @SuppressWarnings("unchecked")
     public Mono<List<Quote>> getQuotes() {
-        final String cacheKey = Constants.Cache.RANDOM_QUOTES_KEY;
-
-        return Mono.fromCallable(() -> Optional.ofNullable(quotesCacheInstance.get(cacheKey)))
-                .subscribeOn(Schedulers.boundedElastic())
-                .flatMap(optionalWrapper -> {
-                    if (optionalWrapper.isPresent()) {
-                        Cache.ValueWrapper wrapper = optionalWrapper.get();
-                        Object cachedValue = wrapper.get();
-
-                        // Try get cached values
-                        if (cachedValue instanceof List) {
-                            try {
-                                List<Quote> result = (List<Quote>) cachedValue;
-                                logger.debug("Cache hit for key '{}'", cacheKey);
-                                return Mono.just(result);
-                            } catch (ClassCastException e) {
-                                logger.error("Cache hit for key '{}' but value has unexpected type: {}",
-                                        cacheKey, cachedValue.getClass().getName(), e);
-                                return Mono.error(new QuoteCacheException("Error getting from cache: " + e.getMessage(), e));
-                            }
-                        } else {
-                            logger.error("Cache hit for key '{}' but value is not an Optional: {}",
-                                    cacheKey, cachedValue != null ? cachedValue.getClass().getName() : "null");
-                            quotesCacheInstance.evict(cacheKey);
-
-                            return Mono.error(new QuoteCacheException("Error getting from cache!"));
-                        }
-                    } else {
-                        return Mono.empty();
+        return Mono.defer(() -> {
+            Optional<List<Quote>> cachedQuotes = quotePool.getQuotes(hardTtl);
+            if (cachedQuotes.isPresent()) {
+                revalidateIfStale();
+                return Mono.just(cachedQuotes.get());
+            }
+
+            logger.debug("Quote pool miss, waiting for quotes from orchestrator");
+            return loadQuotes();
+        });
+    }
+
+    /**
+     * Samples a random quote from the quote pool without leaving the calling thread.
+     * On a miss the caller waits for the shared reload, see getQuotes.
+     */
+    @Override
+    public Mono<Optional<Quote>> getRandomQuote() {
+        return Mono.defer(() -> {
+            Optional<Quote> sampledQuote = quotePool.sample(hardTtl);
+            if (sampledQuote.isPresent()) {
+                revalidateIfStale();
+                return Mono.just(sampledQuote);
+            }
+
+            logger.debug("Quote pool miss, waiting for quotes from orchestrator");
+            return loadQuotes()
+                    .map(quotes -> Optional.of(quotes.get(ThreadLocalRandom.current().nextInt(quotes.size()))));
+        });
+        // Let errors propagate as is
+    }
+
+    /**
+     * Like getRandomQuote, but picks quotes in proportion to their likes.
+     * On a miss the reloaded pool is sampled once the shared reload finished.
+     */
+    @Override
+    public Mono<Optional<Quote>> getWeightedRandomQuote() {
+        return Mono.defer(() -> {
+            Optional<Quote> sampledQuote = quotePool.sampleWeighted(hardTtl);
+            if (sampledQuote.isPresent()) {
+                revalidateIfStale();
+                return Mono.just(sampledQuote);
+            }
+
+            logger.debug("Quote pool miss, waiting for quotes from orchestrator");
+            return loadQuotes()
+                    .map(quotes -> {
+                        QuotePool.Snapshot current = quotePool.current();
+                        return Optional.of(current.isEmpty()
+                                ? quotes.get(ThreadLocalRandom.current().nextInt(quotes.size()))
+                                : current.weightedRandomQuote());
+                    });
+        });
+    }
+
+    /**
+     * Returns the pooled quote chosen by the picker, see getRandomQuote for misses.
+     */
+    @Override
+    public Mono<Optional<Quote>> pickQuote(QuoteIndexPicker picker) {
+        return Mono.defer(() -> {
+            Optional<Quote> pickedQuote = quotePool.pick(hardTtl, picker);
+            if (pickedQuote.isPresent()) {
+                revalidateIfStale();
+                return Mono.just(pickedQuote);
+            }
+
+            logger.debug("Quote pool miss, waiting for quotes from orchestrator");
+            return loadQuotes()
+                    .map(quotes -> {
+                        QuotePool.Snapshot current = quotePool.current();
+                        return Optional.of(current.isEmpty()
+                                ? quotes.get(picker.pick(0L, quotes.size()))
+                                : current.pick(picker));
+                    });
+        });
+    }
+
+    /**
+     * Keeps the like counts of the pooled quotes up to date, for weighted sampling and the quotes served.
+     */
+    @Override
+    public void applyLikeDelta(Long quoteId, int delta) {
+        if (quoteId != null) {
+            quotePool.applyLikeDelta(quoteId, delta);
+        }
+    }
+
+    public RefreshStats refreshStats() {
+        return new RefreshStats(refreshes.sum(), refreshFailures.sum(), refreshTimeNanos.sum(), lastRefreshDurationMillis);
+    }
+
+    /**
+     * Starts a background reload when the pool is past its soft ttl and the last reload didn't leave it stale within the backoff.
+     * Errors are recorded and logged, the stale pool keeps being served until the hard ttl.
+     */
+    private void revalidateIfStale() {
+        if (quotePool.current().isOlderThan(softTtl) && inFlightLoad.get() == null
+                && System.currentTimeMillis() >= revalidateNotBeforeMillis) {
+            logger.debug("Quote pool is stale, refreshing in the background");
+            loadQuotes();
+        }
+    }
+
+    /**
+     * Returns the in-flight load if there is one, otherwise starts a new one.
+     * The load runs to completion even if all callers cancel, so its result always lands in the pool.
+     */
+    private Mono<List<Quote>> loadQuotes() {
+        Sinks.One<List<Quote>> load = Sinks.one();
+
+        if (!inFlightLoad.compareAndSet(null, load)) {
+            Sinks.One<List<Quote>> existingLoad = inFlightLoad.get();
+            // the existing load may have just finished, in that case the pool was refreshed, try again
+            return existingLoad != null ? existingLoad.asMono() : Mono.defer(this::getQuotes);
+        }
+
+        long start = System.nanoTime();
+        fetchAndSwap()
+                .doFinally(signal -> {
+                    long elapsed = System.nanoTime() - start;
+                    refreshes.increment();
+                    refreshTimeNanos.add(elapsed);
+                    lastRefreshDurationMillis = Duration.ofNanos(elapsed).toMillis();
+                    if (quotePool.current().isOlderThan(softTtl)) {
+                        revalidateNotBeforeMillis = System.currentTimeMillis() + REVALIDATION_BACKOFF.toMillis();
                     }
+                    inFlightLoad.compareAndSet(load, null);
+                })
+                .subscribe(load::tryEmitValue, load::tryEmitError);
+
+        return load.asMono();
+    }
+
+    private Mono<List<Quote>> fetchAndSwap() {
+        Mono<CachedQuotes> load = remoteQuoteCache.isEnabled() ? loadThroughRemote() : fetchFromOrchestrator();
+
+        return load
+                .map(cachedQuotes -> {
+                    // keep the original load time, s.t. the pool expires together with the shared pool
+                    quotePool.swap(cachedQuotes.quotes(), cachedQuotes.loadedAtMillis());
+                    return cachedQuotes.quotes();
                 })
-                // fetch from orchestrator
-                .switchIfEmpty(Mono.defer(() -> {
-                    return quoteFetchOrchestrator.getQuotes()
-                            .flatMap(resultFromOrchestrator -> {
-                                boolean shouldCache = !resultFromOrchestrator.isEmpty();
-
-                                if (shouldCache) {
-                                    try {
-                                        return Mono.fromRunnable(() -> quotesCacheInstance.put(cacheKey, resultFromOrchestrator))
-                                                .subscribeOn(Schedulers.boundedElastic())
-                                                .thenReturn(resultFromOrchestrator);
-                                    } catch (Exception e) {
-                                        logger.error("Failed to put result into cache for key '{}': {}", cacheKey, e.getMessage(), e);
-                                        return Mono.error(new QuoteCacheException("Error putting result into cache: " + e.getMessage(), e));
-                                    }
-                                } else {
-                                    // No quotes throw
-                                    logger.error("Failed getting quotes from orchestrator '{}'", cacheKey);
-                                    return Mono.error(new QuoteCacheException("Failed getting quotes from orchestrator"));
+                .doOnError(error -> {
+                    refreshFailures.increment();
+                    logger.warn("Refreshing the quote pool failed: {}", error.getMessage());
+                });
+    }
+
+    /**
+     * Uses the shared pool if another node refreshed it within the soft ttl.
+     * Otherwise the node holding the refresh lock calls the orchestrator and publishes the result,
+     * the other nodes poll the shared pool for it and only call the orchestrator themselves if it never shows up.
+     * The remote tier is best effort, when it fails the orchestrator is called directly.
+     */
+    private Mono<CachedQuotes> loadThroughRemote() {
+        return readRemote()
+                .flatMap(remoteQuotes -> {
+                    if (remoteQuotes.isPresent() && !remoteQuotes.get().isOlderThan(softTtl)) {
+                        logger.debug("Using quotes from the remote tier");
+                        return Mono.just(remoteQuotes.get());
+                    }
+
+                    return acquireRefreshLock()
+                            .flatMap(acquired -> {
+                                if (acquired) {
+                                    return fetchFromOrchestrator().flatMap(this::writeRemote);
                                 }
+
+                                logger.debug("Another node is refreshing the quotes, waiting for the remote tier");
+                                Mono<CachedQuotes> fallback = remoteQuotes
+                                        .filter(quotes -> !quotes.isOlderThan(hardTtl))
+                                        .map(Mono::just)
+                                        .orElseGet(() -> Mono.defer(this::fetchFromOrchestrator));
+
+                                return awaitFreshRemote().switchIfEmpty(fallback);
                             });
-                }));
-        // Let errors propagate as is
+                });
+    }
+
+    private Mono<Optional<CachedQuotes>> readRemote() {
+        return remoteQuoteCache.getQuotes()
+                .timeout(REMOTE_TIMEOUT)
+                .onErrorResume(error -> {
+                    logger.warn("Reading quotes from the remote tier failed: {}", error.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private Mono<Boolean> acquireRefreshLock() {
+        return remoteQuoteCache.tryAcquireRefreshLock(REMOTE_LOCK_TTL)
+                .timeout(REMOTE_TIMEOUT)
+                .defaultIfEmpty(false)
+                .onErrorResume(error -> {
+                    // without the lock service, refresh ourselves rather than waiting for nobody
+                    logger.warn("Acquiring the refresh lock failed: {}", error.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    private Mono<CachedQuotes> awaitFreshRemote() {
+        return Mono.defer(this::readRemote)
+                .flatMap(Mono::justOrEmpty)
+                .filter(remoteQuotes -> !remoteQuotes.isOlderThan(softTtl))
+                .repeatWhenEmpty(attempts -> attempts.take(REMOTE_MAX_POLLS).delayElements(REMOTE_POLL_INTERVAL));
     }
-}
\ No newline at end of file
+
+    /**
+     * Publishes the quotes to the remote tier, expiring them when the hard ttl of this load is reached.
+     * A failed write is logged, the quotes are still used locally.
+     */
+    private Mono<CachedQuotes> writeRemote(CachedQuotes cachedQuotes) {
+        Duration remainingTtl = hardTtl.minusMillis(System.currentTimeMillis() - cachedQuotes.loadedAtMillis());
+        if (remainingTtl.isNegative() || remainingTtl.isZero()) {
+            return Mono.just(cachedQuotes);
+        }
+
+        return remoteQuoteCache.putQuotes(cachedQuotes, remainingTtl)
+                .timeout(REMOTE_TIMEOUT)
+                .onErrorResume(error -> {
+                    logger.warn("Writing quotes to the remote tier failed: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(cachedQuotes);
+    }
+
+    private Mono<CachedQuotes> fetchFromOrchestrator() {
+        return quoteFetchOrchestrator.getQuotes()
+                .flatMap(resultFromOrchestrator -> {
+                    // only persisted quotes are served, s.t. random reads never have to go to the database
+                    List<Quote> persistedQuotes = resultFromOrchestrator.stream()
+                            .filter(quote -> quote.getId() != null)
+                            .toList();
+
+                    if (persistedQuotes.size() < resultFromOrchestrator.size()) {
+                        logger.warn("Dropped {} quotes without id from orchestrator result",
+                                resultFromOrchestrator.size() - persistedQuotes.size());
+                    }
+
+                    if (persistedQuotes.isEmpty()) {
+                        // No quotes throw
+                        logger.error("Failed getting quotes from orchestrator, no persisted quotes returned");
+                        return Mono.error(new QuoteCacheException("Failed getting quotes from orchestrator"));
+                    }
+
+                    return Mono.just(new CachedQuotes(persistedQuotes, System.currentTimeMillis()));
+                });
+    }
+
+    public record RefreshStats(long refreshes, long failures, long totalTimeNanos, long lastDurationMillis) {}
+}
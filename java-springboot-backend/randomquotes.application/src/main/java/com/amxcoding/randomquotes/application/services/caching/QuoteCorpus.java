@@ -0,0 +1,259 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteCache;
+import com.amxcoding.randomquotes.application.models.QuoteLikeCount;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Compact columnar store holding the whole quote corpus in memory.
+ * Quotes are kept in parallel arrays ordered by id: ids and likes as primitives,
+ * authors deduplicated into a shared table and texts as UTF-8 bytes.
+ * Quote objects are only created for the quotes that are actually served.
+ *
+ * Reads never lock, they see the columns published through a volatile reference.
+ * Writes (appends and like updates) are serialized, appends fill the unused tail of the arrays
+ * (or copies into bigger ones) and then publish the new size.
+ */
+public class QuoteCorpus {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Object writeLock = new Object();
+    // guarded by writeLock
+    private final Map<String, Integer> authorRefs = new HashMap<>();
+
+    private volatile Columns columns = Columns.EMPTY;
+
+    public int size() {
+        return columns.size;
+    }
+
+    /**
+     * Highest id in the corpus, 0 when empty. New quotes are synced from here.
+     */
+    public long maxId() {
+        Columns current = columns;
+        return current.size == 0 ? 0L : current.ids[current.size - 1];
+    }
+
+    public int authorCount() {
+        return columns.authorCount;
+    }
+
+    public Optional<Quote> randomQuote() {
+        Columns current = columns;
+        if (current.size == 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(current.toQuote(ThreadLocalRandom.current().nextInt(current.size)));
+    }
+
+    /**
+     * Picks a quote in proportion to its likes, see AliasSampler. Every published version of the columns
+     * has its own sampler, built with the append that published it.
+     */
+    public Optional<Quote> weightedRandomQuote() {
+        Columns current = columns;
+        if (current.size == 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(current.toQuote(current.aliasSampler.sample()));
+    }
+
+    /**
+     * Returns the quote at the index chosen by the picker. Quotes are only appended,
+     * so the size is the generation: an index refers to the same quote as long as the size is unchanged.
+     */
+    public Optional<Quote> pick(IQuoteCache.QuoteIndexPicker picker) {
+        Columns current = columns;
+        if (current.size == 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(current.toQuote(picker.pick(current.size, current.size)));
+    }
+
+    public Optional<Quote> findById(long id) {
+        Columns current = columns;
+        int index = Arrays.binarySearch(current.ids, 0, current.size, id);
+
+        return index >= 0 ? Optional.of(current.toQuote(index)) : Optional.empty();
+    }
+
+    public List<Quote> asList() {
+        Columns current = columns;
+        List<Quote> quotes = new ArrayList<>(current.size);
+        for (int i = 0; i < current.size; i++) {
+            quotes.add(current.toQuote(i));
+        }
+        return quotes;
+    }
+
+    /**
+     * Appends the quotes with an id above the current max id, others are already known and skipped.
+     * Returns the number of quotes added.
+     */
+    public int append(List<Quote> quotes) {
+        synchronized (writeLock) {
+            Columns current = columns;
+            long maxId = maxId();
+
+            List<Quote> newQuotes = quotes.stream()
+                    .filter(quote -> quote.getId() != null && quote.getId() > maxId)
+                    .sorted(Comparator.comparing(Quote::getId))
+                    .toList();
+
+            if (newQuotes.isEmpty()) {
+                return 0;
+            }
+
+            Columns target = current.withCapacity(current.size + newQuotes.size(), current.authorCount + newQuotes.size());
+            int size = current.size;
+            int authorCount = current.authorCount;
+            long lastId = maxId;
+
+            for (Quote quote : newQuotes) {
+                if (quote.getId() == lastId) {
+                    continue; // duplicate in the input
+                }
+
+                Integer authorRef = authorRefs.get(quote.getAuthor());
+                if (authorRef == null) {
+                    authorRef = authorCount++;
+                    authorRefs.put(quote.getAuthor(), authorRef);
+                    target.authors[authorRef] = quote.getAuthor();
+                }
+
+                target.ids[size] = quote.getId();
+                target.likes.set(size, quote.getLikes());
+                target.authorRefs[size] = authorRef;
+                target.texts[size] = quote.getText().getBytes(StandardCharsets.UTF_8);
+                lastId = quote.getId();
+                size++;
+            }
+
+            int added = size - current.size;
+            AliasSampler aliasSampler = new AliasSampler(size, target.likes::get);
+            columns = new Columns(target.ids, target.likes, target.authorRefs, target.texts, target.authors, size, authorCount, aliasSampler);
+            return added;
+        }
+    }
+
+    /**
+     * Adjusts the likes of a quote, never below zero. Returns false if the quote is not in the corpus.
+     */
+    public boolean applyLikeDelta(long id, int delta) {
+        synchronized (writeLock) {
+            Columns current = columns;
+            int index = Arrays.binarySearch(current.ids, 0, current.size, id);
+            if (index < 0) {
+                return false;
+            }
+
+            current.likes.set(index, Math.max(0, current.likes.get(index) + delta));
+            current.aliasSampler.invalidate();
+            return true;
+        }
+    }
+
+    /**
+     * Replaces the likes of the given quotes with the given counts, quotes not in the corpus are skipped.
+     * Returns the number of quotes whose likes changed.
+     */
+    public int setLikes(List<QuoteLikeCount> likeCounts) {
+        synchronized (writeLock) {
+            Columns current = columns;
+            int changed = 0;
+            for (QuoteLikeCount likeCount : likeCounts) {
+                int index = Arrays.binarySearch(current.ids, 0, current.size, likeCount.quoteId());
+                int likes = Math.max(0, likeCount.likes());
+                if (index >= 0 && current.likes.get(index) != likes) {
+                    current.likes.set(index, likes);
+                    changed++;
+                }
+            }
+
+            if (changed > 0) {
+                current.aliasSampler.invalidate();
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * One published version of the columns, only the first size entries are valid.
+     * The arrays may be shared with the next version, which only writes past this size.
+     */
+    private static final class Columns {
+        static final Columns EMPTY = new Columns(new long[0], new AtomicIntegerArray(0), new int[0], new byte[0][], new String[0], 0, 0,
+                new AliasSampler(0, index -> 0));
+
+        final long[] ids;
+        final AtomicIntegerArray likes;
+        final int[] authorRefs;
+        final byte[][] texts;
+        final String[] authors;
+        final int size;
+        final int authorCount;
+        // samples the first size quotes
+        final AliasSampler aliasSampler;
+
+        Columns(long[] ids, AtomicIntegerArray likes, int[] authorRefs, byte[][] texts, String[] authors, int size, int authorCount,
+                AliasSampler aliasSampler) {
+            this.ids = ids;
+            this.likes = likes;
+            this.authorRefs = authorRefs;
+            this.texts = texts;
+            this.authors = authors;
+            this.size = size;
+            this.authorCount = authorCount;
+            this.aliasSampler = aliasSampler;
+        }
+
+        Quote toQuote(int index) {
+            return new Quote(ids[index], authors[authorRefs[index]], new String(texts[index], StandardCharsets.UTF_8), likes.get(index));
+        }
+
+        /**
+         * Returns columns that can hold the requested number of quotes and authors,
+         * this instance if they still fit, otherwise copies with (at least) doubled capacity.
+         * Only called while holding the write lock.
+         */
+        Columns withCapacity(int quoteCapacity, int authorCapacity) {
+            if (quoteCapacity <= ids.length && authorCapacity <= authors.length) {
+                return this;
+            }
+
+            int newQuoteCapacity = Math.max(INITIAL_CAPACITY, Math.max(quoteCapacity, ids.length * 2));
+            int newAuthorCapacity = Math.max(INITIAL_CAPACITY, Math.max(authorCapacity, authors.length * 2));
+
+            AtomicIntegerArray newLikes = new AtomicIntegerArray(newQuoteCapacity);
+            for (int i = 0; i < size; i++) {
+                newLikes.set(i, likes.get(i));
+            }
+
+            return new Columns(
+                    Arrays.copyOf(ids, newQuoteCapacity),
+                    newLikes,
+                    Arrays.copyOf(authorRefs, newQuoteCapacity),
+                    Arrays.copyOf(texts, newQuoteCapacity),
+                    Arrays.copyOf(authors, newAuthorCapacity),
+                    size,
+                    authorCount,
+                    aliasSampler);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteCacheException;
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteCache;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeCountBuffer;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteFetchOrchestrator;
+import com.amxcoding.randomquotes.application.models.QuoteLikeCount;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves random quotes from the whole quotes table instead of a pool of 50.
+ * The table is loaded into a columnar quote corpus at startup and kept in sync by a periodic job:
+ * - new rows are pulled by id (keyset pages after the highest known id)
+ * - while the corpus is smaller than ingest-until, the orchestrator is called first, s.t. providers keep ingesting
+ * - likes made on this node are applied right away, see applyLikeDelta
+ * - all like counts are re-read every like-refresh-interval (keyset pages of ids and counts only),
+ *   s.t. likes made on other nodes show up
+ * Random picks never do I/O once the initial load finished.
+ */
+@Service
+@ConditionalOnProperty(name = "randomquotes.cache.mode", havingValue = "corpus")
+public class QuoteCorpusCache implements IQuoteCache, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteCorpusCache.class);
+
+    static final int PAGE_SIZE = 1000;
+    static final int LIKE_PAGE_SIZE = 10_000;
+
+    private final IQuoteRepository quoteRepository;
+    private final IQuoteFetchOrchestrator quoteFetchOrchestrator;
+    private final ILikeCountBuffer likeCountBuffer;
+    private final QuoteCorpus corpus = new QuoteCorpus();
+    private final Duration syncInterval;
+    private final int ingestUntil;
+    private final Duration likeRefreshInterval;
+    // the initial load reads the current counts, the first refresh is due one interval later
+    private volatile long lastLikeRefreshNanos = System.nanoTime();
+
+    // completes once the corpus has quotes, or the first sync cycle ended without any
+    private final Sinks.Empty<Void> initialSync = Sinks.empty();
+    private volatile Disposable syncTask;
+
+
+    public QuoteCorpusCache(IQuoteRepository quoteRepository,
+                            IQuoteFetchOrchestrator quoteFetchOrchestrator,
+                            ILikeCountBuffer likeCountBuffer,
+                            @Value("${randomquotes.cache.corpus.sync-interval:1m}") Duration syncInterval,
+                            @Value("${randomquotes.cache.corpus.ingest-until:3237}") int ingestUntil,
+                            @Value("${randomquotes.cache.corpus.like-refresh-interval:5m}") Duration likeRefreshInterval) {
+        this.quoteRepository = quoteRepository;
+        this.quoteFetchOrchestrator = quoteFetchOrchestrator;
+        this.likeCountBuffer = likeCountBuffer;
+        this.syncInterval = syncInterval;
+        this.ingestUntil = ingestUntil;
+        this.likeRefreshInterval = likeRefreshInterval;
+
+        logger.info("QuoteCorpusCache initialized (sync interval: {}, ingest until: {} quotes, like refresh interval: {})",
+                syncInterval, ingestUntil, likeRefreshInterval);
+    }
+
+    @Override
+    public Mono<List<Quote>> getQuotes() {
+        return awaitInitialSync().map(ignored -> corpus.asList());
+    }
+
+    @Override
+    public Mono<Optional<Quote>> getRandomQuote() {
+        Optional<Quote> quote = corpus.randomQuote();
+        if (quote.isPresent()) {
+            return Mono.just(quote);
+        }
+
+        return awaitInitialSync().map(ignored -> corpus.randomQuote());
+    }
+
+    @Override
+    public Mono<Optional<Quote>> getWeightedRandomQuote() {
+        Optional<Quote> quote = corpus.weightedRandomQuote();
+        if (quote.isPresent()) {
+            return Mono.just(quote);
+        }
+
+        return awaitInitialSync().map(ignored -> corpus.weightedRandomQuote());
+    }
+
+    @Override
+    public Mono<Optional<Quote>> pickQuote(QuoteIndexPicker picker) {
+        Optional<Quote> quote = corpus.pick(picker);
+        if (quote.isPresent()) {
+            return Mono.just(quote);
+        }
+
+        return awaitInitialSync().map(ignored -> corpus.pick(picker));
+    }
+
+    @Override
+    public void applyLikeDelta(Long quoteId, int delta) {
+        if (quoteId != null) {
+            corpus.applyLikeDelta(quoteId, delta);
+        }
+    }
+
+    public QuoteCorpus corpus() {
+        return corpus;
+    }
+
+    /**
+     * Loads all quotes after the highest known id, page by page.
+     */
+    Mono<Integer> syncNewQuotes() {
+        return quoteRepository.findQuotesAfterId(corpus.maxId(), PAGE_SIZE)
+                .expand(page -> page.size() < PAGE_SIZE
+                        ? Mono.empty()
+                        : quoteRepository.findQuotesAfterId(page.get(page.size() - 1).getId(), PAGE_SIZE))
+                .map(corpus::append)
+                .reduce(0, Integer::sum)
+                .doOnNext(added -> {
+                    if (added > 0) {
+                        logger.info("Added {} quotes to the quote corpus, size: {}", added, corpus.size());
+                    }
+                });
+    }
+
+    /**
+     * Re-reads the like counts of the whole corpus page by page, buffered deltas not yet written are added.
+     * Returns the number of quotes whose likes changed.
+     */
+    Mono<Integer> refreshLikes() {
+        return quoteRepository.findLikeCountsAfterId(0L, LIKE_PAGE_SIZE)
+                .expand(page -> page.size() < LIKE_PAGE_SIZE
+                        ? Mono.empty()
+                        : quoteRepository.findLikeCountsAfterId(page.get(page.size() - 1).quoteId(), LIKE_PAGE_SIZE))
+                .map(page -> corpus.setLikes(page.stream()
+                        .map(likeCount -> new QuoteLikeCount(likeCount.quoteId(), likeCount.likes() + likeCountBuffer.pendingDelta(likeCount.quoteId())))
+                        .toList()))
+                .reduce(0, Integer::sum)
+                .doOnNext(changed -> logger.debug("Refreshed the like counts of the quote corpus, {} changed", changed));
+    }
+
+    private Mono<Integer> refreshLikesIfDue() {
+        long now = System.nanoTime();
+        if (now - lastLikeRefreshNanos < likeRefreshInterval.toNanos()) {
+            return Mono.empty();
+        }
+
+        lastLikeRefreshNanos = now;
+        return refreshLikes();
+    }
+
+    /**
+     * One sync cycle. Errors are logged, the corpus keeps being served as is.
+     * Waiting callers are released once there are quotes, or when the first cycle ended without any.
+     */
+    Mono<Void> sync() {
+        return syncNewQuotes()
+                .doOnNext(added -> {
+                    // serve as soon as there is something, don't wait for the providers
+                    if (corpus.size() > 0) {
+                        initialSync.tryEmitEmpty();
+                    }
+                })
+                .then(Mono.defer(() -> corpus.size() < ingestUntil
+                        ? quoteFetchOrchestrator.getQuotes().then(syncNewQuotes())
+                        : Mono.empty()))
+                .then(Mono.defer(this::refreshLikesIfDue))
+                .onErrorResume(error -> {
+                    logger.warn("Syncing the quote corpus failed: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> initialSync.tryEmitEmpty())
+                .then();
+    }
+
+    private Mono<Boolean> awaitInitialSync() {
+        return initialSync.asMono()
+                .then(Mono.fromCallable(() -> corpus.size() > 0))
+                .flatMap(loaded -> loaded
+                        ? Mono.just(true)
+                        : Mono.error(new QuoteCacheException("Quote corpus is empty, initial load failed")));
+    }
+
+    @Override
+    public void start() {
+        syncTask = Flux.interval(Duration.ZERO, syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> sync(), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable task = syncTask;
+        if (task != null) {
+            task.dispose();
+        }
+        syncTask = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return syncTask != null;
+    }
+}
@@ -0,0 +1,217 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteCache;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory pool of quotes used to serve random quotes.
+ * The pool is an immutable array snapshot published through an atomic reference,
+ * readers never lock or block and can sample directly on the event loop.
+ * A new set of quotes is published by swapping the whole snapshot.
+ */
+@Component
+public class QuotePool {
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder swaps = new LongAdder();
+
+    /**
+     * Picks a random quote from the current snapshot in O(1).
+     * Returns empty (and counts a miss) if the pool is empty or older than maxAge.
+     */
+    public Optional<Quote> sample(Duration maxAge) {
+        Snapshot current = snapshot.get();
+
+        if (current.isEmpty() || current.isOlderThan(maxAge)) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(current.randomQuote());
+    }
+
+    /**
+     * Picks a quote from the current snapshot in proportion to its likes, in O(1), see AliasSampler.
+     * Returns empty (and counts a miss) if the pool is empty or older than maxAge.
+     */
+    public Optional<Quote> sampleWeighted(Duration maxAge) {
+        Snapshot current = snapshot.get();
+
+        if (current.isEmpty() || current.isOlderThan(maxAge)) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(current.weightedRandomQuote());
+    }
+
+    /**
+     * Returns the quote at the index chosen by the picker, the snapshot's load time is its generation.
+     * Returns empty (and counts a miss) if the pool is empty or older than maxAge.
+     */
+    public Optional<Quote> pick(Duration maxAge, IQuoteCache.QuoteIndexPicker picker) {
+        Snapshot current = snapshot.get();
+
+        if (current.isEmpty() || current.isOlderThan(maxAge)) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(current.pick(picker));
+    }
+
+    /**
+     * Adjusts the like count of a quote in the current snapshot, for weighted sampling and the quotes returned.
+     * The pooled quotes themselves are not changed.
+     */
+    public void applyLikeDelta(long quoteId, int delta) {
+        snapshot.get().applyLikeDelta(quoteId, delta);
+    }
+
+    /**
+     * Returns all quotes of the current snapshot.
+     * Returns empty (and counts a miss) if the pool is empty or older than maxAge.
+     */
+    public Optional<List<Quote>> getQuotes(Duration maxAge) {
+        Snapshot current = snapshot.get();
+
+        if (current.isEmpty() || current.isOlderThan(maxAge)) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(current.asList());
+    }
+
+    /**
+     * Publishes a new snapshot, readers see either the old or the new array, never a mix.
+     */
+    public void swap(List<Quote> quotes) {
+        swap(quotes, System.currentTimeMillis());
+    }
+
+    /**
+     * Publishes a new snapshot loaded at the given time,
+     * used for quotes that were loaded earlier (e.g. by another node).
+     */
+    public void swap(List<Quote> quotes, long loadedAtMillis) {
+        snapshot.set(new Snapshot(quotes.toArray(Quote[]::new), loadedAtMillis));
+        swaps.increment();
+    }
+
+    public Snapshot current() {
+        return snapshot.get();
+    }
+
+    public QuotePoolStats stats() {
+        Snapshot current = snapshot.get();
+        return new QuotePoolStats(hits.sum(), misses.sum(), swaps.sum(), current.size());
+    }
+
+    /**
+     * Immutable view of the pool at the time of a swap.
+     * The array is never exposed or modified after construction,
+     * only the like counts follow like changes: they weight the sampling and are set on the quotes returned.
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new Quote[0], 0L);
+
+        private final Quote[] quotes;
+        private final long loadedAtMillis;
+        private final AtomicIntegerArray likes;
+        private final Map<Long, Integer> indexById;
+        private final AliasSampler aliasSampler;
+
+        Snapshot(Quote[] quotes, long loadedAtMillis) {
+            this.quotes = quotes;
+            this.loadedAtMillis = loadedAtMillis;
+            this.likes = new AtomicIntegerArray(quotes.length);
+            this.indexById = new HashMap<>(quotes.length * 2);
+            for (int i = 0; i < quotes.length; i++) {
+                likes.set(i, quotes[i].getLikes());
+                if (quotes[i].getId() != null) {
+                    indexById.putIfAbsent(quotes[i].getId(), i);
+                }
+            }
+            // built here, during the swap, s.t. weighted samples never build a table
+            this.aliasSampler = new AliasSampler(quotes.length, likes::get);
+        }
+
+        public int size() {
+            return quotes.length;
+        }
+
+        public boolean isEmpty() {
+            return quotes.length == 0;
+        }
+
+        public long getLoadedAtMillis() {
+            return loadedAtMillis;
+        }
+
+        public boolean isOlderThan(Duration age) {
+            return System.currentTimeMillis() - loadedAtMillis >= age.toMillis();
+        }
+
+        /**
+         * The pooled quote with its current like count, a copy only if the count changed since the swap.
+         */
+        public Quote get(int index) {
+            Quote quote = quotes[index];
+            int currentLikes = likes.get(index);
+            return currentLikes == quote.getLikes()
+                    ? quote
+                    : new Quote(quote.getId(), quote.getAuthor(), quote.getText(), currentLikes);
+        }
+
+        public Quote randomQuote() {
+            return get(ThreadLocalRandom.current().nextInt(quotes.length));
+        }
+
+        public Quote pick(IQuoteCache.QuoteIndexPicker picker) {
+            return get(picker.pick(loadedAtMillis, quotes.length));
+        }
+
+        public Quote weightedRandomQuote() {
+            return get(aliasSampler.sample());
+        }
+
+        /**
+         * Looks the quote up by id in O(1), the alias table is rebuilt off the request path, see AliasSampler.
+         */
+        void applyLikeDelta(long quoteId, int delta) {
+            Integer index = indexById.get(quoteId);
+            if (index == null) {
+                return;
+            }
+
+            likes.updateAndGet(index, current -> Math.max(0, current + delta));
+            aliasSampler.invalidate();
+        }
+
+        public List<Quote> asList() {
+            return IntStream.range(0, quotes.length).mapToObj(this::get).toList();
+        }
+    }
+
+    public record QuotePoolStats(long hits, long misses, long swaps, int size) {}
+}
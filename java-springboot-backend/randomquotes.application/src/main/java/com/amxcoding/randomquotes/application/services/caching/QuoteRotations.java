@@ -0,0 +1,119 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteRotations;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gives every user a pseudo-random permutation of the quotes, s.t. no quote repeats until all were seen.
+ * A rotation is only a seed and a cursor (no seen-set), the permutation is computed on the fly:
+ * a 4-round Feistel network over the next power of two, walking the cycle until it lands below size.
+ *
+ * Memory stays flat however many cookies there are: rotations are keyed by a 64-bit hash of the user id,
+ * bounded by maximum-users and dropped when idle. A dropped user simply starts a new rotation.
+ */
+@Service
+public class QuoteRotations implements IQuoteRotations {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteRotations.class);
+
+    private static final int ROUNDS = 4;
+
+    private final boolean enabled;
+    private final Cache<Long, Rotation> rotations;
+
+
+    public QuoteRotations(@Value("${randomquotes.rotation.enabled:false}") boolean enabled,
+                          @Value("${randomquotes.rotation.maximum-users:250000}") long maximumUsers,
+                          @Value("${randomquotes.rotation.expire-after-access:1h}") Duration expireAfterAccess) {
+        this.enabled = enabled;
+        this.rotations = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+
+        logger.info("QuoteRotations initialized (enabled: {}, maximum users: {}, expire after access: {})",
+                enabled, maximumUsers, expireAfterAccess);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int nextIndex(String userId, long generation, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+
+        Rotation rotation = rotations.asMap().compute(hash(userId), (key, current) ->
+                current == null || current.generation() != generation || current.size() != size || current.position() + 1 >= size
+                        ? new Rotation(ThreadLocalRandom.current().nextLong(), generation, size, 0)
+                        : new Rotation(current.seed(), generation, size, current.position() + 1));
+
+        return permute(rotation.position(), size, rotation.seed());
+    }
+
+    public long estimatedSize() {
+        return rotations.estimatedSize();
+    }
+
+    /**
+     * Maps position to its place in the permutation of [0, size) defined by seed.
+     */
+    static int permute(int position, int size, long seed) {
+        // an even number of bits (at least 2) s.t. both halves have the same width
+        int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(size - 1));
+        bits += bits & 1;
+        int halfBits = bits / 2;
+        int halfMask = (1 << halfBits) - 1;
+
+        // the domain is less than 4 * size, so this takes a few rounds at most
+        int value = position;
+        do {
+            value = feistel(value, halfBits, halfMask, seed);
+        } while (value >= size);
+
+        return value;
+    }
+
+    private static int feistel(int value, int halfBits, int halfMask, long seed) {
+        int left = value >>> halfBits;
+        int right = value & halfMask;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = left ^ (int) (mix(seed + round * 0x9E3779B97F4A7C15L + right) & halfMask);
+            left = right;
+            right = next;
+        }
+
+        return (left << halfBits) | right;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    // 64-bit FNV-1a, collisions only make two users share a rotation
+    private static long hash(String userId) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < userId.length(); i++) {
+            hash ^= userId.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private record Rotation(long seed, long generation, int size, int position) {}
+}
@@ -0,0 +1,273 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.common.UuidV7;
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteLikeRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.IUserLikesCache;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Answers "did this user like this quote" from memory instead of a quote_like lookup per response.
+ * - a Bloom filter of the users that liked a quote since shortly before startup: users created since then (version 7 ids
+ *   carry their creation time) that never liked anything are answered right away
+ * - for the others, the ids of their liked quotes as a sorted long array, loaded once per user and bounded in number
+ *
+ * The Bloom filter starts at startup minus expire-after-write instead of with all users that ever liked,
+ * s.t. no startup scans the whole quote_like table. It is filled from there and then periodically with the users
+ * that liked since the last sync, which also covers likes made on other nodes.
+ * Older users, and every user until the first fill completed, go through the liked sets.
+ * Likes on this node update both right after they commit. Liked sets of other nodes' users are refreshed by expiry.
+ *
+ * With several nodes (randomquotes.stream.cluster.enabled) a user's likes on another node are seen with bounded staleness:
+ * the sync runs every cluster-sync-interval and also drops the cached liked sets of the users that liked since,
+ * s.t. their remote likes show within one sync. Remote unlikes leave no row behind to sync,
+ * they show once the set expires after cluster-expire-after-write.
+ */
+@Service
+public class UserLikesCache implements IUserLikesCache, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserLikesCache.class);
+
+    // likes are stamped with the transaction start, a transaction that commits later must still be seen
+    static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final IQuoteLikeRepository quoteLikeRepository;
+    private final BloomFilter likingUsers;
+    private final AsyncLoadingCache<String, LikedQuoteIds> likedQuoteIds;
+    private final Duration syncInterval;
+    private final boolean clusterEnabled;
+
+    private final LongAdder bloomFilterSkips = new LongAdder();
+    private final Instant bloomFilterSince;
+    private volatile boolean bloomFilterReady = false;
+    private volatile Instant lastSyncStartedAt;
+    private volatile Disposable syncTask;
+
+
+    public UserLikesCache(IQuoteLikeRepository quoteLikeRepository,
+                          @Value("${randomquotes.cache.user-likes.maximum-size:100000}") long maximumSize,
+                          @Value("${randomquotes.cache.user-likes.expire-after-write:10m}") Duration expireAfterWrite,
+                          @Value("${randomquotes.cache.user-likes.expected-users:1000000}") long expectedUsers,
+                          @Value("${randomquotes.cache.user-likes.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${randomquotes.cache.user-likes.sync-interval:30s}") Duration syncInterval,
+                          @Value("${randomquotes.stream.cluster.enabled:false}") boolean clusterEnabled,
+                          @Value("${randomquotes.cache.user-likes.cluster-expire-after-write:30s}") Duration clusterExpireAfterWrite,
+                          @Value("${randomquotes.cache.user-likes.cluster-sync-interval:5s}") Duration clusterSyncInterval) {
+        if (clusterEnabled) {
+            expireAfterWrite = min(expireAfterWrite, clusterExpireAfterWrite);
+            syncInterval = min(syncInterval, clusterSyncInterval);
+        }
+
+        this.quoteLikeRepository = quoteLikeRepository;
+        this.likingUsers = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.syncInterval = syncInterval;
+        this.clusterEnabled = clusterEnabled;
+        this.bloomFilterSince = Instant.now().minus(expireAfterWrite);
+        this.likedQuoteIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync((userId, executor) -> quoteLikeRepository.findQuoteIdsByUserId(userId)
+                        .map(LikedQuoteIds::of)
+                        .toFuture());
+
+        logger.info("UserLikesCache initialized (maximum size: {}, expire after write: {}, sync interval: {}, cluster: {}, bloom filter: {} bits, {} hashes)",
+                maximumSize, expireAfterWrite, syncInterval, clusterEnabled, likingUsers.bitCount(), likingUsers.hashCount());
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * Cancelling the returned Mono does not cancel the shared load of the user's liked set.
+     */
+    @Override
+    public Mono<Boolean> isLiked(String userId, Long quoteId) {
+        if (userId == null || quoteId == null) {
+            return Mono.error(new IllegalArgumentException("User ID and Quote ID cannot be null."));
+        }
+
+        if (bloomFilterReady && createdSinceBloomFilter(userId) && !likingUsers.mightContain(userId)) {
+            bloomFilterSkips.increment();
+            return Mono.just(false);
+        }
+
+        return Mono.fromFuture(likedQuoteIds.get(userId), true)
+                .map(liked -> liked.contains(quoteId));
+    }
+
+    /**
+     * Only users created since the Bloom filter's start can be ruled out by it, older ones may have liked before.
+     */
+    private boolean createdSinceBloomFilter(String userId) {
+        try {
+            UUID uuid = UUID.fromString(userId);
+            return uuid.version() == 7 && UuidV7.timestamp(uuid) >= bloomFilterSince.toEpochMilli();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void onLiked(String userId, Long quoteId) {
+        likingUsers.put(userId);
+        update(userId, liked -> liked.with(quoteId));
+    }
+
+    @Override
+    public void onUnliked(String userId, Long quoteId) {
+        update(userId, liked -> liked.without(quoteId));
+    }
+
+    /**
+     * Replaces a loaded liked set, a load that is still running may or may not have seen the change, so it is evicted instead.
+     */
+    private void update(String userId, Function<LikedQuoteIds, LikedQuoteIds> change) {
+        likedQuoteIds.asMap().computeIfPresent(userId, (id, future) -> {
+            LikedQuoteIds loaded = future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+            return loaded == null ? null : CompletableFuture.completedFuture(change.apply(loaded));
+        });
+    }
+
+    /**
+     * Adds the users that liked since the previous sync to the Bloom filter (since the filter's start on the first sync).
+     * In cluster mode their liked sets are dropped as well, they may have liked on another node.
+     * Errors are logged, the previous state is kept and the next sync covers the missed interval.
+     */
+    Mono<Void> syncLikingUsers() {
+        Instant startedAt = Instant.now();
+        boolean firstSync = lastSyncStartedAt == null;
+        Instant since = firstSync ? bloomFilterSince : lastSyncStartedAt.minus(SYNC_OVERLAP);
+
+        return quoteLikeRepository.findUserIdsLikedSince(since)
+                .doOnNext(userId -> {
+                    likingUsers.put(userId);
+                    if (clusterEnabled && !firstSync) {
+                        likedQuoteIds.synchronous().invalidate(userId);
+                    }
+                })
+                .count()
+                .doOnNext(users -> {
+                    lastSyncStartedAt = startedAt;
+                    if (!bloomFilterReady) {
+                        bloomFilterReady = true;
+                        logger.info("Bloom filter of liking users filled with {} users", users);
+                    }
+                })
+                .onErrorResume(error -> {
+                    logger.warn("Syncing the users that liked quotes failed: {}", error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    Instant bloomFilterSince() {
+        return bloomFilterSince;
+    }
+
+    public boolean isBloomFilterReady() {
+        return bloomFilterReady;
+    }
+
+    public long bloomFilterSkips() {
+        return bloomFilterSkips.sum();
+    }
+
+    public CacheStats stats() {
+        return likedQuoteIds.synchronous().stats();
+    }
+
+    public long estimatedSize() {
+        return likedQuoteIds.synchronous().estimatedSize();
+    }
+
+    @Override
+    public void start() {
+        syncTask = Flux.interval(Duration.ZERO, syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> syncLikingUsers(), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable task = syncTask;
+        if (task != null) {
+            task.dispose();
+        }
+        syncTask = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return syncTask != null;
+    }
+
+    /**
+     * Immutable sorted set of quote ids, a user likes a handful of quotes so copies on change are cheap.
+     */
+    static final class LikedQuoteIds {
+        private final long[] ids;
+
+        private LikedQuoteIds(long[] ids) {
+            this.ids = ids;
+        }
+
+        static LikedQuoteIds of(List<Long> quoteIds) {
+            return new LikedQuoteIds(quoteIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray());
+        }
+
+        boolean contains(long quoteId) {
+            return Arrays.binarySearch(ids, quoteId) >= 0;
+        }
+
+        LikedQuoteIds with(long quoteId) {
+            int index = Arrays.binarySearch(ids, quoteId);
+            if (index >= 0) {
+                return this;
+            }
+
+            int insertAt = -index - 1;
+            long[] updated = new long[ids.length + 1];
+            System.arraycopy(ids, 0, updated, 0, insertAt);
+            updated[insertAt] = quoteId;
+            System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+            return new LikedQuoteIds(updated);
+        }
+
+        LikedQuoteIds without(long quoteId) {
+            int index = Arrays.binarySearch(ids, quoteId);
+            if (index < 0) {
+                return this;
+            }
+
+            long[] updated = new long[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, index);
+            System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+            return new LikedQuoteIds(updated);
+        }
+
+        int size() {
+            return ids.length;
+        }
+    }
+}
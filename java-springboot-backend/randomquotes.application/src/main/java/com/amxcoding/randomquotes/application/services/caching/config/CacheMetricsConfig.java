@@ -0,0 +1,158 @@
+package com.amxcoding.randomquotes.application.services.caching.config;
+
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.services.caching.QuoteByIdCache;
+import com.amxcoding.randomquotes.application.services.caching.QuoteCache;
+import com.amxcoding.randomquotes.application.services.caching.QuoteCorpusCache;
+import com.amxcoding.randomquotes.application.services.caching.QuotePool;
+import com.amxcoding.randomquotes.application.services.caching.QuoteRotations;
+import com.amxcoding.randomquotes.application.services.caching.UserLikesCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the statistics the caches already keep, meter names follow micrometer's cache conventions
+ * (cache.gets, cache.puts, cache.evictions, cache.size) tagged with the cache name.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    /**
+     * The quotes cache is the in-memory quote pool, a put is a swap of the whole pool.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "randomquotes.cache.mode", havingValue = "pool", matchIfMissing = true)
+    public MeterBinder quotesCacheMetrics(QuotePool quotePool, QuoteCache quoteCache) {
+        String cacheName = Constants.Cache.QUOTES_CACHE;
+
+        return registry -> {
+            FunctionCounter.builder("cache.gets", quotePool, pool -> pool.stats().hits())
+                    .tags("cache", cacheName, "result", "hit")
+                    .description("The number of times the quote pool served a fresh enough pool")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", quotePool, pool -> pool.stats().misses())
+                    .tags("cache", cacheName, "result", "miss")
+                    .description("The number of times the quote pool was empty or older than the hard ttl")
+                    .register(registry);
+            FunctionCounter.builder("cache.puts", quotePool, pool -> pool.stats().swaps())
+                    .tags("cache", cacheName)
+                    .description("The number of times the quote pool was swapped")
+                    .register(registry);
+            Gauge.builder("cache.size", quotePool, pool -> pool.stats().size())
+                    .tags("cache", cacheName)
+                    .register(registry);
+
+            FunctionTimer.builder(Constants.Metrics.CACHE_REFRESH, quoteCache,
+                            cache -> cache.refreshStats().refreshes(),
+                            cache -> cache.refreshStats().totalTimeNanos(),
+                            TimeUnit.NANOSECONDS)
+                    .tags("cache", cacheName)
+                    .description("Time spent reloading the quote pool")
+                    .register(registry);
+            FunctionCounter.builder(Constants.Metrics.CACHE_REFRESH + ".failures", quoteCache, cache -> cache.refreshStats().failures())
+                    .tags("cache", cacheName)
+                    .register(registry);
+            TimeGauge.builder(Constants.Metrics.CACHE_REFRESH + ".last", quoteCache, TimeUnit.MILLISECONDS,
+                            cache -> cache.refreshStats().lastDurationMillis())
+                    .tags("cache", cacheName)
+                    .register(registry);
+            TimeGauge.builder("cache.age", quotePool, TimeUnit.MILLISECONDS,
+                            pool -> pool.current().isEmpty() ? 0 : System.currentTimeMillis() - pool.current().getLoadedAtMillis())
+                    .tags("cache", cacheName)
+                    .description("Age of the current quote pool")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * In corpus mode the quotes cache is the full quote corpus, all reads are hits once loaded.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "randomquotes.cache.mode", havingValue = "corpus")
+    public MeterBinder quoteCorpusMetrics(QuoteCorpusCache quoteCorpusCache) {
+        String cacheName = Constants.Cache.QUOTES_CACHE;
+
+        return registry -> {
+            Gauge.builder("cache.size", quoteCorpusCache, cache -> cache.corpus().size())
+                    .tags("cache", cacheName)
+                    .register(registry);
+            Gauge.builder("cache.corpus.authors", quoteCorpusCache, cache -> cache.corpus().authorCount())
+                    .tags("cache", cacheName)
+                    .description("Number of distinct authors in the quote corpus")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder quoteByIdCacheMetrics(QuoteByIdCache quoteByIdCache) {
+        String cacheName = Constants.Cache.QUOTE_BY_ID_CACHE;
+
+        return registry -> {
+            FunctionCounter.builder("cache.gets", quoteByIdCache, cache -> cache.stats().hitCount())
+                    .tags("cache", cacheName, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", quoteByIdCache, cache -> cache.stats().missCount())
+                    .tags("cache", cacheName, "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", quoteByIdCache, cache -> cache.stats().evictionCount())
+                    .tags("cache", cacheName)
+                    .register(registry);
+            FunctionTimer.builder("cache.loads", quoteByIdCache,
+                            cache -> cache.stats().loadCount(),
+                            cache -> cache.stats().totalLoadTime(),
+                            TimeUnit.NANOSECONDS)
+                    .tags("cache", cacheName)
+                    .description("Time spent loading quotes by id from the database")
+                    .register(registry);
+            FunctionCounter.builder("cache.load.failures", quoteByIdCache, cache -> cache.stats().loadFailureCount())
+                    .tags("cache", cacheName)
+                    .register(registry);
+            Gauge.builder("cache.size", quoteByIdCache, QuoteByIdCache::estimatedSize)
+                    .tags("cache", cacheName)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder quoteRotationsMetrics(QuoteRotations quoteRotations) {
+        return registry -> Gauge.builder("cache.size", quoteRotations, QuoteRotations::estimatedSize)
+                .tags("cache", Constants.Cache.QUOTE_ROTATIONS)
+                .description("Number of users with a quote rotation")
+                .register(registry);
+    }
+
+    /**
+     * Users ruled out by the Bloom filter never reach the liked sets, they are counted as hits of their own.
+     */
+    @Bean
+    public MeterBinder userLikesCacheMetrics(UserLikesCache userLikesCache) {
+        String cacheName = Constants.Cache.USER_LIKES_CACHE;
+
+        return registry -> {
+            FunctionCounter.builder("cache.gets", userLikesCache, cache -> cache.stats().hitCount())
+                    .tags("cache", cacheName, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", userLikesCache, cache -> cache.stats().missCount())
+                    .tags("cache", cacheName, "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", userLikesCache, UserLikesCache::bloomFilterSkips)
+                    .tags("cache", cacheName, "result", "bloom-filter")
+                    .description("The number of lookups answered by the Bloom filter of users that liked quotes")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", userLikesCache, cache -> cache.stats().evictionCount())
+                    .tags("cache", cacheName)
+                    .register(registry);
+            Gauge.builder("cache.size", userLikesCache, UserLikesCache::estimatedSize)
+                    .tags("cache", cacheName)
+                    .register(registry);
+        };
+    }
+}
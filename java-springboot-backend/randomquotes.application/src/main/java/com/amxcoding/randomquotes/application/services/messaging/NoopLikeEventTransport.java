@@ -0,0 +1,33 @@
+package com.amxcoding.randomquotes.application.services.messaging;
+
+import com.amxcoding.randomquotes.application.interfaces.messaging.ILikeEventTransport;
+import com.amxcoding.randomquotes.application.models.LikeEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Used when the node runs on its own, the quote stream only shows the likes of this node.
+ */
+@Service
+@ConditionalOnProperty(name = "randomquotes.stream.cluster.enabled", havingValue = "false", matchIfMissing = true)
+public class NoopLikeEventTransport implements ILikeEventTransport {
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public Mono<Void> publish(List<LikeEvent> events) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Flux<LikeEvent> remoteEvents() {
+        return Flux.empty();
+    }
+}
@@ -0,0 +1,54 @@
+package com.amxcoding.randomquotes.application.common;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReactiveMetrics Unit Tests")
+class ReactiveMetricsTest {
+
+    @Test
+    @DisplayName("1. Outcome: should record each call on the timer of its outcome")
+    void timed_shouldRecordPerOutcome() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        // Act
+        StepVerifier.create(ReactiveMetrics.timed(Mono.just(1), meterRegistry, "test.timed", "provider", "a"))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(ReactiveMetrics.timed(Mono.error(new IllegalStateException()), meterRegistry, "test.timed", "provider", "a"))
+                .verifyError(IllegalStateException.class);
+        StepVerifier.create(ReactiveMetrics.timed(Mono.never(), meterRegistry, "test.timed", "provider", "a"))
+                .thenCancel()
+                .verify();
+
+        // Assert
+        assertThat(meterRegistry.get("test.timed").tags("provider", "a", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("test.timed").tags("provider", "a", "outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("test.timed").tags("provider", "a", "outcome", "cancelled").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("2. Registration: should reuse the timers of a name and tags across calls")
+    void timed_shouldRegisterTimersOnce() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Mono<Integer> first = ReactiveMetrics.timed(Mono.just(1), meterRegistry, "test.reused");
+        Timer success = meterRegistry.get("test.reused").tags("outcome", "success").timer();
+
+        // Act
+        Mono<Integer> second = ReactiveMetrics.timed(Mono.just(2), meterRegistry, "test.reused");
+        StepVerifier.create(first.then(second)).expectNext(2).verifyComplete();
+
+        // Assert
+        assertThat(meterRegistry.get("test.reused").timers()).hasSize(3);
+        assertThat(meterRegistry.get("test.reused").tags("outcome", "success").timer()).isSameAs(success);
+        assertThat(success.count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,74 @@
+package com.amxcoding.randomquotes.application.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("UuidV7 Unit Tests")
+class UuidV7Test {
+
+    @Test
+    @DisplayName("1. Layout: should be a version 7, IETF variant UUID carrying the current millis")
+    void randomUuid_shouldHaveVersion7Layout() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        UUID uuid = UuidV7.randomUuid();
+
+        // Assert
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        // a few millis of slack, a counter overflow (e.g. test 3) borrows from the next millisecond
+        assertThat(UuidV7.timestamp(uuid)).isBetween(before, System.currentTimeMillis() + 10);
+        assertThat(UUID.fromString(uuid.toString())).isEqualTo(uuid);
+    }
+
+    @Test
+    @DisplayName("2. Ordering: ids should be unique and sort in creation order, also as strings")
+    void randomUuid_shouldBeMonotonic() {
+        // Arrange
+        List<UUID> uuids = new ArrayList<>();
+
+        // Act: many ids share a millisecond
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(UuidV7.randomUuid());
+        }
+
+        // Assert
+        assertThat(new HashSet<>(uuids)).hasSize(uuids.size());
+        for (int i = 1; i < uuids.size(); i++) {
+            assertThat(uuids.get(i).toString()).isGreaterThan(uuids.get(i - 1).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("3. Counter overflow: should borrow from the next millisecond instead of going back")
+    void nextTimestampAndCounter_whenClockStandsStill_shouldKeepIncreasing() {
+        // Arrange
+        long frozenMillis = System.currentTimeMillis();
+        long previous = UuidV7.nextTimestampAndCounter(frozenMillis);
+
+        // Act & Assert
+        for (int i = 0; i < 5000; i++) {
+            long next = UuidV7.nextTimestampAndCounter(frozenMillis);
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+        assertThat(previous >>> 12).isGreaterThan(frozenMillis);
+    }
+
+    @Test
+    @DisplayName("4. Timestamp of a random (version 4) UUID: should throw")
+    void timestamp_whenNotVersion7_shouldThrow() {
+        assertThatThrownBy(() -> UuidV7.timestamp(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
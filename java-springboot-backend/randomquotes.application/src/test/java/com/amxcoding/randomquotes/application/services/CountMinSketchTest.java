@@ -0,0 +1,70 @@
+package com.amxcoding.randomquotes.application.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CountMinSketch Unit Tests")
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("1. Should never undercount and keep the overcount small with many keys")
+    void estimate_withManyKeys_shouldNotUndercount() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(4, 8192);
+        String[] keys = IntStream.range(0, 20_000).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+        // Act: the first key is hot, every other key is added once
+        for (int i = 0; i < 100; i++) {
+            sketch.add(keys[0]);
+        }
+        for (int i = 1; i < keys.length; i++) {
+            sketch.add(keys[i]);
+        }
+
+        // Assert
+        assertThat(sketch.estimate(keys[0])).isBetween(100, 105);
+        long overcounted = IntStream.range(1, keys.length).filter(i -> sketch.estimate(keys[i]) > 2).count();
+        assertThat(overcounted).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("2. Add: should return the new estimate")
+    void add_shouldReturnNewEstimate() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+
+        // Act & Assert
+        assertThat(sketch.add("a")).isEqualTo(1);
+        assertThat(sketch.add("a")).isEqualTo(2);
+        assertThat(sketch.estimate("a")).isEqualTo(2);
+        assertThat(sketch.estimate("b")).isZero();
+    }
+
+    @Test
+    @DisplayName("3. Halve: should divide the estimates by 2")
+    void halve_shouldDecayEstimates() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        IntStream.range(0, 10).forEach(i -> sketch.add("a"));
+
+        // Act
+        sketch.halve();
+
+        // Assert
+        assertThat(sketch.estimate("a")).isEqualTo(5);
+        assertThat(sketch.sizeInBytes()).isEqualTo(4 * 1024 * 4);
+    }
+
+    @Test
+    @DisplayName("4. Should reject invalid sizing")
+    void constructor_withInvalidSizing_shouldThrow() {
+        assertThatThrownBy(() -> new CountMinSketch(0, 1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CountMinSketch(4, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
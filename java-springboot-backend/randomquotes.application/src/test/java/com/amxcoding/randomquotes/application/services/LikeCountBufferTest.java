@@ -0,0 +1,185 @@
+package com.amxcoding.randomquotes.application.services;
+
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.exceptions.repositories.QuotePersistenceException;
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LikeCountBuffer Unit Tests")
+class LikeCountBufferTest {
+
+    @Mock
+    private IQuoteRepository quoteRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LikeCountBuffer likeCountBuffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        likeCountBuffer = new LikeCountBuffer(quoteRepository, meterRegistry, true, Duration.ofHours(1), 1000);
+    }
+
+    @Test
+    @DisplayName("1. Flush: should write the summed deltas of all quotes in one statement")
+    void flush_shouldWriteSummedDeltasOnce() {
+        // Arrange
+        when(quoteRepository.applyLikeDeltas(anyMap())).thenReturn(Mono.just(2L));
+        likeCountBuffer.add(1L, 1);
+        likeCountBuffer.add(1L, 1);
+        likeCountBuffer.add(1L, 1);
+        likeCountBuffer.add(2L, 1);
+        likeCountBuffer.add(2L, -1);
+        likeCountBuffer.add(3L, -1);
+
+        // Act
+        StepVerifier.create(likeCountBuffer.flush()).verifyComplete();
+
+        // Assert: quote 2 nets out and is skipped
+        verify(quoteRepository, times(1)).applyLikeDeltas(Map.of(1L, 3, 3L, -1));
+        assertThat(likeCountBuffer.pendingDelta(1L)).isZero();
+        assertThat(meterRegistry.get(Constants.Metrics.LIKE_FLUSH + ".size").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get(Constants.Metrics.LIKE_FLUSH + ".lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("2. Flush: should not call the repository without buffered deltas")
+    void flush_whenEmpty_shouldDoNothing() {
+        // Act
+        StepVerifier.create(likeCountBuffer.flush()).verifyComplete();
+
+        // Assert
+        verifyNoInteractions(quoteRepository);
+    }
+
+    @Test
+    @DisplayName("3. Failed flush: should keep the deltas pending and write them with the next flush")
+    void flush_whenRepositoryFails_shouldRetryWithNextFlush() {
+        // Arrange
+        when(quoteRepository.applyLikeDeltas(anyMap()))
+                .thenReturn(Mono.error(new QuotePersistenceException("DB down")))
+                .thenReturn(Mono.just(1L));
+        likeCountBuffer.add(1L, 1);
+
+        // Act
+        StepVerifier.create(likeCountBuffer.flush()).verifyComplete();
+        int pendingAfterFailure = likeCountBuffer.pendingDelta(1L);
+        likeCountBuffer.add(1L, 1);
+        StepVerifier.create(likeCountBuffer.flush()).verifyComplete();
+
+        // Assert
+        assertThat(pendingAfterFailure).isEqualTo(1);
+        verify(quoteRepository).applyLikeDeltas(Map.of(1L, 2));
+        assertThat(likeCountBuffer.pendingDelta(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("4. Pending delta: should include deltas of a flush that has not committed yet")
+    void pendingDelta_duringFlush_shouldIncludeFlushingDeltas() {
+        // Arrange: the statement never completes during the test
+        when(quoteRepository.applyLikeDeltas(anyMap())).thenReturn(Mono.never());
+        likeCountBuffer.add(1L, 1);
+
+        // Act
+        likeCountBuffer.flush().subscribe();
+        likeCountBuffer.add(1L, 1);
+
+        // Assert
+        assertThat(likeCountBuffer.pendingDelta(1L)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("5. Stop: should flush what is left")
+    void stop_shouldFlushRemainingDeltas() {
+        // Arrange
+        when(quoteRepository.applyLikeDeltas(anyMap())).thenReturn(Mono.just(1L));
+        likeCountBuffer.start();
+        likeCountBuffer.add(1L, 1);
+
+        // Act
+        likeCountBuffer.stop();
+
+        // Assert
+        verify(quoteRepository).applyLikeDeltas(Map.of(1L, 1));
+        assertThat(likeCountBuffer.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("6. Max pending: should flush before the interval once enough likes are buffered")
+    void add_whenMaxPendingReached_shouldFlush() {
+        // Arrange
+        likeCountBuffer = new LikeCountBuffer(quoteRepository, meterRegistry, true, Duration.ofHours(1), 2);
+        when(quoteRepository.applyLikeDeltas(anyMap())).thenReturn(Mono.just(1L));
+        likeCountBuffer.start();
+
+        // Act
+        likeCountBuffer.add(1L, 1);
+        likeCountBuffer.add(1L, 1);
+
+        // Assert
+        verify(quoteRepository, timeout(1000)).applyLikeDeltas(Map.of(1L, 2));
+        likeCountBuffer.stop();
+    }
+
+    @Test
+    @DisplayName("7. Add after stop: should write the like through instead of buffering it")
+    void add_afterStop_shouldWriteThrough() {
+        // Arrange
+        when(quoteRepository.applyLikeDeltas(anyMap())).thenReturn(Mono.just(1L));
+        likeCountBuffer.start();
+        likeCountBuffer.stop();
+
+        // Act
+        likeCountBuffer.add(1L, 1);
+
+        // Assert
+        verify(quoteRepository, timeout(1000)).applyLikeDeltas(Map.of(1L, 1));
+        assertThat(likeCountBuffer.pendingDelta(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("8. Phase: should stop after the web server's graceful shutdown")
+    void getPhase_shouldStopAfterGracefulShutdown() {
+        // Assert
+        assertThat(likeCountBuffer.getPhase()).isLessThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE);
+    }
+
+    @Test
+    @DisplayName("9. Failed write after stop: should drop the deltas instead of leaving them in a buffer nothing flushes")
+    void add_afterStop_whenWriteFails_shouldDropDeltas() {
+        // Arrange
+        when(quoteRepository.applyLikeDeltas(anyMap()))
+                .thenReturn(Mono.just(0L))
+                .thenReturn(Mono.error(new QuotePersistenceException("DB down")))
+                .thenReturn(Mono.just(1L));
+        likeCountBuffer.start();
+        likeCountBuffer.add(1L, 1);
+        likeCountBuffer.stop();
+
+        // Act
+        likeCountBuffer.add(2L, 1);
+        verify(quoteRepository, timeout(1000)).applyLikeDeltas(Map.of(2L, 1));
+        likeCountBuffer.add(3L, 1);
+
+        // Assert: the failed delta of quote 2 is not written with the next write-through
+        verify(quoteRepository, timeout(1000)).applyLikeDeltas(Map.of(3L, 1));
+        assertThat(likeCountBuffer.pendingDelta(2L)).isZero();
+    }
+}
@@ -0,0 +1,60 @@
+package com.amxcoding.randomquotes.application.services;
+
+import com.amxcoding.randomquotes.application.common.Constants;
+import com.amxcoding.randomquotes.application.exceptions.repositories.QuotePersistenceException;
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LikeCounterShardFolder Unit Tests")
+class LikeCounterShardFolderTest {
+
+    @Mock
+    private IQuoteRepository quoteRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LikeCounterShardFolder likeCounterShardFolder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        likeCounterShardFolder = new LikeCounterShardFolder(quoteRepository, meterRegistry, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("1. Fold: should fold the shards once and time it")
+    void fold_shouldFoldShards() {
+        // Arrange
+        when(quoteRepository.foldLikeCounterShards()).thenReturn(Mono.just(3L));
+
+        // Act
+        StepVerifier.create(likeCounterShardFolder.fold()).verifyComplete();
+
+        // Assert
+        verify(quoteRepository, times(1)).foldLikeCounterShards();
+        assertThat(meterRegistry.get(Constants.Metrics.LIKE_FOLD).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("2. Failed fold: should complete, the shards are folded with the next one")
+    void fold_whenRepositoryFails_shouldComplete() {
+        // Arrange
+        when(quoteRepository.foldLikeCounterShards()).thenReturn(Mono.error(new QuotePersistenceException("DB down", null)));
+
+        // Act & Assert
+        StepVerifier.create(likeCounterShardFolder.fold()).verifyComplete();
+    }
+}
@@ -0,0 +1,84 @@
+package com.amxcoding.randomquotes.application.services;
+
+import com.amxcoding.randomquotes.application.common.Constants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LikeThrottle Unit Tests")
+class LikeThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LikeThrottle likeThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        likeThrottle = new LikeThrottle(meterRegistry, true, 3, 10, Duration.ofSeconds(10), 1024);
+    }
+
+    private double throttled(String key) {
+        return meterRegistry.get(Constants.Metrics.LIKE_THROTTLED).tag("key", key).counter().count();
+    }
+
+    @Test
+    @DisplayName("1. Should admit a user up to the limit and reject after")
+    void tryAcquire_overUserLimit_shouldReject() {
+        // Act
+        boolean[] admitted = new boolean[4];
+        for (int i = 0; i < admitted.length; i++) {
+            admitted[i] = likeThrottle.tryAcquire("user-1", "10.0.0.1");
+        }
+
+        // Assert
+        assertThat(admitted).containsExactly(true, true, true, false);
+        assertThat(likeThrottle.tryAcquire("user-2", "10.0.0.1")).isTrue();
+        assertThat(throttled("user")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("2. Should reject an address that uses a new user id per request")
+    void tryAcquire_withFreshUserIds_shouldRejectByAddress() {
+        // Act
+        long admitted = IntStream.range(0, 20)
+                .filter(i -> likeThrottle.tryAcquire(UUID.randomUUID().toString(), "10.0.0.2"))
+                .count();
+
+        // Assert
+        assertThat(admitted).isEqualTo(10);
+        assertThat(throttled("address")).isEqualTo(10);
+        assertThat(likeThrottle.tryAcquire("user-3", "10.0.0.3")).isTrue();
+    }
+
+    @Test
+    @DisplayName("3. Decay: should admit a throttled user again once the estimate faded")
+    void decay_shouldReadmitUser() {
+        // Arrange
+        IntStream.range(0, 4).forEach(i -> likeThrottle.tryAcquire("user-1", null));
+        assertThat(likeThrottle.tryAcquire("user-1", null)).isFalse();
+
+        // Act: 5 -> 2
+        likeThrottle.decay();
+        likeThrottle.decay();
+
+        // Assert
+        assertThat(likeThrottle.tryAcquire("user-1", null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("4. Disabled: should admit everything")
+    void tryAcquire_whenDisabled_shouldAdmit() {
+        // Arrange
+        LikeThrottle disabled = new LikeThrottle(meterRegistry, false, 1, 1, Duration.ofSeconds(10), 1024);
+
+        // Act & Assert
+        assertThat(IntStream.range(0, 10).allMatch(i -> disabled.tryAcquire("user-1", "10.0.0.1"))).isTrue();
+    }
+}
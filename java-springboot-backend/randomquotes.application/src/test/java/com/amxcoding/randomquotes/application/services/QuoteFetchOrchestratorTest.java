@@ -6,6 +6,7 @@ import com.amxcoding.randomquotes.application.exceptions.services.QuoteFetchOrch
 import com.amxcoding.randomquotes.application.interfaces.providers.IQuoteProvider;
 import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
 import com.amxcoding.randomquotes.domain.entities.Quote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -46,6 +47,8 @@ class QuoteFetchOrchestratorTest {
 
     private static final int FALLBACK_RANDOM_QUOTE_AMOUNT = 50;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         // Arrange: Initialize common test data and mock behaviors for each test.
@@ -69,7 +72,8 @@ class QuoteFetchOrchestratorTest {
         // Helper for Arrange phase: Creates and initializes the orchestrator instance.
         List<IQuoteProvider> mutableProviders = new ArrayList<>(providers);
         mutableProviders.sort(AnnotationAwareOrderComparator.INSTANCE); // Simulate constructor sorting.
-        quoteFetchOrchestrator = new QuoteFetchOrchestrator(mutableProviders, quoteRepository);
+        meterRegistry = new SimpleMeterRegistry();
+        quoteFetchOrchestrator = new QuoteFetchOrchestrator(mutableProviders, quoteRepository, meterRegistry);
     }
 
     @Nested
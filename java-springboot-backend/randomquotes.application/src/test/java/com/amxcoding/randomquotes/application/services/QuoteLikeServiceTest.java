@@ -0,0 +1,196 @@
+package com.amxcoding.randomquotes.application.services;
+
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteLikeRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeCountBuffer;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteByIdCache;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteCache;
+import com.amxcoding.randomquotes.application.interfaces.services.IUserLikesCache;
+import com.amxcoding.randomquotes.application.models.QuoteLikeResult;
+import com.amxcoding.randomquotes.application.models.QuoteLikeStatus;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuoteLikeService Unit Tests")
+class QuoteLikeServiceTest {
+
+    private static final String USER_ID = "user-1";
+
+    @Mock
+    private IQuoteLikeRepository quoteLikeRepository;
+    @Mock
+    private IQuoteByIdCache quoteByIdCache;
+    @Mock
+    private IQuoteCache quotesCache;
+    @Mock
+    private IUserLikesCache userLikesCache;
+    @Mock
+    private ILikeCountBuffer likeCountBuffer;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private QuoteLikeService quoteLikeService;
+
+    private static Optional<QuoteLikeResult> result(int likes, boolean liked, boolean changed) {
+        return Optional.of(new QuoteLikeResult(new Quote(1L, "Author", "Text", likes), liked, changed));
+    }
+
+
+    @Nested
+    @DisplayName("likeQuote() Unit Tests")
+    class LikeQuoteTests {
+
+        @Test
+        @DisplayName("1. New like: should update the count in the statement and apply it to the caches")
+        void likeQuote_whenNewLike_shouldUpdateCaches() {
+            // Arrange
+            when(likeCountBuffer.isEnabled()).thenReturn(false);
+            when(quoteLikeRepository.likeQuote(USER_ID, 1L, true)).thenReturn(Mono.just(result(6, true, true)));
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeService.likeQuote(USER_ID, 1L))
+                    .assertNext(likeResult -> {
+                        assertThat(likeResult).isPresent();
+                        assertThat(likeResult.get().quote().getLikes()).isEqualTo(6);
+                        assertThat(likeResult.get().liked()).isTrue();
+                    })
+                    .verifyComplete();
+
+            verify(quoteByIdCache).applyLikeDelta(1L, 1);
+            verify(quotesCache).applyLikeDelta(1L, 1);
+            verify(userLikesCache).onLiked(USER_ID, 1L);
+            verify(likeCountBuffer, never()).add(anyLong(), anyInt());
+        }
+
+        @Test
+        @DisplayName("2. Repeated like: should return the quote and leave the caches alone")
+        void likeQuote_whenAlreadyLiked_shouldNotUpdateCaches() {
+            // Arrange
+            when(likeCountBuffer.isEnabled()).thenReturn(false);
+            when(quoteLikeRepository.likeQuote(USER_ID, 1L, true)).thenReturn(Mono.just(result(5, true, false)));
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeService.likeQuote(USER_ID, 1L))
+                    .expectNext(result(5, true, false))
+                    .verifyComplete();
+
+            verifyNoInteractions(quoteByIdCache, quotesCache, userLikesCache);
+        }
+
+        @Test
+        @DisplayName("3. Write-behind: should leave the count to the buffer and return the likes including pending ones")
+        void likeQuote_whenBufferEnabled_shouldAddPendingLikes() {
+            // Arrange: 2 likes of other users are pending, this like is the third
+            when(likeCountBuffer.isEnabled()).thenReturn(true);
+            when(likeCountBuffer.pendingDelta(1L)).thenReturn(2);
+            when(quoteLikeRepository.likeQuote(USER_ID, 1L, false)).thenReturn(Mono.just(result(5, true, true)));
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeService.likeQuote(USER_ID, 1L))
+                    .assertNext(likeResult -> assertThat(likeResult.orElseThrow().quote().getLikes()).isEqualTo(8))
+                    .verifyComplete();
+
+            verify(likeCountBuffer).add(1L, 1);
+        }
+
+        @Test
+        @DisplayName("4. Unknown quote: should return empty")
+        void likeQuote_whenQuoteNotFound_shouldReturnEmpty() {
+            // Arrange
+            when(likeCountBuffer.isEnabled()).thenReturn(false);
+            when(quoteLikeRepository.likeQuote(USER_ID, 99L, true)).thenReturn(Mono.just(Optional.empty()));
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeService.likeQuote(USER_ID, 99L))
+                    .expectNext(Optional.empty())
+                    .verifyComplete();
+
+            verifyNoInteractions(quoteByIdCache, quotesCache, userLikesCache);
+        }
+    }
+
+
+    @Nested
+    @DisplayName("unlikeQuote() Unit Tests")
+    class UnlikeQuoteTests {
+
+        @Test
+        @DisplayName("1. Unlike: should apply -1 to the caches and return the quote as not liked")
+        void unlikeQuote_whenLiked_shouldUpdateCaches() {
+            // Arrange
+            when(likeCountBuffer.isEnabled()).thenReturn(false);
+            when(quoteLikeRepository.unlikeQuote(USER_ID, 1L, true)).thenReturn(Mono.just(result(4, false, true)));
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeService.unlikeQuote(USER_ID, 1L))
+                    .expectNext(result(4, false, true))
+                    .verifyComplete();
+
+            verify(quoteByIdCache).applyLikeDelta(1L, -1);
+            verify(quotesCache).applyLikeDelta(1L, -1);
+            verify(userLikesCache).onUnliked(USER_ID, 1L);
+        }
+
+        @Test
+        @DisplayName("2. Null ids: should error without querying")
+        void unlikeQuote_whenIdsNull_shouldError() {
+            StepVerifier.create(quoteLikeService.unlikeQuote(null, 1L))
+                    .expectError(IllegalArgumentException.class)
+                    .verify();
+
+            verifyNoInteractions(quoteLikeRepository);
+        }
+    }
+
+
+    @Nested
+    @DisplayName("getLikeStatuses() Unit Tests")
+    class GetLikeStatusesTests {
+
+        @Test
+        @DisplayName("1. Should resolve distinct ids with one query and add pending likes")
+        void getLikeStatuses_shouldQueryDistinctIdsOnce() {
+            // Arrange
+            when(likeCountBuffer.isEnabled()).thenReturn(true);
+            when(likeCountBuffer.pendingDelta(1L)).thenReturn(2);
+            when(likeCountBuffer.pendingDelta(2L)).thenReturn(0);
+            when(quoteLikeRepository.findLikeStatuses(USER_ID, List.of(1L, 2L)))
+                    .thenReturn(Mono.just(List.of(new QuoteLikeStatus(1L, 5, true), new QuoteLikeStatus(2L, 0, false))));
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeService.getLikeStatuses(USER_ID, List.of(1L, 2L, 1L)))
+                    .expectNext(List.of(new QuoteLikeStatus(1L, 7, true), new QuoteLikeStatus(2L, 0, false)))
+                    .verifyComplete();
+
+            verify(quoteLikeRepository, times(1)).findLikeStatuses(USER_ID, List.of(1L, 2L));
+        }
+
+        @Test
+        @DisplayName("2. No ids: should return an empty list without querying")
+        void getLikeStatuses_whenNoIds_shouldNotQuery() {
+            StepVerifier.create(quoteLikeService.getLikeStatuses(USER_ID, List.of()))
+                    .expectNext(List.of())
+                    .verifyComplete();
+
+            verifyNoInteractions(quoteLikeRepository);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.amxcoding.randomquotes.application.services;
 
+import com.amxcoding.randomquotes.application.common.Constants;
 import com.amxcoding.randomquotes.application.exceptions.repositories.QuotePersistenceException;
-import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteByIdCache;
 import com.amxcoding.randomquotes.application.interfaces.services.IQuoteCache;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteRotations;
 import com.amxcoding.randomquotes.domain.entities.Quote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,12 +14,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,24 +32,22 @@ class QuoteServiceTest {
     private IQuoteCache quotesCache;
 
     @Mock
-    private IQuoteRepository quoteRepository;
+    private IQuoteByIdCache quoteByIdCache;
+
+    @Mock
+    private IQuoteRotations quoteRotations;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private QuoteService quoteService;
 
     private Quote quoteWithId;
-    private Quote quoteWithoutId;
-    private List<Quote> quoteListWithId;
-    private List<Quote> quoteListWithoutId;
-    private List<Quote> mixedQuoteList;
 
     @BeforeEach
     void setUp() {
         quoteWithId = new Quote(1L, "Author Persisted", "Text Persisted", 5);
-        quoteWithoutId = new Quote(null, "Author Fresh", "Text Fresh"); // Use null ID explicitly
-        quoteListWithId = List.of(quoteWithId);
-        quoteListWithoutId = List.of(quoteWithoutId);
-        mixedQuoteList = List.of(quoteWithId, quoteWithoutId); // Example with both types
     }
 
 
@@ -58,9 +58,8 @@ class QuoteServiceTest {
         @Test
         @DisplayName("1. Cache Hit: Should return quote directly from cache if ID is present")
         void getRandomQuote_whenCacheHit_andQuoteHasId_shouldReturnCachedQuote() {
-            // Arrange: Mock cache returns a list containing one quote *with* an ID.
-            // FIX: Return Mono<List<Quote>> instead of Mono<Optional<List<Quote>>>
-            when(quotesCache.getQuotes()).thenReturn(Mono.just(quoteListWithId));
+            // Arrange: Mock cache samples one quote *with* an ID.
+            when(quotesCache.getRandomQuote()).thenReturn(Mono.just(Optional.of(quoteWithId)));
 
             // Act: Call the service method.
             Mono<Optional<Quote>> resultMono = quoteService.getRandomQuote();
@@ -70,69 +69,17 @@ class QuoteServiceTest {
                     .expectNext(Optional.of(quoteWithId)) // Service signature returns Optional
                     .verifyComplete();
 
-            // Assert: Verify cache was checked, repository was not.
-            verify(quotesCache).getQuotes();
-            verifyNoInteractions(quoteRepository);
-        }
-
-        @Test
-        @DisplayName("2. Cache Hit & Repo Hit: Should return quote from repository when cached quote has null ID")
-        void getRandomQuote_whenCacheHit_andQuoteHasNullId_andRepoFinds_shouldReturnRepoQuote() {
-            // Arrange: Mock cache returns a list containing one quote *without* an ID.
-            // FIX: Return Mono<List<Quote>>
-            when(quotesCache.getQuotes()).thenReturn(Mono.just(quoteListWithoutId));
-
-            // Arrange: Calculate hash for the quote without ID.
-            String expectedHash = quoteWithoutId.generateTextAuthorHash();
-            // Arrange: Mock repository returning a potentially updated quote (with ID, likes) for that hash.
-            Quote quoteFromRepo = new Quote(5L, quoteWithoutId.getAuthor(), quoteWithoutId.getText(), 3);
-            when(quoteRepository.findByTextAuthorHash(expectedHash)).thenReturn(Mono.just(Optional.of(quoteFromRepo)));
-
-            // Act: Call the service method.
-            Mono<Optional<Quote>> resultMono = quoteService.getRandomQuote();
-
-            // Assert: Verify the quote returned is the one from the repository lookup.
-            StepVerifier.create(resultMono)
-                    .expectNext(Optional.of(quoteFromRepo)) // Service signature returns Optional
-                    .verifyComplete();
-
-            // Assert: Verify cache and repository were called with the correct hash.
-            verify(quotesCache).getQuotes();
-            verify(quoteRepository).findByTextAuthorHash(expectedHash);
-        }
-
-        @Test
-        @DisplayName("3. Cache Hit & Repo Miss: Should return empty Optional when cached quote has null ID and repo doesn't find hash")
-        void getRandomQuote_whenCacheHit_andQuoteHasNullId_andRepoMisses_shouldReturnEmpty() {
-            // Arrange: Mock cache returns a list containing one quote *without* an ID.
-            // FIX: Return Mono<List<Quote>>
-            when(quotesCache.getQuotes()).thenReturn(Mono.just(quoteListWithoutId));
-
-            // Arrange: Calculate hash.
-            String expectedHash = quoteWithoutId.generateTextAuthorHash();
-            // Arrange: Mock repository returning empty for the hash lookup.
-            when(quoteRepository.findByTextAuthorHash(expectedHash)).thenReturn(Mono.just(Optional.empty()));
-
-            // Act: Call the service method.
-            Mono<Optional<Quote>> resultMono = quoteService.getRandomQuote();
-
-            // Assert: Verify the final result is an empty Optional.
-            StepVerifier.create(resultMono)
-                    .expectNext(Optional.empty()) // Service signature returns Optional
-                    .verifyComplete();
-
-            // Assert: Verify cache and repository were called.
-            verify(quotesCache).getQuotes();
-            verify(quoteRepository).findByTextAuthorHash(expectedHash);
+            // Assert: Verify quote cache was checked, by-id cache was not.
+            verify(quotesCache).getRandomQuote();
+            verifyNoInteractions(quoteByIdCache);
         }
 
         @Test
-        @DisplayName("4. Cache Miss (Empty List): Should return empty Optional")
-            // Test name adjusted: Cache miss means empty list according to new contract
+        @DisplayName("2. Cache Miss (Empty Pool): Should return empty Optional")
+            // Test name adjusted: Cache miss means empty Optional according to new contract
         void getRandomQuote_whenCacheMiss_emptyList_shouldReturnEmpty() {
-            // Arrange: Mock cache to return an empty list.
-            // FIX: Return Mono<List<Quote>> (empty list) instead of Mono<Optional.empty()>
-            when(quotesCache.getQuotes()).thenReturn(Mono.just(Collections.emptyList()));
+            // Arrange: Mock cache to return an empty Optional.
+            when(quotesCache.getRandomQuote()).thenReturn(Mono.just(Optional.empty()));
 
             // Act: Call the service method.
             Mono<Optional<Quote>> resultMono = quoteService.getRandomQuote();
@@ -142,23 +89,17 @@ class QuoteServiceTest {
                     .expectNext(Optional.empty()) // Service signature returns Optional
                     .verifyComplete();
 
-            // Assert: Verify cache called, repository not called.
-            verify(quotesCache).getQuotes();
-            verifyNoInteractions(quoteRepository);
+            // Assert: Verify quote cache called, by-id cache not called.
+            verify(quotesCache).getRandomQuote();
+            verifyNoInteractions(quoteByIdCache);
         }
 
-        // Test 5 becomes redundant as it's the same case as Test 4 now.
-        // @Test
-        // @DisplayName("5. Cache Miss (Optional<Empty List>): Should return empty Optional")
-        // void getRandomQuote_whenCacheMiss_optionalEmptyList_shouldReturnEmpty() { ... }
-
-
         @Test
-        @DisplayName("6. Cache Error: Should propagate error when cache fails")
+        @DisplayName("3. Cache Error: Should propagate error when cache fails")
         void getRandomQuote_whenCacheError_shouldPropagateError() {
-            // Arrange: Mock cache getQuotes() to return an error.
+            // Arrange: Mock cache getRandomQuote() to return an error.
             RuntimeException cacheError = new RuntimeException("Cache unavailable");
-            when(quotesCache.getQuotes()).thenReturn(Mono.error(cacheError));
+            when(quotesCache.getRandomQuote()).thenReturn(Mono.error(cacheError));
 
             // Act: Call the service method.
             Mono<Optional<Quote>> resultMono = quoteService.getRandomQuote();
@@ -168,62 +109,84 @@ class QuoteServiceTest {
                     .expectErrorMatches(error -> error == cacheError) // Check specific error instance
                     .verify();
 
-            // Assert: Verify cache called, repository not called.
-            verify(quotesCache).getQuotes();
-            verifyNoInteractions(quoteRepository);
+            // Assert: Verify quote cache called, by-id cache not called.
+            verify(quotesCache).getRandomQuote();
+            verifyNoInteractions(quoteByIdCache);
         }
 
         @Test
-        @DisplayName("7. Repository Error: Should propagate error when repository fails during hash lookup")
-        void getRandomQuote_whenRepoErrorOnHashLookup_shouldPropagateError() {
-            // Arrange: Mock cache returns quote without ID.
-            // FIX: Return Mono<List<Quote>>
-            when(quotesCache.getQuotes()).thenReturn(Mono.just(quoteListWithoutId));
-            String expectedHash = quoteWithoutId.generateTextAuthorHash();
-            // Arrange: Mock repository findByHash to return an error.
-            QuotePersistenceException repoError = new QuotePersistenceException("DB error on findByHash", null);
-            when(quoteRepository.findByTextAuthorHash(expectedHash)).thenReturn(Mono.error(repoError));
+        @DisplayName("4. Metrics: Should record the call in the random quote timer tagged with its outcome")
+        void getRandomQuote_shouldRecordTimer() {
+            // Arrange
+            when(quotesCache.getRandomQuote()).thenReturn(Mono.just(Optional.of(quoteWithId)));
+
+            // Act
+            StepVerifier.create(quoteService.getRandomQuote())
+                    .expectNext(Optional.of(quoteWithId))
+                    .verifyComplete();
 
-            // Act: Call the service method.
-            Mono<Optional<Quote>> resultMono = quoteService.getRandomQuote();
+            // Assert
+            assertThat(meterRegistry.get(Constants.Metrics.RANDOM_QUOTE).tag("outcome", "success").timer().count())
+                    .isEqualTo(1);
+        }
+    }
 
-            // Assert: Verify the exact error from the repository is propagated.
-            StepVerifier.create(resultMono)
-                    .expectErrorMatches(error -> error == repoError) // Check specific error instance
-                    .verify();
+    @Nested
+    @DisplayName("getRandomQuote(userId) Unit Tests")
+    class GetRandomQuoteForUserTests {
 
-            // Assert: Verify cache and repository were called.
-            verify(quotesCache).getQuotes();
-            verify(quoteRepository).findByTextAuthorHash(expectedHash);
+        @Test
+        @DisplayName("1. Rotations enabled: Should pick the next quote of the user's rotation")
+        void getRandomQuote_whenRotationsEnabled_shouldPickFromRotation() {
+            // Arrange: the cache hands the picker a pool of 50 quotes
+            when(quoteRotations.isEnabled()).thenReturn(true);
+            when(quoteRotations.nextIndex("user-1", 7L, 50)).thenReturn(3);
+            when(quotesCache.pickQuote(any())).thenAnswer(invocation -> {
+                IQuoteCache.QuoteIndexPicker picker = invocation.getArgument(0);
+                return Mono.just(Optional.of(new Quote((long) picker.pick(7L, 50), "Author", "Text", 0)));
+            });
+
+            // Act & Assert
+            StepVerifier.create(quoteService.getRandomQuote("user-1"))
+                    .assertNext(quote -> assertThat(quote.orElseThrow().getId()).isEqualTo(3L))
+                    .verifyComplete();
+            verify(quotesCache, never()).getRandomQuote();
         }
 
         @Test
-        @DisplayName("8. Empty Hash: Should throw IllegalStateException when generated hash is empty")
-        void getRandomQuote_whenEmptyHashGenerated_shouldThrowIllegalState() {
-            // Arrange: Mock a quote that generates an empty hash.
-            Quote quoteWithEmptyHash = mock(Quote.class);
-            when(quoteWithEmptyHash.getId()).thenReturn(null); // Ensure ID is null
-            when(quoteWithEmptyHash.generateTextAuthorHash()).thenReturn(""); // Force empty hash
-            // Arrange: Mock cache to return this quote.
-            // FIX: Return Mono<List<Quote>>
-            when(quotesCache.getQuotes()).thenReturn(Mono.just(List.of(quoteWithEmptyHash)));
+        @DisplayName("2. Rotations disabled: Should sample a random quote")
+        void getRandomQuote_whenRotationsDisabled_shouldSample() {
+            // Arrange
+            when(quoteRotations.isEnabled()).thenReturn(false);
+            when(quotesCache.getRandomQuote()).thenReturn(Mono.just(Optional.of(quoteWithId)));
+
+            // Act & Assert
+            StepVerifier.create(quoteService.getRandomQuote("user-1"))
+                    .expectNext(Optional.of(quoteWithId))
+                    .verifyComplete();
+            verify(quotesCache, never()).pickQuote(any());
+        }
+    }
 
-            // Act: Call the service method.
-            Mono<Optional<Quote>> resultMono = quoteService.getRandomQuote();
+    @Nested
+    @DisplayName("getWeightedRandomQuote() Unit Tests")
+    class GetWeightedRandomQuoteTests {
 
-            // Assert: Verify an IllegalStateException is thrown.
-            StepVerifier.create(resultMono)
-                    .expectErrorSatisfies(error -> {
-                        assertThat(error)
-                                .isInstanceOf(IllegalStateException.class)
-                                .hasMessage("Quotes hash is missing");
-                    })
-                    .verify();
+        @Test
+        @DisplayName("1. Should return the quote sampled by likes and record the weighted timer")
+        void getWeightedRandomQuote_shouldReturnWeightedSample() {
+            // Arrange
+            when(quotesCache.getWeightedRandomQuote()).thenReturn(Mono.just(Optional.of(quoteWithId)));
+
+            // Act
+            StepVerifier.create(quoteService.getWeightedRandomQuote())
+                    .expectNext(Optional.of(quoteWithId))
+                    .verifyComplete();
 
-            // Assert: Verify interactions.
-            verify(quotesCache).getQuotes();
-            verify(quoteWithEmptyHash).generateTextAuthorHash();
-            verifyNoInteractions(quoteRepository); // Repository not called because of empty hash
+            // Assert
+            verify(quotesCache, never()).getRandomQuote();
+            assertThat(meterRegistry.get(Constants.Metrics.WEIGHTED_RANDOM_QUOTE).tag("outcome", "success").timer().count())
+                    .isEqualTo(1);
         }
     }
 
@@ -233,32 +196,32 @@ class QuoteServiceTest {
     class GetQuoteByIdTests {
 
         @Test
-        @DisplayName("1. Should return quote Optional from repository when found by ID")
+        @DisplayName("1. Should return quote Optional from by-id cache when found by ID")
         void getQuoteById_whenFound_shouldReturnOptionalWithQuote() {
-            // Arrange: Define an ID and mock the repository to return a specific quote.
+            // Arrange: Define an ID and mock the by-id cache to return a specific quote.
             Long quoteId = 1L;
-            Optional<Quote> repoResult = Optional.of(quoteWithId); // Use pre-defined quote with ID=1L
-            when(quoteRepository.findById(quoteId)).thenReturn(Mono.just(repoResult));
+            Optional<Quote> cacheResult = Optional.of(quoteWithId); // Use pre-defined quote with ID=1L
+            when(quoteByIdCache.getQuoteById(quoteId)).thenReturn(Mono.just(cacheResult));
 
             // Act: Call the service method.
             Mono<Optional<Quote>> resultMono = quoteService.getQuoteById(quoteId);
 
             // Assert: Verify the service returns the expected Optional<Quote>.
             StepVerifier.create(resultMono)
-                    .expectNext(repoResult)
+                    .expectNext(cacheResult)
                     .verifyComplete();
 
-            // Assert: Verify repository interaction.
-            verify(quoteRepository).findById(quoteId);
+            // Assert: Verify by-id cache interaction.
+            verify(quoteByIdCache).getQuoteById(quoteId);
             verifyNoInteractions(quotesCache);
         }
 
         @Test
-        @DisplayName("2. Should return empty Optional when repository does not find quote by ID")
+        @DisplayName("2. Should return empty Optional when by-id cache does not find quote by ID")
         void getQuoteById_whenNotFound_shouldReturnEmptyOptional() {
-            // Arrange: Define an ID and mock the repository to return empty Optional.
+            // Arrange: Define an ID and mock the by-id cache to return empty Optional.
             Long nonExistentId = 999L;
-            when(quoteRepository.findById(nonExistentId)).thenReturn(Mono.just(Optional.empty()));
+            when(quoteByIdCache.getQuoteById(nonExistentId)).thenReturn(Mono.just(Optional.empty()));
 
             // Act: Call the service method.
             Mono<Optional<Quote>> resultMono = quoteService.getQuoteById(nonExistentId);
@@ -268,29 +231,29 @@ class QuoteServiceTest {
                     .expectNext(Optional.empty())
                     .verifyComplete();
 
-            // Assert: Verify repository interaction.
-            verify(quoteRepository).findById(nonExistentId);
+            // Assert: Verify by-id cache interaction.
+            verify(quoteByIdCache).getQuoteById(nonExistentId);
             verifyNoInteractions(quotesCache);
         }
 
         @Test
-        @DisplayName("3. Should propagate error when repository findById fails")
+        @DisplayName("3. Should propagate error when by-id cache lookup fails")
         void getQuoteById_whenRepoError_shouldPropagateError() {
-            // Arrange: Define an ID and mock the repository findById to return an error.
+            // Arrange: Define an ID and mock the by-id cache findById to return an error.
             Long quoteId = 1L;
             QuotePersistenceException repoError = new QuotePersistenceException("DB error on findById", null);
-            when(quoteRepository.findById(quoteId)).thenReturn(Mono.error(repoError));
+            when(quoteByIdCache.getQuoteById(quoteId)).thenReturn(Mono.error(repoError));
 
             // Act: Call the service method.
             Mono<Optional<Quote>> resultMono = quoteService.getQuoteById(quoteId);
 
-            // Assert: Verify the exact error from the repository is propagated.
+            // Assert: Verify the exact error from the by-id cache is propagated.
             StepVerifier.create(resultMono)
                     .expectErrorMatches(error -> error == repoError) // Check specific error instance
                     .verify();
 
-            // Assert: Verify repository interaction.
-            verify(quoteRepository).findById(quoteId);
+            // Assert: Verify by-id cache interaction.
+            verify(quoteByIdCache).getQuoteById(quoteId);
             verifyNoInteractions(quotesCache);
         }
     }
@@ -0,0 +1,135 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("AliasSampler Unit Tests")
+class AliasSamplerTest {
+
+    private static final int SAMPLES = 200_000;
+    private static final Duration REBUILD_DELAY = Duration.ofMillis(100);
+
+    private VirtualTimeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+    }
+
+    private AliasSampler aliasSampler(AtomicIntegerArray likes) {
+        return new AliasSampler(likes.length(), likes::get, REBUILD_DELAY, scheduler);
+    }
+
+    private double[] frequencies(AliasSampler aliasSampler, int size) {
+        int[] counts = new int[size];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[aliasSampler.sample()]++;
+        }
+
+        double[] frequencies = new double[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            frequencies[i] = (double) counts[i] / SAMPLES;
+        }
+        return frequencies;
+    }
+
+    @Test
+    @DisplayName("1. Should pick indexes in proportion to likes + 1")
+    void sample_shouldFollowLikes() {
+        // Arrange: weights 1, 2, 3, 10
+        AtomicIntegerArray likes = new AtomicIntegerArray(new int[]{0, 1, 2, 9});
+
+        // Act
+        double[] frequencies = frequencies(aliasSampler(likes), likes.length());
+
+        // Assert
+        assertThat(frequencies[0]).isCloseTo(1 / 16.0, within(0.01));
+        assertThat(frequencies[1]).isCloseTo(2 / 16.0, within(0.01));
+        assertThat(frequencies[2]).isCloseTo(3 / 16.0, within(0.01));
+        assertThat(frequencies[3]).isCloseTo(10 / 16.0, within(0.01));
+    }
+
+    @Test
+    @DisplayName("2. No likes at all: should pick uniformly")
+    void sample_withoutLikes_shouldBeUniform() {
+        // Arrange
+        AtomicIntegerArray likes = new AtomicIntegerArray(4);
+
+        // Act
+        double[] frequencies = frequencies(aliasSampler(likes), likes.length());
+
+        // Assert
+        for (double frequency : frequencies) {
+            assertThat(frequency).isCloseTo(0.25, within(0.01));
+        }
+    }
+
+    @Test
+    @DisplayName("3. Invalidate: should keep sampling the old table until the scheduled rebuild")
+    void sample_afterInvalidate_shouldUseNewLikesAfterRebuildDelay() {
+        // Arrange
+        AtomicIntegerArray likes = new AtomicIntegerArray(2);
+        AliasSampler aliasSampler = aliasSampler(likes);
+
+        // Act
+        likes.set(1, 99);
+        aliasSampler.invalidate();
+        double[] beforeRebuild = frequencies(aliasSampler, 2);
+        scheduler.advanceTimeBy(REBUILD_DELAY);
+        double[] afterRebuild = frequencies(aliasSampler, 2);
+
+        // Assert
+        assertThat(beforeRebuild[1]).isCloseTo(0.5, within(0.01));
+        assertThat(afterRebuild[1]).isCloseTo(100 / 101.0, within(0.01));
+    }
+
+    @Test
+    @DisplayName("4. Burst of likes: should rebuild the table once per rebuild delay")
+    void invalidate_burst_shouldScheduleOneRebuild() {
+        // Arrange
+        AtomicIntegerArray likes = new AtomicIntegerArray(2);
+        AliasSampler aliasSampler = aliasSampler(likes);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            likes.incrementAndGet(1);
+            aliasSampler.invalidate();
+        }
+
+        // Assert: one pending rebuild, it reads the likes after the burst
+        assertThat(scheduler.getScheduledTaskCount()).isEqualTo(1);
+        scheduler.advanceTimeBy(REBUILD_DELAY);
+        assertThat(frequencies(aliasSampler, 2)[1]).isCloseTo(1001 / 1002.0, within(0.01));
+    }
+
+    @Test
+    @DisplayName("5. Construction: should build the table right away, sampling never reads the likes")
+    void sample_shouldNotBuildTable() {
+        // Arrange
+        AtomicInteger likeReads = new AtomicInteger();
+        AliasSampler aliasSampler = new AliasSampler(4, index -> {
+            likeReads.incrementAndGet();
+            return index;
+        }, REBUILD_DELAY, scheduler);
+        int readsByConstruction = likeReads.get();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            assertThat(aliasSampler.sample()).isBetween(0, 3);
+        }
+
+        // Assert
+        assertThat(readsByConstruction).isEqualTo(4);
+        assertThat(likeReads.get()).isEqualTo(4);
+        assertThat(scheduler.getScheduledTaskCount()).isZero();
+    }
+}
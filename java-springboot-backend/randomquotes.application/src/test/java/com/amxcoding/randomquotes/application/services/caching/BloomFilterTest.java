@@ -0,0 +1,55 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BloomFilter Unit Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("1. Should contain every value that was put")
+    void mightContain_afterPut_shouldBeTrue() {
+        // Arrange
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        String[] values = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+        // Act
+        for (String value : values) {
+            bloomFilter.put(value);
+        }
+
+        // Assert
+        for (String value : values) {
+            assertThat(bloomFilter.mightContain(value)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("2. Should keep false positives around the configured rate")
+    void mightContain_neverPut_shouldMostlyBeFalse() {
+        // Arrange
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> bloomFilter.put("user-" + i));
+
+        // Act
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> bloomFilter.mightContain(UUID.randomUUID().toString()))
+                .count();
+
+        // Assert
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    @DisplayName("3. Should reject invalid sizing")
+    void constructor_withInvalidSizing_shouldThrow() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,132 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeCountBuffer;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuoteByIdCache Unit Tests")
+class QuoteByIdCacheTest {
+
+    @Mock
+    private IQuoteRepository quoteRepository;
+    @Mock
+    private ILikeCountBuffer likeCountBuffer;
+
+    private QuoteByIdCache quoteByIdCache;
+    private Quote quote;
+
+    @BeforeEach
+    void setUp() {
+        quoteByIdCache = new QuoteByIdCache(quoteRepository, likeCountBuffer, 100, Duration.ofMinutes(10));
+        quote = new Quote(1L, "Author One", "Text One", 5);
+    }
+
+    @Test
+    @DisplayName("1. Concurrent misses for the same id should share a single repository call")
+    void getQuoteById_whenConcurrentMisses_shouldLoadOnce() {
+        // Arrange: the repository only completes when the test says so
+        Sinks.One<Optional<Quote>> repositoryResult = Sinks.one();
+        when(quoteRepository.findById(1L)).thenReturn(repositoryResult.asMono());
+
+        // Act & Assert
+        StepVerifier.create(Mono.zip(quoteByIdCache.getQuoteById(1L), quoteByIdCache.getQuoteById(1L)))
+                .then(() -> repositoryResult.tryEmitValue(Optional.of(quote)))
+                .assertNext(results -> {
+                    assertThat(results.getT1()).contains(quote);
+                    assertThat(results.getT2()).contains(quote);
+                })
+                .verifyComplete();
+
+        // a later read is a hit
+        StepVerifier.create(quoteByIdCache.getQuoteById(1L))
+                .expectNext(Optional.of(quote))
+                .verifyComplete();
+
+        verify(quoteRepository, times(1)).findById(1L);
+        assertThat(quoteByIdCache.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("2. Not found: should return empty Optional and not cache the miss")
+    void getQuoteById_whenNotFound_shouldReturnEmptyAndNotCache() {
+        // Arrange
+        when(quoteRepository.findById(99L)).thenReturn(Mono.just(Optional.empty()));
+
+        // Act & Assert
+        StepVerifier.create(quoteByIdCache.getQuoteById(99L))
+                .expectNext(Optional.empty())
+                .verifyComplete();
+        StepVerifier.create(quoteByIdCache.getQuoteById(99L))
+                .expectNext(Optional.empty())
+                .verifyComplete();
+
+        verify(quoteRepository, times(2)).findById(99L);
+    }
+
+    @Test
+    @DisplayName("3. Like delta: should replace the cached quote without a repository call")
+    void applyLikeDelta_whenCached_shouldUpdateInPlace() {
+        // Arrange
+        when(quoteRepository.findById(1L)).thenReturn(Mono.just(Optional.of(quote)));
+        quoteByIdCache.getQuoteById(1L).block();
+
+        // Act
+        quoteByIdCache.applyLikeDelta(1L, 1);
+
+        // Assert
+        StepVerifier.create(quoteByIdCache.getQuoteById(1L))
+                .assertNext(result -> assertThat(result.orElseThrow().getLikes()).isEqualTo(6))
+                .verifyComplete();
+
+        assertThat(quote.getLikes()).isEqualTo(5); // the previously handed out instance is untouched
+        verify(quoteRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("4. Like delta: should not go below zero and ignore ids that are not cached")
+    void applyLikeDelta_shouldClampAndIgnoreUncached() {
+        // Arrange
+        when(quoteRepository.findById(1L)).thenReturn(Mono.just(Optional.of(new Quote(1L, "Author One", "Text One", 0))));
+        quoteByIdCache.getQuoteById(1L).block();
+
+        // Act
+        quoteByIdCache.applyLikeDelta(1L, -1);
+        quoteByIdCache.applyLikeDelta(2L, 1);
+
+        // Assert
+        StepVerifier.create(quoteByIdCache.getQuoteById(1L))
+                .assertNext(result -> assertThat(result.orElseThrow().getLikes()).isZero())
+                .verifyComplete();
+
+        verify(quoteRepository, never()).findById(2L);
+    }
+
+    @Test
+    @DisplayName("5. Load: should include likes that are still in the like count buffer")
+    void getQuoteById_withPendingLikes_shouldAddThem() {
+        // Arrange
+        when(quoteRepository.findById(1L)).thenReturn(Mono.just(Optional.of(quote)));
+        when(likeCountBuffer.pendingDelta(1L)).thenReturn(2);
+
+        // Act & Assert
+        StepVerifier.create(quoteByIdCache.getQuoteById(1L))
+                .assertNext(result -> assertThat(result.orElseThrow().getLikes()).isEqualTo(7))
+                .verifyComplete();
+    }
+}
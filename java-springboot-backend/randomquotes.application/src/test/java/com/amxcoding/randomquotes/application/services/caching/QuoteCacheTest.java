@@ -0,0 +1,237 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteCacheException;
+import com.amxcoding.randomquotes.application.interfaces.caching.IRemoteQuoteCache;
+import com.amxcoding.randomquotes.application.interfaces.caching.IRemoteQuoteCache.CachedQuotes;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteFetchOrchestrator;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuoteCache Unit Tests")
+class QuoteCacheTest {
+
+    @Mock
+    private IQuoteFetchOrchestrator quoteFetchOrchestrator;
+
+    @Mock
+    private IRemoteQuoteCache remoteQuoteCache;
+
+    private QuotePool quotePool;
+    private List<Quote> quotes;
+
+    @BeforeEach
+    void setUp() {
+        quotePool = new QuotePool();
+        quotes = List.of(
+                new Quote(1L, "Author One", "Text One", 1),
+                new Quote(2L, "Author Two", "Text Two", 2)
+        );
+    }
+
+    @Test
+    @DisplayName("1. Fresh pool: should serve from the pool without calling the orchestrator")
+    void getRandomQuote_whenPoolFresh_shouldNotLoad() {
+        // Arrange
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, new NoopRemoteQuoteCache(), Duration.ofMinutes(3), Duration.ofMinutes(15));
+        quotePool.swap(quotes);
+
+        // Act & Assert
+        StepVerifier.create(quoteCache.getRandomQuote())
+                .assertNext(result -> assertThat(quotes).contains(result.orElseThrow()))
+                .verifyComplete();
+
+        verifyNoInteractions(quoteFetchOrchestrator);
+    }
+
+    @Test
+    @DisplayName("2. Empty pool: concurrent misses should share a single orchestrator call")
+    void getRandomQuote_whenConcurrentMisses_shouldLoadOnce() {
+        // Arrange: the orchestrator only completes when the test says so
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, new NoopRemoteQuoteCache(), Duration.ofMinutes(3), Duration.ofMinutes(15));
+        Sinks.One<List<Quote>> orchestratorResult = Sinks.one();
+        when(quoteFetchOrchestrator.getQuotes()).thenReturn(orchestratorResult.asMono());
+
+        // Act
+        Mono<Optional<Quote>> first = quoteCache.getRandomQuote();
+        Mono<Optional<Quote>> second = quoteCache.getRandomQuote();
+
+        // Assert
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> orchestratorResult.tryEmitValue(quotes))
+                .assertNext(results -> {
+                    assertThat(quotes).contains(results.getT1().orElseThrow());
+                    assertThat(quotes).contains(results.getT2().orElseThrow());
+                })
+                .verifyComplete();
+
+        verify(quoteFetchOrchestrator, times(1)).getQuotes();
+        assertThat(quotePool.current().size()).isEqualTo(quotes.size());
+    }
+
+    @Test
+    @DisplayName("3. Stale pool: should serve the stale pool and refresh in the background")
+    void getRandomQuote_whenPoolStale_shouldServeStaleAndRefresh() {
+        // Arrange: soft ttl of zero makes every pool stale
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, new NoopRemoteQuoteCache(), Duration.ZERO, Duration.ofMinutes(15));
+        Quote staleQuote = new Quote(9L, "Stale Author", "Stale Text", 0);
+        quotePool.swap(List.of(staleQuote));
+        when(quoteFetchOrchestrator.getQuotes()).thenReturn(Mono.just(quotes));
+
+        // Act & Assert
+        StepVerifier.create(quoteCache.getRandomQuote())
+                .expectNext(Optional.of(staleQuote))
+                .verifyComplete();
+
+        verify(quoteFetchOrchestrator, times(1)).getQuotes();
+        assertThat(quotePool.current().asList()).containsExactlyElementsOf(quotes);
+        assertThat(quoteCache.refreshStats().refreshes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("4. Failed refresh: should keep serving the stale pool and count the failure")
+    void getRandomQuote_whenRefreshFails_shouldKeepStalePool() {
+        // Arrange
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, new NoopRemoteQuoteCache(), Duration.ZERO, Duration.ofMinutes(15));
+        quotePool.swap(quotes);
+        when(quoteFetchOrchestrator.getQuotes()).thenReturn(Mono.error(new RuntimeException("Upstream down")));
+
+        // Act & Assert
+        StepVerifier.create(quoteCache.getRandomQuote())
+                .assertNext(result -> assertThat(quotes).contains(result.orElseThrow()))
+                .verifyComplete();
+
+        assertThat(quotePool.current().asList()).containsExactlyElementsOf(quotes);
+        assertThat(quoteCache.refreshStats().failures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("5. Empty pool and no quotes: should propagate QuoteCacheException")
+    void getRandomQuote_whenOrchestratorReturnsEmpty_shouldError() {
+        // Arrange
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, new NoopRemoteQuoteCache(), Duration.ofMinutes(3), Duration.ofMinutes(15));
+        when(quoteFetchOrchestrator.getQuotes()).thenReturn(Mono.just(Collections.emptyList()));
+
+        // Act & Assert
+        StepVerifier.create(quoteCache.getRandomQuote())
+                .expectError(QuoteCacheException.class)
+                .verify();
+
+        assertThat(quotePool.current().isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("6. Quotes without id: should be dropped, only persisted quotes end up in the pool")
+    void getQuotes_whenOrchestratorReturnsQuotesWithoutId_shouldDropThem() {
+        // Arrange
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, new NoopRemoteQuoteCache(), Duration.ofMinutes(3), Duration.ofMinutes(15));
+        Quote unpersistedQuote = new Quote("Author Fresh", "Text Fresh");
+        when(quoteFetchOrchestrator.getQuotes()).thenReturn(Mono.just(List.of(quotes.get(0), unpersistedQuote, quotes.get(1))));
+
+        // Act & Assert
+        StepVerifier.create(quoteCache.getQuotes())
+                .expectNext(quotes)
+                .verifyComplete();
+
+        assertThat(quotePool.current().asList()).containsExactlyElementsOf(quotes);
+    }
+
+    @Test
+    @DisplayName("7. Remote tier fresh: should use the shared quotes and keep their load time")
+    void getQuotes_whenRemoteFresh_shouldUseRemoteWithoutOrchestrator() {
+        // Arrange
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, remoteQuoteCache, Duration.ofMinutes(3), Duration.ofMinutes(15));
+        long loadedAt = System.currentTimeMillis() - Duration.ofMinutes(1).toMillis();
+        when(remoteQuoteCache.isEnabled()).thenReturn(true);
+        when(remoteQuoteCache.getQuotes()).thenReturn(Mono.just(Optional.of(new CachedQuotes(quotes, loadedAt))));
+
+        // Act & Assert
+        StepVerifier.create(quoteCache.getQuotes())
+                .expectNext(quotes)
+                .verifyComplete();
+
+        assertThat(quotePool.current().getLoadedAtMillis()).isEqualTo(loadedAt);
+        verifyNoInteractions(quoteFetchOrchestrator);
+        verify(remoteQuoteCache, never()).tryAcquireRefreshLock(any());
+    }
+
+    @Test
+    @DisplayName("8. Remote tier empty and lock acquired: should load from orchestrator and publish to the remote tier")
+    void getQuotes_whenRemoteEmptyAndLockAcquired_shouldLoadAndPublish() {
+        // Arrange
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, remoteQuoteCache, Duration.ofMinutes(3), Duration.ofMinutes(15));
+        when(remoteQuoteCache.isEnabled()).thenReturn(true);
+        when(remoteQuoteCache.getQuotes()).thenReturn(Mono.just(Optional.empty()));
+        when(remoteQuoteCache.tryAcquireRefreshLock(QuoteCache.REMOTE_LOCK_TTL)).thenReturn(Mono.just(true));
+        when(remoteQuoteCache.putQuotes(any(), any())).thenReturn(Mono.empty());
+        when(quoteFetchOrchestrator.getQuotes()).thenReturn(Mono.just(quotes));
+
+        // Act & Assert
+        StepVerifier.create(quoteCache.getQuotes())
+                .expectNext(quotes)
+                .verifyComplete();
+
+        verify(quoteFetchOrchestrator, times(1)).getQuotes();
+        verify(remoteQuoteCache).putQuotes(argThat(cached -> cached.quotes().equals(quotes)),
+                argThat(ttl -> ttl.compareTo(Duration.ofMinutes(15)) <= 0 && !ttl.isNegative()));
+    }
+
+    @Test
+    @DisplayName("9. Remote tier failing: should fall back to the orchestrator")
+    void getQuotes_whenRemoteFails_shouldFallBackToOrchestrator() {
+        // Arrange
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, remoteQuoteCache, Duration.ofMinutes(3), Duration.ofMinutes(15));
+        when(remoteQuoteCache.isEnabled()).thenReturn(true);
+        when(remoteQuoteCache.getQuotes()).thenReturn(Mono.error(new QuoteCacheException("Connection refused")));
+        when(remoteQuoteCache.tryAcquireRefreshLock(any())).thenReturn(Mono.error(new QuoteCacheException("Connection refused")));
+        when(remoteQuoteCache.putQuotes(any(), any())).thenReturn(Mono.error(new QuoteCacheException("Connection refused")));
+        when(quoteFetchOrchestrator.getQuotes()).thenReturn(Mono.just(quotes));
+
+        // Act & Assert
+        StepVerifier.create(quoteCache.getQuotes())
+                .expectNext(quotes)
+                .verifyComplete();
+
+        assertThat(quotePool.current().asList()).containsExactlyElementsOf(quotes);
+        assertThat(quoteCache.refreshStats().failures()).isZero();
+    }
+
+    @Test
+    @DisplayName("10. Reload left the pool stale: should back off instead of reloading on every read")
+    void getRandomQuote_whenReloadLeavesPoolStale_shouldBackOff() {
+        // Arrange: the pool stays stale, the reload fails
+        QuoteCache quoteCache = new QuoteCache(quoteFetchOrchestrator, quotePool, new NoopRemoteQuoteCache(), Duration.ofMinutes(3), Duration.ofMinutes(15));
+        long loadedAt = System.currentTimeMillis() - Duration.ofMinutes(5).toMillis();
+        quotePool.swap(quotes, loadedAt);
+        when(quoteFetchOrchestrator.getQuotes()).thenReturn(Mono.error(new RuntimeException("Upstream down")));
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.create(quoteCache.getRandomQuote())
+                    .assertNext(result -> assertThat(quotes).contains(result.orElseThrow()))
+                    .verifyComplete();
+        }
+
+        // Assert: the first read reloaded, the others served the stale pool within the backoff
+        verify(quoteFetchOrchestrator, times(1)).getQuotes();
+        assertThat(quoteCache.refreshStats().refreshes()).isEqualTo(1);
+        assertThat(quotePool.current().getLoadedAtMillis()).isEqualTo(loadedAt);
+    }
+}
@@ -0,0 +1,152 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.exceptions.repositories.QuotePersistenceException;
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteCacheException;
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import com.amxcoding.randomquotes.application.interfaces.services.ILikeCountBuffer;
+import com.amxcoding.randomquotes.application.interfaces.services.IQuoteFetchOrchestrator;
+import com.amxcoding.randomquotes.application.models.QuoteLikeCount;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuoteCorpusCache Unit Tests")
+class QuoteCorpusCacheTest {
+
+    @Mock
+    private IQuoteRepository quoteRepository;
+    @Mock
+    private IQuoteFetchOrchestrator quoteFetchOrchestrator;
+    @Mock
+    private ILikeCountBuffer likeCountBuffer;
+
+    private QuoteCorpusCache quoteCorpusCache;
+
+    @BeforeEach
+    void setUp() {
+        quoteCorpusCache = new QuoteCorpusCache(quoteRepository, quoteFetchOrchestrator, likeCountBuffer, Duration.ofMinutes(1), 10, Duration.ofMinutes(5));
+    }
+
+    private static List<Quote> quotes(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new Quote(id, "Author " + id, "Text " + id, 0))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("1. Sync: should load the whole table page by page")
+    void syncNewQuotes_shouldLoadAllPages() {
+        // Arrange: one full page followed by a partial one
+        int pageSize = QuoteCorpusCache.PAGE_SIZE;
+        when(quoteRepository.findQuotesAfterId(0L, pageSize)).thenReturn(Mono.just(quotes(1, pageSize)));
+        when(quoteRepository.findQuotesAfterId(pageSize, pageSize)).thenReturn(Mono.just(quotes(pageSize + 1, pageSize + 5)));
+
+        // Act & Assert
+        StepVerifier.create(quoteCorpusCache.syncNewQuotes())
+                .expectNext(pageSize + 5)
+                .verifyComplete();
+
+        assertThat(quoteCorpusCache.corpus().size()).isEqualTo(pageSize + 5);
+        assertThat(quoteCorpusCache.corpus().maxId()).isEqualTo(pageSize + 5);
+    }
+
+    @Test
+    @DisplayName("2. Sync below ingest-until: should call the orchestrator and pick up the new rows")
+    void sync_whenCorpusIncomplete_shouldIngestAndLoadNewRows() {
+        // Arrange
+        when(quoteRepository.findQuotesAfterId(0L, QuoteCorpusCache.PAGE_SIZE)).thenReturn(Mono.just(quotes(1, 3)));
+        when(quoteFetchOrchestrator.getQuotes()).thenReturn(Mono.just(quotes(4, 6)));
+        when(quoteRepository.findQuotesAfterId(3L, QuoteCorpusCache.PAGE_SIZE)).thenReturn(Mono.just(quotes(4, 6)));
+
+        // Act
+        StepVerifier.create(quoteCorpusCache.sync()).verifyComplete();
+
+        // Assert
+        assertThat(quoteCorpusCache.corpus().size()).isEqualTo(6);
+        StepVerifier.create(quoteCorpusCache.getRandomQuote())
+                .assertNext(quote -> assertThat(quote).isPresent())
+                .verifyComplete();
+        verify(quoteFetchOrchestrator, times(1)).getQuotes();
+    }
+
+    @Test
+    @DisplayName("3. Sync at ingest-until: should not call the orchestrator")
+    void sync_whenCorpusComplete_shouldNotIngest() {
+        // Arrange
+        when(quoteRepository.findQuotesAfterId(0L, QuoteCorpusCache.PAGE_SIZE)).thenReturn(Mono.just(quotes(1, 10)));
+
+        // Act
+        StepVerifier.create(quoteCorpusCache.sync()).verifyComplete();
+
+        // Assert
+        assertThat(quoteCorpusCache.corpus().size()).isEqualTo(10);
+        verifyNoInteractions(quoteFetchOrchestrator);
+    }
+
+    @Test
+    @DisplayName("4. Failed initial load: should release waiting callers with QuoteCacheException")
+    void getRandomQuote_whenInitialLoadFails_shouldError() {
+        // Arrange
+        when(quoteRepository.findQuotesAfterId(0L, QuoteCorpusCache.PAGE_SIZE))
+                .thenReturn(Mono.error(new QuotePersistenceException("DB down", null)));
+        Mono<?> randomQuote = quoteCorpusCache.getRandomQuote();
+
+        // Act
+        StepVerifier.create(quoteCorpusCache.sync()).verifyComplete();
+
+        // Assert
+        StepVerifier.create(randomQuote)
+                .expectError(QuoteCacheException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("5. Like delta: should update the likes of the served quote")
+    void applyLikeDelta_shouldUpdateCorpus() {
+        // Arrange
+        quoteCorpusCache.corpus().append(quotes(1, 1));
+
+        // Act
+        quoteCorpusCache.applyLikeDelta(1L, 1);
+
+        // Assert
+        StepVerifier.create(quoteCorpusCache.getRandomQuote())
+                .assertNext(quote -> assertThat(quote.orElseThrow().getLikes()).isEqualTo(1))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("6. Like refresh: a due sync should re-read the stored like counts plus the buffered deltas")
+    void sync_whenLikeRefreshDue_shouldUpdateLikes() {
+        // Arrange: likes of other nodes are only in the database
+        quoteCorpusCache = new QuoteCorpusCache(quoteRepository, quoteFetchOrchestrator, likeCountBuffer, Duration.ofMinutes(1), 1, Duration.ZERO);
+        when(quoteRepository.findQuotesAfterId(0L, QuoteCorpusCache.PAGE_SIZE)).thenReturn(Mono.just(quotes(1, 2)));
+        when(quoteRepository.findQuotesAfterId(2L, QuoteCorpusCache.PAGE_SIZE)).thenReturn(Mono.just(List.of()));
+        when(quoteRepository.findLikeCountsAfterId(0L, QuoteCorpusCache.LIKE_PAGE_SIZE))
+                .thenReturn(Mono.just(List.of(new QuoteLikeCount(1L, 7), new QuoteLikeCount(2L, 0))));
+        when(likeCountBuffer.pendingDelta(1L)).thenReturn(1);
+
+        // Act
+        StepVerifier.create(quoteCorpusCache.sync()).verifyComplete();
+        StepVerifier.create(quoteCorpusCache.sync()).verifyComplete();
+
+        // Assert
+        assertThat(quoteCorpusCache.corpus().findById(1L).orElseThrow().getLikes()).isEqualTo(8);
+        assertThat(quoteCorpusCache.corpus().findById(2L).orElseThrow().getLikes()).isZero();
+        verify(quoteRepository, times(2)).findLikeCountsAfterId(0L, QuoteCorpusCache.LIKE_PAGE_SIZE);
+    }
+}
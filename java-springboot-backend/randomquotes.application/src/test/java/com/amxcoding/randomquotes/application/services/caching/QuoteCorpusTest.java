@@ -0,0 +1,95 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("QuoteCorpus Unit Tests")
+class QuoteCorpusTest {
+
+    private QuoteCorpus corpus;
+
+    @BeforeEach
+    void setUp() {
+        corpus = new QuoteCorpus();
+    }
+
+    @Test
+    @DisplayName("1. Empty corpus: should return empty and max id 0")
+    void emptyCorpus_shouldReturnEmpty() {
+        assertThat(corpus.size()).isZero();
+        assertThat(corpus.maxId()).isZero();
+        assertThat(corpus.randomQuote()).isEmpty();
+        assertThat(corpus.findById(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("2. Append: should store quotes in id order, dedupe authors and round trip texts")
+    void append_shouldStoreQuotesColumnar() {
+        // Arrange
+        List<Quote> quotes = List.of(
+                new Quote(3L, "Seneca", "Luck is what happens when preparation meets opportunity.", 2),
+                new Quote(1L, "Seneca", "We suffer more often in imagination than in reality.", 5),
+                new Quote(2L, "Laozi", "千里之行，始於足下", 0)
+        );
+
+        // Act
+        int added = corpus.append(quotes);
+
+        // Assert
+        assertThat(added).isEqualTo(3);
+        assertThat(corpus.maxId()).isEqualTo(3L);
+        assertThat(corpus.authorCount()).isEqualTo(2);
+        assertThat(corpus.findById(2L)).contains(new Quote(2L, "Laozi", "千里之行，始於足下", 0));
+        assertThat(corpus.asList()).extracting(Quote::getId).containsExactly(1L, 2L, 3L);
+        assertThat(corpus.asList().get(0).getLikes()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("3. Append: should skip known ids, ids without quotes and grow past the initial capacity")
+    void append_shouldSkipKnownIdsAndGrow() {
+        // Arrange
+        corpus.append(List.of(new Quote(1L, "Author", "Text 1", 0)));
+        List<Quote> batch = new ArrayList<>();
+        batch.add(new Quote(1L, "Author", "Text 1 again", 0));
+        batch.add(new Quote(null, "Author", "Unpersisted", 0));
+        for (long id = 2; id <= 3000; id++) {
+            batch.add(new Quote(id, "Author " + (id % 10), "Text " + id, (int) id));
+        }
+
+        // Act
+        int added = corpus.append(batch);
+
+        // Assert
+        assertThat(added).isEqualTo(2999);
+        assertThat(corpus.size()).isEqualTo(3000);
+        assertThat(corpus.authorCount()).isEqualTo(11);
+        assertThat(corpus.findById(1L).map(Quote::getText)).contains("Text 1");
+        assertThat(corpus.findById(2500L).map(Quote::getLikes)).contains(2500);
+        assertThat(corpus.randomQuote()).isPresent();
+    }
+
+    @Test
+    @DisplayName("4. Like delta: should update the likes in place, never below zero")
+    void applyLikeDelta_shouldUpdateLikes() {
+        // Arrange
+        corpus.append(List.of(new Quote(1L, "Author", "Text", 1)));
+
+        // Act
+        boolean updated = corpus.applyLikeDelta(1L, 1);
+        corpus.applyLikeDelta(1L, -5);
+        boolean unknown = corpus.applyLikeDelta(99L, 1);
+
+        // Assert
+        assertThat(updated).isTrue();
+        assertThat(unknown).isFalse();
+        assertThat(corpus.findById(1L).map(Quote::getLikes)).isEqualTo(Optional.of(0));
+    }
+}
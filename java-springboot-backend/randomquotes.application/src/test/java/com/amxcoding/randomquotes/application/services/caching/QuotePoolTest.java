@@ -0,0 +1,154 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("QuotePool Unit Tests")
+class QuotePoolTest {
+
+    private static final Duration TTL = Duration.ofMinutes(3);
+
+    private QuotePool quotePool;
+    private List<Quote> quotes;
+
+    @BeforeEach
+    void setUp() {
+        quotePool = new QuotePool();
+        quotes = List.of(
+                new Quote(1L, "Author One", "Text One", 1),
+                new Quote(2L, "Author Two", "Text Two", 2),
+                new Quote(3L, "Author Three", "Text Three", 3)
+        );
+    }
+
+    @Test
+    @DisplayName("1. Empty pool: sample should return empty and count a miss")
+    void sample_whenEmpty_shouldReturnEmptyAndCountMiss() {
+        // Act
+        Optional<Quote> result = quotePool.sample(TTL);
+
+        // Assert
+        assertThat(result).isEmpty();
+        assertThat(quotePool.stats()).isEqualTo(new QuotePool.QuotePoolStats(0, 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("2. Swapped pool: sample should return one of the pooled quotes and count a hit")
+    void sample_afterSwap_shouldReturnPooledQuoteAndCountHit() {
+        // Arrange
+        quotePool.swap(quotes);
+
+        // Act
+        Optional<Quote> result = quotePool.sample(TTL);
+
+        // Assert
+        assertThat(result).isPresent();
+        assertThat(quotes).contains(result.get());
+        assertThat(quotePool.stats()).isEqualTo(new QuotePool.QuotePoolStats(1, 0, 1, 3));
+    }
+
+    @Test
+    @DisplayName("3. Expired pool: sample should return empty and count a miss")
+    void sample_whenOlderThanMaxAge_shouldReturnEmpty() {
+        // Arrange
+        quotePool.swap(quotes);
+
+        // Act
+        Optional<Quote> result = quotePool.sample(Duration.ZERO);
+
+        // Assert
+        assertThat(result).isEmpty();
+        assertThat(quotePool.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("4. Snapshot should not change when the source list or a later swap changes")
+    void swap_shouldPublishImmutableSnapshot() {
+        // Arrange
+        List<Quote> source = new ArrayList<>(quotes);
+        quotePool.swap(source);
+        QuotePool.Snapshot snapshot = quotePool.current();
+
+        // Act
+        source.clear();
+        quotePool.swap(List.of(new Quote(4L, "Author Four", "Text Four", 4)));
+
+        // Assert
+        assertThat(snapshot.asList()).containsExactlyElementsOf(quotes);
+        assertThatThrownBy(() -> snapshot.asList().set(0, null)).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(quotePool.current().size()).isEqualTo(1);
+        assertThat(quotePool.stats().swaps()).isEqualTo(2);
+    }
+
+    private int likedQuoteSamples(long quoteId) {
+        int samples = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (quotePool.sampleWeighted(TTL).orElseThrow().getId() == quoteId) {
+                samples++;
+            }
+        }
+        return samples;
+    }
+
+    @Test
+    @DisplayName("5. Weighted sample: should follow like changes of the current snapshot")
+    void sampleWeighted_afterLikeDelta_shouldFavorLikedQuote() throws InterruptedException {
+        // Arrange
+        quotePool.swap(quotes);
+
+        // Act: the alias table is rebuilt off the request path, the default rebuild delay after the change
+        quotePool.applyLikeDelta(3L, 10_000);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        int likedQuoteSamples = likedQuoteSamples(3L);
+        while (likedQuoteSamples <= 980 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            likedQuoteSamples = likedQuoteSamples(3L);
+        }
+
+        // Assert: weight 10004 out of 10009, the quotes themselves are unchanged
+        assertThat(likedQuoteSamples).isGreaterThan(980);
+        assertThat(quotePool.current().asList()).containsExactlyElementsOf(quotes);
+        assertThat(quotes.get(2).getLikes()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("6. Weighted sample: should return empty and count a miss on an empty pool")
+    void sampleWeighted_whenEmpty_shouldReturnEmpty() {
+        // Act
+        Optional<Quote> result = quotePool.sampleWeighted(TTL);
+
+        // Assert
+        assertThat(result).isEmpty();
+        assertThat(quotePool.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("7. Like counts: sampled quotes should carry the likes applied since the swap")
+    void sample_afterLikeDelta_shouldReturnCurrentLikes() {
+        // Arrange
+        quotePool.swap(List.of(quotes.get(0)));
+
+        // Act
+        quotePool.applyLikeDelta(1L, 2);
+        Quote sampled = quotePool.sample(TTL).orElseThrow();
+        Quote weighted = quotePool.sampleWeighted(TTL).orElseThrow();
+        Quote picked = quotePool.pick(TTL, (generation, size) -> 0).orElseThrow();
+
+        // Assert: the pooled quote itself is unchanged
+        assertThat(sampled.getLikes()).isEqualTo(3);
+        assertThat(weighted.getLikes()).isEqualTo(3);
+        assertThat(picked.getLikes()).isEqualTo(3);
+        assertThat(quotePool.current().asList().get(0).getLikes()).isEqualTo(3);
+        assertThat(quotes.get(0).getLikes()).isEqualTo(1);
+    }
+}
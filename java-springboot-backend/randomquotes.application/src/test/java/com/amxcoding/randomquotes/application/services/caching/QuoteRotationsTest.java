@@ -0,0 +1,91 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("QuoteRotations Unit Tests")
+class QuoteRotationsTest {
+
+    private QuoteRotations quoteRotations;
+
+    @BeforeEach
+    void setUp() {
+        quoteRotations = new QuoteRotations(true, 1000, Duration.ofHours(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 50, 1000, 3237})
+    @DisplayName("1. Permute: should map positions to a permutation of [0, size)")
+    void permute_shouldBeAPermutation(int size) {
+        // Act
+        Set<Integer> indexes = new HashSet<>();
+        for (int position = 0; position < size; position++) {
+            int index = QuoteRotations.permute(position, size, 42L);
+            assertThat(index).isBetween(0, size - 1);
+            indexes.add(index);
+        }
+
+        // Assert
+        assertThat(indexes).hasSize(size);
+    }
+
+    @Test
+    @DisplayName("2. Rotation: should not repeat a quote before all quotes were seen")
+    void nextIndex_shouldNotRepeatWithinRotation() {
+        // Act
+        Set<Integer> firstRotation = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            firstRotation.add(quoteRotations.nextIndex("user-1", 1L, 50));
+        }
+        int firstOfNextRotation = quoteRotations.nextIndex("user-1", 1L, 50);
+
+        // Assert
+        assertThat(firstRotation).hasSize(50);
+        assertThat(firstOfNextRotation).isBetween(0, 49);
+        assertThat(quoteRotations.estimatedSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("3. Rotation: should restart when the generation of the quotes changed")
+    void nextIndex_whenGenerationChanged_shouldRestart() {
+        // Arrange: 49 of 50 quotes seen
+        for (int i = 0; i < 49; i++) {
+            quoteRotations.nextIndex("user-1", 1L, 50);
+        }
+
+        // Act: a new pool, the rotation starts over, so the next 50 are all different again
+        Set<Integer> newRotation = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            newRotation.add(quoteRotations.nextIndex("user-1", 2L, 50));
+        }
+
+        // Assert
+        assertThat(newRotation).hasSize(50);
+    }
+
+    @Test
+    @DisplayName("4. Users: should get independent rotations")
+    void nextIndex_shouldKeepRotationPerUser() {
+        // Act
+        Set<Integer> userOne = new HashSet<>();
+        Set<Integer> userTwo = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            userOne.add(quoteRotations.nextIndex("user-1", 1L, 20));
+            userTwo.add(quoteRotations.nextIndex("user-2", 1L, 20));
+        }
+
+        // Assert
+        assertThat(userOne).hasSize(20);
+        assertThat(userTwo).hasSize(20);
+        assertThat(quoteRotations.estimatedSize()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,147 @@
+package com.amxcoding.randomquotes.application.services.caching;
+
+import com.amxcoding.randomquotes.application.common.UuidV7;
+import com.amxcoding.randomquotes.application.exceptions.repositories.QuoteLikePersistenceException;
+import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteLikeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserLikesCache Unit Tests")
+class UserLikesCacheTest {
+
+    @Mock
+    private IQuoteLikeRepository quoteLikeRepository;
+
+    private UserLikesCache userLikesCache;
+
+    @BeforeEach
+    void setUp() {
+        userLikesCache = userLikesCache(false);
+    }
+
+    private UserLikesCache userLikesCache(boolean clusterEnabled) {
+        return new UserLikesCache(quoteLikeRepository, 100, Duration.ofMinutes(10), 1000, 0.01, Duration.ofSeconds(30),
+                clusterEnabled, Duration.ofSeconds(30), Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("1. Before the Bloom filter is filled: should load the user's liked quotes once")
+    void isLiked_beforeSync_shouldLoadLikedQuotesOnce() {
+        // Arrange
+        when(quoteLikeRepository.findQuoteIdsByUserId("user-1")).thenReturn(Mono.just(List.of(3L, 1L)));
+
+        // Act & Assert
+        StepVerifier.create(userLikesCache.isLiked("user-1", 1L)).expectNext(true).verifyComplete();
+        StepVerifier.create(userLikesCache.isLiked("user-1", 2L)).expectNext(false).verifyComplete();
+        verify(quoteLikeRepository, times(1)).findQuoteIdsByUserId("user-1");
+    }
+
+    @Test
+    @DisplayName("2. After the Bloom filter is filled: new users that never liked should not reach the repository")
+    void isLiked_afterSync_shouldSkipUsersThatNeverLiked() {
+        // Arrange
+        String newUser = UuidV7.randomUuid().toString();
+        when(quoteLikeRepository.findUserIdsLikedSince(userLikesCache.bloomFilterSince())).thenReturn(Flux.just("user-1"));
+        when(quoteLikeRepository.findQuoteIdsByUserId("user-1")).thenReturn(Mono.just(List.of(1L)));
+        StepVerifier.create(userLikesCache.syncLikingUsers()).verifyComplete();
+
+        // Act & Assert
+        assertThat(userLikesCache.isBloomFilterReady()).isTrue();
+        StepVerifier.create(userLikesCache.isLiked(newUser, 1L)).expectNext(false).verifyComplete();
+        StepVerifier.create(userLikesCache.isLiked("user-1", 1L)).expectNext(true).verifyComplete();
+        verify(quoteLikeRepository, never()).findQuoteIdsByUserId(newUser);
+        assertThat(userLikesCache.bloomFilterSkips()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("3. Like and unlike: should update the loaded liked set and the Bloom filter")
+    void onLikedAndOnUnliked_shouldUpdateCachedState() {
+        // Arrange: Bloom filter filled without any liking user, user-1 liked nothing yet
+        when(quoteLikeRepository.findUserIdsLikedSince(userLikesCache.bloomFilterSince())).thenReturn(Flux.empty());
+        StepVerifier.create(userLikesCache.syncLikingUsers()).verifyComplete();
+        userLikesCache.onLiked("user-1", 5L);
+        when(quoteLikeRepository.findQuoteIdsByUserId("user-1")).thenReturn(Mono.just(List.of(5L)));
+
+        // Act & Assert: the like passes the Bloom filter, the set is loaded and then kept in sync
+        StepVerifier.create(userLikesCache.isLiked("user-1", 5L)).expectNext(true).verifyComplete();
+        userLikesCache.onLiked("user-1", 6L);
+        userLikesCache.onUnliked("user-1", 5L);
+        StepVerifier.create(userLikesCache.isLiked("user-1", 6L)).expectNext(true).verifyComplete();
+        StepVerifier.create(userLikesCache.isLiked("user-1", 5L)).expectNext(false).verifyComplete();
+        verify(quoteLikeRepository, times(1)).findQuoteIdsByUserId("user-1");
+    }
+
+    @Test
+    @DisplayName("4. Failed sync: should keep asking the liked sets and retry from the start")
+    void syncLikingUsers_whenRepositoryFails_shouldStayNotReady() {
+        // Arrange
+        when(quoteLikeRepository.findUserIdsLikedSince(any()))
+                .thenReturn(Flux.error(new QuoteLikePersistenceException("DB down")));
+
+        // Act
+        StepVerifier.create(userLikesCache.syncLikingUsers()).verifyComplete();
+        StepVerifier.create(userLikesCache.syncLikingUsers()).verifyComplete();
+
+        // Assert
+        assertThat(userLikesCache.isBloomFilterReady()).isFalse();
+        verify(quoteLikeRepository, times(2)).findUserIdsLikedSince(userLikesCache.bloomFilterSince());
+    }
+
+    @Test
+    @DisplayName("5. Cluster mode: sync should drop the liked sets of users that liked since, they may have liked on another node")
+    void syncLikingUsers_inClusterMode_shouldReloadRecentLikers() {
+        // Arrange: user-1 liked quote 1 here, then quote 2 on another node
+        userLikesCache = userLikesCache(true);
+        when(quoteLikeRepository.findUserIdsLikedSince(any())).thenReturn(Flux.just("user-1"));
+        when(quoteLikeRepository.findQuoteIdsByUserId("user-1"))
+                .thenReturn(Mono.just(List.of(1L)))
+                .thenReturn(Mono.just(List.of(1L, 2L)));
+        StepVerifier.create(userLikesCache.syncLikingUsers()).verifyComplete();
+        StepVerifier.create(userLikesCache.isLiked("user-1", 2L)).expectNext(false).verifyComplete();
+
+        // Act
+        StepVerifier.create(userLikesCache.syncLikingUsers()).verifyComplete();
+
+        // Assert
+        StepVerifier.create(userLikesCache.isLiked("user-1", 2L)).expectNext(true).verifyComplete();
+        verify(quoteLikeRepository, times(2)).findQuoteIdsByUserId("user-1");
+    }
+
+    @Test
+    @DisplayName("6. First sync: should start at startup minus expire-after-write and keep older users on the liked sets")
+    void syncLikingUsers_firstSync_shouldNotScanAllLikes() {
+        // Arrange: users created before the filter's start may have liked before it
+        String oldUser = UuidV7.randomUuid().toString().replaceFirst("^[0-9a-f]{8}-[0-9a-f]{4}", "00000000-0000");
+        String legacyUser = UUID.randomUUID().toString();
+        when(quoteLikeRepository.findUserIdsLikedSince(any())).thenReturn(Flux.empty());
+        when(quoteLikeRepository.findQuoteIdsByUserId(oldUser)).thenReturn(Mono.just(List.of(1L)));
+        when(quoteLikeRepository.findQuoteIdsByUserId(legacyUser)).thenReturn(Mono.just(List.of(2L)));
+
+        // Act
+        StepVerifier.create(userLikesCache.syncLikingUsers()).verifyComplete();
+
+        // Assert
+        assertThat(userLikesCache.bloomFilterSince()).isBetween(Instant.now().minus(Duration.ofMinutes(11)), Instant.now().minus(Duration.ofMinutes(9)));
+        verify(quoteLikeRepository).findUserIdsLikedSince(userLikesCache.bloomFilterSince());
+        StepVerifier.create(userLikesCache.isLiked(oldUser, 1L)).expectNext(true).verifyComplete();
+        StepVerifier.create(userLikesCache.isLiked(legacyUser, 2L)).expectNext(true).verifyComplete();
+        assertThat(userLikesCache.bloomFilterSkips()).isZero();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.relational.core.mapping.Table;
 
 import java.time.OffsetDateTime;
 import java.util.Objects;
+import java.util.UUID;
 
 @Table(name = "quote_like")
 public class QuoteLikeEntity {
@@ -14,8 +15,8 @@ public class QuoteLikeEntity {
     @Column("id")
     private Long id;
 
-    @Column("user_id")
-    private String userId;
+    @Column("user_uuid")
+    private UUID userId;
 
     @Column("quote_id")
     private Long quoteId;
@@ -26,14 +27,14 @@ public class QuoteLikeEntity {
     public QuoteLikeEntity() {
     }
 
-    public QuoteLikeEntity(Long id, String userId, Long quoteId, OffsetDateTime likedAt) {
+    public QuoteLikeEntity(Long id, UUID userId, Long quoteId, OffsetDateTime likedAt) {
         this.id = id;
         this.userId = userId;
         this.quoteId = quoteId;
         this.likedAt = likedAt;
     }
 
-    public QuoteLikeEntity(String userId, Long quoteId, OffsetDateTime likedAt) {
+    public QuoteLikeEntity(UUID userId, Long quoteId, OffsetDateTime likedAt) {
         this.userId = userId;
         this.quoteId = quoteId;
         this.likedAt = likedAt;
@@ -46,10 +47,10 @@ public class QuoteLikeEntity {
         this.id = id;
     }
 
-    public String getUserId() {
+    public UUID getUserId() {
         return userId;
     }
-    public void setUserId(String userId) {
+    public void setUserId(UUID userId) {
         this.userId = userId;
     }
 
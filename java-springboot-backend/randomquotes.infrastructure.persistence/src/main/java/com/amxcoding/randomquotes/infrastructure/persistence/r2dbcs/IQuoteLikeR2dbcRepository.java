@@ -1,11 +1,23 @@
 package com.amxcoding.randomquotes.infrastructure.persistence.r2dbcs;
 
 import com.amxcoding.randomquotes.infrastructure.persistence.models.QuoteLikeEntity;
-import org.springframework.data.r2dbc.repository.R2dbcRepository;
-import reactor.core.publisher.Mono;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+import reactor.core.publisher.Flux;
 
-public interface IQuoteLikeR2dbcRepository extends R2dbcRepository<QuoteLikeEntity, Long> {
-    Mono<QuoteLikeEntity> findByUserIdAndQuoteId(String userId, Long quoteId);
-    Mono<Void> deleteByUserIdAndQuoteId(String userId, Long quoteId);
+import java.time.OffsetDateTime;
+import java.util.UUID;
 
-}
\ No newline at end of file
+/**
+ * quote_like is hash partitioned on user_uuid (V4__quote_like_partitioned.sql), queries filter on the user s.t. Postgres scans one partition.
+ * No R2dbcRepository: its findById, findAll, deleteById... would scan every partition.
+ */
+public interface IQuoteLikeR2dbcRepository extends Repository<QuoteLikeEntity, Long> {
+    @Query("SELECT quote_id FROM quote_like WHERE user_uuid = :userId")
+    Flux<Long> findQuoteIdsByUserId(UUID userId);
+
+    // the only query across all partitions, a range scan of idx_quote_like_liked_at per partition
+    @Query("SELECT DISTINCT user_uuid FROM quote_like WHERE liked_at >= :since AND user_uuid IS NOT NULL")
+    Flux<UUID> findUserIdsLikedSince(OffsetDateTime since);
+
+}
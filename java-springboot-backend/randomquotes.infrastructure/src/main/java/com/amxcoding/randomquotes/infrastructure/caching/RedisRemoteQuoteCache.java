@@ -0,0 +1,136 @@
+package com.amxcoding.randomquotes.infrastructure.caching;
+
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteCacheException;
+import com.amxcoding.randomquotes.application.interfaces.caching.IRemoteQuoteCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Remote quote cache tier on any store that speaks the Redis protocol.
+ * The quotes are stored as one json value that expires with the hard ttl of the load,
+ * the refresh lock is a SET NX PX key that is never released, it simply expires.
+ */
+@Component
+@ConditionalOnProperty(name = "randomquotes.cache.remote.enabled", havingValue = "true")
+public class RedisRemoteQuoteCache implements IRemoteQuoteCache, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRemoteQuoteCache.class);
+
+    private final RedisClient redisClient;
+    private final Mono<StatefulRedisConnection<String, String>> connection;
+    private final ObjectMapper objectMapper;
+    private final String quotesKey;
+    private final String lockKey;
+    // identifies this node as the lock holder when inspecting the store
+    private final String instanceId = UUID.randomUUID().toString();
+
+
+    public RedisRemoteQuoteCache(@Value("${randomquotes.cache.remote.uri}") String uri,
+                                 @Value("${randomquotes.cache.remote.key-prefix:randomquotes}") String keyPrefix,
+                                 @Value("${randomquotes.cache.remote.timeout:500ms}") Duration timeout,
+                                 ObjectMapper objectMapper) {
+        RedisURI redisUri = RedisURI.create(uri);
+        redisUri.setTimeout(timeout);
+
+        this.redisClient = RedisClient.create(redisUri);
+        this.redisClient.setOptions(ClientOptions.builder()
+                .protocolVersion(ProtocolVersion.RESP2)
+                .timeoutOptions(TimeoutOptions.enabled(timeout))
+                .build());
+
+        // connect lazily, s.t. the application starts without the store, a failed connect is retried on the next call
+        this.connection = Mono.fromCompletionStage(() -> redisClient.connectAsync(StringCodec.UTF8, redisUri))
+                .cacheInvalidateIf(redisConnection -> !redisConnection.isOpen());
+
+        this.objectMapper = objectMapper;
+        this.quotesKey = keyPrefix + ":quotes:pool";
+        this.lockKey = keyPrefix + ":quotes:refresh-lock";
+
+        logger.info("Remote quote cache tier enabled ({}:{}, key prefix: {})", redisUri.getHost(), redisUri.getPort(), keyPrefix);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public Mono<Optional<CachedQuotes>> getQuotes() {
+        return connection
+                .flatMap(redisConnection -> redisConnection.reactive().get(quotesKey))
+                .flatMap(this::deserialize)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorMap(error -> !(error instanceof QuoteCacheException), error -> {
+                    logger.error("Error reading quotes from the remote cache: {}", error.getMessage());
+                    return new QuoteCacheException("Error reading quotes from the remote cache: " + error.getMessage(), error);
+                });
+    }
+
+    @Override
+    public Mono<Void> putQuotes(CachedQuotes cachedQuotes, Duration ttl) {
+        return serialize(cachedQuotes)
+                .flatMap(json -> connection
+                        .flatMap(redisConnection -> redisConnection.reactive().set(quotesKey, json, SetArgs.Builder.px(ttl.toMillis()))))
+                .then()
+                .onErrorMap(error -> !(error instanceof QuoteCacheException), error -> {
+                    logger.error("Error writing quotes to the remote cache: {}", error.getMessage());
+                    return new QuoteCacheException("Error writing quotes to the remote cache: " + error.getMessage(), error);
+                });
+    }
+
+    /**
+     * Succeeds for exactly one caller until the lock expires.
+     */
+    @Override
+    public Mono<Boolean> tryAcquireRefreshLock(Duration lockTtl) {
+        return connection
+                .flatMap(redisConnection -> redisConnection.reactive().set(lockKey, instanceId, SetArgs.Builder.nx().px(lockTtl.toMillis())))
+                .map("OK"::equals)
+                .defaultIfEmpty(false) // nil reply, the lock is held by someone else
+                .onErrorMap(error -> {
+                    logger.error("Error acquiring the quote refresh lock: {}", error.getMessage());
+                    return new QuoteCacheException("Error acquiring the quote refresh lock: " + error.getMessage(), error);
+                });
+    }
+
+    @Override
+    public void destroy() {
+        redisClient.shutdown();
+    }
+
+    private Mono<String> serialize(CachedQuotes cachedQuotes) {
+        try {
+            return Mono.just(objectMapper.writeValueAsString(cachedQuotes));
+        } catch (JsonProcessingException e) {
+            return Mono.error(new QuoteCacheException("Error serializing quotes for the remote cache", e));
+        }
+    }
+
+    private Mono<CachedQuotes> deserialize(String json) {
+        try {
+            return Mono.just(objectMapper.readValue(json, CachedQuotes.class));
+        } catch (JsonProcessingException e) {
+            return Mono.error(new QuoteCacheException("Error deserializing quotes from the remote cache", e));
+        }
+    }
+}
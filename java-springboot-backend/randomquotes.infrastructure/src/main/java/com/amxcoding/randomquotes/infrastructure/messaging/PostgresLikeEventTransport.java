@@ -0,0 +1,188 @@
+package com.amxcoding.randomquotes.infrastructure.messaging;
+
+import com.amxcoding.randomquotes.application.interfaces.messaging.ILikeEventTransport;
+import com.amxcoding.randomquotes.application.models.LikeEvent;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Like events between the nodes over Postgres LISTEN/NOTIFY on the application database, no broker needed.
+ * A batch of events is sent as compact text payloads "origin;quoteId:likes:l,quoteId:likes:u,...", split below the 8000 bytes
+ * NOTIFY allows, l marks a like and u an unlike. Postgres delivers a notification to every listener, including the sender, so events carrying
+ * this node's origin are dropped.
+ *
+ * Listening keeps one connection of the pool for as long as remoteEvents() is subscribed.
+ * When the connection is lost the notifications complete, the listener then reconnects with a backoff.
+ */
+@Component
+@ConditionalOnProperty(name = "randomquotes.stream.cluster.enabled", havingValue = "true")
+public class PostgresLikeEventTransport implements ILikeEventTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresLikeEventTransport.class);
+
+    // NOTIFY payloads must be shorter than 8000 bytes, the payload is ascii
+    static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final char LIKED = 'l';
+    private static final char UNLIKED = 'u';
+    // unquoted identifier, it is concatenated into the LISTEN statement
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final Duration MIN_RECONNECT_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+    private final String channel;
+    // a new origin per start, s.t. a restarted node doesn't drop events of its previous run still in flight
+    private final String origin = UUID.randomUUID().toString();
+
+
+    public PostgresLikeEventTransport(ConnectionFactory connectionFactory,
+                                      DatabaseClient databaseClient,
+                                      @Value("${randomquotes.stream.cluster.channel:randomquotes_likes}") String channel) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("The like event channel must be a lowercase identifier: " + channel);
+        }
+        this.connectionFactory = connectionFactory;
+        this.databaseClient = databaseClient;
+        this.channel = channel;
+
+        logger.info("Like events are shared with the other nodes on channel {} (origin {})", channel, origin);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public Mono<Void> publish(List<LikeEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Flux.fromIterable(encode(origin, events))
+                .concatMap(payload -> databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                        .bind("channel", channel)
+                        .bind("payload", payload)
+                        .then())
+                .then();
+    }
+
+    @Override
+    public Flux<LikeEvent> remoteEvents() {
+        return Flux.usingWhen(connectionFactory.create(), this::listen, Connection::close)
+                // the notifications complete when the connection is closed, that's a loss here as well
+                .concatWith(Mono.error(() -> new IllegalStateException("LISTEN connection closed")))
+                // transient: the backoff starts over once notifications arrive again
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_RECONNECT_DELAY)
+                        .maxBackoff(MAX_RECONNECT_DELAY)
+                        .transientErrors(true)
+                        .filter(error -> !(error instanceof UnsupportedOperationException))
+                        .doBeforeRetry(signal -> logger.warn("Like event listener lost its connection, reconnecting. Reason: {}",
+                                signal.failure().getMessage())))
+                .concatMapIterable(notification -> decode(origin, notification.getParameter()));
+    }
+
+    private Flux<Notification> listen(Connection connection) {
+        Connection target = connection;
+        // the pool hands out a wrapper of the driver's connection
+        while (!(target instanceof PostgresqlConnection) && target instanceof Wrapped<?> wrapped
+                && wrapped.unwrap() instanceof Connection unwrapped) {
+            target = unwrapped;
+        }
+        if (!(target instanceof PostgresqlConnection postgresqlConnection)) {
+            return Flux.error(new UnsupportedOperationException("LISTEN/NOTIFY needs a Postgres connection, got " + connection.getClass().getName()));
+        }
+
+        return postgresqlConnection.createStatement("LISTEN " + channel)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .doOnComplete(() -> logger.info("Listening for like events on channel {}", channel))
+                .thenMany(postgresqlConnection.getNotifications());
+    }
+
+    /**
+     * Splits the events into payloads below MAX_PAYLOAD_LENGTH, each one starts with the origin.
+     */
+    static List<String> encode(String origin, List<LikeEvent> events) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(origin).append(';');
+        int empty = payload.length();
+
+        for (LikeEvent event : events) {
+            String entry = event.quoteId() + ":" + event.likes() + ":" + (event.liked() ? LIKED : UNLIKED);
+            if (payload.length() > empty && payload.length() + 1 + entry.length() > MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload.setLength(empty);
+            }
+            if (payload.length() > empty) {
+                payload.append(',');
+            }
+            payload.append(entry);
+        }
+        payloads.add(payload.toString());
+        return payloads;
+    }
+
+    /**
+     * Parses a payload, empty for own or malformed payloads. Entries that don't parse are skipped.
+     */
+    static List<LikeEvent> decode(String origin, String payload) {
+        int separator = payload == null ? -1 : payload.indexOf(';');
+        if (separator < 0) {
+            logger.warn("Ignoring malformed like event payload: {}", payload);
+            return List.of();
+        }
+        if (payload.regionMatches(0, origin, 0, separator) && separator == origin.length()) {
+            return List.of();
+        }
+
+        List<LikeEvent> events = new ArrayList<>();
+        for (String entry : payload.substring(separator + 1).split(",")) {
+            LikeEvent event = decodeEntry(entry);
+            if (event != null) {
+                events.add(event);
+            } else {
+                logger.warn("Ignoring malformed like event: {}", entry);
+            }
+        }
+        return events;
+    }
+
+    private static LikeEvent decodeEntry(String entry) {
+        int colon = entry.indexOf(':');
+        int directionColon = entry.lastIndexOf(':');
+        if (colon < 0 || directionColon == colon || directionColon != entry.length() - 2) {
+            return null;
+        }
+        char direction = entry.charAt(entry.length() - 1);
+        if (direction != LIKED && direction != UNLIKED) {
+            return null;
+        }
+
+        try {
+            return new LikeEvent(Long.parseLong(entry, 0, colon, 10), Integer.parseInt(entry, colon + 1, directionColon, 10), direction == LIKED);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
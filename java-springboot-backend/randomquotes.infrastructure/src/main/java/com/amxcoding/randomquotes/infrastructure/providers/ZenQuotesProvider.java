@@ -57,7 +57,7 @@ public class ZenQuotesProvider implements IQuoteProvider {
 
     /**
      * Checks local DB count for this provider. If threshold is met, returns empty Optional.
-     * Otherwise, fetches 50 quotes by default from zenquotes, persists them, and return them.
+     * Otherwise, fetches 50 quotes by default from zenquotes, persists them, and return them with their database ids.
      * Retries on transient errors (5xx, timeouts) with exponential backoff.
      * On final error, throws custom QuoteProviderException.
      */
@@ -91,9 +91,14 @@ public class ZenQuotesProvider implements IQuoteProvider {
                                 .map(mapper::toQuote)
                                 .collect(Collectors.toList());
 
+                        List<String> hashes = fetchedQuotes.stream()
+                                .map(Quote::generateTextAuthorHash)
+                                .toList();
+
                         // propagate errors
+                        // read the batch back in one query, s.t. the returned quotes carry their database ids (and likes)
                         return quoteRepository.bulkInsertQuotesIgnoreConflicts(fetchedQuotes, getProviderName())
-                                .then(Mono.just(fetchedQuotes));
+                                .then(Mono.defer(() -> quoteRepository.findByTextAuthorHashes(hashes, getProviderName())));
                     } else {
                         return Mono.empty();
                     }
@@ -0,0 +1,54 @@
+package com.amxcoding.randomquotes.infrastructure.repositories;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Optional storage mode for like counts: a like adds +1/-1 to one of count random rows of
+ * quote_like_counter_shards (quote_id, shard) instead of updating quotes.likes,
+ * s.t. concurrent likes of a trending quote don't queue up on its row lock.
+ * The likes of a quote are quotes.likes plus the sum of its shards, until the fold job moves the shards into quotes.likes.
+ */
+@Component
+public class LikeCounterShards {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCounterShards.class);
+
+    private final boolean enabled;
+    private final int count;
+
+
+    public LikeCounterShards(@Value("${randomquotes.likes.counter-shards.enabled:false}") boolean enabled,
+                             @Value("${randomquotes.likes.counter-shards.count:16}") int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The number of like counter shards must be positive");
+        }
+        this.enabled = enabled;
+        this.count = count;
+
+        if (enabled) {
+            logger.info("Like counts are sharded over {} rows per quote", count);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int randomShard() {
+        return ThreadLocalRandom.current().nextInt(count);
+    }
+
+    /**
+     * The select expression for the likes of the quotes table, including the unfolded shards if enabled.
+     */
+    public String likesColumn() {
+        return enabled
+                ? "CAST(GREATEST(quotes.likes + COALESCE((SELECT SUM(s.likes) FROM quote_like_counter_shards s WHERE s.quote_id = quotes.id), 0), 0) AS integer) AS likes"
+                : "likes";
+    }
+}
@@ -2,64 +2,214 @@ package com.amxcoding.randomquotes.infrastructure.repositories;
 
 import com.amxcoding.randomquotes.application.exceptions.repositories.QuoteLikePersistenceException;
 import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteLikeRepository;
-import com.amxcoding.randomquotes.domain.entities.QuoteLike;
-import com.amxcoding.randomquotes.infrastructure.persistence.mappers.QuoteLikeEntityMapper;
-import com.amxcoding.randomquotes.infrastructure.persistence.models.QuoteLikeEntity;
+import com.amxcoding.randomquotes.application.models.QuoteLikeResult;
+import com.amxcoding.randomquotes.application.models.QuoteLikeStatus;
+import com.amxcoding.randomquotes.domain.entities.Quote;
 import com.amxcoding.randomquotes.infrastructure.persistence.r2dbcs.IQuoteLikeR2dbcRepository;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
 
 @Repository
 public class QuoteLikeRepository implements IQuoteLikeRepository {
 
-    private final QuoteLikeEntityMapper quoteLikeEntityMapper;
+    private final DatabaseClient databaseClient;
     private final IQuoteLikeR2dbcRepository quoteLikeR2dbcRepository;
+    private final LikeCounterShards likeCounterShards;
+    private final String likeQuoteSql;
+    private final String unlikeQuoteSql;
     private static final Logger logger = LoggerFactory.getLogger(QuoteLikeRepository.class);
 
     public QuoteLikeRepository(IQuoteLikeR2dbcRepository quoteLikeR2dbcRepository,
-                           QuoteLikeEntityMapper quoteLikeEntityMapper) {
+                           DatabaseClient databaseClient,
+                           LikeCounterShards likeCounterShards) {
         this.quoteLikeR2dbcRepository = quoteLikeR2dbcRepository;
-        this.quoteLikeEntityMapper = quoteLikeEntityMapper;
+        this.databaseClient = databaseClient;
+        this.likeCounterShards = likeCounterShards;
+        this.likeQuoteSql = likeStatementSql(1, likeCounterShards);
+        this.unlikeQuoteSql = likeStatementSql(-1, likeCounterShards);
+    }
+
+    /**
+     * Builds the like (delta 1) or unlike (delta -1) statement: the data modifying CTEs and the final select run on one snapshot,
+     * the select sees the quote as it was before the statement, so the new count comes from the update's RETURNING
+     * (or, with counter shards, the delta is added to the count read before).
+     * The insert selects from the quote, s.t. liking an unknown quote returns no row instead of violating the foreign key.
+     */
+    // package private
+    static String likeStatementSql(int delta, LikeCounterShards likeCounterShards) {
+        String change = delta > 0
+                // no conflict target: until V6 swaps in the partitioned table, a duplicate violates uk_user_quote and uk_user_uuid_quote,
+                // afterwards quote_like_pkey (user_uuid, quote_id)
+                ? "INSERT INTO quote_like (user_uuid, quote_id) SELECT :userId, id FROM quote " +
+                  "ON CONFLICT DO NOTHING RETURNING quote_id"
+                : "DELETE FROM quote_like WHERE user_uuid = :userId AND quote_id = :quoteId RETURNING quote_id";
+
+        String counterUpdate;
+        String likes;
+        if (likeCounterShards.isEnabled()) {
+            counterUpdate = "INSERT INTO quote_like_counter_shards (quote_id, shard, likes) " +
+                    "SELECT quote_id, :shard, " + delta + " FROM changed WHERE :updateLikeCount " +
+                    "ON CONFLICT (quote_id, shard) DO UPDATE SET likes = quote_like_counter_shards.likes + EXCLUDED.likes " +
+                    "RETURNING quote_id AS id";
+            likes = "GREATEST(q.likes + CASE WHEN u.id IS NULL THEN 0 ELSE " + delta + " END, 0)";
+        } else {
+            counterUpdate = delta > 0
+                    ? "UPDATE quotes SET likes = likes + 1 WHERE :updateLikeCount AND id IN (SELECT quote_id FROM changed) RETURNING id, likes"
+                    : "UPDATE quotes SET likes = likes - 1 WHERE :updateLikeCount AND likes > 0 AND id IN (SELECT quote_id FROM changed) RETURNING id, likes";
+            likes = "COALESCE(u.likes, q.likes)";
+        }
+
+        return "WITH quote AS (SELECT id, author, text, " + likeCounterShards.likesColumn() + " FROM quotes WHERE id = :quoteId), " +
+                "changed AS (" + change + "), " +
+                "updated AS (" + counterUpdate + ") " +
+                "SELECT q.id, q.author, q.text, " + likes + " AS likes, EXISTS (SELECT 1 FROM changed) AS changed " +
+                "FROM quote q LEFT JOIN updated u ON u.id = q.id";
+    }
+
+    private static BiFunction<Row, RowMetadata, QuoteLikeResult> likeResultMapping(boolean liked) {
+        return (row, rowMetadata) -> new QuoteLikeResult(
+                new Quote(row.get("id", Long.class),
+                        row.get("author", String.class),
+                        row.get("text", String.class),
+                        Optional.ofNullable(row.get("likes", Integer.class)).orElse(0)),
+                liked,
+                Boolean.TRUE.equals(row.get("changed", Boolean.class)));
     }
 
 
     @Override
-    public Mono<QuoteLike> saveQuoteLike(QuoteLike quoteLike) {
-        QuoteLikeEntity entityToSave = quoteLikeEntityMapper.toQuoteLikeEntity(quoteLike);
+    public Mono<List<Long>> findQuoteIdsByUserId(String userId) {
+        return toUuid(userId)
+                .flatMap(userUuid -> quoteLikeR2dbcRepository.findQuoteIdsByUserId(userUuid).collectList())
+                .onErrorMap(ex -> !(ex instanceof IllegalArgumentException), ex -> { // invalid user ids aren't persistence errors
+                    logger.error("Error getting liked quote ids of user: {}", userId, ex);
+                    return new QuoteLikePersistenceException("Error getting liked quote ids by userId: " + ex);
+                });
+    }
+
 
-        return quoteLikeR2dbcRepository.save(entityToSave)
+    @Override
+    public Flux<String> findUserIdsLikedSince(Instant since) {
+        return quoteLikeR2dbcRepository.findUserIdsLikedSince(since.atOffset(ZoneOffset.UTC))
+                .map(UUID::toString)
                 .onErrorMap(ex -> {
-                    // Can throw DuplicateKeyException, due to unique constraint on (userId, quoteId)
-                    logger.error("Error creating a quote: {}", ex.getMessage(), ex);
-                    return new QuoteLikePersistenceException("Error saving quoteLike: " + ex);
-                })
-                .map(quoteLikeEntityMapper::toQuoteLike);
+                    logger.error("Error getting user ids that liked since: {}", since, ex);
+                    return new QuoteLikePersistenceException("Error getting user ids that liked since " + since + ": " + ex);
+                });
     }
 
 
+    /**
+     * Likes the quote in a single round trip, a repeated like changes nothing and still returns the quote.
+     */
     @Override
-    public Mono<Optional<QuoteLike>> findByUserIdAndQuoteId(String userId, Long quoteId) {
-        return quoteLikeR2dbcRepository.findByUserIdAndQuoteId(userId, quoteId)
-                .onErrorMap(ex -> {
-                    logger.error("Error getting quoteLike by (userId, quoteId): ({}, {})", userId, quoteId, ex);
-                    return new QuoteLikePersistenceException("Error getting quoteLike by userId and quoteId: " + ex);
-                })
-                .map(quoteLikeEntityMapper::toQuoteLike)
-                .map(Optional::of)
-                .defaultIfEmpty(Optional.empty());
+    public Mono<Optional<QuoteLikeResult>> likeQuote(String userId, Long quoteId, boolean updateLikeCount) {
+        return executeLikeStatement(likeQuoteSql, userId, quoteId, updateLikeCount, true);
     }
 
 
+    /**
+     * Unlikes the quote in a single round trip, the count never drops below 0.
+     */
     @Override
-    public Mono<Void> deleteByUserIdAndQuoteId(String userId, Long quoteId) {
-        return quoteLikeR2dbcRepository.deleteByUserIdAndQuoteId(userId, quoteId)
+    public Mono<Optional<QuoteLikeResult>> unlikeQuote(String userId, Long quoteId, boolean updateLikeCount) {
+        return executeLikeStatement(unlikeQuoteSql, userId, quoteId, updateLikeCount, false);
+    }
+
+
+    private Mono<Optional<QuoteLikeResult>> executeLikeStatement(String sql, String userId, Long quoteId,
+                                                                 boolean updateLikeCount, boolean liked) {
+        if (userId == null || quoteId == null) {
+            return Mono.error(new IllegalArgumentException("UserId and quoteId cannot be null."));
+        }
+
+        Optional<UUID> userUuid = parseUuid(userId);
+        if (userUuid.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("UserId is not a UUID: " + userId));
+        }
+
+        String operationDescription = liked ? "like" : "unlike";
+        DatabaseClient.GenericExecuteSpec spec = this.databaseClient.sql(sql)
+                .bind("userId", userUuid.get())
+                .bind("quoteId", quoteId)
+                .bind("updateLikeCount", updateLikeCount);
+        if (likeCounterShards.isEnabled()) {
+            spec = spec.bind("shard", likeCounterShards.randomShard());
+        }
+
+        return spec.map(likeResultMapping(liked))
+                .one()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
                 .onErrorMap(ex -> {
-                    logger.error("Error deleting quoteLike by (userId, quoteId): ({}, {})", userId, quoteId, ex);
-                    return new QuoteLikePersistenceException("Error deleting quoteLike by userId and quoteId: " + ex);
+                    logger.error("Database error performing {} of quote {} by user {}: {}", operationDescription, quoteId, userId, ex.getMessage(), ex);
+                    return new QuoteLikePersistenceException(String.format("Failed to %s quote %d: ", operationDescription, quoteId) + ex.getMessage(), ex);
+                });
+    }
+
+
+    /**
+     * Resolves the like counts and the user's likes of many quotes in one query,
+     * the user's likes are joined on the unique (user_uuid, quote_id) index of the user's partition.
+     */
+    @Override
+    public Mono<List<QuoteLikeStatus>> findLikeStatuses(String userId, List<Long> quoteIds) {
+        if (quoteIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        String sql = "SELECT quotes.id, " + likeCounterShards.likesColumn() + ", (l.quote_id IS NOT NULL) AS liked FROM quotes " +
+                "LEFT JOIN quote_like l ON l.user_uuid = :userId AND l.quote_id = quotes.id " +
+                "WHERE quotes.id = ANY(:quoteIds)";
+
+        return toUuid(userId)
+                .flatMap(userUuid -> this.databaseClient.sql(sql)
+                        .bind("userId", userUuid)
+                        .bind("quoteIds", quoteIds.toArray(Long[]::new))
+                        .map((row, rowMetadata) -> new QuoteLikeStatus(
+                                row.get("id", Long.class),
+                                Optional.ofNullable(row.get("likes", Integer.class)).orElse(0),
+                                Boolean.TRUE.equals(row.get("liked", Boolean.class))))
+                        .all()
+                        .collectList())
+                .onErrorMap(ex -> !(ex instanceof IllegalArgumentException), ex -> {
+                    logger.error("Error getting the like status of {} quotes for user {}", quoteIds.size(), userId, ex);
+                    return new QuoteLikePersistenceException("Error getting like statuses by userId and quoteIds: " + ex.getMessage(), ex);
                 });
     }
+
+
+    /**
+     * User ids are UUID strings (see AnonymousUserService), stored as native uuid.
+     */
+    private static Mono<UUID> toUuid(String userId) {
+        return parseUuid(userId)
+                .map(Mono::just)
+                .orElseGet(() -> Mono.error(new IllegalArgumentException("UserId is not a UUID: " + userId)));
+    }
+
+    private static Optional<UUID> parseUuid(String userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(UUID.fromString(userId));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.amxcoding.randomquotes.infrastructure.repositories;
 
 import com.amxcoding.randomquotes.application.exceptions.repositories.QuotePersistenceException;
 import com.amxcoding.randomquotes.application.interfaces.repositories.IQuoteRepository;
+import com.amxcoding.randomquotes.application.models.QuoteLikeCount;
 import com.amxcoding.randomquotes.domain.entities.Quote;
 import com.amxcoding.randomquotes.infrastructure.persistence.mappers.QuoteEntityMapper;
 import com.amxcoding.randomquotes.infrastructure.persistence.models.QuoteEntity;
@@ -25,14 +26,17 @@ public class QuoteRepository implements IQuoteRepository {
     private final DatabaseClient databaseClient;
     private final QuoteEntityMapper quoteEntityMapper;
     private final IQuoteR2dbcRepository quoteR2dbcRepository;
+    private final LikeCounterShards likeCounterShards;
     private static final Logger logger = LoggerFactory.getLogger(QuoteRepository.class);
 
     public QuoteRepository(IQuoteR2dbcRepository quoteR2dbcRepository,
                            QuoteEntityMapper quoteEntityMapper,
-                           DatabaseClient databaseClient) {
+                           DatabaseClient databaseClient,
+                           LikeCounterShards likeCounterShards) {
         this.quoteR2dbcRepository = quoteR2dbcRepository;
         this.quoteEntityMapper = quoteEntityMapper;
         this.databaseClient = databaseClient;
+        this.likeCounterShards = likeCounterShards;
     }
 
     // package private
@@ -120,9 +124,42 @@ public class QuoteRepository implements IQuoteRepository {
     }
 
 
+    /**
+     * Finds all quotes of a provider matching the given hashes in a single query.
+     * Used to resolve the database ids of a freshly inserted batch.
+     */
+    @Override
+    public Mono<List<Quote>> findByTextAuthorHashes(List<String> textAuthorHashes, String provider) {
+        if (textAuthorHashes.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        String sql = "SELECT id, author, text, " + likeCounterShards.likesColumn() + ", text_author_hash, provider FROM quotes WHERE provider = :provider AND text_author_hash = ANY(:hashes)";
+
+        return this.databaseClient.sql(sql)
+                .bind("provider", provider)
+                .bind("hashes", textAuthorHashes.toArray(String[]::new))
+                .map(QUOTE_ENTITY_MAPPING)
+                .all()
+                .map(quoteEntityMapper::toQuote)
+                .collectList()
+                .onErrorMap(ex -> {
+                    logger.error("Error getting {} quotes by textAuthorHash for provider {}: {}", textAuthorHashes.size(), provider, ex.getMessage(), ex);
+                    return new QuotePersistenceException("Error getting quotes by textAuthorHash: " + ex.getMessage(), ex);
+                });
+    }
+
+
     @Override
     public Mono<Optional<Quote>> findById(Long id) {
-        return quoteR2dbcRepository.findById(id)
+        Mono<QuoteEntity> quoteEntity = likeCounterShards.isEnabled()
+                ? this.databaseClient.sql("SELECT id, author, text, " + likeCounterShards.likesColumn() + ", text_author_hash, provider FROM quotes WHERE id = :id")
+                        .bind("id", id)
+                        .map(QUOTE_ENTITY_MAPPING)
+                        .one()
+                : quoteR2dbcRepository.findById(id);
+
+        return quoteEntity
                 .map(quoteEntityMapper::toQuote)
                 .map(Optional::of)
                 .defaultIfEmpty(Optional.empty())
@@ -134,31 +171,53 @@ public class QuoteRepository implements IQuoteRepository {
 
 
     /**
-     * Increases the like count for the specified quote by one using atomic operations.
-     * Update directly in the db, to avoid race conditions
+     * Applies the like deltas of many quotes in one statement, each quote row is locked and updated once.
+     * Counts never drop below 0. Returns the number of quotes updated.
      */
     @Override
-    public Mono<Boolean> incrementLikeCount(Long quoteId) {
-        if (quoteId == null) {
-            return Mono.error(new IllegalArgumentException("Quote ID cannot be null for incrementing likes."));
+    public Mono<Long> applyLikeDeltas(Map<Long, Integer> likeDeltas) {
+        if (likeDeltas.isEmpty()) {
+            return Mono.just(0L);
         }
 
-        String incrementSql = "UPDATE quotes SET likes = likes + 1 WHERE id = :quoteId";
-        return executeCounterUpdate(incrementSql, quoteId, "increment");
+        // sorted, s.t. concurrent batches lock common rows in the same order
+        Long[] quoteIds = likeDeltas.keySet().stream().sorted().toArray(Long[]::new);
+        Integer[] deltas = Arrays.stream(quoteIds).map(likeDeltas::get).toArray(Integer[]::new);
+
+        String sql = "UPDATE quotes SET likes = GREATEST(quotes.likes + d.delta, 0) " +
+                "FROM unnest(CAST(:quoteIds AS bigint[]), CAST(:deltas AS int[])) AS d(quote_id, delta) " +
+                "WHERE quotes.id = d.quote_id";
+
+        return this.databaseClient.sql(sql)
+                .bind("quoteIds", quoteIds)
+                .bind("deltas", deltas)
+                .fetch()
+                .rowsUpdated()
+                .onErrorMap(ex -> {
+                    logger.error("Database error applying like deltas of {} quotes: {}", quoteIds.length, ex.getMessage(), ex);
+                    return new QuotePersistenceException(String.format("Failed to apply like deltas of %d quotes: ", quoteIds.length) + ex.getMessage(), ex);
+                });
     }
 
+
     /**
-     * Decrease the like count for the specified quote by one using atomic operations.
-     * Update directly in the db, to avoid race conditions
+     * Moves the like counter shards into quotes.likes in one statement and returns the number of quotes updated.
+     * The deleted shard rows are locked until commit, a concurrent like on such a shard waits and inserts a new row,
+     * so no delta is lost and readers see either the shards or the folded count.
      */
     @Override
-    public Mono<Boolean> decrementLikeCount(Long quoteId) {
-        if (quoteId == null) {
-            return Mono.error(new IllegalArgumentException("Quote ID cannot be null for decrementing likes."));
-        }
+    public Mono<Long> foldLikeCounterShards() {
+        String sql = "WITH folded AS (DELETE FROM quote_like_counter_shards RETURNING quote_id, likes), " +
+                "sums AS (SELECT quote_id, SUM(likes) AS delta FROM folded GROUP BY quote_id) " +
+                "UPDATE quotes SET likes = GREATEST(quotes.likes + sums.delta, 0) FROM sums WHERE quotes.id = sums.quote_id";
 
-        String decrementSql = "UPDATE quotes SET likes = likes - 1 WHERE id = :quoteId AND likes > 0";
-        return executeCounterUpdate(decrementSql, quoteId, "decrement");
+        return this.databaseClient.sql(sql)
+                .fetch()
+                .rowsUpdated()
+                .onErrorMap(ex -> {
+                    logger.error("Database error folding the like counter shards: {}", ex.getMessage(), ex);
+                    return new QuotePersistenceException("Failed to fold the like counter shards: " + ex.getMessage(), ex);
+                });
     }
 
 
@@ -187,7 +246,7 @@ public class QuoteRepository implements IQuoteRepository {
             return Mono.error(new IllegalArgumentException("Amount cannot be 0"));
         }
 
-        String randomQuoteSql = "SELECT id, author, text, likes, text_author_hash, provider FROM quotes ORDER BY RANDOM() LIMIT :amount";
+        String randomQuoteSql = "SELECT id, author, text, " + likeCounterShards.likesColumn() + ", text_author_hash, provider FROM quotes ORDER BY RANDOM() LIMIT :amount";
 
         return this.databaseClient.sql(randomQuoteSql)
                 .bind("amount", amount)
@@ -207,7 +266,7 @@ public class QuoteRepository implements IQuoteRepository {
             return Mono.error(new IllegalArgumentException("Limit cannot be 0"));
         }
 
-        String sql = "SELECT id, author, text, likes, text_author_hash, provider FROM quotes WHERE provider = :provider ORDER BY RANDOM() LIMIT :limit";
+        String sql = "SELECT id, author, text, " + likeCounterShards.likesColumn() + ", text_author_hash, provider FROM quotes WHERE provider = :provider ORDER BY RANDOM() LIMIT :limit";
 
         return this.databaseClient.sql(sql)
                 .bind("limit", limit)
@@ -222,16 +281,49 @@ public class QuoteRepository implements IQuoteRepository {
                 });
     }
 
+    /**
+     * Keyset page of quotes ordered by id, used to load (and incrementally sync) the whole table
+     */
+    @Override
+    public Mono<List<Quote>> findQuotesAfterId(long afterId, int limit) {
+        if (limit <= 0) {
+            return Mono.error(new IllegalArgumentException("Limit cannot be 0"));
+        }
+
+        String sql = "SELECT id, author, text, " + likeCounterShards.likesColumn() + ", text_author_hash, provider FROM quotes WHERE id > :afterId ORDER BY id LIMIT :limit";
 
-    private Mono<Boolean> executeCounterUpdate(String sql, Long quoteId, String operationDescription) {
         return this.databaseClient.sql(sql)
-                .bind("quoteId", quoteId)
-                .fetch()
-                .rowsUpdated()
-                .map(updatedCount -> updatedCount > 0)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(QUOTE_ENTITY_MAPPING)
+                .all()
+                .map(quoteEntityMapper::toQuote)
+                .collectList()
+                .onErrorMap(ex -> {
+                    logger.error("Error fetching quotes after id {}: {}", afterId, ex.getMessage(), ex);
+                    return new QuotePersistenceException(String.format("Database error fetching quotes after id %d", afterId), ex);
+                });
+    }
+
+
+    /**
+     * Keyset page of like counts (unfolded shards included), only ids and counts are read.
+     */
+    @Override
+    public Mono<List<QuoteLikeCount>> findLikeCountsAfterId(long afterId, int limit) {
+        String sql = "SELECT id, " + likeCounterShards.likesColumn() + " FROM quotes WHERE id > :afterId ORDER BY id LIMIT :limit";
+
+        return this.databaseClient.sql(sql)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map((row, rowMetadata) -> new QuoteLikeCount(
+                        row.get("id", Long.class),
+                        Optional.ofNullable(row.get("likes", Integer.class)).orElse(0)))
+                .all()
+                .collectList()
                 .onErrorMap(ex -> {
-                    logger.error("Database error performing {} likes for quoteId {}: {}", operationDescription, quoteId, ex.getMessage(), ex);
-                    return new QuotePersistenceException(String.format("Failed to %s like count for quote %d: ", operationDescription, quoteId) + ex.getMessage(), ex);
+                    logger.error("Error fetching like counts after id {}: {}", afterId, ex.getMessage(), ex);
+                    return new QuotePersistenceException(String.format("Database error fetching like counts after id %d", afterId), ex);
                 });
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.amxcoding.randomquotes.infrastructure.caching;
+
+import com.amxcoding.randomquotes.application.exceptions.services.QuoteCacheException;
+import com.amxcoding.randomquotes.application.interfaces.caching.IRemoteQuoteCache.CachedQuotes;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RedisRemoteQuoteCache Tests (in-process RESP stub)")
+class RedisRemoteQuoteCacheTest {
+
+    private RespStubServer server;
+    private RedisRemoteQuoteCache remoteQuoteCache;
+    private CachedQuotes cachedQuotes;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new RespStubServer();
+        remoteQuoteCache = new RedisRemoteQuoteCache(server.uri(), "test", Duration.ofSeconds(2), new ObjectMapper());
+        cachedQuotes = new CachedQuotes(List.of(
+                new Quote(1L, "Author One", "Text One", 3),
+                new Quote(2L, "Author Twö", "Text “Two”", 0)
+        ), 1_700_000_000_000L);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        remoteQuoteCache.destroy();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("1. Should return empty Optional when no quotes are stored")
+    void getQuotes_whenNothingStored_shouldReturnEmpty() {
+        StepVerifier.create(remoteQuoteCache.getQuotes())
+                .expectNext(Optional.empty())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("2. Should round trip quotes, likes and load time")
+    void putQuotes_thenGetQuotes_shouldRoundTrip() {
+        // Act
+        StepVerifier.create(remoteQuoteCache.putQuotes(cachedQuotes, Duration.ofMinutes(1)))
+                .verifyComplete();
+
+        // Assert
+        StepVerifier.create(remoteQuoteCache.getQuotes())
+                .assertNext(result -> {
+                    CachedQuotes stored = result.orElseThrow();
+                    assertThat(stored.loadedAtMillis()).isEqualTo(cachedQuotes.loadedAtMillis());
+                    assertThat(stored.quotes()).containsExactlyElementsOf(cachedQuotes.quotes());
+                    assertThat(stored.quotes().get(0).getLikes()).isEqualTo(3);
+                    assertThat(stored.quotes().get(1).getText()).isEqualTo("Text “Two”");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("3. Stored quotes should expire with the given ttl")
+    void putQuotes_shouldExpireAfterTtl() throws InterruptedException {
+        // Arrange
+        StepVerifier.create(remoteQuoteCache.putQuotes(cachedQuotes, Duration.ofMillis(100)))
+                .verifyComplete();
+
+        // Act
+        Thread.sleep(200);
+
+        // Assert
+        StepVerifier.create(remoteQuoteCache.getQuotes())
+                .expectNext(Optional.empty())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("4. Refresh lock should only be acquired once until it expires")
+    void tryAcquireRefreshLock_shouldBeExclusiveUntilExpired() throws InterruptedException {
+        StepVerifier.create(remoteQuoteCache.tryAcquireRefreshLock(Duration.ofMillis(200)))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(remoteQuoteCache.tryAcquireRefreshLock(Duration.ofMillis(200)))
+                .expectNext(false)
+                .verifyComplete();
+
+        Thread.sleep(300);
+
+        StepVerifier.create(remoteQuoteCache.tryAcquireRefreshLock(Duration.ofMillis(200)))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("5. Should wrap connection failures in QuoteCacheException")
+    void getQuotes_whenServerDown_shouldErrorWithQuoteCacheException() throws IOException {
+        // Arrange
+        server.close();
+
+        // Act & Assert
+        StepVerifier.create(remoteQuoteCache.getQuotes())
+                .expectError(QuoteCacheException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,174 @@
+package com.amxcoding.randomquotes.infrastructure.caching;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal in-process server speaking RESP2, used to test the remote cache tier without a real store.
+ * Supports PING, CLIENT (always OK), GET, SET [NX] [PX|EX], DEL and PTTL on string values.
+ */
+class RespStubServer implements AutoCloseable {
+
+    private record Entry(String value, long expiresAtMillis) {
+        boolean isExpired() {
+            return expiresAtMillis > 0 && System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Entry> store = new ConcurrentHashMap<>();
+
+    RespStubServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.submit(this::acceptLoop);
+    }
+
+    String uri() {
+        return "redis://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    int size() {
+        store.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        return store.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.submit(() -> handle(socket));
+            } catch (IOException e) {
+                return; // server closed
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+
+            List<String> command;
+            while ((command = readCommand(in)) != null) {
+                out.write(execute(command).getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // client disconnected
+        }
+    }
+
+    private String execute(List<String> command) {
+        String name = command.get(0).toUpperCase(Locale.ROOT);
+
+        return switch (name) {
+            case "PING" -> "+PONG\r\n";
+            case "CLIENT" -> "+OK\r\n";
+            case "GET" -> {
+                Entry entry = liveEntry(command.get(1));
+                yield entry == null ? "$-1\r\n" : bulk(entry.value());
+            }
+            case "SET" -> set(command);
+            case "DEL" -> ":" + (store.remove(command.get(1)) != null ? 1 : 0) + "\r\n";
+            case "PTTL" -> {
+                Entry entry = liveEntry(command.get(1));
+                long ttl = entry == null ? -2 : entry.expiresAtMillis() == 0 ? -1 : entry.expiresAtMillis() - System.currentTimeMillis();
+                yield ":" + ttl + "\r\n";
+            }
+            default -> "-ERR unknown command '" + name + "'\r\n";
+        };
+    }
+
+    private String set(List<String> command) {
+        String key = command.get(1);
+        boolean onlyIfAbsent = false;
+        long expiresAtMillis = 0;
+
+        for (int i = 3; i < command.size(); i++) {
+            switch (command.get(i).toUpperCase(Locale.ROOT)) {
+                case "NX" -> onlyIfAbsent = true;
+                case "PX" -> expiresAtMillis = System.currentTimeMillis() + Long.parseLong(command.get(++i));
+                case "EX" -> expiresAtMillis = System.currentTimeMillis() + Long.parseLong(command.get(++i)) * 1000;
+                default -> {
+                    return "-ERR syntax error\r\n";
+                }
+            }
+        }
+
+        Entry entry = new Entry(command.get(2), expiresAtMillis);
+        if (onlyIfAbsent) {
+            Entry existing = store.compute(key, (k, current) -> current == null || current.isExpired() ? entry : current);
+            return existing == entry ? "+OK\r\n" : "$-1\r\n";
+        }
+
+        store.put(key, entry);
+        return "+OK\r\n";
+    }
+
+    private Entry liveEntry(String key) {
+        Entry entry = store.get(key);
+        if (entry != null && entry.isExpired()) {
+            store.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private static String bulk(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return "$" + bytes.length + "\r\n" + value + "\r\n";
+    }
+
+    /**
+     * Reads one command, sent as an array of bulk strings.
+     */
+    private static List<String> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+
+        int count = Integer.parseInt(header.substring(1));
+        List<String> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = Integer.parseInt(readLine(in).substring(1));
+            byte[] bytes = in.readNBytes(length);
+            in.readNBytes(2); // CRLF
+            parts.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return parts;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int current;
+        while ((current = in.read()) != -1) {
+            if (current == '\r') {
+                in.read(); // \n
+                return line.toString();
+            }
+            line.append((char) current);
+        }
+        return null;
+    }
+}
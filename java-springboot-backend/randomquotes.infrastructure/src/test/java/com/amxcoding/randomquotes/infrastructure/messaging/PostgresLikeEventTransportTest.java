@@ -0,0 +1,99 @@
+package com.amxcoding.randomquotes.infrastructure.messaging;
+
+import com.amxcoding.randomquotes.application.models.LikeEvent;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PostgresLikeEventTransport Unit Tests")
+class PostgresLikeEventTransportTest {
+
+    private static final String ORIGIN = "node-a";
+
+    @Test
+    @DisplayName("1. Payload: should round trip events and split them below the NOTIFY limit")
+    void encode_thenDecode_shouldRoundTripInChunks() {
+        // Arrange
+        List<LikeEvent> events = LongStream.rangeClosed(1, 2_000)
+                .mapToObj(id -> new LikeEvent(1_000_000_000L + id, (int) id, id % 2 == 0))
+                .toList();
+
+        // Act
+        List<String> payloads = PostgresLikeEventTransport.encode(ORIGIN, events);
+
+        // Assert
+        assertThat(payloads).hasSizeGreaterThan(1);
+        assertThat(payloads).allSatisfy(payload -> assertThat(payload)
+                .startsWith(ORIGIN + ";")
+                .hasSizeLessThanOrEqualTo(PostgresLikeEventTransport.MAX_PAYLOAD_LENGTH));
+        assertThat(payloads.stream().flatMap(payload -> PostgresLikeEventTransport.decode("node-b", payload).stream()))
+                .containsExactlyElementsOf(events);
+    }
+
+    @Test
+    @DisplayName("2. Payload: should drop own events and skip malformed entries")
+    void decode_shouldDropOwnAndMalformedEvents() {
+        assertThat(PostgresLikeEventTransport.decode(ORIGIN, ORIGIN + ";1:2:l")).isEmpty();
+        assertThat(PostgresLikeEventTransport.decode(ORIGIN, "node-aa;1:2:l")).containsExactly(new LikeEvent(1L, 2, true));
+        assertThat(PostgresLikeEventTransport.decode(ORIGIN, "no origin")).isEmpty();
+        assertThat(PostgresLikeEventTransport.decode(ORIGIN, "node-b;1:2:l,x:3:l,4,5:6,7:8:x,9:1:u"))
+                .containsExactly(new LikeEvent(1L, 2, true), new LikeEvent(9L, 1, false));
+    }
+
+    @Test
+    @DisplayName("3. Listen: should reconnect after a failed connect and emit the events of other nodes")
+    void remoteEvents_shouldReconnect() {
+        // Arrange: the first connect fails, the second one listens
+        PostgresqlResult result = mock(PostgresqlResult.class);
+        when(result.getRowsUpdated()).thenReturn(Mono.just(0L));
+        PostgresqlStatement statement = mock(PostgresqlStatement.class);
+        when(statement.execute()).thenReturn(Flux.just(result));
+        Notification notification = mock(Notification.class);
+        when(notification.getParameter()).thenReturn("node-b;5:9:u");
+        PostgresqlConnection connection = mock(PostgresqlConnection.class);
+        when(connection.createStatement("LISTEN test_likes")).thenReturn(statement);
+        when(connection.getNotifications()).thenReturn(Flux.just(notification).concatWith(Flux.never()));
+        when(connection.close()).thenReturn(Mono.empty());
+
+        AtomicInteger connects = new AtomicInteger();
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        doReturn(Mono.defer(() -> connects.incrementAndGet() == 1
+                ? Mono.error(new IllegalStateException("connection refused"))
+                : Mono.just(connection))).when(connectionFactory).create();
+
+        PostgresLikeEventTransport transport = new PostgresLikeEventTransport(connectionFactory, mock(DatabaseClient.class), "test_likes");
+
+        // Act & Assert
+        StepVerifier.create(transport.remoteEvents().take(1))
+                .expectNext(new LikeEvent(5L, 9, false))
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+        assertThat(connects).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("4. Should reject a channel that isn't a plain identifier")
+    void constructor_shouldRejectInvalidChannel() {
+        assertThatThrownBy(() -> new PostgresLikeEventTransport(mock(ConnectionFactory.class), mock(DatabaseClient.class), "likes; DROP TABLE quotes"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
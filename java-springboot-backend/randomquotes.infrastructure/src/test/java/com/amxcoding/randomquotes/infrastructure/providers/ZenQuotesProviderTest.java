@@ -60,6 +60,8 @@ class ZenQuotesProviderTest {
     private ZenQuote zenQuote2;
     private Quote domainQuote1;
     private Quote domainQuote2;
+    private Quote persistedQuote1;
+    private Quote persistedQuote2;
 
     private final String BASE_URL = "http://zenquotes.test";
     private final String PROVIDER_NAME = Constants.QuoteProviders.ZEN_QUOTES;
@@ -82,6 +84,8 @@ class ZenQuotesProviderTest {
         zenQuote2 = new ZenQuote("Author Zen 2", "Quote Zen 2");
         domainQuote1 = new Quote("Author Zen 1", "Quote Zen 1");
         domainQuote2 = new Quote("Author Zen 2", "Quote Zen 2");
+        persistedQuote1 = new Quote(1L, "Author Zen 1", "Quote Zen 1", 0);
+        persistedQuote2 = new Quote(2L, "Author Zen 2", "Quote Zen 2", 4);
     }
 
     @Nested
@@ -125,13 +129,18 @@ class ZenQuotesProviderTest {
             when(mapper.toQuote(zenQuote2)).thenReturn(domainQuote2);
             when(quoteRepository.bulkInsertQuotesIgnoreConflicts(anyList(), eq(PROVIDER_NAME)))
                     .thenReturn(Mono.empty()); // Simulate successful void persistence
+            when(quoteRepository.findByTextAuthorHashes(anyList(), eq(PROVIDER_NAME)))
+                    .thenReturn(Mono.just(List.of(persistedQuote1, persistedQuote2)));
 
             // Act
             Mono<List<Quote>> resultMono = zenQuotesProvider.fetchQuotes();
 
-            // Assert
+            // Assert: the persisted rows (with ids) are returned, not the fetched quotes
             StepVerifier.create(resultMono)
-                    .assertNext(resultList -> assertThat(resultList).containsExactlyInAnyOrder(domainQuote1, domainQuote2))
+                    .assertNext(resultList -> {
+                        assertThat(resultList).containsExactlyInAnyOrder(persistedQuote1, persistedQuote2);
+                        assertThat(resultList).allSatisfy(quote -> assertThat(quote.getId()).isNotNull());
+                    })
                     .verifyComplete();
 
             verify(quoteRepository).countByProvider(PROVIDER_NAME);
@@ -141,6 +150,8 @@ class ZenQuotesProviderTest {
             ArgumentCaptor<List<Quote>> listCaptor = ArgumentCaptor.forClass(List.class);
             verify(quoteRepository).bulkInsertQuotesIgnoreConflicts(listCaptor.capture(), eq(PROVIDER_NAME));
             assertThat(listCaptor.getValue()).containsExactlyInAnyOrder(domainQuote1, domainQuote2);
+            verify(quoteRepository).findByTextAuthorHashes(
+                    List.of(domainQuote1.generateTextAuthorHash(), domainQuote2.generateTextAuthorHash()), PROVIDER_NAME);
         }
 
         @Test
@@ -277,13 +288,15 @@ class ZenQuotesProviderTest {
 
             when(mapper.toQuote(zenQuote1)).thenReturn(domainQuote1);
             when(quoteRepository.bulkInsertQuotesIgnoreConflicts(List.of(domainQuote1), PROVIDER_NAME)).thenReturn(Mono.empty());
+            when(quoteRepository.findByTextAuthorHashes(List.of(domainQuote1.generateTextAuthorHash()), PROVIDER_NAME))
+                    .thenReturn(Mono.just(List.of(persistedQuote1)));
 
             // Act
             Mono<List<Quote>> resultMono = zenQuotesProvider.fetchQuotes();
 
             // Assert
             StepVerifier.create(resultMono)
-                    .assertNext(resultList -> assertThat(resultList).containsExactly(domainQuote1))
+                    .assertNext(resultList -> assertThat(resultList).containsExactly(persistedQuote1))
                     .expectComplete()
                     .verify(Duration.ofSeconds(10));
 
@@ -320,13 +333,15 @@ class ZenQuotesProviderTest {
 
             when(mapper.toQuote(zenQuote1)).thenReturn(domainQuote1);
             when(quoteRepository.bulkInsertQuotesIgnoreConflicts(List.of(domainQuote1), PROVIDER_NAME)).thenReturn(Mono.empty());
+            when(quoteRepository.findByTextAuthorHashes(List.of(domainQuote1.generateTextAuthorHash()), PROVIDER_NAME))
+                    .thenReturn(Mono.just(List.of(persistedQuote1)));
 
             // Act
             Mono<List<Quote>> resultMono = zenQuotesProvider.fetchQuotes();
 
             // Assert
             StepVerifier.create(resultMono)
-                    .assertNext(resultList -> assertThat(resultList).containsExactly(domainQuote1))
+                    .assertNext(resultList -> assertThat(resultList).containsExactly(persistedQuote1))
                     .expectComplete()
                     .verify(Duration.ofSeconds(10));
 
@@ -374,13 +389,15 @@ class ZenQuotesProviderTest {
 
             when(mapper.toQuote(zenQuote1)).thenReturn(domainQuote1);
             when(quoteRepository.bulkInsertQuotesIgnoreConflicts(List.of(domainQuote1), PROVIDER_NAME)).thenReturn(Mono.empty());
+            when(quoteRepository.findByTextAuthorHashes(List.of(domainQuote1.generateTextAuthorHash()), PROVIDER_NAME))
+                    .thenReturn(Mono.just(List.of(persistedQuote1)));
 
             // Act
             Mono<List<Quote>> resultMono = zenQuotesProvider.fetchQuotes();
 
             // Assert
             StepVerifier.create(resultMono)
-                    .assertNext(resultList -> assertThat(resultList).containsExactly(domainQuote1))
+                    .assertNext(resultList -> assertThat(resultList).containsExactly(persistedQuote1))
                     .expectComplete()
                     .verify(Duration.ofSeconds(10));
 
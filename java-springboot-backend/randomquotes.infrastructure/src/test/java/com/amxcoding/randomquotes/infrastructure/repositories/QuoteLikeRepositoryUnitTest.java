@@ -0,0 +1,320 @@
+package com.amxcoding.randomquotes.infrastructure.repositories;
+
+import com.amxcoding.randomquotes.application.exceptions.repositories.QuoteLikePersistenceException;
+import com.amxcoding.randomquotes.application.models.QuoteLikeResult;
+import com.amxcoding.randomquotes.application.models.QuoteLikeStatus;
+import com.amxcoding.randomquotes.domain.entities.Quote;
+import com.amxcoding.randomquotes.infrastructure.persistence.r2dbcs.IQuoteLikeR2dbcRepository;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuoteLikeRepositoryUnitTests")
+class QuoteLikeRepositoryUnitTest {
+
+    @Mock
+    DatabaseClient databaseClient;
+    @Mock
+    IQuoteLikeR2dbcRepository quoteLikeR2dbcRepository;
+
+    @Mock
+    DatabaseClient.GenericExecuteSpec mockGenericExecuteSpec;
+    @Mock
+    RowsFetchSpec<QuoteLikeResult> mockRowsFetchSpecLikeResult;
+    @Mock
+    RowsFetchSpec<QuoteLikeStatus> mockRowsFetchSpecLikeStatus;
+
+    private final String USER_ID = UUID.randomUUID().toString();
+    private final Long QUOTE_ID = 1L;
+
+
+    @Nested
+    @DisplayName("likeQuote and unlikeQuote Tests")
+    class LikeStatementTests {
+
+        private QuoteLikeRepository quoteLikeRepository;
+
+        @BeforeEach
+        void setUp() {
+            quoteLikeRepository = new QuoteLikeRepository(quoteLikeR2dbcRepository, databaseClient, new LikeCounterShards(false, 16));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void arrangeDbClientMapOneChain(Mono<QuoteLikeResult> result) {
+            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.bind(anyString(), any())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.map(any(BiFunction.class))).thenReturn(mockRowsFetchSpecLikeResult);
+            when(mockRowsFetchSpecLikeResult.one()).thenReturn(result);
+        }
+
+        @Test
+        @DisplayName("1. Like SQL: should insert the like without a conflict target and count only an inserted like")
+        void likeStatementSql_like_shouldInsertAndIncrementInOneStatement() {
+            // Act
+            String sql = QuoteLikeRepository.likeStatementSql(1, new LikeCounterShards(false, 16));
+
+            // Assert
+            assertThat(sql)
+                    .startsWith("WITH quote AS (SELECT id, author, text, likes FROM quotes WHERE id = :quoteId), ")
+                    .contains("changed AS (INSERT INTO quote_like (user_uuid, quote_id) SELECT :userId, id FROM quote " +
+                            "ON CONFLICT DO NOTHING RETURNING quote_id)")
+                    .contains("updated AS (UPDATE quotes SET likes = likes + 1 WHERE :updateLikeCount " +
+                            "AND id IN (SELECT quote_id FROM changed) RETURNING id, likes)")
+                    .endsWith("SELECT q.id, q.author, q.text, COALESCE(u.likes, q.likes) AS likes, EXISTS (SELECT 1 FROM changed) AS changed " +
+                            "FROM quote q LEFT JOIN updated u ON u.id = q.id");
+        }
+
+        @Test
+        @DisplayName("2. Unlike SQL: should delete the like and decrement only for a deleted like, never below 0")
+        void likeStatementSql_unlike_shouldDeleteAndDecrementInOneStatement() {
+            // Act
+            String sql = QuoteLikeRepository.likeStatementSql(-1, new LikeCounterShards(false, 16));
+
+            // Assert
+            assertThat(sql)
+                    .contains("changed AS (DELETE FROM quote_like WHERE user_uuid = :userId AND quote_id = :quoteId RETURNING quote_id)")
+                    .contains("updated AS (UPDATE quotes SET likes = likes - 1 WHERE :updateLikeCount AND likes > 0 " +
+                            "AND id IN (SELECT quote_id FROM changed) RETURNING id, likes)")
+                    .contains("COALESCE(u.likes, q.likes) AS likes")
+                    .doesNotContain("quote_like_counter_shards");
+        }
+
+        @Test
+        @DisplayName("3. Like: should bind the user as UUID and map the row to the liked quote")
+        @SuppressWarnings("unchecked")
+        void likeQuote_shouldBindAndMapResult() {
+            // Arrange
+            arrangeDbClientMapOneChain(Mono.just(new QuoteLikeResult(new Quote(QUOTE_ID, "Author", "Text", 4), true, true)));
+            Row row = mock(Row.class);
+            when(row.get("id", Long.class)).thenReturn(QUOTE_ID);
+            when(row.get("author", String.class)).thenReturn("Author");
+            when(row.get("text", String.class)).thenReturn("Text");
+            when(row.get("likes", Integer.class)).thenReturn(4);
+            when(row.get("changed", Boolean.class)).thenReturn(true);
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeRepository.likeQuote(USER_ID, QUOTE_ID, true))
+                    .assertNext(result -> assertThat(result).isPresent())
+                    .verifyComplete();
+
+            verify(mockGenericExecuteSpec).bind("userId", UUID.fromString(USER_ID));
+            verify(mockGenericExecuteSpec).bind("quoteId", QUOTE_ID);
+            verify(mockGenericExecuteSpec).bind("updateLikeCount", true);
+            verify(mockGenericExecuteSpec, never()).bind(eq("shard"), any());
+            ArgumentCaptor<BiFunction<Row, RowMetadata, QuoteLikeResult>> mappingCaptor = ArgumentCaptor.forClass(BiFunction.class);
+            verify(mockGenericExecuteSpec).map(mappingCaptor.capture());
+            assertThat(mappingCaptor.getValue().apply(row, mock(RowMetadata.class)))
+                    .isEqualTo(new QuoteLikeResult(new Quote(QUOTE_ID, "Author", "Text", 4), true, true));
+        }
+
+        @Test
+        @DisplayName("4. Unlike of an unknown quote: should return an empty Optional")
+        void unlikeQuote_whenNoRow_shouldReturnEmptyOptional() {
+            // Arrange
+            arrangeDbClientMapOneChain(Mono.empty());
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeRepository.unlikeQuote(USER_ID, QUOTE_ID, false))
+                    .expectNext(Optional.empty())
+                    .verifyComplete();
+            verify(mockGenericExecuteSpec).bind("updateLikeCount", false);
+        }
+
+        @Test
+        @DisplayName("5. Invalid user id: should return IllegalArgumentException without querying")
+        void likeQuote_whenUserIdIsNotUuid_shouldThrowIllegalArgumentException() {
+            // Act & Assert
+            StepVerifier.create(quoteLikeRepository.likeQuote("not-a-uuid", QUOTE_ID, true))
+                    .expectError(IllegalArgumentException.class)
+                    .verify();
+            verifyNoInteractions(databaseClient);
+        }
+
+        @Test
+        @DisplayName("6. Should wrap database errors in QuoteLikePersistenceException")
+        void likeQuote_whenDatabaseFails_shouldThrowQuoteLikePersistenceException() {
+            // Arrange
+            arrangeDbClientMapOneChain(Mono.error(new DataAccessResourceFailureException("DB down")));
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeRepository.likeQuote(USER_ID, QUOTE_ID, true))
+                    .expectError(QuoteLikePersistenceException.class)
+                    .verify();
+        }
+    }
+
+
+    @Nested
+    @DisplayName("findLikeStatuses Tests")
+    class FindLikeStatusesTests {
+
+        private QuoteLikeRepository quoteLikeRepository;
+
+        @BeforeEach
+        void setUp() {
+            quoteLikeRepository = new QuoteLikeRepository(quoteLikeR2dbcRepository, databaseClient, new LikeCounterShards(false, 16));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void arrangeDbClientMapAllChain(Flux<QuoteLikeStatus> statuses) {
+            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.bind(anyString(), any())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.map(any(BiFunction.class))).thenReturn(mockRowsFetchSpecLikeStatus);
+            when(mockRowsFetchSpecLikeStatus.all()).thenReturn(statuses);
+        }
+
+        @Test
+        @DisplayName("1. Should return empty list without querying when no quote ids are given")
+        void findLikeStatuses_whenEmpty_shouldNotQuery() {
+            // Act & Assert
+            StepVerifier.create(quoteLikeRepository.findLikeStatuses(USER_ID, List.of()))
+                    .expectNext(List.of())
+                    .verifyComplete();
+            verifyNoInteractions(databaseClient);
+        }
+
+        @Test
+        @DisplayName("2. Should join the user's likes of all quotes in a single query with an array parameter")
+        @SuppressWarnings("unchecked")
+        void findLikeStatuses_shouldQueryAllQuotesAtOnce() {
+            // Arrange
+            List<QuoteLikeStatus> statuses = List.of(new QuoteLikeStatus(1L, 3, true), new QuoteLikeStatus(2L, 0, false));
+            arrangeDbClientMapAllChain(Flux.fromIterable(statuses));
+            Row row = mock(Row.class);
+            when(row.get("id", Long.class)).thenReturn(2L);
+            when(row.get("likes", Integer.class)).thenReturn(null);
+            when(row.get("liked", Boolean.class)).thenReturn(false);
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeRepository.findLikeStatuses(USER_ID, List.of(1L, 2L)))
+                    .expectNext(statuses)
+                    .verifyComplete();
+
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sqlCaptor.capture());
+            assertThat(sqlCaptor.getValue()).isEqualTo("SELECT quotes.id, likes, (l.quote_id IS NOT NULL) AS liked FROM quotes " +
+                    "LEFT JOIN quote_like l ON l.user_uuid = :userId AND l.quote_id = quotes.id " +
+                    "WHERE quotes.id = ANY(:quoteIds)");
+            verify(mockGenericExecuteSpec).bind("userId", UUID.fromString(USER_ID));
+            verify(mockGenericExecuteSpec).bind(eq("quoteIds"), eq(new Long[]{1L, 2L}));
+            ArgumentCaptor<BiFunction<Row, RowMetadata, QuoteLikeStatus>> mappingCaptor = ArgumentCaptor.forClass(BiFunction.class);
+            verify(mockGenericExecuteSpec).map(mappingCaptor.capture());
+            assertThat(mappingCaptor.getValue().apply(row, mock(RowMetadata.class))).isEqualTo(new QuoteLikeStatus(2L, 0, false));
+        }
+
+        @Test
+        @DisplayName("3. Sharded likes: should select the likes including the unfolded shards")
+        void findLikeStatuses_whenSharded_shouldSelectShardedLikes() {
+            // Arrange
+            LikeCounterShards likeCounterShards = new LikeCounterShards(true, 4);
+            quoteLikeRepository = new QuoteLikeRepository(quoteLikeR2dbcRepository, databaseClient, likeCounterShards);
+            arrangeDbClientMapAllChain(Flux.empty());
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeRepository.findLikeStatuses(USER_ID, List.of(1L)))
+                    .expectNext(List.of())
+                    .verifyComplete();
+
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sqlCaptor.capture());
+            assertThat(sqlCaptor.getValue()).startsWith("SELECT quotes.id, " + likeCounterShards.likesColumn() + ", ");
+        }
+
+        @Test
+        @DisplayName("4. Should wrap database errors in QuoteLikePersistenceException")
+        void findLikeStatuses_whenDatabaseFails_shouldThrowQuoteLikePersistenceException() {
+            // Arrange
+            arrangeDbClientMapAllChain(Flux.error(new DataAccessResourceFailureException("DB down")));
+
+            // Act & Assert
+            StepVerifier.create(quoteLikeRepository.findLikeStatuses(USER_ID, List.of(1L)))
+                    .expectError(QuoteLikePersistenceException.class)
+                    .verify();
+        }
+    }
+
+
+    @Nested
+    @DisplayName("Like counter shards Tests")
+    class LikeCounterShardsTests {
+
+        private QuoteLikeRepository shardedQuoteLikeRepository;
+
+        @BeforeEach
+        void setUp() {
+            shardedQuoteLikeRepository = new QuoteLikeRepository(quoteLikeR2dbcRepository, databaseClient, new LikeCounterShards(true, 4));
+            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.bind(anyString(), any())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.map(any(BiFunction.class))).thenReturn(mockRowsFetchSpecLikeResult);
+        }
+
+        @Test
+        @DisplayName("1. Like: should add to a random shard of the liked quote instead of updating the quote row")
+        void likeQuote_whenSharded_shouldUpsertShard() {
+            // Arrange
+            QuoteLikeResult result = new QuoteLikeResult(new Quote(QUOTE_ID, "Author", "Text", 3), true, true);
+            when(mockRowsFetchSpecLikeResult.one()).thenReturn(Mono.just(result));
+
+            // Act & Assert
+            StepVerifier.create(shardedQuoteLikeRepository.likeQuote(USER_ID, QUOTE_ID, true))
+                    .expectNext(Optional.of(result))
+                    .verifyComplete();
+
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sqlCaptor.capture());
+            assertThat(sqlCaptor.getValue())
+                    .contains("updated AS (INSERT INTO quote_like_counter_shards (quote_id, shard, likes) " +
+                            "SELECT quote_id, :shard, 1 FROM changed WHERE :updateLikeCount " +
+                            "ON CONFLICT (quote_id, shard) DO UPDATE SET likes = quote_like_counter_shards.likes + EXCLUDED.likes")
+                    .contains("GREATEST(q.likes + CASE WHEN u.id IS NULL THEN 0 ELSE 1 END, 0) AS likes")
+                    .doesNotContain("UPDATE quotes");
+            verify(mockGenericExecuteSpec).bind("updateLikeCount", true);
+            ArgumentCaptor<Object> shardCaptor = ArgumentCaptor.forClass(Object.class);
+            verify(mockGenericExecuteSpec).bind(eq("shard"), shardCaptor.capture());
+            assertThat((Integer) shardCaptor.getValue()).isBetween(0, 3);
+        }
+
+        @Test
+        @DisplayName("2. Unlike: should subtract from a shard only for a deleted like")
+        void unlikeQuote_whenSharded_shouldUpsertNegativeDelta() {
+            // Arrange
+            when(mockRowsFetchSpecLikeResult.one()).thenReturn(Mono.empty());
+
+            // Act & Assert
+            StepVerifier.create(shardedQuoteLikeRepository.unlikeQuote(USER_ID, QUOTE_ID, true))
+                    .expectNext(Optional.empty())
+                    .verifyComplete();
+
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sqlCaptor.capture());
+            assertThat(sqlCaptor.getValue())
+                    .contains("changed AS (DELETE FROM quote_like WHERE user_uuid = :userId AND quote_id = :quoteId RETURNING quote_id)")
+                    .contains("SELECT quote_id, :shard, -1 FROM changed WHERE :updateLikeCount")
+                    .contains("GREATEST(q.likes + CASE WHEN u.id IS NULL THEN 0 ELSE -1 END, 0) AS likes");
+            verify(mockGenericExecuteSpec).bind(eq("shard"), anyInt());
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.r2dbc.core.DatabaseClient;
@@ -49,6 +50,8 @@ class QuoteRepositoryUnitTest {
     FetchSpec<Map<String, Object>> mockFetchSpecMap;
     @Mock
     RowsFetchSpec<QuoteEntity> mockRowsFetchSpecEntity;
+    @Spy
+    LikeCounterShards likeCounterShards = new LikeCounterShards(false, 16);
 
     @InjectMocks
     QuoteRepository quoteRepository;
@@ -235,6 +238,79 @@ class QuoteRepositoryUnitTest {
     }
 
 
+    @Nested
+    @DisplayName("findByTextAuthorHashes Tests")
+    class FindByHashesTests {
+
+        @Test
+        @DisplayName("1. Should return empty list without querying when input list is empty")
+        void findByTextAuthorHashes_whenEmptyList_shouldReturnEmptyListWithoutQuery() {
+            // Act: Execute the method under test with no hashes
+            Mono<List<Quote>> resultMono = quoteRepository.findByTextAuthorHashes(Collections.emptyList(), PROVIDER_NAME);
+
+            // Assert: Verify an empty list is emitted and the database is not touched
+            StepVerifier.create(resultMono)
+                    .expectNext(Collections.emptyList())
+                    .verifyComplete();
+            verifyNoInteractions(databaseClient, quoteEntityMapper);
+        }
+
+        @Test
+        @DisplayName("2. Should look up all hashes in a single query and map the rows")
+        @SuppressWarnings("unchecked")
+        void findByTextAuthorHashes_whenFound_shouldReturnMappedQuotes() {
+            // Arrange: Mock the DatabaseClient chain sql().bind().bind().map().all()
+            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.bind(anyString(), any())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.map(any(BiFunction.class))).thenReturn(mockRowsFetchSpecEntity);
+            when(mockRowsFetchSpecEntity.all()).thenReturn(Flux.just(entityQuote1));
+            when(quoteEntityMapper.toQuote(entityQuote1)).thenReturn(domainQuote1);
+
+            // Act: Execute the method under test
+            Mono<List<Quote>> resultMono = quoteRepository.findByTextAuthorHashes(List.of(hash1, hash2), PROVIDER_NAME);
+
+            // Assert: Verify the mapped quotes are emitted
+            StepVerifier.create(resultMono)
+                    .expectNext(List.of(domainQuote1))
+                    .verifyComplete();
+
+            // Verify SQL and bindings
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sqlCaptor.capture());
+            assertThat(sqlCaptor.getValue()).contains("text_author_hash = ANY(:hashes)");
+            verify(mockGenericExecuteSpec).bind("provider", PROVIDER_NAME);
+            verify(mockGenericExecuteSpec).bind("hashes", new String[]{hash1, hash2});
+            verify(mockGenericExecuteSpec).map(eq(QuoteRepository.QUOTE_ENTITY_MAPPING));
+        }
+
+        @Test
+        @DisplayName("3. Should wrap database errors in QuotePersistenceException")
+        @SuppressWarnings("unchecked")
+        void findByTextAuthorHashes_whenDatabaseErrorOccurs_shouldWrapInPersistenceException() {
+            // Arrange: Mock the chain to fail on fetch
+            DataAccessResourceFailureException dbError = new DataAccessResourceFailureException("DB fetch by hashes failed");
+            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.bind(anyString(), any())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.map(any(BiFunction.class))).thenReturn(mockRowsFetchSpecEntity);
+            when(mockRowsFetchSpecEntity.all()).thenReturn(Flux.error(dbError));
+
+            // Act: Execute the method under test
+            Mono<List<Quote>> resultMono = quoteRepository.findByTextAuthorHashes(List.of(hash1), PROVIDER_NAME);
+
+            // Assert: Verify the specific persistence exception is thrown, wrapping the original DB error
+            StepVerifier.create(resultMono)
+                    .expectErrorSatisfies(throwable -> {
+                        assertThat(throwable)
+                                .isInstanceOf(QuotePersistenceException.class)
+                                .hasMessageContaining("Error getting quotes by textAuthorHash: " + dbError.getMessage())
+                                .hasCause(dbError);
+                    })
+                    .verify();
+            verifyNoInteractions(quoteEntityMapper);
+        }
+    }
+
+
     @Nested
     @DisplayName("findById Tests")
     class FindByIdTests {
@@ -302,229 +378,6 @@ class QuoteRepositoryUnitTest {
     }
 
 
-    @Nested
-    @DisplayName("incrementLikeCount Tests")
-    class IncrementLikeTests {
-
-        private final Long TEST_QUOTE_ID = 1L;
-        private final Long NON_EXISTENT_QUOTE_ID = 999L;
-
-        // Helper for common DatabaseClient mock setup in Arrange phase
-        private void arrangeDatabaseClientCounterUpdateMocks() {
-            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
-            when(mockGenericExecuteSpec.bind(eq("quoteId"), anyLong())).thenReturn(mockGenericExecuteSpec);
-            when(mockGenericExecuteSpec.fetch()).thenReturn(mockFetchSpecMap);
-        }
-
-        @Test
-        @DisplayName("1. Should return true when update is successful (1 row affected)")
-        void incrementLikeCount_whenSuccessful_shouldReturnTrue() {
-            // Arrange: Setup mocks for a successful update (1 row affected)
-            arrangeDatabaseClientCounterUpdateMocks();
-            when(mockFetchSpecMap.rowsUpdated()).thenReturn(Mono.just(1L));
-
-            // Act: Execute the increment method
-            Mono<Boolean> resultMono = quoteRepository.incrementLikeCount(TEST_QUOTE_ID);
-
-            // Assert: Verify true is returned and interactions are correct
-            StepVerifier.create(resultMono)
-                    .expectNext(true)
-                    .verifyComplete();
-
-            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(databaseClient).sql(sqlCaptor.capture());
-            assertThat(sqlCaptor.getValue()).contains("UPDATE quotes SET likes = likes + 1 WHERE id = :quoteId");
-            verify(mockGenericExecuteSpec).bind("quoteId", TEST_QUOTE_ID);
-            verify(mockGenericExecuteSpec).fetch();
-            verify(mockFetchSpecMap).rowsUpdated();
-        }
-
-        @Test
-        @DisplayName("2. Should return false when no rows are updated (quote not found)")
-        void incrementLikeCount_whenNoRowsUpdated_shouldReturnFalse() {
-            // Arrange: Setup mocks for an update affecting 0 rows
-            arrangeDatabaseClientCounterUpdateMocks();
-            when(mockFetchSpecMap.rowsUpdated()).thenReturn(Mono.just(0L));
-
-            // Act: Execute the increment method for a non-existent ID
-            Mono<Boolean> resultMono = quoteRepository.incrementLikeCount(NON_EXISTENT_QUOTE_ID);
-
-            // Assert: Verify false is returned and interactions are correct
-            StepVerifier.create(resultMono)
-                    .expectNext(false)
-                    .verifyComplete();
-
-            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(databaseClient).sql(sqlCaptor.capture());
-            assertThat(sqlCaptor.getValue()).contains("UPDATE quotes SET likes = likes + 1 WHERE id = :quoteId");
-            verify(mockGenericExecuteSpec).bind("quoteId", NON_EXISTENT_QUOTE_ID);
-            verify(mockGenericExecuteSpec).fetch();
-            verify(mockFetchSpecMap).rowsUpdated();
-        }
-
-        @Test
-        @DisplayName("3. Should return IllegalArgumentException when quote ID is null")
-        void incrementLikeCount_whenIdIsNull_shouldThrowIllegalArgumentException() {
-            // Arrange: Prepare null input ID
-            Long nullQuoteId = null;
-
-            // Act: Execute the increment method with null ID
-            Mono<Boolean> resultMono = quoteRepository.incrementLikeCount(nullQuoteId);
-
-            // Assert: Verify the specific argument exception is thrown
-            StepVerifier.create(resultMono)
-                    .expectErrorSatisfies(throwable -> {
-                        assertThat(throwable)
-                                .isInstanceOf(IllegalArgumentException.class)
-                                .hasMessage("Quote ID cannot be null for incrementing likes.");
-                    })
-                    .verify();
-            verifyNoInteractions(databaseClient); // No DB interaction expected
-        }
-
-        @Test
-        @DisplayName("4. Should wrap database errors in QuotePersistenceException")
-        void incrementLikeCount_whenDatabaseErrorOccurs_shouldWrapInPersistenceException() {
-            // Arrange: Setup mocks to simulate a database error during the update
-            arrangeDatabaseClientCounterUpdateMocks();
-            DataAccessResourceFailureException dbError = new DataAccessResourceFailureException("Database connection failure during update");
-            when(mockFetchSpecMap.rowsUpdated()).thenReturn(Mono.error(dbError));
-
-            // Act: Execute the increment method
-            Mono<Boolean> resultMono = quoteRepository.incrementLikeCount(TEST_QUOTE_ID);
-
-            // Assert: Verify the correct persistence exception wraps the original DB error
-            StepVerifier.create(resultMono)
-                    .expectErrorSatisfies(throwable -> {
-                        assertThat(throwable)
-                                .isInstanceOf(QuotePersistenceException.class)
-                                // Implementation now includes original exception message in the formatted string
-                                .hasMessageContaining("Failed to increment like count for quote " + TEST_QUOTE_ID + ": ")
-                                .hasMessageContaining(dbError.getMessage())
-                                .hasCause(dbError);
-                    })
-                    .verify();
-
-            // Verify interactions happened up to the point of error
-            verify(databaseClient).sql(anyString());
-            verify(mockGenericExecuteSpec).bind("quoteId", TEST_QUOTE_ID);
-            verify(mockGenericExecuteSpec).fetch();
-            verify(mockFetchSpecMap).rowsUpdated();
-        }
-    }
-
-
-    @Nested
-    @DisplayName("decrementLikeCount Tests")
-    class DecrementLikeTests {
-
-        private final Long TEST_QUOTE_ID = 1L;
-        private final Long NON_EXISTENT_QUOTE_ID = 999L;
-
-        // Helper for common DatabaseClient mock setup in Arrange phase
-        private void arrangeDatabaseClientCounterUpdateMocks() {
-            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
-            when(mockGenericExecuteSpec.bind(eq("quoteId"), anyLong())).thenReturn(mockGenericExecuteSpec);
-            when(mockGenericExecuteSpec.fetch()).thenReturn(mockFetchSpecMap);
-        }
-
-        @Test
-        @DisplayName("1. Should return true when update is successful (1 row affected)")
-        void decrementLikeCount_whenSuccessful_shouldReturnTrue() {
-            // Arrange: Setup mocks for a successful decrement
-            arrangeDatabaseClientCounterUpdateMocks();
-            when(mockFetchSpecMap.rowsUpdated()).thenReturn(Mono.just(1L));
-
-            // Act: Execute the decrement method
-            Mono<Boolean> resultMono = quoteRepository.decrementLikeCount(TEST_QUOTE_ID);
-
-            // Assert: Verify true is returned and interactions/SQL are correct
-            StepVerifier.create(resultMono)
-                    .expectNext(true)
-                    .verifyComplete();
-
-            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(databaseClient).sql(sqlCaptor.capture());
-            assertThat(sqlCaptor.getValue()).contains("UPDATE quotes SET likes = likes - 1 WHERE id = :quoteId AND likes > 0");
-            verify(mockGenericExecuteSpec).bind("quoteId", TEST_QUOTE_ID);
-            verify(mockGenericExecuteSpec).fetch();
-            verify(mockFetchSpecMap).rowsUpdated();
-        }
-
-        @Test
-        @DisplayName("2. Should return false when no rows are updated (quote not found or likes already 0)")
-        void decrementLikeCount_whenNoRowsUpdated_shouldReturnFalse() {
-            // Arrange: Setup mocks for decrement affecting 0 rows
-            arrangeDatabaseClientCounterUpdateMocks();
-            when(mockFetchSpecMap.rowsUpdated()).thenReturn(Mono.just(0L));
-
-            // Act: Execute the decrement method for a non-existent/zero-like ID
-            Mono<Boolean> resultMono = quoteRepository.decrementLikeCount(NON_EXISTENT_QUOTE_ID);
-
-            // Assert: Verify false is returned and interactions/SQL are correct
-            StepVerifier.create(resultMono)
-                    .expectNext(false)
-                    .verifyComplete();
-
-            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(databaseClient).sql(sqlCaptor.capture());
-            assertThat(sqlCaptor.getValue()).contains("UPDATE quotes SET likes = likes - 1 WHERE id = :quoteId AND likes > 0");
-            verify(mockGenericExecuteSpec).bind("quoteId", NON_EXISTENT_QUOTE_ID);
-            verify(mockGenericExecuteSpec).fetch();
-            verify(mockFetchSpecMap).rowsUpdated();
-        }
-
-        @Test
-        @DisplayName("3. Should return IllegalArgumentException when quote ID is null")
-        void decrementLikeCount_whenIdIsNull_shouldThrowIllegalArgumentException() {
-            // Arrange: Prepare null input ID
-            Long nullQuoteId = null;
-
-            // Act: Execute the decrement method with null ID
-            Mono<Boolean> resultMono = quoteRepository.decrementLikeCount(nullQuoteId);
-
-            // Assert: Verify the specific argument exception
-            StepVerifier.create(resultMono)
-                    .expectErrorSatisfies(throwable -> {
-                        assertThat(throwable)
-                                .isInstanceOf(IllegalArgumentException.class)
-                                .hasMessage("Quote ID cannot be null for decrementing likes.");
-                    })
-                    .verify();
-            verifyNoInteractions(databaseClient); // No DB interaction expected
-        }
-
-        @Test
-        @DisplayName("4. Should wrap database errors in QuotePersistenceException")
-        void decrementLikeCount_whenDatabaseErrorOccurs_shouldWrapInPersistenceException() {
-            // Arrange: Setup mocks to simulate DB error during decrement
-            arrangeDatabaseClientCounterUpdateMocks();
-            DataAccessResourceFailureException dbError = new DataAccessResourceFailureException("Database connection failure during update");
-            when(mockFetchSpecMap.rowsUpdated()).thenReturn(Mono.error(dbError));
-
-            // Act: Execute the decrement method
-            Mono<Boolean> resultMono = quoteRepository.decrementLikeCount(TEST_QUOTE_ID);
-
-            // Assert: Verify the correct persistence exception wraps the original error
-            StepVerifier.create(resultMono)
-                    .expectErrorSatisfies(throwable -> {
-                        assertThat(throwable)
-                                .isInstanceOf(QuotePersistenceException.class)
-                                .hasMessageContaining("Failed to decrement like count for quote " + TEST_QUOTE_ID + ": ")
-                                .hasMessageContaining(dbError.getMessage())
-                                .hasCause(dbError);
-                    })
-                    .verify();
-
-            // Verify interactions happened up to the point of error
-            verify(databaseClient).sql(anyString());
-            verify(mockGenericExecuteSpec).bind("quoteId", TEST_QUOTE_ID);
-            verify(mockGenericExecuteSpec).fetch();
-            verify(mockFetchSpecMap).rowsUpdated();
-        }
-    }
-
-
     @Nested
     @DisplayName("countByProvider Tests")
     class CountByProviderTests {
@@ -885,4 +738,178 @@ class QuoteRepositoryUnitTest {
                     .verify();
         }
     }
-}
\ No newline at end of file
+
+
+    @Nested
+    @DisplayName("findQuotesAfterId Tests")
+    class FindAfterIdTests {
+
+        @SuppressWarnings("unchecked")
+        private void arrangeDbClientAfterIdChain(Flux<QuoteEntity> resultingEntityFlux) {
+            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.bind(anyString(), any())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.map(any(BiFunction.class))).thenReturn(mockRowsFetchSpecEntity);
+            when(mockRowsFetchSpecEntity.all()).thenReturn(resultingEntityFlux);
+        }
+
+        @Test
+        @DisplayName("1. Should return the next page of quotes ordered by id")
+        void findQuotesAfterId_whenFound_shouldReturnMappedPage() {
+            // Arrange
+            arrangeDbClientAfterIdChain(Flux.just(entityQuote1));
+            when(quoteEntityMapper.toQuote(entityQuote1)).thenReturn(domainQuote1);
+
+            // Act
+            Mono<List<Quote>> resultMono = quoteRepository.findQuotesAfterId(0L, 100);
+
+            // Assert
+            StepVerifier.create(resultMono)
+                    .expectNext(List.of(domainQuote1))
+                    .verifyComplete();
+
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sqlCaptor.capture());
+            assertThat(sqlCaptor.getValue()).contains("WHERE id > :afterId ORDER BY id LIMIT :limit");
+            verify(mockGenericExecuteSpec).bind("afterId", 0L);
+            verify(mockGenericExecuteSpec).bind("limit", 100);
+        }
+
+        @Test
+        @DisplayName("2. Should return IllegalArgumentException when limit is zero")
+        void findQuotesAfterId_whenLimitIsZero_shouldThrowIllegalArgumentException() {
+            StepVerifier.create(quoteRepository.findQuotesAfterId(0L, 0))
+                    .expectErrorSatisfies(ex -> assertThat(ex)
+                            .isInstanceOf(IllegalArgumentException.class).hasMessage("Limit cannot be 0"))
+                    .verify();
+            verifyNoInteractions(databaseClient);
+        }
+
+        @Test
+        @DisplayName("3. Should wrap DB error in QuotePersistenceException")
+        void findQuotesAfterId_whenDbError_shouldWrapException() {
+            // Arrange
+            DataAccessResourceFailureException dbError = new DataAccessResourceFailureException("DB page fetch failed");
+            arrangeDbClientAfterIdChain(Flux.error(dbError));
+
+            // Act & Assert
+            StepVerifier.create(quoteRepository.findQuotesAfterId(42L, 100))
+                    .expectErrorSatisfies(ex -> assertThat(ex)
+                            .isInstanceOf(QuotePersistenceException.class)
+                            .hasMessage("Database error fetching quotes after id 42")
+                            .hasCause(dbError))
+                    .verify();
+        }
+    }
+
+    @Nested
+    @DisplayName("applyLikeDeltas Tests")
+    class ApplyLikeDeltasTests {
+
+        private void arrangeDatabaseClientDeltaUpdateMocks() {
+            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.bind(anyString(), any())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.fetch()).thenReturn(mockFetchSpecMap);
+        }
+
+        @Test
+        @DisplayName("1. Should return 0 without querying when there are no deltas")
+        void applyLikeDeltas_whenEmpty_shouldNotQuery() {
+            StepVerifier.create(quoteRepository.applyLikeDeltas(Map.of()))
+                    .expectNext(0L)
+                    .verifyComplete();
+            verifyNoInteractions(databaseClient);
+        }
+
+        @Test
+        @DisplayName("2. Should update all quotes in one statement with ids bound in order")
+        void applyLikeDeltas_shouldBindSortedArrays() {
+            // Arrange
+            arrangeDatabaseClientDeltaUpdateMocks();
+            when(mockFetchSpecMap.rowsUpdated()).thenReturn(Mono.just(2L));
+
+            // Act
+            Mono<Long> resultMono = quoteRepository.applyLikeDeltas(Map.of(7L, -1, 3L, 5));
+
+            // Assert
+            StepVerifier.create(resultMono)
+                    .expectNext(2L)
+                    .verifyComplete();
+
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sqlCaptor.capture());
+            assertThat(sqlCaptor.getValue())
+                    .contains("SET likes = GREATEST(quotes.likes + d.delta, 0)")
+                    .contains("unnest(CAST(:quoteIds AS bigint[]), CAST(:deltas AS int[]))");
+            verify(mockGenericExecuteSpec).bind("quoteIds", new Long[]{3L, 7L});
+            verify(mockGenericExecuteSpec).bind("deltas", new Integer[]{5, -1});
+        }
+
+        @Test
+        @DisplayName("3. Should wrap database errors in QuotePersistenceException")
+        void applyLikeDeltas_whenDatabaseErrorOccurs_shouldWrapInPersistenceException() {
+            // Arrange
+            arrangeDatabaseClientDeltaUpdateMocks();
+            DataAccessResourceFailureException dbError = new DataAccessResourceFailureException("Database connection failure during update");
+            when(mockFetchSpecMap.rowsUpdated()).thenReturn(Mono.error(dbError));
+
+            // Act & Assert
+            StepVerifier.create(quoteRepository.applyLikeDeltas(Map.of(1L, 1)))
+                    .expectErrorSatisfies(throwable -> assertThat(throwable)
+                            .isInstanceOf(QuotePersistenceException.class)
+                            .hasMessageContaining("Failed to apply like deltas of 1 quotes")
+                            .hasCause(dbError))
+                    .verify();
+        }
+    }
+
+    @Nested
+    @DisplayName("Like counter shards Tests")
+    class LikeCounterShardsTests {
+
+        private QuoteRepository shardedQuoteRepository;
+
+        @BeforeEach
+        void setUp() {
+            shardedQuoteRepository = new QuoteRepository(quoteR2dbcRepository, quoteEntityMapper, databaseClient, new LikeCounterShards(true, 4));
+            when(databaseClient.sql(anyString())).thenReturn(mockGenericExecuteSpec);
+        }
+
+        @Test
+        @DisplayName("1. Fold: should move all shards into quotes.likes in one statement")
+        void foldLikeCounterShards_shouldDeleteAndApplyShards() {
+            // Arrange
+            when(mockGenericExecuteSpec.fetch()).thenReturn(mockFetchSpecMap);
+            when(mockFetchSpecMap.rowsUpdated()).thenReturn(Mono.just(3L));
+
+            // Act & Assert
+            StepVerifier.create(shardedQuoteRepository.foldLikeCounterShards())
+                    .expectNext(3L)
+                    .verifyComplete();
+
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sqlCaptor.capture());
+            assertThat(sqlCaptor.getValue())
+                    .contains("DELETE FROM quote_like_counter_shards RETURNING quote_id, likes")
+                    .contains("SET likes = GREATEST(quotes.likes + sums.delta, 0)");
+        }
+
+        @Test
+        @DisplayName("2. Reads: should add the unfolded shards to the likes")
+        void findQuotesAfterId_whenSharded_shouldSumShards() {
+            // Arrange
+            when(mockGenericExecuteSpec.bind(anyString(), any())).thenReturn(mockGenericExecuteSpec);
+            when(mockGenericExecuteSpec.map(any(BiFunction.class))).thenReturn(mockRowsFetchSpecEntity);
+            when(mockRowsFetchSpecEntity.all()).thenReturn(Flux.empty());
+
+            // Act & Assert
+            StepVerifier.create(shardedQuoteRepository.findQuotesAfterId(0L, 10))
+                    .expectNext(List.of())
+                    .verifyComplete();
+
+            ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sqlCaptor.capture());
+            assertThat(sqlCaptor.getValue())
+                    .contains("SELECT SUM(s.likes) FROM quote_like_counter_shards s WHERE s.quote_id = quotes.id");
+        }
+    }
+}
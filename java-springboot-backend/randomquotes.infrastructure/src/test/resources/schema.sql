@@ -13,12 +13,10 @@ CREATE TABLE quotes (
 
 -- Create quote_like table using H2 syntax
 CREATE TABLE quote_like (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    user_id VARCHAR(64) NOT NULL,
+    id BIGINT AUTO_INCREMENT,
+    user_uuid UUID NOT NULL,
     quote_id BIGINT NOT NULL,
     liked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, -- H2 uses TIMESTAMP
     CONSTRAINT fk_quote FOREIGN KEY(quote_id) REFERENCES quotes(id) ON DELETE CASCADE,
-    CONSTRAINT uk_user_quote UNIQUE (user_id, quote_id)
-);
-
-CREATE INDEX idx_quote_like_user_id ON quote_like(user_id);
\ No newline at end of file
+    CONSTRAINT quote_like_pkey PRIMARY KEY (user_uuid, quote_id) -- hash partitioned on user_uuid in Postgres
+);
\ No newline at end of file
@@ -119,6 +119,18 @@ export function useHomePageLogic() {
       // Clear error when valid quote is received
       setSSEError(null);
 
+      // An unlike only updates the count of a quote already listed
+      if (!likedQuote.isLiked) {
+        setStreamLikedQuotes((prevStream) =>
+          prevStream.map((entry) =>
+            entry.quote.id === likedQuote.id
+              ? { ...entry, quote: { ...entry.quote, likes: likedQuote.likes } }
+              : entry
+          )
+        );
+        return;
+      }
+
       const newStreamEntry: QuoteStreamData = {
         reactKey: generateUniqueReactKey(),
         quote: likedQuote,